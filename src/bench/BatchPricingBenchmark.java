@@ -0,0 +1,114 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package bench;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import model.BatchPricer;
+import model.Cart;
+import model.Item;
+import model.ItemOrder;
+
+/**
+ * Re-prices a batch of saved carts three ways: a sequential loop that loads
+ * each cart and calls calculateTotal, BatchPricer on a one thread pool, and
+ * BatchPricer on the common pool.
+ * 
+ * Run with: java -cp bin bench.BatchPricingBenchmark [carts]
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class BatchPricingBenchmark {
+
+    /** Default number of carts in the batch. */
+    private static final int DEFAULT_CARTS = 50_000;
+
+    /** Largest cart generated. */
+    private static final int MAX_LINES = 200;
+
+    /** Number of timed repetitions; the best is reported. */
+    private static final int RUNS = 5;
+
+    /** Nanoseconds per millisecond. */
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    /**
+     * A private constructor, to prevent external instantiation.
+     */
+    private BatchPricingBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     * 
+     * @param theArgs optionally, the number of carts in the batch
+     */
+    public static void main(final String... theArgs) {
+        int cartCount = DEFAULT_CARTS;
+        if (theArgs.length > 0) {
+            cartCount = Integer.parseInt(theArgs[0]);
+        }
+        final List<ItemOrder[]> carts = generate(cartCount);
+        final ForkJoinPool single = new ForkJoinPool(1);
+        double sequential = Double.MAX_VALUE;
+        double oneThread = Double.MAX_VALUE;
+        double parallel = Double.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            for (final ItemOrder[] orders : carts) {
+                final Cart cart = new Cart();
+                cart.setMembership(true);
+                for (final ItemOrder order : orders) {
+                    cart.add(order);
+                }
+                cart.calculateTotal();
+            }
+            sequential = Math.min(sequential, (System.nanoTime() - start) / NANOS_PER_MILLI);
+            start = System.nanoTime();
+            BatchPricer.priceOrders(carts, true, single);
+            oneThread = Math.min(oneThread, (System.nanoTime() - start) / NANOS_PER_MILLI);
+            start = System.nanoTime();
+            BatchPricer.priceOrders(carts, true);
+            parallel = Math.min(parallel, (System.nanoTime() - start) / NANOS_PER_MILLI);
+        }
+        single.shutdown();
+        System.out.printf("%d carts, %d cores%n", cartCount,
+                          Runtime.getRuntime().availableProcessors());
+        System.out.printf("sequential calculateTotal loop %9.1f ms%n", sequential);
+        System.out.printf("BatchPricer, 1 thread          %9.1f ms%n", oneThread);
+        System.out.printf("BatchPricer, common pool       %9.1f ms (%.1fx over 1 thread)%n",
+                          parallel, oneThread / parallel);
+    }
+
+    /**
+     * Generates carts of random size over a shared catalog.
+     * 
+     * @param theCount the number of carts
+     * @return the carts
+     */
+    private static List<ItemOrder[]> generate(final int theCount) {
+        final Random random = new Random(theCount);
+        final Item[] items = new Item[MAX_LINES * 10];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = new Item("item" + i, BigDecimal.valueOf(random.nextInt(10_000), 2),
+                                2 + random.nextInt(10),
+                                BigDecimal.valueOf(random.nextInt(50_000), 2));
+        }
+        final List<ItemOrder[]> carts = new ArrayList<>(theCount);
+        for (int c = 0; c < theCount; c++) {
+            final ItemOrder[] orders = new ItemOrder[random.nextInt(MAX_LINES)];
+            final int first = random.nextInt(items.length - MAX_LINES);
+            for (int i = 0; i < orders.length; i++) {
+                orders[i] = new ItemOrder(items[first + i], random.nextInt(50));
+            }
+            carts.add(orders);
+        }
+        return carts;
+    }
+}
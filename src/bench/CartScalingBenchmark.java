@@ -0,0 +1,107 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package bench;
+
+import java.math.BigDecimal;
+import model.Cart;
+import model.Item;
+import model.ItemOrder;
+
+/**
+ * Compares the cost of editing lines in a small cart and in a large one.
+ * Editing a line should cost about the same whatever the size of the cart;
+ * the report gives nanoseconds per edit for each size and their ratio.
+ * 
+ * Run with: java -cp bin bench.CartScalingBenchmark
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class CartScalingBenchmark {
+
+    /** Number of lines in the small cart. */
+    private static final int SMALL_CART_LINES = 1_000;
+
+    /** Number of lines in the large cart. */
+    private static final int LARGE_CART_LINES = 100_000;
+
+    /** Number of quantity edits timed per round. */
+    private static final int EDITS = 20_000;
+
+    /** Number of distinct lines at the end of the cart that are edited. */
+    private static final int EDITED_LINES = 100;
+
+    /** Number of timed rounds; the best is reported. */
+    private static final int ROUNDS = 10;
+
+    /** Sink that keeps the JIT from discarding results. */
+    private static long ourSink;
+
+    /**
+     * A private constructor, to prevent external instantiation.
+     */
+    private CartScalingBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     * 
+     * @param theArgs Command line arguments, ignored by this program.
+     */
+    public static void main(final String... theArgs) {
+        final Cart smallCart = new Cart();
+        final Item[] smallItems = fill(smallCart, SMALL_CART_LINES);
+        final Cart largeCart = new Cart();
+        final Item[] largeItems = fill(largeCart, LARGE_CART_LINES);
+        long smallBest = Long.MAX_VALUE;
+        long largeBest = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            smallBest = Math.min(smallBest, timeEdits(smallCart, smallItems));
+            largeBest = Math.min(largeBest, timeEdits(largeCart, largeItems));
+        }
+        ourSink += smallCart.calculateTotal().hashCode();
+        ourSink += largeCart.calculateTotal().hashCode();
+        System.out.printf("%,9d lines: %6.1f ns/edit%n", SMALL_CART_LINES,
+                          (double) smallBest / EDITS);
+        System.out.printf("%,9d lines: %6.1f ns/edit%n", LARGE_CART_LINES,
+                          (double) largeBest / EDITS);
+        System.out.printf("large/small: %.2fx%n", (double) largeBest / smallBest);
+        System.out.println("(sink " + ourSink + ")");
+    }
+
+    /**
+     * Adds one order for each of theLines new items.
+     * 
+     * @param theCart the cart to fill
+     * @param theLines the number of lines to add
+     * @return the items added, in cart order
+     */
+    private static Item[] fill(final Cart theCart, final int theLines) {
+        final Item[] items = new Item[theLines];
+        for (int i = 0; i < theLines; i++) {
+            items[i] = new Item("item" + i, new BigDecimal("1.25"), 3, new BigDecimal("3.00"));
+            theCart.add(new ItemOrder(items[i], 1));
+        }
+        return items;
+    }
+
+    /**
+     * Times EDITS quantity edits spread over the last lines of the cart.
+     * 
+     * @param theCart the cart to edit
+     * @param theItems the items in the cart, in cart order
+     * @return elapsed nanoseconds
+     */
+    private static long timeEdits(final Cart theCart, final Item[] theItems) {
+        final long start = System.nanoTime();
+        for (int i = 0; i < EDITS; i++) {
+            theCart.add(new ItemOrder(theItems[theItems.length - 1 - i % EDITED_LINES],
+                                      i % 7));
+        }
+        final long elapsed = System.nanoTime() - start;
+        ourSink += theCart.getCartSize();
+        return elapsed;
+    }
+}
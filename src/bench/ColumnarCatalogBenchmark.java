@@ -0,0 +1,161 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package bench;
+
+import java.math.BigDecimal;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import model.Cart;
+import model.ColumnarCatalog;
+import model.Item;
+import model.ItemOrder;
+import model.ItemRegistry;
+
+/**
+ * Compares a ColumnarCatalog with the LinkedList of Items the loader
+ * builds, for a catalog of 500,000 products: heap used, and the time to
+ * total a large cart with Cart.calculateTotal against the columns.
+ * 
+ * Run with: java -cp bin bench.ColumnarCatalogBenchmark
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class ColumnarCatalogBenchmark {
+
+    /** Products in the catalog. */
+    private static final int PRODUCTS = 500_000;
+
+    /** Lines in the cart that is totalled. */
+    private static final int LINES = 100_000;
+
+    /** Totals per measurement. */
+    private static final int REPEATS = 20;
+
+    /** Largest price, in cents. */
+    private static final int MAX_CENTS = 100_000;
+
+    /** Largest quantity ordered. */
+    private static final int MAX_QUANTITY = 30;
+
+    /** Bytes per mebibyte. */
+    private static final double MIB = 1024.0 * 1024.0;
+
+    /** Nanoseconds per millisecond. */
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    /** Garbage collections requested before reading the heap. */
+    private static final int GC_PASSES = 4;
+
+    /** Sink that keeps the JIT from discarding results. */
+    private static long ourSink;
+
+    /**
+     * A private constructor, to prevent external instantiation.
+     */
+    private ColumnarCatalogBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     * 
+     * @param theArgs Command line arguments, ignored by this program.
+     */
+    public static void main(final String... theArgs) {
+        final Random random = new Random(PRODUCTS);
+        final String[] names = new String[PRODUCTS];
+        final long[] cents = new long[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++) {
+            names[i] = "Product number " + i;
+            cents[i] = 1 + random.nextInt(MAX_CENTS);
+        }
+
+        long baseline = usedHeap();
+        final List<Item> list = new LinkedList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            list.add(makeItem(new String(names[i]), cents[i], i));
+        }
+        final long listBytes = usedHeap() - baseline;
+
+        baseline = usedHeap();
+        final ColumnarCatalog columns = new ColumnarCatalog(PRODUCTS, new ItemRegistry());
+        for (int i = 0; i < PRODUCTS; i++) {
+            final BigDecimal price = BigDecimal.valueOf(cents[i], 2);
+            if (i % 2 == 0) {
+                columns.add(names[i], price, 1 + i % 5, price.add(price));
+            } else {
+                columns.add(names[i], price);
+            }
+        }
+        columns.trimToSize();
+        final long columnBytes = usedHeap() - baseline;
+        System.out.printf("LinkedList<Item>: %8.1f MiB (%.0f bytes/product)%n",
+                          listBytes / MIB, listBytes / (double) PRODUCTS);
+        System.out.printf("ColumnarCatalog:  %8.1f MiB (%.0f bytes/product)%n",
+                          columnBytes / MIB, columnBytes / (double) PRODUCTS);
+
+        final int[] indexes = new int[LINES];
+        final int[] quantities = new int[LINES];
+        final Cart cart = new Cart();
+        cart.setMembership(true);
+        for (int i = 0; i < LINES; i++) {
+            indexes[i] = i * (PRODUCTS / LINES);
+            quantities[i] = 1 + random.nextInt(MAX_QUANTITY);
+            cart.add(new ItemOrder(columns.getItem(indexes[i]), quantities[i]));
+        }
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            for (int r = 0; r < REPEATS; r++) {
+                cart.setSelfCheck(true);
+                ourSink += cart.calculateTotal().unscaledValue().longValue();
+            }
+            final long cartNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int r = 0; r < REPEATS; r++) {
+                ourSink += columns.calculateTotal(indexes, quantities, true).unscaledValue()
+                                .longValue();
+            }
+            final long columnNanos = System.nanoTime() - start;
+            System.out.printf("full re-price of %,d lines: Cart %6.2f ms  columns %6.2f ms%n",
+                              LINES, cartNanos / NANOS_PER_MILLI / REPEATS,
+                              columnNanos / NANOS_PER_MILLI / REPEATS);
+        }
+        System.out.println("(sink " + ourSink + ", " + list.size() + ")");
+    }
+
+    /**
+     * Makes an item the way the loader does, with prices parsed from text.
+     * 
+     * @param theName the name
+     * @param theCents the price in cents
+     * @param theIndex the product number; even products have a bulk option
+     * @return the item
+     */
+    private static Item makeItem(final String theName, final long theCents,
+                                 final int theIndex) {
+        final BigDecimal price = new BigDecimal(BigDecimal.valueOf(theCents, 2).toString());
+        final Item item;
+        if (theIndex % 2 == 0) {
+            item = new Item(theName, price, 1 + theIndex % 5, price.add(price));
+        } else {
+            item = new Item(theName, price);
+        }
+        return item;
+    }
+
+    /**
+     * Returns the heap in use after collecting garbage.
+     * 
+     * @return used heap bytes
+     */
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < GC_PASSES; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
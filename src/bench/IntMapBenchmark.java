@@ -0,0 +1,166 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package bench;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import model.IntIntMap;
+import model.IntObjectMap;
+import model.Item;
+import model.ItemRegistry;
+
+/**
+ * Compares lookups in SKU-keyed IntObjectMap and IntIntMap with HashMap and
+ * IdentityHashMap keyed by Item, for a cart-sized map of 20 lines and a
+ * catalog-sized map of 200,000 products. Also reports the heap each
+ * catalog-sized map takes.
+ * 
+ * Run with: java -cp bin bench.IntMapBenchmark
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class IntMapBenchmark {
+
+    /** Map sizes measured. */
+    private static final int[] SIZES = {20, 200_000};
+
+    /** Lookups per measurement. */
+    private static final int LOOKUPS = 20_000_000;
+
+    /** Rounds; the first warms up the JIT and is not printed. */
+    private static final int ROUNDS = 3;
+
+    /** Bytes per mebibyte. */
+    private static final double MIB = 1024.0 * 1024.0;
+
+    /** Garbage collections requested before reading the heap. */
+    private static final int GC_PASSES = 4;
+
+    /** Sink that keeps the JIT from discarding results. */
+    private static long ourSink;
+
+    /**
+     * A private constructor, to prevent external instantiation.
+     */
+    private IntMapBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     * 
+     * @param theArgs Command line arguments, ignored by this program.
+     */
+    public static void main(final String... theArgs) {
+        reportHeap(SIZES[SIZES.length - 1]);
+        for (final int size : SIZES) {
+            final ItemRegistry registry = new ItemRegistry();
+            final Item[] items = new Item[size];
+            for (int i = 0; i < size; i++) {
+                items[i] = registry.intern("item" + i, BigDecimal.valueOf(i + 1, 2));
+            }
+            final Map<Item, Integer> hash = new HashMap<>();
+            final Map<Item, Integer> identity = new IdentityHashMap<>();
+            final IntObjectMap<Integer> intObject = new IntObjectMap<>(0);
+            final IntIntMap intInt = new IntIntMap(0, -1);
+            for (int i = 0; i < size; i++) {
+                hash.put(items[i], i);
+                identity.put(items[i], i);
+                intObject.put(items[i].getSku(), i);
+                intInt.put(items[i].getSku(), i);
+            }
+            for (int round = 0; round < ROUNDS; round++) {
+                final long hashNanos = timeMap(hash, items);
+                final long identityNanos = timeMap(identity, items);
+                long start = System.nanoTime();
+                for (int i = 0; i < LOOKUPS; i++) {
+                    ourSink += intObject.get(items[i % size].getSku());
+                }
+                final long intObjectNanos = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int i = 0; i < LOOKUPS; i++) {
+                    ourSink += intInt.get(items[i % size].getSku());
+                }
+                final long intIntNanos = System.nanoTime() - start;
+                if (round == ROUNDS - 1) {
+                    System.out.printf("%,8d entries: HashMap<Item> %5.1f ns  "
+                                      + "IdentityHashMap %5.1f ns  IntObjectMap %5.1f ns  "
+                                      + "IntIntMap %5.1f ns%n", size,
+                                      hashNanos / (double) LOOKUPS,
+                                      identityNanos / (double) LOOKUPS,
+                                      intObjectNanos / (double) LOOKUPS,
+                                      intIntNanos / (double) LOOKUPS);
+                }
+            }
+        }
+        System.out.println("(sink " + ourSink + ")");
+    }
+
+    /**
+     * Times lookups in an object-keyed map.
+     * 
+     * @param theMap the map
+     * @param theItems the keys
+     * @return elapsed nanoseconds
+     */
+    private static long timeMap(final Map<Item, Integer> theMap, final Item[] theItems) {
+        final long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            ourSink += theMap.get(theItems[i % theItems.length]);
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Prints the heap taken by a HashMap from Item to Integer and by an
+     * IntIntMap holding the same ids.
+     * 
+     * @param theSize the number of entries
+     */
+    private static void reportHeap(final int theSize) {
+        final ItemRegistry registry = new ItemRegistry();
+        final Item[] items = new Item[theSize];
+        for (int i = 0; i < theSize; i++) {
+            items[i] = registry.intern("item" + i, BigDecimal.valueOf(i + 1, 2));
+        }
+        long baseline = usedHeap();
+        final Map<Item, Integer> hash = new HashMap<>();
+        for (int i = 0; i < theSize; i++) {
+            hash.put(items[i], i);
+        }
+        final long hashBytes = usedHeap() - baseline;
+        baseline = usedHeap();
+        final IntIntMap intInt = new IntIntMap(0, -1);
+        for (int i = 0; i < theSize; i++) {
+            intInt.put(items[i].getSku(), i);
+        }
+        final long intBytes = usedHeap() - baseline;
+        System.out.printf("%,d ids: HashMap<Item, Integer> %.1f MiB  IntIntMap %.1f MiB%n",
+                          theSize, hashBytes / MIB, intBytes / MIB);
+        ourSink += hash.size() + intInt.size() + registry.size();
+    }
+
+    /**
+     * Returns the heap in use after collecting garbage until it stops
+     * shrinking.
+     * 
+     * @return used heap bytes
+     */
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        long previous;
+        int passes = 0;
+        do {
+            previous = used;
+            System.gc();
+            used = runtime.totalMemory() - runtime.freeMemory();
+            passes++;
+        } while (used < previous || passes < GC_PASSES);
+        return used;
+    }
+}
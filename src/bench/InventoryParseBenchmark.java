@@ -0,0 +1,191 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package bench;
+
+import io.InventoryLoader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+import model.Item;
+import model.ItemRegistry;
+
+/**
+ * Reports the throughput, in MB/s, of loading a synthetic 1,000,000-line
+ * inventory with InventoryLoader.readItemsFromFile, which scans the file's
+ * bytes, against the Scanner and String.split loop it replaced. The best
+ * of several runs is reported for two cases: a cold load through a fresh
+ * ItemRegistry, where making the items is much of the cost, and a reload
+ * through a registry that already holds every item, which isolates the
+ * parsing.
+ *
+ * Run with: java -cp bin bench.InventoryParseBenchmark
+ *
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class InventoryParseBenchmark {
+
+    /** Lines in the inventory. */
+    private static final int LINES = 1_000_000;
+
+    /** Distinct products; lines past this repeat products at other prices. */
+    private static final int PRODUCTS = 200_000;
+
+    /** Largest price, in cents. */
+    private static final int MAX_CENTS = 100_000;
+
+    /** Timed runs of each loader. */
+    private static final int RUNS = 5;
+
+    /** Bytes per megabyte. */
+    private static final double MB = 1_000_000.0;
+
+    /** Nanoseconds per second. */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /** Keeps results alive so the loads are not optimized away. */
+    private static long ourSink;
+
+    /**
+     * A private constructor, to prevent external instantiation.
+     */
+    private InventoryParseBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param theArgs Command line arguments, ignored by this program.
+     * @throws IOException if the temporary inventory cannot be written
+     */
+    public static void main(final String... theArgs) throws IOException {
+        final Path file = Files.createTempFile("inventory", ".txt");
+        try {
+            writeInventory(file);
+            final double megabytes = Files.size(file) / MB;
+            System.out.printf("inventory: %,d lines, %.1f MB%n", LINES, megabytes);
+
+            System.out.println("cold load, fresh registry:");
+            compare(file, null, megabytes);
+            final ItemRegistry warm = new ItemRegistry();
+            InventoryLoader.readItemsFromFile(file.toString(), warm);
+            System.out.println("reload, registry holds every item:");
+            compare(file, warm, megabytes);
+            System.out.println("(sink " + ourSink + ")");
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Times both loaders and prints their throughput.
+     *
+     * @param theFile the inventory
+     * @param theRegistry the registry to load through, or null for a fresh
+     * one on each run
+     * @param theMegabytes the file size in MB
+     * @throws IOException if the file cannot be read
+     */
+    private static void compare(final Path theFile, final ItemRegistry theRegistry,
+                                final double theMegabytes) throws IOException {
+        long scanner = Long.MAX_VALUE;
+        long bytes = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            ourSink += readWithScanner(theFile, registry(theRegistry)).size();
+            scanner = Math.min(scanner, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            ourSink += InventoryLoader.readItemsFromFile(theFile.toString(),
+                                                         registry(theRegistry)).size();
+            bytes = Math.min(bytes, System.nanoTime() - start);
+        }
+        report("  Scanner + split:", scanner, theMegabytes);
+        report("  byte scanning:", bytes, theMegabytes);
+        System.out.printf("  speedup:           %.1fx%n", scanner / (double) bytes);
+    }
+
+    /**
+     * Returns the registry for one run.
+     *
+     * @param theRegistry the shared registry, or null
+     * @return theRegistry, or a fresh registry if it is null
+     */
+    private static ItemRegistry registry(final ItemRegistry theRegistry) {
+        ItemRegistry result = theRegistry;
+        if (result == null) {
+            result = new ItemRegistry();
+        }
+        return result;
+    }
+
+    /**
+     * Prints one loader's best time and throughput.
+     *
+     * @param theLabel the loader's label
+     * @param theNanos the best time
+     * @param theMegabytes the file size in MB
+     */
+    private static void report(final String theLabel, final long theNanos,
+                               final double theMegabytes) {
+        final double seconds = theNanos / NANOS_PER_SECOND;
+        System.out.printf("%-19s %7.0f ms %8.1f MB/s%n", theLabel, seconds * 1_000,
+                          theMegabytes / seconds);
+    }
+
+    /**
+     * Writes the inventory, with about one line in three a bulk item.
+     *
+     * @param theFile the file to write
+     * @throws IOException if the file cannot be written
+     */
+    private static void writeInventory(final Path theFile) throws IOException {
+        final Random random = new Random(LINES);
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < LINES; i++) {
+            final int product = random.nextInt(PRODUCTS);
+            final int cents = 1 + random.nextInt(MAX_CENTS);
+            sb.append("Campus product ").append(product).append(';');
+            sb.append(BigDecimal.valueOf(cents, 2).toPlainString());
+            if (product % 3 == 0) {
+                sb.append(";6;").append(BigDecimal.valueOf(cents * 5L, 2).toPlainString());
+            }
+            sb.append('\n');
+        }
+        Files.writeString(theFile, sb);
+    }
+
+    /**
+     * Loads the inventory the way InventoryLoader did before.
+     *
+     * @param theFile the inventory
+     * @param theRegistry the registry to load through
+     * @return the items
+     * @throws IOException if the file cannot be read
+     */
+    private static List<Item> readWithScanner(final Path theFile,
+                                              final ItemRegistry theRegistry)
+        throws IOException {
+        final List<Item> items = new LinkedList<>();
+        try (Scanner input = new Scanner(theFile)) {
+            while (input.hasNextLine()) {
+                final String[] parts = input.nextLine().split(";");
+                final BigDecimal price = new BigDecimal(parts[1]);
+                if (parts.length > 2) {
+                    items.add(theRegistry.intern(parts[0], price, Integer.valueOf(parts[2]),
+                                                 new BigDecimal(parts[3])));
+                } else {
+                    items.add(theRegistry.intern(parts[0], price));
+                }
+            }
+        }
+        return items;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package bench;
+
+import io.InventoryLoader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Stream;
+import model.ItemRegistry;
+
+/**
+ * Reports the time to load a large synthetic campus inventory at startup
+ * with and without its binary snapshot: parsing the text file, the first
+ * start (parse, then write the snapshot), and later starts that map the
+ * snapshot instead. Each load goes through a fresh ItemRegistry, as a new
+ * process would, and the best of several runs is reported.
+ *
+ * Run with: java -cp bin bench.InventorySnapshotBenchmark
+ *
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class InventorySnapshotBenchmark {
+
+    /** Lines in the inventory. */
+    private static final int LINES = 500_000;
+
+    /** Largest price, in cents. */
+    private static final int MAX_CENTS = 100_000;
+
+    /** Timed runs of each kind of load. */
+    private static final int RUNS = 5;
+
+    /** Nanoseconds per millisecond. */
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    /** Keeps results alive so the loads are not optimized away. */
+    private static long ourSink;
+
+    /**
+     * A private constructor, to prevent external instantiation.
+     */
+    private InventorySnapshotBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param theArgs Command line arguments, ignored by this program.
+     * @throws IOException if the temporary inventory cannot be written
+     */
+    public static void main(final String... theArgs) throws IOException {
+        final Path directory = Files.createTempDirectory("snapshots");
+        final Path text = directory.resolve("campus.txt");
+        final Path snapshot = directory.resolve("campus.snapshot");
+        try {
+            writeInventory(text);
+            System.out.printf("inventory: %,d lines, %,d bytes%n", LINES, Files.size(text));
+
+            long parse = Long.MAX_VALUE;
+            long first = Long.MAX_VALUE;
+            long later = Long.MAX_VALUE;
+            for (int run = 0; run < RUNS; run++) {
+                long start = System.nanoTime();
+                ourSink += InventoryLoader.loadItemsFromFile(text.toString(),
+                                                             new ItemRegistry()).size();
+                parse = Math.min(parse, System.nanoTime() - start);
+
+                Files.deleteIfExists(snapshot);
+                start = System.nanoTime();
+                ourSink += InventoryLoader.loadCampusItems(text.toString(),
+                                                           new ItemRegistry()).size();
+                first = Math.min(first, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                ourSink += InventoryLoader.loadCampusItems(text.toString(),
+                                                           new ItemRegistry()).size();
+                later = Math.min(later, System.nanoTime() - start);
+            }
+            System.out.printf("snapshot: %,d bytes%n", Files.size(snapshot));
+            report("parse text file:", parse);
+            report("first start, writes snapshot:", first);
+            report("later start, maps snapshot:", later);
+            System.out.printf("%-30s %7.1fx%n", "speedup over parsing:",
+                              parse / (double) later);
+            System.out.println("(sink " + ourSink + ")");
+        } finally {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (final Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    /**
+     * Prints one kind of load's best time.
+     *
+     * @param theLabel the label
+     * @param theNanos the best time
+     */
+    private static void report(final String theLabel, final long theNanos) {
+        System.out.printf("%-30s %7.1f ms%n", theLabel, theNanos / NANOS_PER_MILLI);
+    }
+
+    /**
+     * Writes the inventory, with about one line in three a bulk item.
+     *
+     * @param theFile the file to write
+     * @throws IOException if the file cannot be written
+     */
+    private static void writeInventory(final Path theFile) throws IOException {
+        final Random random = new Random(LINES);
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < LINES; i++) {
+            final int cents = 1 + random.nextInt(MAX_CENTS);
+            sb.append("Campus product ").append(i).append(';');
+            sb.append(BigDecimal.valueOf(cents, 2).toPlainString());
+            if (i % 3 == 0) {
+                sb.append(";6;").append(BigDecimal.valueOf(cents * 5L, 2).toPlainString());
+            }
+            sb.append('\n');
+        }
+        Files.writeString(theFile, sb);
+    }
+}
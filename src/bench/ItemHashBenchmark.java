@@ -0,0 +1,170 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package bench;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import model.Item;
+
+/**
+ * Compares Item's cached hash code and label with the per-call versions
+ * they replaced: HashMap lookups keyed by Item, and repeated toString calls
+ * as made by the Swing labels and Cart.toString.
+ * 
+ * The per-call versions are reproduced here from Item's public getters, so
+ * both run against the same items.
+ * 
+ * Run with: java -cp bin bench.ItemHashBenchmark
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class ItemHashBenchmark {
+
+    /** Items in the catalog. */
+    private static final int ITEMS = 10_000;
+
+    /** Passes over the catalog per measurement. */
+    private static final int PASSES = 100;
+
+    /** Passes over the catalog per label measurement. */
+    private static final int LABEL_PASSES = 5;
+
+    /** Rounds; the first warms up the JIT and is not printed. */
+    private static final int ROUNDS = 3;
+
+    /** Sink that keeps the JIT from discarding results. */
+    private static long ourSink;
+
+    /**
+     * A private constructor, to prevent external instantiation.
+     */
+    private ItemHashBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     * 
+     * @param theArgs Command line arguments, ignored by this program.
+     */
+    public static void main(final String... theArgs) {
+        final Item[] items = new Item[ITEMS];
+        final Map<Item, Integer> catalog = new HashMap<>();
+        final Map<Key, Integer> legacyCatalog = new HashMap<>();
+        for (int i = 0; i < ITEMS; i++) {
+            final BigDecimal price = BigDecimal.valueOf(i + 1, 2);
+            if (i % 2 == 0) {
+                items[i] = new Item("item" + i, price, 2 + i % 7, price.add(BigDecimal.TEN));
+            } else {
+                items[i] = new Item("item" + i, price);
+            }
+            catalog.put(items[i], i);
+            legacyCatalog.put(new Key(items[i]), i);
+        }
+        final Key[] keys = new Key[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            keys[i] = new Key(items[i]);
+        }
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int pass = 0; pass < PASSES; pass++) {
+                for (final Item item : items) {
+                    ourSink += catalog.get(item);
+                }
+            }
+            final long cached = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int pass = 0; pass < PASSES; pass++) {
+                for (final Key key : keys) {
+                    ourSink += legacyCatalog.get(key);
+                }
+            }
+            final long legacy = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int pass = 0; pass < LABEL_PASSES; pass++) {
+                for (final Item item : items) {
+                    ourSink += item.toString().length();
+                }
+            }
+            final long label = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int pass = 0; pass < LABEL_PASSES; pass++) {
+                for (final Item item : items) {
+                    ourSink += legacyLabel(item).length();
+                }
+            }
+            final long legacyLabel = System.nanoTime() - start;
+
+            if (round > 0) {
+                final long lookups = (long) PASSES * ITEMS;
+                final long labels = (long) LABEL_PASSES * ITEMS;
+                System.out.printf("HashMap get: cached %6.1f ns  per-call %6.1f ns%n",
+                                  cached / (double) lookups, legacy / (double) lookups);
+                System.out.printf("toString:    cached %6.1f ns  per-call %6.1f ns%n",
+                                  label / (double) labels, legacyLabel / (double) labels);
+            }
+        }
+        System.out.println("(sink " + ourSink + ")");
+    }
+
+    /**
+     * Formats an item's label the way toString did before it was cached.
+     * 
+     * @param theItem the item
+     * @return the label
+     */
+    private static String legacyLabel(final Item theItem) {
+        final NumberFormat nf = NumberFormat.getCurrencyInstance(Locale.US);
+        final StringBuilder sb = new StringBuilder();
+        sb.append(theItem.getName());
+        sb.append(", ");
+        sb.append(nf.format(theItem.getPrice()));
+        if (theItem.isBulk()) {
+            sb.append(" (" + theItem.getBulkQuantity() + " for "
+                      + nf.format(theItem.getBulkPrice()) + ")");
+        }
+        return sb.toString();
+    }
+
+    /** An item key that hashes the item's fields on every call, as Item used to. */
+    private static final class Key {
+
+        /** The item. */
+        private final Item myItem;
+
+        /**
+         * Constructs a key.
+         * 
+         * @param theItem the item
+         */
+        Key(final Item theItem) {
+            myItem = theItem;
+        }
+
+        @Override
+        public boolean equals(final Object theOther) {
+            return theOther instanceof Key && myItem.equals(((Key) theOther).myItem);
+        }
+
+        @Override
+        public int hashCode() {
+            final int hash;
+            if (myItem.isBulk()) {
+                hash = Objects.hash(myItem.getName(), myItem.getPrice(),
+                                    myItem.getBulkQuantity(), myItem.getBulkPrice());
+            } else {
+                hash = Objects.hash(myItem.getName(), myItem.getPrice());
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package bench;
+
+import io.InventoryLoader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import model.Item;
+import model.ItemRegistry;
+
+/**
+ * Reports the heap saved by loading a synthetic 50-campus catalog through
+ * one shared ItemRegistry, compared with a separate registry per campus,
+ * which gives every campus its own Item objects as the loader did before.
+ * 
+ * Each campus lists most of a shared product pool at the common price; the
+ * rest are campus-specific prices, which stay separate items but share their
+ * name strings.
+ * 
+ * Run with: java -cp bin bench.ItemRegistryBenchmark
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class ItemRegistryBenchmark {
+
+    /** Number of campuses. */
+    private static final int CAMPUSES = 50;
+
+    /** Products in the shared pool. */
+    private static final int PRODUCTS = 20_000;
+
+    /** Products listed by each campus. */
+    private static final int PER_CAMPUS = 10_000;
+
+    /** Percent of listings with a campus-specific price. */
+    private static final int LOCAL_PRICE_PERCENT = 20;
+
+    /** Percent, as a divisor. */
+    private static final int PERCENT = 100;
+
+    /** Largest price, in cents. */
+    private static final int MAX_CENTS = 10_000;
+
+    /** Bytes per mebibyte. */
+    private static final double MIB = 1024.0 * 1024.0;
+
+    /** Garbage collections requested before reading the heap. */
+    private static final int GC_PASSES = 4;
+
+    /**
+     * A private constructor, to prevent external instantiation.
+     */
+    private ItemRegistryBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     * 
+     * @param theArgs Command line arguments, ignored by this program.
+     * @throws IOException if the temporary catalog cannot be written
+     */
+    public static void main(final String... theArgs) throws IOException {
+        final Path directory = Files.createTempDirectory("campuses");
+        final List<String> files = writeCatalog(directory);
+
+        final long baseline = usedHeap();
+        List<List<Item>> catalogs = new ArrayList<>();
+        for (final String file : files) {
+            catalogs.add(InventoryLoader.readItemsFromFile(file, new ItemRegistry()));
+        }
+        final long separate = usedHeap() - baseline;
+        final int separateItems = CAMPUSES * PER_CAMPUS;
+        catalogs = null;
+
+        final long baseline2 = usedHeap();
+        final ItemRegistry shared = new ItemRegistry();
+        catalogs = new ArrayList<>();
+        for (final String file : files) {
+            catalogs.add(InventoryLoader.readItemsFromFile(file, shared));
+        }
+        final long interned = usedHeap() - baseline2;
+
+        System.out.printf("separate items: %,10d objects %8.1f MiB%n", separateItems,
+                          separate / MIB);
+        System.out.printf("shared items:   %,10d objects %8.1f MiB (%d names)%n",
+                          shared.size(), interned / MIB, shared.nameCount());
+        System.out.printf("saved:          %8.1f MiB (%.0f%%)%n", (separate - interned) / MIB,
+                          PERCENT * (separate - interned) / (double) separate);
+        System.out.println("(catalogs " + catalogs.size() + ")");
+
+        for (final String file : files) {
+            Files.delete(Path.of(file));
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * Writes the campus files.
+     * 
+     * @param theDirectory the directory to write into
+     * @return the file names
+     * @throws IOException if a file cannot be written
+     */
+    private static List<String> writeCatalog(final Path theDirectory) throws IOException {
+        final Random random = new Random(CAMPUSES);
+        final int[] prices = new int[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++) {
+            prices[i] = 1 + random.nextInt(MAX_CENTS);
+        }
+        final List<String> files = new ArrayList<>();
+        for (int campus = 0; campus < CAMPUSES; campus++) {
+            final List<String> lines = new ArrayList<>(PER_CAMPUS);
+            final int first = random.nextInt(PRODUCTS);
+            for (int i = 0; i < PER_CAMPUS; i++) {
+                final int product = (first + i) % PRODUCTS;
+                int cents = prices[product];
+                if (random.nextInt(PERCENT) < LOCAL_PRICE_PERCENT) {
+                    cents = 1 + random.nextInt(MAX_CENTS);
+                }
+                final String price = BigDecimal.valueOf(cents, 2).toPlainString();
+                if (product % 3 == 0) {
+                    lines.add("Product " + product + ";" + price + ";6;" + price);
+                } else {
+                    lines.add("Product " + product + ";" + price);
+                }
+            }
+            final Path file = theDirectory.resolve("campus" + campus + ".txt");
+            Files.write(file, lines);
+            files.add(file.toString());
+        }
+        return files;
+    }
+
+    /**
+     * Returns the heap in use after collecting garbage.
+     * 
+     * @return used heap bytes
+     */
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < GC_PASSES; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
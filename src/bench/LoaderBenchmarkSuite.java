@@ -0,0 +1,430 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package bench;
+
+import io.InventoryGenerator;
+import io.InventoryLoader;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import model.Cart;
+import model.Item;
+import model.ItemOrder;
+import model.ItemRegistry;
+import res.R;
+
+/**
+ * Measures InventoryLoader.readItemsFromFile, readConfigurationFromFile,
+ * and Cart.calculateTotal over inventories written by InventoryGenerator,
+ * and prints one table in the same layout on every machine, so runs can be
+ * compared side by side.
+ *
+ * Each benchmark runs in a fresh JVM, started with the same class path and
+ * JVM options as the suite, so that the classes loaded and the code
+ * compiled for one benchmark cannot speed up or slow down the next. The
+ * inventories are written once, before the first fork. In its JVM a
+ * benchmark runs warm-up iterations, then measured iterations, of about a
+ * second each. An iteration repeats the operation until its time is up and
+ * records the mean time per operation; the score is the mean of the
+ * measured iterations, and the error is the half-width of its 99.9%
+ * confidence interval. The report starts with the JVM, machine, and
+ * settings, since scores are only comparable between runs that share them.
+ *
+ * Every result is hashed in full (the items read, the campuses read, or
+ * the cart total) and the hashes are summed into a sink printed on the
+ * benchmark's row, so no operation's work can be optimized away.
+ *
+ * The size column is the number of items, or for the configuration file
+ * the number of campuses.
+ *
+ * Usage: java -cp bin bench.LoaderBenchmarkSuite [--items 10000,100000]
+ * [--bulk 0.3] [--campuses 3] [--seed 305] [--csv results.csv]. The suite
+ * passes --benchmark, --file and --size to the JVMs it forks, to run one
+ * benchmark each.
+ *
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class LoaderBenchmarkSuite {
+
+    /** Inventory sizes measured unless --items is given. */
+    private static final String DEFAULT_ITEMS = "10000,100000";
+
+    /** Fraction of bulk items unless --bulk is given. */
+    private static final double DEFAULT_BULK = 0.3;
+
+    /** Campuses in the configuration file unless --campuses is given. */
+    private static final int DEFAULT_CAMPUSES = 3;
+
+    /** Generator seed unless --seed is given. */
+    private static final long DEFAULT_SEED = 305;
+
+    /** Warm-up iterations per benchmark. */
+    private static final int WARMUP_ITERATIONS = 3;
+
+    /** Measured iterations per benchmark. */
+    private static final int ITERATIONS = 5;
+
+    /** Least length of an iteration, in nanoseconds. */
+    private static final long ITERATION_NANOS = 1_000_000_000L;
+
+    /**
+     * Student's t for a two-sided 99.9% interval with ITERATIONS - 1
+     * degrees of freedom.
+     */
+    private static final double T_999 = 8.610;
+
+    /** Most distinct quantities put on cart lines. */
+    private static final int QUANTITIES = 12;
+
+    /** Nanoseconds per microsecond. */
+    private static final double NANOS_PER_MICRO = 1e3;
+
+    /** Nanoseconds per millisecond. */
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    /** Bytes per megabyte. */
+    private static final long BYTES_PER_MB = 1 << 20;
+
+    /** Layout of a table row. */
+    private static final String ROW = "%-38s %9s %4d %14.3f %12.3f  %-5s  %016x%n";
+
+    /** Layout of the table header. */
+    private static final String HEADER = "%-38s %9s %4s %14s %12s  %-5s  %s%n";
+
+    /** Start of the lines a forked benchmark prints its CSV row on. */
+    private static final String CSV_PREFIX = "#csv ";
+
+    /** Benchmark of readConfigurationFromFile. */
+    private static final String CONFIG = "readConfigurationFromFile";
+
+    /** Benchmark of readItemsFromFile into a new registry each time. */
+    private static final String READ_NEW = "readItemsFromFile, new registry";
+
+    /** Benchmark of readItemsFromFile into a registry that has the items. */
+    private static final String READ_WARM = "readItemsFromFile, warm registry";
+
+    /** Benchmark of filling a cart and totalling it. */
+    private static final String FILL = "Cart fill and calculateTotal";
+
+    /** Benchmark of reading a cart's running total. */
+    private static final String TOTAL = "Cart.calculateTotal";
+
+    /** Benchmark of totalling a cart with the self check on. */
+    private static final String SELF_CHECK = "Cart.calculateTotal, self check";
+
+    /** The benchmarks run over each inventory, in order. */
+    private static final String[] INVENTORY_BENCHMARKS = {
+        READ_NEW, READ_WARM, FILL, TOTAL, SELF_CHECK,
+    };
+
+    /** The unit scores are reported in. */
+    private static final String UNITS = "us/op";
+
+    /** Sum of the hashes of every result, printed on each row. */
+    private static long ourSink;
+
+    /** The fraction of bulk items in the inventories. */
+    private final double myBulk;
+
+    /** The generator seed. */
+    private final long mySeed;
+
+    /** The options passed on to every forked benchmark. */
+    private final List<String> mySettings;
+
+    /** The rows reported so far, as CSV. */
+    private final List<String> myCsv;
+
+    /**
+     * Constructs a suite with no results yet.
+     *
+     * @param theBulk the fraction of bulk items in the inventories
+     * @param theSeed the generator seed
+     */
+    private LoaderBenchmarkSuite(final double theBulk, final long theSeed) {
+        myBulk = theBulk;
+        mySeed = theSeed;
+        mySettings = Arrays.asList("--bulk", Double.toString(theBulk),
+                                   "--seed", Long.toString(theSeed));
+        myCsv = new ArrayList<>();
+    }
+
+    /**
+     * Runs the suite.
+     *
+     * @param theArgs The options described in the class comment.
+     * @throws IOException if the inventories or the CSV file cannot be
+     * written, or a benchmark fails
+     * @throws InterruptedException if interrupted while a benchmark runs
+     */
+    public static void main(final String... theArgs)
+        throws IOException, InterruptedException {
+        String items = DEFAULT_ITEMS;
+        double bulk = DEFAULT_BULK;
+        int campuses = DEFAULT_CAMPUSES;
+        long seed = DEFAULT_SEED;
+        String csv = null;
+        String benchmark = null;
+        String file = null;
+        int size = 0;
+        for (int i = 0; i + 1 < theArgs.length; i += 2) {
+            final String value = theArgs[i + 1];
+            switch (theArgs[i]) {
+                case "--items":
+                    items = value;
+                    break;
+                case "--bulk":
+                    bulk = Double.parseDouble(value);
+                    break;
+                case "--campuses":
+                    campuses = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--csv":
+                    csv = value;
+                    break;
+                case "--benchmark":
+                    benchmark = value;
+                    break;
+                case "--file":
+                    file = value;
+                    break;
+                case "--size":
+                    size = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + theArgs[i] + ".");
+            }
+        }
+        if (benchmark == null) {
+            runAll(items, bulk, campuses, seed, csv);
+        } else {
+            new LoaderBenchmarkSuite(bulk, seed).measure(benchmark, file, size);
+        }
+    }
+
+    /**
+     * Writes the inventories, runs every benchmark in its own JVM, and
+     * prints the report.
+     *
+     * @param theItems the inventory sizes, separated by commas
+     * @param theBulk the fraction of bulk items
+     * @param theCampuses the campuses in the configuration file
+     * @param theSeed the generator seed
+     * @param theCsv the CSV file to write, or null
+     * @throws IOException if the files cannot be written or a benchmark fails
+     * @throws InterruptedException if interrupted while a benchmark runs
+     */
+    private static void runAll(final String theItems, final double theBulk,
+                               final int theCampuses, final long theSeed,
+                               final String theCsv)
+        throws IOException, InterruptedException {
+        final Runtime runtime = Runtime.getRuntime();
+        System.out.printf("# JVM: %s %s%n", System.getProperty("java.vm.name"),
+                          System.getProperty("java.version"));
+        System.out.printf("# OS: %s %s %s, %d CPUs, max heap %d MB%n",
+                          System.getProperty("os.name"), System.getProperty("os.version"),
+                          System.getProperty("os.arch"), runtime.availableProcessors(),
+                          runtime.maxMemory() / BYTES_PER_MB);
+        System.out.printf(Locale.ROOT, "# seed %d, bulk ratio %.2f, %d campuses; "
+                          + "%d warm-up and %d measured iterations of %d ms%n",
+                          theSeed, theBulk, theCampuses, WARMUP_ITERATIONS, ITERATIONS,
+                          ITERATION_NANOS / NANOS_PER_MILLI);
+        System.out.printf("# JVM options: %s%n",
+                          ManagementFactory.getRuntimeMXBean().getInputArguments());
+        System.out.printf(HEADER, "Benchmark", "(size)", "Cnt", "Score", "Error", "Units",
+                          "Sink");
+
+        final LoaderBenchmarkSuite suite = new LoaderBenchmarkSuite(theBulk, theSeed);
+        final InventoryGenerator generator = new InventoryGenerator(theSeed, theBulk);
+        final Path directory = Files.createTempDirectory("inventories");
+        try {
+            generator.writeCampuses(directory, theCampuses, 0);
+            suite.fork(CONFIG, directory.resolve(R.Strings.IO_CONFIG_FILE), theCampuses);
+            for (final String size : theItems.split(",")) {
+                final int count = Integer.parseInt(size.trim());
+                final Path path = directory.resolve("campus" + count
+                                                    + R.Strings.IO_FILE_EXTENSION);
+                generator.writeInventory(path, "Campus", count);
+                for (final String benchmark : INVENTORY_BENCHMARKS) {
+                    suite.fork(benchmark, path, count);
+                }
+            }
+        } finally {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (final Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+        if (theCsv != null) {
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(
+                Paths.get(theCsv), StandardCharsets.UTF_8))) {
+                out.println("benchmark,size,bulk,seed,cnt,score,error,units,sink");
+                for (final String row : suite.myCsv) {
+                    out.println(row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs one benchmark in a new JVM with this JVM's class path and options,
+     * printing its row and keeping its CSV row.
+     *
+     * @param theBenchmark the benchmark name
+     * @param theFile the file it reads
+     * @param theSize the size parameter shown in the report
+     * @throws IOException if the JVM cannot be started or the benchmark fails
+     * @throws InterruptedException if interrupted while the benchmark runs
+     */
+    private void fork(final String theBenchmark, final Path theFile, final int theSize)
+        throws IOException, InterruptedException {
+        final List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(LoaderBenchmarkSuite.class.getName());
+        command.addAll(mySettings);
+        command.addAll(Arrays.asList("--benchmark", theBenchmark, "--file", theFile.toString(),
+                                     "--size", Integer.toString(theSize)));
+        final Process process = new ProcessBuilder(command)
+            .redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+            process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line = in.readLine();
+            while (line != null) {
+                if (line.startsWith(CSV_PREFIX)) {
+                    myCsv.add(line.substring(CSV_PREFIX.length()));
+                } else {
+                    System.out.println(line);
+                }
+                line = in.readLine();
+            }
+        }
+        final int status = process.waitFor();
+        if (status != 0) {
+            throw new IOException(theBenchmark + " failed with exit status " + status + ".");
+        }
+    }
+
+    /**
+     * Sets up and runs one benchmark in this JVM, printing its row and then
+     * its CSV row.
+     *
+     * @param theBenchmark the benchmark name
+     * @param theFile the file it reads
+     * @param theSize the size parameter shown in the report
+     */
+    private void measure(final String theBenchmark, final String theFile,
+                         final int theSize) {
+        final LongSupplier operation;
+        if (CONFIG.equals(theBenchmark)) {
+            operation = () -> InventoryLoader.readConfigurationFromFile(theFile).hashCode();
+        } else if (READ_NEW.equals(theBenchmark)) {
+            operation = () -> InventoryLoader.readItemsFromFile(theFile,
+                                                                new ItemRegistry()).hashCode();
+        } else {
+            final ItemRegistry registry = new ItemRegistry();
+            final List<Item> inventory = InventoryLoader.readItemsFromFile(theFile, registry);
+            final Cart cart = fill(inventory);
+            cart.setSelfCheck(SELF_CHECK.equals(theBenchmark));
+            if (READ_WARM.equals(theBenchmark)) {
+                operation = () -> InventoryLoader.readItemsFromFile(theFile,
+                                                                    registry).hashCode();
+            } else if (FILL.equals(theBenchmark)) {
+                operation = () -> fill(inventory).calculateTotal().hashCode();
+            } else if (TOTAL.equals(theBenchmark) || SELF_CHECK.equals(theBenchmark)) {
+                operation = () -> cart.calculateTotal().hashCode();
+            } else {
+                throw new IllegalArgumentException("Unknown benchmark " + theBenchmark + ".");
+            }
+        }
+        run(theBenchmark, theSize, operation);
+    }
+
+    /**
+     * Returns a member's cart holding every item, with quantities that
+     * reach the bulk quantities of some items.
+     *
+     * @param theItems the items
+     * @return the cart
+     */
+    private static Cart fill(final List<Item> theItems) {
+        final Cart cart = new Cart();
+        cart.setMembership(true);
+        int i = 0;
+        for (final Item item : theItems) {
+            cart.add(new ItemOrder(item, 1 + i++ % QUANTITIES));
+        }
+        return cart;
+    }
+
+    /**
+     * Runs one benchmark and prints its row and its CSV row.
+     *
+     * @param theName the benchmark name
+     * @param theSize the size parameter shown in the report
+     * @param theOperation the operation, returning a hash of its result
+     */
+    private void run(final String theName, final int theSize,
+                     final LongSupplier theOperation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            iterate(theOperation);
+        }
+        final double[] scores = new double[ITERATIONS];
+        double sum = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            scores[i] = iterate(theOperation) / NANOS_PER_MICRO;
+            sum += scores[i];
+        }
+        final double mean = sum / ITERATIONS;
+        double squares = 0;
+        for (final double score : scores) {
+            squares += (score - mean) * (score - mean);
+        }
+        final double error = T_999 * Math.sqrt(squares / (ITERATIONS - 1) / ITERATIONS);
+        System.out.printf(Locale.ROOT, ROW, theName, theSize, ITERATIONS, mean, error,
+                          UNITS, ourSink);
+        System.out.printf(Locale.ROOT, CSV_PREFIX + "\"%s\",%d,%s,%d,%d,%.3f,%.3f,%s,%016x%n",
+                          theName, theSize, myBulk, mySeed, ITERATIONS, mean, error, UNITS,
+                          ourSink);
+    }
+
+    /**
+     * Repeats an operation for at least one iteration's time.
+     *
+     * @param theOperation the operation
+     * @return the mean nanoseconds per operation
+     */
+    private static double iterate(final LongSupplier theOperation) {
+        final long start = System.nanoTime();
+        long elapsed;
+        long operations = 0;
+        do {
+            ourSink += theOperation.getAsLong();
+            operations++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < ITERATION_NANOS);
+        return elapsed / (double) operations;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package bench;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.Random;
+import model.Item;
+import model.PricingEngine;
+
+/**
+ * Compares BigDecimal line pricing against the long cents path of
+ * PricingEngine. Reports nanoseconds and bytes allocated per line.
+ * 
+ * Run with: java -cp bin bench.PricingBenchmark
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class PricingBenchmark {
+
+    /** Number of distinct lines priced per pass. */
+    private static final int LINES = 4_096;
+
+    /** Number of passes timed after warm up. */
+    private static final int PASSES = 2_000;
+
+    /** Seed for the generated lines. */
+    private static final long SEED = 305L;
+
+    /** Sink that keeps the JIT from discarding results. */
+    private static long ourSink;
+
+    /**
+     * A private constructor, to prevent external instantiation.
+     */
+    private PricingBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     * 
+     * @param theArgs Command line arguments, ignored by this program.
+     */
+    public static void main(final String... theArgs) {
+        final Random random = new Random(SEED);
+        final Item[] items = new Item[LINES];
+        final int[] quantities = new int[LINES];
+        for (int i = 0; i < LINES; i++) {
+            items[i] = new Item("item" + i, BigDecimal.valueOf(random.nextInt(10_000), 2),
+                                2 + random.nextInt(10),
+                                BigDecimal.valueOf(random.nextInt(50_000), 2));
+            quantities[i] = random.nextInt(100);
+        }
+        for (int warmUp = 0; warmUp < 3; warmUp++) {
+            measure("BigDecimal", items, quantities, false);
+            measure("long cents", items, quantities, true);
+        }
+        System.out.println(measure("BigDecimal", items, quantities, false));
+        System.out.println(measure("long cents", items, quantities, true));
+        System.out.println("(sink " + ourSink + ")");
+    }
+
+    /**
+     * Prices every line PASSES times with one of the two paths.
+     * 
+     * @param theName the label for the report line
+     * @param theItems the items to price
+     * @param theQuantities the quantity of each item
+     * @param theCents true to use the long cents path, false for BigDecimal
+     * @return a one line report
+     */
+    private static String measure(final String theName, final Item[] theItems,
+                                  final int[] theQuantities, final boolean theCents) {
+        final long bytesBefore = allocatedBytes();
+        final long start = System.nanoTime();
+        long sum = 0;
+        for (int pass = 0; pass < PASSES; pass++) {
+            for (int i = 0; i < LINES; i++) {
+                if (theCents) {
+                    sum += PricingEngine.lineCents(theItems[i], theQuantities[i], true);
+                } else {
+                    sum += PricingEngine.linePrice(theItems[i], theQuantities[i], true).
+                                    unscaledValue().longValue();
+                }
+            }
+        }
+        final double lines = (double) PASSES * LINES;
+        final double nanos = (System.nanoTime() - start) / lines;
+        final double bytes = (allocatedBytes() - bytesBefore) / lines;
+        ourSink += sum;
+        return String.format("%-10s %8.1f ns/line %8.1f bytes/line", theName, nanos, bytes);
+    }
+
+    /**
+     * Returns the bytes allocated so far by the current thread, or 0 when the
+     * JVM does not report it.
+     * 
+     * @return allocated bytes
+     */
+    static long allocatedBytes() {
+        long bytes = 0;
+        if (ManagementFactory.getThreadMXBean() 
+                        instanceof com.sun.management.ThreadMXBean) {
+            bytes = ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).
+                            getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package bench;
+
+import java.math.BigDecimal;
+import model.Cart;
+import model.Item;
+import model.ItemOrder;
+import model.LinePricer;
+import model.PricingPipeline;
+import model.PricingRule;
+
+/**
+ * Measures the cost of re-pricing a cart line as more pricing rules are
+ * registered. Rules are only consulted when an item first enters a cart, so
+ * the per-edit cost should stay flat; the cost of filling a fresh cart is
+ * reported alongside for comparison.
+ * 
+ * Run with: java -cp bin bench.PricingPipelineBenchmark
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class PricingPipelineBenchmark {
+
+    /** Rule counts measured. */
+    private static final int[] RULE_COUNTS = {0, 1, 4, 16, 64};
+
+    /** Lines in the benchmark cart. */
+    private static final int LINES = 1_000;
+
+    /** Timed quantity edits per measurement. */
+    private static final int EDITS = 2_000_000;
+
+    /** Sink that keeps the JIT from discarding results. */
+    private static long ourSink;
+
+    /**
+     * A private constructor, to prevent external instantiation.
+     */
+    private PricingPipelineBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     * 
+     * @param theArgs Command line arguments, ignored by this program.
+     */
+    public static void main(final String... theArgs) {
+        final Item[] items = new Item[LINES];
+        final ItemOrder[][] orders = new ItemOrder[LINES][10];
+        for (int i = 0; i < LINES; i++) {
+            items[i] = new Item("item" + i, new BigDecimal("1.25"), 3, new BigDecimal("3.00"));
+            for (int q = 0; q < orders[i].length; q++) {
+                orders[i][q] = new ItemOrder(items[i], q);
+            }
+        }
+        for (int round = 0; round < 2; round++) {
+            for (final int ruleCount : RULE_COUNTS) {
+                PricingPipeline pipeline = PricingPipeline.standard();
+                for (int r = 0; r < ruleCount; r++) {
+                    pipeline = pipeline.withRule(tierRule(LINES + r));
+                }
+                long start = System.nanoTime();
+                final Cart cart = new Cart(pipeline);
+                cart.setMembership(true);
+                for (int i = 0; i < LINES; i++) {
+                    cart.add(orders[i][1]);
+                }
+                final double fill = (System.nanoTime() - start) / (double) LINES;
+                start = System.nanoTime();
+                for (int e = 0; e < EDITS; e++) {
+                    cart.add(orders[e % LINES][e % orders[0].length]);
+                }
+                final double edit = (System.nanoTime() - start) / (double) EDITS;
+                ourSink += cart.calculateTotal().unscaledValue().longValue();
+                if (round == 1) {
+                    System.out.printf("%3d extra rules: first add %8.1f ns/line   "
+                                      + "edit %6.1f ns/line%n", ruleCount, fill, edit);
+                }
+            }
+        }
+        System.out.println("(sink " + ourSink + ")");
+    }
+
+    /**
+     * Returns a tiered bulk rule that never matches the benchmark items.
+     * 
+     * @param theTier the bulk quantity the rule applies to
+     * @return the rule
+     */
+    private static PricingRule tierRule(final int theTier) {
+        return (theItem, theMembership) -> {
+            LinePricer pricer = null;
+            if (theMembership && theItem.getBulkQuantity() == theTier) {
+                pricer = PricingPipeline.BULK_PRICE;
+            }
+            return pricer;
+        };
+    }
+}
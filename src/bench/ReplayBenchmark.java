@@ -0,0 +1,137 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package bench;
+
+import io.EventSourcedCart;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import model.Cart;
+import model.Item;
+import model.ItemOrder;
+
+/**
+ * Measures how fast an EventSourcedCart replays its history: in memory with
+ * stateAt, and from disk with recover. Recovery is timed both with the
+ * regular snapshot file and with it removed, so the whole log is replayed.
+ * 
+ * Run with: java -cp bin bench.ReplayBenchmark
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class ReplayBenchmark {
+
+    /** Events recorded. */
+    private static final int EVENTS = 4_000_000;
+
+    /** Distinct items in the catalog. */
+    private static final int CATALOG_SIZE = 1_000;
+
+    /** Events kept in memory. */
+    private static final int RING_CAPACITY = 1 << 20;
+
+    /** Events between checkpoints. */
+    private static final int INTERVAL = 65_536;
+
+    /** Largest quantity ordered. */
+    private static final int MAX_QUANTITY = 20;
+
+    /** One in this many events clears the cart. */
+    private static final int CLEAR_ODDS = 100_000;
+
+    /** Nanoseconds per second. */
+    private static final double NANOS = 1e9;
+
+    /** Nanoseconds per millisecond. */
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    /** Sink that keeps the JIT from discarding results. */
+    private static long ourSink;
+
+    /**
+     * A private constructor, to prevent external instantiation.
+     */
+    private ReplayBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     * 
+     * @param theArgs Command line arguments, ignored by this program.
+     * @throws IOException if the temporary log cannot be written
+     */
+    public static void main(final String... theArgs) throws IOException {
+        final List<Item> catalog = new ArrayList<>();
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            catalog.add(new Item("item" + i, new BigDecimal("2.35"), 1 + i % 5,
+                                 new BigDecimal("9.80")));
+        }
+        final Path directory = Files.createTempDirectory("replay");
+        final Path log = directory.resolve("cart.log");
+        final Random random = new Random(CATALOG_SIZE);
+
+        long start = System.nanoTime();
+        final EventSourcedCart cart =
+            EventSourcedCart.create(catalog, RING_CAPACITY, INTERVAL, log);
+        for (int i = 0; i < EVENTS; i++) {
+            if (random.nextInt(CLEAR_ODDS) == 0) {
+                cart.clear();
+            } else {
+                cart.add(new ItemOrder(catalog.get(random.nextInt(CATALOG_SIZE)),
+                                       random.nextInt(MAX_QUANTITY)));
+            }
+        }
+        cart.close();
+        report("record + log", EVENTS, System.nanoTime() - start);
+
+        for (int round = 0; round < 2; round++) {
+            start = System.nanoTime();
+            final long oldest = cart.getOldestReplayable();
+            long replayed = 0;
+            for (long n = oldest; n <= cart.getSequence(); n += INTERVAL / 2 + 1) {
+                ourSink += cart.stateAt(n).getCartSize();
+                replayed += n % INTERVAL;
+            }
+            report("stateAt (events replayed)", replayed, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            ourSink += EventSourcedCart.recover(catalog, log).getCartSize();
+            report("recover from snapshot + log tail", cart.getSequence() % INTERVAL,
+                   System.nanoTime() - start);
+        }
+
+        Files.move(log.resolveSibling(log.getFileName() + EventSourcedCart.SNAPSHOT_SUFFIX),
+                   directory.resolve("moved"));
+        for (int round = 0; round < 2; round++) {
+            start = System.nanoTime();
+            final Cart recovered = EventSourcedCart.recover(catalog, log);
+            ourSink += recovered.getCartSize();
+            report("recover full log", EVENTS, System.nanoTime() - start);
+        }
+
+        Files.delete(directory.resolve("moved"));
+        Files.delete(log);
+        Files.delete(directory);
+        System.out.println("(sink " + ourSink + ")");
+    }
+
+    /**
+     * Prints a throughput line.
+     * 
+     * @param theName what was measured
+     * @param theEvents the events processed
+     * @param theNanos the elapsed time
+     */
+    private static void report(final String theName, final long theEvents,
+                               final long theNanos) {
+        System.out.printf("%-34s %,12d events %8.1f ms %,14.0f events/s%n", theName,
+                          theEvents, theNanos / NANOS_PER_MILLI, theEvents * NANOS / theNanos);
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package bench;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import model.Item;
+import model.SearchIndex;
+
+/**
+ * Reports the time and heap taken to build a SearchIndex over a large
+ * synthetic campus inventory, and the latency of its queries: prefixes,
+ * substrings of three or more characters, which use the trigram index,
+ * and substrings of one or two characters, which read the list of one
+ * character or character pair. For each kind of query the median and
+ * worst latency are reported, with the mean number of matches, next to a
+ * linear scan of the item list.
+ *
+ * Run with: java -Xmx2g -cp bin bench.SearchIndexBenchmark
+ *
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class SearchIndexBenchmark {
+
+    /** Items in the inventory. */
+    private static final int ITEMS = 500_000;
+
+    /** Syllables the vocabulary is made from. */
+    private static final String[] SYLLABLES = {
+        "ba", "ko", "ri", "tel", "mun", "sa", "pho", "ne", "dra", "vi", "lum", "qua",
+        "zen", "to", "gri", "fa", "shi", "pol", "cu", "mer", "by", "ste", "wo", "ax",
+    };
+
+    /** Distinct words in names; each name takes two to four. */
+    private static final int VOCABULARY = 5_000;
+
+    /** Most syllables in a word. */
+    private static final int MAX_SYLLABLES = 4;
+
+    /** Most words in a name. */
+    private static final int MAX_WORDS = 4;
+
+    /** Least words in a name. */
+    private static final int MIN_WORDS = 2;
+
+    /** Largest model number appended to a name. */
+    private static final int MODELS = 10_000;
+
+    /** Timed queries of each kind. */
+    private static final int QUERIES = 1_000;
+
+    /** Index builds timed. */
+    private static final int BUILDS = 3;
+
+    /** Garbage collections before reading the heap. */
+    private static final int GC_PASSES = 3;
+
+    /** Nanoseconds per microsecond. */
+    private static final double NANOS_PER_MICRO = 1e3;
+
+    /** Nanoseconds per millisecond. */
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    /** Bytes per megabyte. */
+    private static final double BYTES_PER_MB = 1 << 20;
+
+    /** Keeps results alive so the queries are not optimized away. */
+    private static long ourSink;
+
+    /**
+     * A private constructor, to prevent external instantiation.
+     */
+    private SearchIndexBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param theArgs Command line arguments, ignored by this program.
+     */
+    public static void main(final String... theArgs) {
+        final Random random = new Random(ITEMS);
+        final String[] words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            final StringBuilder word = new StringBuilder();
+            final int syllables = 1 + random.nextInt(MAX_SYLLABLES);
+            for (int s = 0; s < syllables; s++) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            words[i] = word.toString();
+        }
+        final List<Item> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new Item(randomName(random, words),
+                               BigDecimal.valueOf(1 + i % MODELS, 2)));
+        }
+
+        final long before = usedHeap();
+        SearchIndex index = null;
+        long build = Long.MAX_VALUE;
+        for (int run = 0; run < BUILDS; run++) {
+            index = null;
+            final long start = System.nanoTime();
+            index = new SearchIndex(items);
+            build = Math.min(build, System.nanoTime() - start);
+        }
+        final long heap = usedHeap() - before;
+        System.out.println(index);
+        System.out.printf("%-24s %9.1f ms%n", "build:", build / NANOS_PER_MILLI);
+        System.out.printf("%-24s %9.1f MB (%.0f bytes per item)%n", "heap:",
+                          heap / BYTES_PER_MB, heap / (double) ITEMS);
+
+        final SearchIndex searched = index;
+        System.out.printf("%-24s %12s %12s %10s%n", "query", "median us", "worst us",
+                          "matches");
+        time("prefix, 3-6 chars", random, words, 3, 6, searched::findPrefix);
+        time("substring, 3 chars", random, words, 3, 3, searched::findSubstring);
+        time("substring, 4-6 chars", random, words, 4, 6, searched::findSubstring);
+        time("substring, model no.", random, words, 0, 0, searched::findSubstring);
+        time("substring, 1-2 chars", random, words, 1, 2, searched::findSubstring);
+        time("linear scan, 4-6 chars", random, words, 4, 6,
+             theQuery -> scan(items, theQuery));
+        System.out.println("(sink " + ourSink + ")");
+    }
+
+    /**
+     * Times one kind of query over queries cut from the vocabulary, or
+     * model numbers if the lengths are 0, after a warm-up pass.
+     *
+     * @param theLabel the label
+     * @param theRandom the source of queries
+     * @param theWords the vocabulary
+     * @param theMin the least query length
+     * @param theMax the greatest query length
+     * @param theQuery runs a query
+     */
+    private static void time(final String theLabel, final Random theRandom,
+                             final String[] theWords, final int theMin, final int theMax,
+                             final Query theQuery) {
+        final String[] queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            if (theMax == 0) {
+                queries[i] = Integer.toString(theRandom.nextInt(MODELS));
+            } else {
+                final String word = theWords[theRandom.nextInt(theWords.length)];
+                final int length = Math.min(word.length(),
+                                            theMin + theRandom.nextInt(theMax - theMin + 1));
+                final int start = theRandom.nextInt(word.length() - length + 1);
+                queries[i] = word.substring(start, start + length);
+            }
+        }
+        for (final String query : queries) {
+            ourSink += theQuery.find(query).length;
+        }
+        final long[] nanos = new long[QUERIES];
+        long matches = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            final long start = System.nanoTime();
+            final int[] found = theQuery.find(queries[i]);
+            nanos[i] = System.nanoTime() - start;
+            matches += found.length;
+        }
+        Arrays.sort(nanos);
+        ourSink += matches;
+        System.out.printf("%-24s %12.1f %12.1f %10d%n", theLabel,
+                          nanos[QUERIES / 2] / NANOS_PER_MICRO,
+                          nanos[QUERIES - 1] / NANOS_PER_MICRO, matches / QUERIES);
+    }
+
+    /**
+     * Finds the positions of items whose names contain a query by checking
+     * every item, as callers did before the index.
+     *
+     * @param theItems the items
+     * @param theQuery the query
+     * @return the ascending positions of the matching items
+     */
+    private static int[] scan(final List<Item> theItems, final String theQuery) {
+        final int[] positions = new int[theItems.size()];
+        int count = 0;
+        for (int i = 0; i < positions.length; i++) {
+            if (theItems.get(i).getName().toLowerCase(Locale.ROOT).contains(theQuery)) {
+                positions[count++] = i;
+            }
+        }
+        return Arrays.copyOf(positions, count);
+    }
+
+    /**
+     * Returns a name of a few words and a model number.
+     *
+     * @param theRandom the source of words
+     * @param theWords the vocabulary
+     * @return the name
+     */
+    private static String randomName(final Random theRandom, final String[] theWords) {
+        final StringBuilder sb = new StringBuilder();
+        final int words = MIN_WORDS + theRandom.nextInt(MAX_WORDS - MIN_WORDS + 1);
+        for (int w = 0; w < words; w++) {
+            final String word = theWords[theRandom.nextInt(theWords.length)];
+            sb.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+            sb.append(' ');
+        }
+        return sb.append(theRandom.nextInt(MODELS)).toString();
+    }
+
+    /**
+     * Returns the heap in use after collecting garbage.
+     *
+     * @return used heap bytes
+     */
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < GC_PASSES; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /** One kind of query. */
+    @FunctionalInterface
+    private interface Query {
+
+        /**
+         * Runs the query.
+         *
+         * @param theQuery the query text
+         * @return the ascending positions of the matching items
+         */
+        int[] find(String theQuery);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package bench;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import model.Cart;
+import model.Item;
+import model.ItemOrder;
+
+/**
+ * Compares the cost of Cart.snapshot with copying an ArrayList of the same
+ * orders, for carts of increasing size. Each snapshot is followed by one
+ * edit, so the copy-on-write cost the cart pays afterwards is included.
+ * 
+ * Run with: java -cp bin bench.SnapshotBenchmark
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class SnapshotBenchmark {
+
+    /** Cart sizes measured. */
+    private static final int[] SIZES = {10, 1_000, 100_000};
+
+    /** Snapshots or copies taken per measurement. */
+    private static final int REPEATS = 2_000;
+
+    /** Sink that keeps the JIT from discarding results. */
+    private static long ourSink;
+
+    /**
+     * A private constructor, to prevent external instantiation.
+     */
+    private SnapshotBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     * 
+     * @param theArgs Command line arguments, ignored by this program.
+     */
+    public static void main(final String... theArgs) {
+        for (int round = 0; round < 2; round++) {
+            for (final int size : SIZES) {
+                final Cart cart = new Cart();
+                final List<ItemOrder> list = new ArrayList<>();
+                final Item[] items = new Item[size];
+                for (int i = 0; i < size; i++) {
+                    items[i] = new Item("item" + i, BigDecimal.ONE);
+                    final ItemOrder order = new ItemOrder(items[i], 1);
+                    cart.add(order);
+                    list.add(order);
+                }
+                final long snapshot = timeSnapshots(cart, items);
+                final long copy = timeCopies(list, items);
+                if (round == 1) {
+                    System.out.printf("%,8d lines: snapshot+edit %,10d ns   "
+                                      + "ArrayList copy+edit %,10d ns%n",
+                                      size, snapshot / REPEATS, copy / REPEATS);
+                }
+            }
+        }
+        System.out.println("(sink " + ourSink + ")");
+    }
+
+    /**
+     * Takes REPEATS snapshots, editing one line after each.
+     * 
+     * @param theCart the cart
+     * @param theItems the items in the cart
+     * @return elapsed nanoseconds
+     */
+    private static long timeSnapshots(final Cart theCart, final Item[] theItems) {
+        final long start = System.nanoTime();
+        for (int i = 0; i < REPEATS; i++) {
+            ourSink += theCart.snapshot().getCartSize();
+            theCart.add(new ItemOrder(theItems[i % theItems.length], i));
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Takes REPEATS copies, editing one line after each.
+     * 
+     * @param theList the orders
+     * @param theItems the items in the list
+     * @return elapsed nanoseconds
+     */
+    private static long timeCopies(final List<ItemOrder> theList, final Item[] theItems) {
+        final long start = System.nanoTime();
+        for (int i = 0; i < REPEATS; i++) {
+            ourSink += new ArrayList<>(theList).size();
+            theList.set(i % theItems.length, new ItemOrder(theItems[i % theItems.length], i));
+        }
+        return System.nanoTime() - start;
+    }
+}
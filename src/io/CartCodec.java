@@ -0,0 +1,307 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package io;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import model.Cart;
+import model.CartSnapshot;
+import model.IntIntMap;
+import model.Item;
+import model.ItemOrder;
+
+/**
+ * A compact binary format for carts, read and written directly on NIO
+ * ByteBuffers. Items are written as their position in a catalog, so the
+ * format depends on the catalog staying in the same order between writing
+ * and reading. Each record carries a hash of the catalog it was written
+ * with, and reading one written with a different catalog, or the same items
+ * in another order, fails instead of restoring the wrong items.
+ * 
+ * A cart record is: one format version byte, one flags byte (bit 0 is the
+ * membership flag), the four-byte catalog hash, a varint line count, then a
+ * varint catalog id and a varint quantity for each line. Varints are
+ * unsigned little-endian base 128. Records can be written back to back into
+ * one buffer.
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class CartCodec {
+
+    /** The format version written at the start of every cart record. */
+    public static final byte VERSION = 2;
+
+    /** Flags bit for the membership flag. */
+    private static final int FLAG_MEMBER = 1;
+
+    /** The low seven bits of a varint byte. */
+    private static final int VARINT_BITS = 0x7F;
+
+    /** Set on a varint byte when more bytes follow. */
+    private static final int VARINT_MORE = 0x80;
+
+    /** Number of payload bits in a varint byte. */
+    private static final int VARINT_SHIFT = 7;
+
+    /** The most bytes an int varint can take. */
+    private static final int VARINT_MAX_BYTES = 5;
+
+    /** The shift of the last byte of an int varint. */
+    private static final int VARINT_LAST_SHIFT = (VARINT_MAX_BYTES - 1) * VARINT_SHIFT;
+
+    /** Bits that must be clear in the last byte of an int varint. */
+    private static final int VARINT_LAST_EXCESS = 0xF0;
+
+    /** Bytes in a record before the lines: version, flags, hash and a line count. */
+    private static final int HEADER_MAX_BYTES = 2 + Integer.BYTES + VARINT_MAX_BYTES;
+
+    /** Marks an item with no catalog id. */
+    private static final int NO_ID = -1;
+
+    /** The catalog, indexed by id. */
+    private final Item[] myCatalog;
+
+    /** The id of each catalog item that has a SKU, keyed by SKU. */
+    private final IntIntMap mySkuIds;
+
+    /** The id of each other catalog item, keyed by item identity. */
+    private final Map<Item, Integer> myIds;
+
+    /** The hash of the catalog's items in order. */
+    private final int myCatalogHash;
+
+    /**
+     * Creates a codec for a catalog. An item's id is its position in the list.
+     * @param theCatalog the items that carts may contain
+     */
+    public CartCodec(final List<Item> theCatalog) {
+        myCatalog = theCatalog.toArray(new Item[0]);
+        mySkuIds = new IntIntMap(myCatalog.length, NO_ID);
+        myIds = new IdentityHashMap<>();
+        for (int i = 0; i < myCatalog.length; i++) {
+            if (id(myCatalog[i]) == NO_ID) {
+                final int sku = myCatalog[i].getSku();
+                if (sku != Item.NO_SKU && !mySkuIds.containsKey(sku)) {
+                    mySkuIds.put(sku, i);
+                } else {
+                    myIds.put(myCatalog[i], i);
+                }
+            }
+        }
+        myCatalogHash = hash(myCatalog);
+    }
+
+    /**
+     * Returns the hash of the catalog written into every record: a CRC-32C
+     * of each item's name, price and bulk option, in catalog order. Prices
+     * are compared by value, so reparsing "5.0" as "5.00" keeps the hash.
+     * @return the catalog hash
+     */
+    public int getCatalogHash() {
+        return myCatalogHash;
+    }
+
+    /**
+     * Returns an upper bound on the bytes needed to write a cart.
+     * @param theCart the cart
+     * @return the most bytes write can use for theCart
+     */
+    public static int maxEncodedSize(final CartSnapshot theCart) {
+        return HEADER_MAX_BYTES + theCart.getCartSize() * 2 * VARINT_MAX_BYTES;
+    }
+
+    /**
+     * Writes a cart record at the buffer's position.
+     * @param theCart the cart to write
+     * @param theBuffer the buffer to write into
+     * @throws IllegalArgumentException if the cart holds an item not in the catalog
+     * @throws java.nio.BufferOverflowException if the buffer runs out of space
+     */
+    public void write(final CartSnapshot theCart, final ByteBuffer theBuffer) {
+        theBuffer.put(VERSION);
+        int flags = 0;
+        if (theCart.isMember()) {
+            flags |= FLAG_MEMBER;
+        }
+        theBuffer.put((byte) flags);
+        theBuffer.putInt(myCatalogHash);
+        putVarint(theBuffer, theCart.getCartSize());
+        for (final ItemOrder order : theCart) {
+            writeOrder(order, theBuffer);
+        }
+    }
+
+    /**
+     * Writes a cart record at the buffer's position. Takes a snapshot of the cart.
+     * @param theCart the cart to write
+     * @param theBuffer the buffer to write into
+     * @throws IllegalArgumentException if the cart holds an item not in the catalog
+     * @throws java.nio.BufferOverflowException if the buffer runs out of space
+     */
+    public void write(final Cart theCart, final ByteBuffer theBuffer) {
+        write(theCart.snapshot(), theBuffer);
+    }
+
+    /**
+     * Reads a cart record from the buffer's position.
+     * @param theBuffer the buffer to read from
+     * @return a new cart holding the record's lines and membership
+     * @throws IllegalArgumentException if the record is malformed or was
+     * written with a different catalog
+     * @throws BufferUnderflowException if the record is truncated
+     */
+    public Cart read(final ByteBuffer theBuffer) {
+        final byte version = theBuffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported cart format version " + version);
+        }
+        final int flags = theBuffer.get();
+        if ((flags & ~FLAG_MEMBER) != 0) {
+            throw new IllegalArgumentException("Unknown cart flags " + flags);
+        }
+        final int catalogHash = theBuffer.getInt();
+        if (catalogHash != myCatalogHash) {
+            throw new IllegalArgumentException("Cart written with a different catalog");
+        }
+        final int lines = getVarint(theBuffer);
+        if (lines > theBuffer.remaining() / 2) {
+            throw new BufferUnderflowException();
+        }
+        final Cart cart = new Cart();
+        cart.setMembership((flags & FLAG_MEMBER) != 0);
+        for (int i = 0; i < lines; i++) {
+            cart.add(readOrder(theBuffer));
+        }
+        return cart;
+    }
+
+    /**
+     * Reads cart records until the buffer has no bytes remaining.
+     * @param theBuffer the buffer to read from
+     * @return the carts, in the order they were written
+     * @throws IllegalArgumentException if a record is malformed or was
+     * written with a different catalog
+     * @throws BufferUnderflowException if a record is truncated
+     */
+    public List<Cart> readAll(final ByteBuffer theBuffer) {
+        final List<Cart> carts = new ArrayList<>();
+        while (theBuffer.hasRemaining()) {
+            carts.add(read(theBuffer));
+        }
+        return carts;
+    }
+
+    /**
+     * Writes one order as a catalog id and a quantity.
+     * @param theOrder the order to write
+     * @param theBuffer the buffer to write into
+     * @throws IllegalArgumentException if the order's item is not in the catalog
+     */
+    public void writeOrder(final ItemOrder theOrder, final ByteBuffer theBuffer) {
+        final int id = id(theOrder.getItem());
+        if (id == NO_ID) {
+            throw new IllegalArgumentException("Item not in catalog: " + theOrder.getItem());
+        }
+        putVarint(theBuffer, id);
+        putVarint(theBuffer, theOrder.getQuantity());
+    }
+
+    /**
+     * Reads one order written by writeOrder.
+     * @param theBuffer the buffer to read from
+     * @return the order
+     * @throws IllegalArgumentException if the id is not in the catalog
+     */
+    public ItemOrder readOrder(final ByteBuffer theBuffer) {
+        final int id = getVarint(theBuffer);
+        if (id < 0 || id >= myCatalog.length) {
+            throw new IllegalArgumentException("Unknown catalog id " + id);
+        }
+        final int quantity = getVarint(theBuffer);
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Negative quantity " + quantity);
+        }
+        return new ItemOrder(myCatalog[id], quantity);
+    }
+
+    /**
+     * Returns an item's catalog id: by SKU when the item has one, and by
+     * identity otherwise or when the SKU belongs to another catalog item.
+     * @param theItem the item
+     * @return the id, or NO_ID if the item is not in the catalog
+     */
+    private int id(final Item theItem) {
+        int id = NO_ID;
+        if (theItem.getSku() != Item.NO_SKU) {
+            id = mySkuIds.get(theItem.getSku());
+        }
+        if (id == NO_ID || myCatalog[id] != theItem) {
+            id = myIds.getOrDefault(theItem, NO_ID);
+        }
+        return id;
+    }
+
+    /**
+     * Writes an int as an unsigned varint.
+     * @param theBuffer the buffer to write into
+     * @param theValue the value
+     */
+    static void putVarint(final ByteBuffer theBuffer, final int theValue) {
+        int value = theValue;
+        while ((value & ~VARINT_BITS) != 0) {
+            theBuffer.put((byte) ((value & VARINT_BITS) | VARINT_MORE));
+            value >>>= VARINT_SHIFT;
+        }
+        theBuffer.put((byte) value);
+    }
+
+    /**
+     * Reads an unsigned varint written by putVarint.
+     * @param theBuffer the buffer to read from
+     * @return the value
+     * @throws IllegalArgumentException if the varint is longer than an int
+     * allows, or its last byte carries bits past the 32nd
+     */
+    static int getVarint(final ByteBuffer theBuffer) {
+        int value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = theBuffer.get();
+            if (shift == VARINT_LAST_SHIFT && (current & VARINT_LAST_EXCESS) != 0) {
+                throw new IllegalArgumentException("Malformed varint");
+            }
+            value |= (current & VARINT_BITS) << shift;
+            shift += VARINT_SHIFT;
+        } while ((current & VARINT_MORE) != 0);
+        return value;
+    }
+
+    /**
+     * Hashes a catalog's items in order.
+     * @param theCatalog the catalog
+     * @return the CRC-32C of the items' values
+     */
+    private static int hash(final Item[] theCatalog) {
+        final CRC32C crc = new CRC32C();
+        for (final Item item : theCatalog) {
+            final StringBuilder value = new StringBuilder(item.getName()).append(';')
+                .append(item.getPrice().stripTrailingZeros().toPlainString());
+            if (item.isBulk()) {
+                value.append(';').append(item.getBulkQuantity()).append(';')
+                     .append(item.getBulkPrice().stripTrailingZeros().toPlainString());
+            }
+            crc.update(value.append('\n').toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,472 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import model.Cart;
+import model.CartSnapshot;
+import model.Item;
+import model.ItemOrder;
+
+/**
+ * A cart that records every change as an event, so its state at any earlier
+ * point can be rebuilt by replay. Events are packed into one long each and
+ * kept in an in-memory ring; optionally they are also appended to a log file
+ * for crash recovery.
+ * 
+ * Every snapshot interval events the cart takes a snapshot, in memory and,
+ * when logging to disk, in a file next to the log. Replay starts from the
+ * nearest snapshot at or before the requested point, so it never has to
+ * apply more than one interval of events.
+ * 
+ * Items are identified by their position in a catalog, as in CartCodec.
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class EventSourcedCart implements Closeable {
+
+    /** Suffix of the snapshot file written next to a log file. */
+    public static final String SNAPSHOT_SUFFIX = ".snap";
+
+    /** Event type: add an order. */
+    private static final int ADD = 0;
+
+    /** Event type: clear the cart. */
+    private static final int CLEAR = 1;
+
+    /** Event type: the customer became a member. */
+    private static final int MEMBER = 2;
+
+    /** Event type: the customer stopped being a member. */
+    private static final int NON_MEMBER = 3;
+
+    /** Bit position of the event type in an encoded event. */
+    private static final int TYPE_SHIFT = 62;
+
+    /** Bit position of the catalog id in an encoded event. */
+    private static final int ID_SHIFT = 32;
+
+    /** The largest catalog id an event can hold. */
+    private static final int MAX_ID = (1 << (TYPE_SHIFT - ID_SHIFT)) - 1;
+
+    /** Mask for the quantity in an encoded event. */
+    private static final long QUANTITY_MASK = 0xFFFFFFFFL;
+
+    /** Bytes per event in the log file. */
+    private static final int EVENT_BYTES = Long.BYTES;
+
+    /** Size of the log file write buffer. */
+    private static final int LOG_BUFFER_BYTES = 64 * 1024;
+
+    /** The live cart. */
+    private final Cart myCart;
+
+    /** The catalog, indexed by id. */
+    private final Item[] myCatalog;
+
+    /** The id of each catalog item, keyed by item identity. */
+    private final Map<Item, Integer> myIds;
+
+    /** Codec used for snapshot files. */
+    private final CartCodec myCodec;
+
+    /** The most recent events; event number n is at n % length. */
+    private final long[] myRing;
+
+    /** Number of events between snapshots. */
+    private final int mySnapshotInterval;
+
+    /** Snapshots still reachable from the ring, oldest first. */
+    private final Deque<Checkpoint> myCheckpoints;
+
+    /** The log file, or null when not logging to disk. */
+    private final Path myLogFile;
+
+    /** Channel to the log file, or null when not logging to disk. */
+    private final FileChannel myLog;
+
+    /** Events waiting to be written to the log file. */
+    private final ByteBuffer myLogBuffer;
+
+    /** Number of events recorded so far. */
+    private long mySequence;
+
+    /** Whether the customer is a store member. */
+    private boolean myMembership;
+
+    /**
+     * Creates an event-sourced cart that keeps its events in memory only.
+     * @param theCatalog the items the cart may contain
+     * @param theRingCapacity how many recent events to keep
+     * @param theSnapshotInterval how many events between snapshots
+     */
+    public EventSourcedCart(final List<Item> theCatalog, final int theRingCapacity,
+                            final int theSnapshotInterval) {
+        this(theCatalog, theRingCapacity, theSnapshotInterval, null, null);
+    }
+
+    /**
+     * Creates an event-sourced cart that also appends its events to a new
+     * log file, replacing any existing log and snapshot file.
+     * @param theCatalog the items the cart may contain
+     * @param theRingCapacity how many recent events to keep
+     * @param theSnapshotInterval how many events between snapshots
+     * @param theLogFile the log file
+     * @return the cart
+     * @throws IOException if the log file cannot be created
+     */
+    public static EventSourcedCart create(final List<Item> theCatalog,
+                                          final int theRingCapacity,
+                                          final int theSnapshotInterval,
+                                          final Path theLogFile) throws IOException {
+        Files.deleteIfExists(snapshotFile(theLogFile));
+        return new EventSourcedCart(theCatalog, theRingCapacity, theSnapshotInterval,
+                                    theLogFile,
+                                    FileChannel.open(theLogFile, StandardOpenOption.CREATE,
+                                                     StandardOpenOption.WRITE,
+                                                     StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /**
+     * Creates an event-sourced cart.
+     * @param theCatalog the items the cart may contain
+     * @param theRingCapacity how many recent events to keep
+     * @param theSnapshotInterval how many events between snapshots
+     * @param theLogFile the log file, or null
+     * @param theLog channel to the log file, or null
+     */
+    private EventSourcedCart(final List<Item> theCatalog, final int theRingCapacity,
+                             final int theSnapshotInterval, final Path theLogFile,
+                             final FileChannel theLog) {
+        if (theRingCapacity < 1 || theSnapshotInterval < 1
+            || theSnapshotInterval > theRingCapacity) {
+            throw new IllegalArgumentException("Snapshot interval must be between 1 and "
+                                               + "the ring capacity.");
+        }
+        myCart = new Cart();
+        myCatalog = theCatalog.toArray(new Item[0]);
+        myIds = new IdentityHashMap<>(myCatalog.length);
+        for (int i = 0; i < myCatalog.length; i++) {
+            myIds.putIfAbsent(myCatalog[i], i);
+        }
+        myCodec = new CartCodec(theCatalog);
+        myRing = new long[theRingCapacity];
+        mySnapshotInterval = theSnapshotInterval;
+        myCheckpoints = new ArrayDeque<>();
+        myCheckpoints.add(new Checkpoint(0, myCart.snapshot()));
+        myLogFile = theLogFile;
+        myLog = theLog;
+        myLogBuffer = ByteBuffer.allocateDirect(LOG_BUFFER_BYTES);
+    }
+
+    /**
+     * Adds an order, as Cart.add does, and records it.
+     * @param theOrder the order
+     * @throws IllegalArgumentException if the item is not in the catalog
+     * @throws IOException if the event cannot be logged
+     */
+    public void add(final ItemOrder theOrder) throws IOException {
+        final Integer id = myIds.get(theOrder.getItem());
+        if (id == null || id > MAX_ID) {
+            throw new IllegalArgumentException("Item not in catalog: " + theOrder.getItem());
+        }
+        myCart.add(theOrder);
+        record(((long) ADD << TYPE_SHIFT) | ((long) id << ID_SHIFT)
+               | (theOrder.getQuantity() & QUANTITY_MASK));
+    }
+
+    /**
+     * Clears the cart and records it.
+     * @throws IOException if the event cannot be logged
+     */
+    public void clear() throws IOException {
+        myCart.clear();
+        record((long) CLEAR << TYPE_SHIFT);
+    }
+
+    /**
+     * Sets the membership flag and records it if it changed.
+     * @param theMembership whether the customer is a store member
+     * @throws IOException if the event cannot be logged
+     */
+    public void setMembership(final boolean theMembership) throws IOException {
+        if (theMembership != myMembership) {
+            myMembership = theMembership;
+            myCart.setMembership(theMembership);
+            int type = NON_MEMBER;
+            if (theMembership) {
+                type = MEMBER;
+            }
+            record((long) type << TYPE_SHIFT);
+        }
+    }
+
+    /**
+     * Returns the current total, as Cart.calculateTotal does.
+     * @return the cart total
+     */
+    public BigDecimal calculateTotal() {
+        return myCart.calculateTotal();
+    }
+
+    /**
+     * Returns the number of events recorded so far.
+     * @return the current sequence number
+     */
+    public long getSequence() {
+        return mySequence;
+    }
+
+    /**
+     * Returns the oldest sequence number that stateAt can still rebuild.
+     * @return the oldest replayable sequence number
+     */
+    public long getOldestReplayable() {
+        return myCheckpoints.peekFirst().mySequence;
+    }
+
+    /**
+     * Returns an immutable snapshot of the current cart.
+     * @return the snapshot
+     */
+    public CartSnapshot snapshot() {
+        return myCart.snapshot();
+    }
+
+    /**
+     * Rebuilds the cart as it was after a given number of events.
+     * @param theSequence the number of events to include
+     * @return a new cart in that state
+     * @throws IllegalArgumentException if theSequence is in the future or
+     * older than getOldestReplayable
+     */
+    public Cart stateAt(final long theSequence) {
+        if (theSequence > mySequence || theSequence < getOldestReplayable()) {
+            throw new IllegalArgumentException("Sequence " + theSequence + " is outside "
+                                               + getOldestReplayable() + ".." + mySequence);
+        }
+        Checkpoint start = myCheckpoints.peekFirst();
+        final Iterator<Checkpoint> checkpoints = myCheckpoints.iterator();
+        while (checkpoints.hasNext()) {
+            final Checkpoint checkpoint = checkpoints.next();
+            if (checkpoint.mySequence <= theSequence) {
+                start = checkpoint;
+            }
+        }
+        final Cart cart = restore(start.mySnapshot);
+        for (long n = start.mySequence; n < theSequence; n++) {
+            apply(cart, myRing[(int) (n % myRing.length)]);
+        }
+        return cart;
+    }
+
+    /**
+     * Writes any buffered events to the log file.
+     * @throws IOException if the write fails
+     */
+    public void flush() throws IOException {
+        if (myLog != null) {
+            myLogBuffer.flip();
+            while (myLogBuffer.hasRemaining()) {
+                myLog.write(myLogBuffer);
+            }
+            myLogBuffer.clear();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (myLog != null) {
+            flush();
+            myLog.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return myCart.toString();
+    }
+
+    /**
+     * Rebuilds a cart from a log file and its snapshot file after a crash.
+     * Replay starts at the snapshot, so it covers at most one snapshot
+     * interval of events. A torn event at the end of the log is ignored.
+     * @param theCatalog the catalog the log was written with
+     * @param theLogFile the log file
+     * @return the recovered cart
+     * @throws IOException if the files cannot be read
+     */
+    public static Cart recover(final List<Item> theCatalog, final Path theLogFile)
+        throws IOException {
+        final Item[] catalog = theCatalog.toArray(new Item[0]);
+        Cart cart = new Cart();
+        long sequence = 0;
+        final Path snapshotFile = snapshotFile(theLogFile);
+        if (Files.exists(snapshotFile)) {
+            final ByteBuffer snapshot = ByteBuffer.wrap(Files.readAllBytes(snapshotFile));
+            sequence = snapshot.getLong();
+            cart = new CartCodec(theCatalog).read(snapshot);
+        }
+        try (FileChannel log = FileChannel.open(theLogFile, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(LOG_BUFFER_BYTES);
+            long position = sequence * EVENT_BYTES;
+            boolean more = true;
+            while (more) {
+                buffer.clear();
+                log.read(buffer, position);
+                buffer.flip();
+                more = buffer.remaining() >= EVENT_BYTES;
+                while (buffer.remaining() >= EVENT_BYTES) {
+                    applyTo(cart, buffer.getLong(), catalog);
+                    position += EVENT_BYTES;
+                }
+            }
+        }
+        return cart;
+    }
+
+    /**
+     * Records an event, taking a snapshot at every interval.
+     * @param theEvent the encoded event
+     * @throws IOException if the event cannot be logged
+     */
+    private void record(final long theEvent) throws IOException {
+        myRing[(int) (mySequence % myRing.length)] = theEvent;
+        mySequence++;
+        if (myLog != null) {
+            if (!myLogBuffer.hasRemaining()) {
+                flush();
+            }
+            myLogBuffer.putLong(theEvent);
+        }
+        if (mySequence % mySnapshotInterval == 0) {
+            checkpoint();
+        }
+        while (myCheckpoints.peekFirst().mySequence < mySequence - myRing.length) {
+            myCheckpoints.removeFirst();
+        }
+    }
+
+    /**
+     * Takes a snapshot at the current sequence.
+     * @throws IOException if the snapshot file cannot be written
+     */
+    private void checkpoint() throws IOException {
+        final CartSnapshot snapshot = myCart.snapshot();
+        myCheckpoints.addLast(new Checkpoint(mySequence, snapshot));
+        if (myLog != null) {
+            flush();
+            final int size = Long.BYTES + CartCodec.maxEncodedSize(snapshot);
+            final ByteBuffer buffer = ByteBuffer.allocate(size);
+            buffer.putLong(mySequence);
+            myCodec.write(snapshot, buffer);
+            buffer.flip();
+            final Path temporary = myLogFile.resolveSibling(myLogFile.getFileName()
+                                                            + SNAPSHOT_SUFFIX + ".tmp");
+            try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            }
+            Files.move(temporary, snapshotFile(myLogFile), StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Applies an event to a cart using this cart's catalog.
+     * @param theCart the cart to change
+     * @param theEvent the encoded event
+     */
+    private void apply(final Cart theCart, final long theEvent) {
+        applyTo(theCart, theEvent, myCatalog);
+    }
+
+    /**
+     * Applies an event to a cart.
+     * @param theCart the cart to change
+     * @param theEvent the encoded event
+     * @param theCatalog the catalog, indexed by id
+     */
+    private static void applyTo(final Cart theCart, final long theEvent,
+                                final Item[] theCatalog) {
+        final int type = (int) (theEvent >>> TYPE_SHIFT);
+        switch (type) {
+            case ADD:
+                theCart.add(new ItemOrder(theCatalog[(int) (theEvent >>> ID_SHIFT) & MAX_ID],
+                                          (int) (theEvent & QUANTITY_MASK)));
+                break;
+            case CLEAR:
+                theCart.clear();
+                break;
+            case MEMBER:
+                theCart.setMembership(true);
+                break;
+            default:
+                theCart.setMembership(false);
+                break;
+        }
+    }
+
+    /**
+     * Builds a new cart holding a snapshot's lines and membership.
+     * @param theSnapshot the snapshot
+     * @return the cart
+     */
+    private static Cart restore(final CartSnapshot theSnapshot) {
+        final Cart cart = new Cart();
+        cart.setMembership(theSnapshot.isMember());
+        for (final ItemOrder order : theSnapshot) {
+            cart.add(order);
+        }
+        return cart;
+    }
+
+    /**
+     * Returns the snapshot file that goes with a log file.
+     * @param theLogFile the log file
+     * @return the snapshot file
+     */
+    private static Path snapshotFile(final Path theLogFile) {
+        return theLogFile.resolveSibling(theLogFile.getFileName() + SNAPSHOT_SUFFIX);
+    }
+
+    /** A snapshot and the number of events it includes. */
+    private static final class Checkpoint {
+
+        /** Number of events included in the snapshot. */
+        private final long mySequence;
+
+        /** The cart after those events. */
+        private final CartSnapshot mySnapshot;
+
+        /**
+         * Constructs a checkpoint.
+         * @param theSequence number of events included
+         * @param theSnapshot the cart after those events
+         */
+        Checkpoint(final long theSequence, final CartSnapshot theSnapshot) {
+            mySequence = theSequence;
+            mySnapshot = theSnapshot;
+        }
+    }
+}
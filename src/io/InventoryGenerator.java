@@ -0,0 +1,210 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package io;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import res.R;
+
+/**
+ * Writes synthetic campus inventories and configuration files in the
+ * format InventoryLoader reads, for tests and benchmarks at sizes the
+ * shipped files do not reach.
+ *
+ * Each line is name;price or, for a bulk item, name;price;bulkQty;bulkPrice.
+ * Names are made from a fixed vocabulary and end in the item's line number,
+ * so every name in a file is distinct; some carry the punctuation the
+ * shipped files use. Prices have two decimal places, and a bulk price is
+ * always below the same quantity bought singly. Which items are bulk is
+ * decided at random with the given ratio.
+ *
+ * Output is deterministic: the same seed, ratio, campus, and size always
+ * give the same bytes, on any machine.
+ *
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class InventoryGenerator {
+
+    /** Adjectives names start with. */
+    private static final String[] ADJECTIVES = {
+        "Husky", "Purple", "Gold", "Classic", "Deluxe", "Compact", "Recycled", "Campus",
+        "Vintage", "Graphing", "Wireless", "Spiral", "Insulated", "Official", "Mini",
+    };
+
+    /** Nouns names go on with. */
+    private static final String[] NOUNS = {
+        "Hoodie", "Mug", "Pen", "Note pad", "Binder", "Backpack", "Lanyard", "Calculator",
+        "Water bottle", "Beanie", "Sticker", "Notebook", "Planner", "Highlighter", "Scarf",
+    };
+
+    /** Text some names are wrapped in, as in the shipped files. */
+    private static final String QUOTE = "'";
+
+    /** Out of how many names one is quoted. */
+    private static final int QUOTED_ONE_IN = 10;
+
+    /** Least single price, in cents. */
+    private static final int MIN_CENTS = 25;
+
+    /** Greatest single price, in cents. */
+    private static final int MAX_CENTS = 150_000;
+
+    /** Least bulk quantity. */
+    private static final int MIN_BULK_QUANTITY = 2;
+
+    /** Greatest bulk quantity. */
+    private static final int MAX_BULK_QUANTITY = 25;
+
+    /** Least bulk discount, in percent. */
+    private static final int MIN_DISCOUNT = 5;
+
+    /** Greatest bulk discount, in percent. */
+    private static final int MAX_DISCOUNT = 40;
+
+    /** Percent in a whole. */
+    private static final int PERCENT = 100;
+
+    /** Spreads the seeds of different campuses apart. */
+    private static final long CAMPUS_STRIDE = 0x9E3779B97F4A7C15L;
+
+    /** The seed all output derives from. */
+    private final long mySeed;
+
+    /** The fraction of items sold in bulk, from 0 to 1. */
+    private final double myBulkRatio;
+
+    /**
+     * Constructs a generator.
+     * @param theSeed the seed all output derives from.
+     * @param theBulkRatio the fraction of items sold in bulk, from 0 to 1.
+     * @throws IllegalArgumentException if the ratio is outside 0 to 1.
+     */
+    public InventoryGenerator(final long theSeed, final double theBulkRatio) {
+        if (!(theBulkRatio >= 0 && theBulkRatio <= 1)) {
+            throw new IllegalArgumentException("Bulk ratio must be from 0 to 1.");
+        }
+        mySeed = theSeed;
+        myBulkRatio = theBulkRatio;
+    }
+
+    /**
+     * Writes campus inventories and a configuration file naming them. The
+     * campuses are named Campus1, Campus2, and so on.
+     * @param theDirectory the directory to write to.
+     * @param theCampuses the number of campuses.
+     * @param theItems the number of items at each campus.
+     * @return the campus names, in order.
+     * @throws IOException if a file cannot be written.
+     * @throws IllegalArgumentException if either count is negative.
+     */
+    public List<String> writeCampuses(final Path theDirectory, final int theCampuses,
+                                      final int theItems) throws IOException {
+        if (theCampuses < 0) {
+            throw new IllegalArgumentException("Campuses cannot be less than 0.");
+        }
+        final List<String> campuses = new ArrayList<>();
+        for (int c = 1; c <= theCampuses; c++) {
+            final String campus = "Campus" + c;
+            writeInventory(theDirectory.resolve(campus.toLowerCase(Locale.ENGLISH)
+                                                + R.Strings.IO_FILE_EXTENSION),
+                           campus, theItems);
+            campuses.add(campus);
+        }
+        writeConfiguration(theDirectory.resolve(R.Strings.IO_CONFIG_FILE), campuses);
+        return campuses;
+    }
+
+    /**
+     * Writes one campus inventory.
+     * @param theFile the file to write.
+     * @param theCampus the campus name, which seeds the file's contents.
+     * @param theItems the number of items.
+     * @throws IOException if the file cannot be written.
+     * @throws IllegalArgumentException if the number of items is negative.
+     */
+    public void writeInventory(final Path theFile, final String theCampus,
+                               final int theItems) throws IOException {
+        if (theItems < 0) {
+            throw new IllegalArgumentException("Items cannot be less than 0.");
+        }
+        final Random random = new Random(mySeed + CAMPUS_STRIDE * theCampus.hashCode());
+        try (BufferedWriter out = Files.newBufferedWriter(theFile, StandardCharsets.UTF_8)) {
+            final StringBuilder line = new StringBuilder();
+            for (int i = 1; i <= theItems; i++) {
+                line.setLength(0);
+                appendItem(line, random, i);
+                out.append(line).append('\n');
+            }
+        }
+    }
+
+    /**
+     * Writes a configuration file in the shipped file's form: a comment
+     * line, then one campus per line.
+     * @param theFile the file to write.
+     * @param theCampuses the campus names.
+     * @throws IOException if the file cannot be written.
+     */
+    public void writeConfiguration(final Path theFile, final List<String> theCampuses)
+        throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(theFile, StandardCharsets.UTF_8)) {
+            out.append(R.Strings.IO_FILE_COMMENT).append("generated, seed ")
+               .append(Long.toString(mySeed)).append('\n');
+            for (final String campus : theCampuses) {
+                out.append(campus).append('\n');
+            }
+        }
+    }
+
+    /**
+     * Appends one inventory line, without its line terminator.
+     * @param theLine receives the line.
+     * @param theRandom the source of names and prices.
+     * @param theNumber the line number, which ends the name.
+     */
+    private void appendItem(final StringBuilder theLine, final Random theRandom,
+                            final int theNumber) {
+        final boolean quoted = theRandom.nextInt(QUOTED_ONE_IN) == 0;
+        if (quoted) {
+            theLine.append(QUOTE);
+        }
+        theLine.append(ADJECTIVES[theRandom.nextInt(ADJECTIVES.length)]).append(' ')
+               .append(NOUNS[theRandom.nextInt(NOUNS.length)]);
+        if (quoted) {
+            theLine.append('!').append(QUOTE);
+        }
+        theLine.append(' ').append(theNumber);
+
+        final int cents = MIN_CENTS + theRandom.nextInt(MAX_CENTS - MIN_CENTS + 1);
+        theLine.append(R.Strings.IO_FILE_DELIMITER).append(dollars(cents));
+        if (theRandom.nextDouble() < myBulkRatio) {
+            final int quantity = MIN_BULK_QUANTITY + theRandom.nextInt(
+                MAX_BULK_QUANTITY - MIN_BULK_QUANTITY + 1);
+            final int discount = MIN_DISCOUNT
+                                 + theRandom.nextInt(MAX_DISCOUNT - MIN_DISCOUNT + 1);
+            final long bulkCents = (long) cents * quantity * (PERCENT - discount) / PERCENT;
+            theLine.append(R.Strings.IO_FILE_DELIMITER).append(quantity)
+                   .append(R.Strings.IO_FILE_DELIMITER).append(dollars(bulkCents));
+        }
+    }
+
+    /**
+     * Formats an amount of cents as dollars with two decimal places.
+     * @param theCents the amount.
+     * @return the dollars.
+     */
+    private static String dollars(final long theCents) {
+        return BigDecimal.valueOf(theCents, 2).toPlainString();
+    }
+}
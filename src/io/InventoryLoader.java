@@ -5,12 +5,21 @@
 package io;
 
 import java.io.IOException;
-import java.math.BigDecimal;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Scanner;
+import java.util.Spliterator;
+import java.util.Spliterators.AbstractSpliterator;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import model.Item;
+import model.ItemRegistry;
 import res.R;
 
 /**
@@ -20,6 +29,17 @@ import res.R;
  * @version Autumn 2015
  */
 public final class InventoryLoader {
+
+    /** Characteristics of the streams over a file. */
+    private static final int STREAM_CHARACTERISTICS = Spliterator.ORDERED
+                                                      | Spliterator.NONNULL;
+
+    /** Makes the daemon threads that load campus inventories. */
+    static final ThreadFactory LOADER_THREADS = theTask -> {
+        final Thread thread = new Thread(theTask, "inventory-loader");
+        thread.setDaemon(true);
+        return thread;
+    };
     
     /**
      * A private constructor, to prevent external instantiation.
@@ -30,33 +50,136 @@ public final class InventoryLoader {
     
     /**
      * Reads item information from a file and returns a List of Item objects.
+     * Items are shared through the default ItemRegistry, so a product listed
+     * by several campuses is the same Item object in each list.
      * @param theFile the name of the file to load into a List of Items
      * @return a List of Item objects created from data in an input file
      */
     public static List<Item> readItemsFromFile(final String theFile) {
-        final List<Item> items = new LinkedList<>();
-        
-        try (Scanner input = new Scanner(Paths.get(theFile))) { 
-            while (input.hasNextLine()) {
-                final String[] parts = input.nextLine().split(R.Strings.IO_FILE_DELIMITER);
-                final String itemName = parts[R.Indicies.IF_ITEM_NAME];
-                final BigDecimal itemPrice = new BigDecimal(parts[R.Indicies.IF_ITEM_PRICE]);
-                if (parts.length > 2) {
-                    final int bulkQuantity = 
-                                    Integer.valueOf(parts[R.Indicies.IF_ITEM_BULK_QUANITIY]);
-                    final BigDecimal bulkPrice = 
-                                    new BigDecimal(parts[R.Indicies.IF_ITEM_BULK_PRICE]);
-                    items.add(new Item(itemName, itemPrice, bulkQuantity, bulkPrice));
-                } else {
-                    items.add(new Item(itemName, itemPrice));
-                }
-            }
+        return readItemsFromFile(theFile, ItemRegistry.getDefault());
+    }
+
+    /**
+     * Reads item information from a file and returns a List of Item objects
+     * shared through a registry. The file is scanned as bytes by an
+     * InventoryParser rather than line by line through a Scanner.
+     * @param theFile the name of the file to load into a List of Items
+     * @param theRegistry the registry that hands out the Item objects
+     * @return a List of Item objects created from data in an input file
+     */
+    public static List<Item> readItemsFromFile(final String theFile,
+                                               final ItemRegistry theRegistry) {
+        List<Item> items = new LinkedList<>();
+        try {
+            items = loadItemsFromFile(theFile, theRegistry);
         } catch (final IOException e) {
             e.printStackTrace();
         } 
         return items;
     }
-    
+
+    /**
+     * Reads item information from a file and returns a List of Item objects
+     * shared through a registry, reporting a file that cannot be read rather
+     * than returning what was read of it.
+     * @param theFile the name of the file to load into a List of Items
+     * @param theRegistry the registry that hands out the Item objects
+     * @return a List of Item objects created from data in an input file
+     * @throws IOException if the file cannot be read
+     */
+    public static List<Item> loadItemsFromFile(final String theFile,
+                                               final ItemRegistry theRegistry)
+        throws IOException {
+        final List<Item> items = new LinkedList<>();
+        try (Stream<Item> stream = streamItemsFromFile(theFile, theRegistry)) {
+            stream.forEachOrdered(items::add);
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return items;
+    }
+
+    /**
+     * Reads a campus inventory file, through its binary snapshot when the
+     * snapshot is current. The snapshot sits beside the file and is
+     * memory-mapped, so no text or prices are parsed. When there is no
+     * snapshot, or the file's size, modification time, or CRC-32C no longer
+     * match it, the text file is parsed and a new snapshot is written for
+     * next time. A snapshot that cannot be written is simply skipped.
+     * @param theFile the name of the inventory file
+     * @param theRegistry the registry that hands out the Item objects
+     * @return a List of Item objects created from data in an input file
+     * @throws IOException if the inventory file cannot be read
+     */
+    public static List<Item> loadCampusItems(final String theFile,
+                                             final ItemRegistry theRegistry)
+        throws IOException {
+        final Path text = Paths.get(theFile);
+        final InventorySnapshot.Stamp stamp = InventorySnapshot.Stamp.of(text);
+        List<Item> items = InventorySnapshot.read(text, stamp, theRegistry);
+        if (items == null) {
+            items = loadItemsFromFile(theFile, theRegistry);
+            if (stamp.isCurrent(text)) {
+                InventorySnapshot.write(text, stamp, items);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Returns a lazy stream of the items in a file, read one line at a time
+     * as the stream is consumed. Each line becomes a new Item that nothing
+     * else keeps, so a file of any size is processed in constant memory,
+     * which suits jobs that only filter or aggregate a catalog.
+     * 
+     * The file stays open until the stream is closed, so use the stream in a
+     * try-with-resources statement. Short-circuiting operations such as
+     * findFirst or limit stop reading early.
+     * @param theFile the name of the file to read
+     * @return the stream of items
+     * @throws IOException if the file cannot be opened; an error while
+     * reading is thrown from the stream as an UncheckedIOException
+     */
+    public static Stream<Item> streamItemsFromFile(final String theFile) throws IOException {
+        return streamItemsFromFile(theFile, null);
+    }
+
+    /**
+     * Returns a lazy stream of the items in a file, shared through a
+     * registry. The file stays open until the stream is closed. A registry
+     * keeps every distinct item it hands out, so memory grows with the
+     * number of distinct products read.
+     * @param theFile the name of the file to read
+     * @param theRegistry the registry that hands out the Item objects, or
+     * null to make a new Item for each line
+     * @return the stream of items
+     * @throws IOException if the file cannot be opened; an error while
+     * reading is thrown from the stream as an UncheckedIOException
+     */
+    public static Stream<Item> streamItemsFromFile(final String theFile,
+                                                   final ItemRegistry theRegistry)
+        throws IOException {
+        final InventoryParser parser =
+                        new InventoryParser(FileChannel.open(Paths.get(theFile)), theRegistry);
+        final Spliterator<Item> items =
+                        new AbstractSpliterator<>(Long.MAX_VALUE, STREAM_CHARACTERISTICS) {
+                @Override
+                public boolean tryAdvance(final Consumer<? super Item> theAction) {
+                    final Item item;
+                    try {
+                        item = parser.next();
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    if (item != null) {
+                        theAction.accept(item);
+                    }
+                    return item != null;
+                }
+            };
+        return StreamSupport.stream(items, false).onClose(() -> close(parser));
+    }
+
     /**
      * Reads item information from a file and returns a List of Item objects.
      * @param theFile the name of the file to load into a List of Items
@@ -65,19 +188,51 @@ public final class InventoryLoader {
     public static List<String> readConfigurationFromFile(final String theFile) {
         final List<String> results = new LinkedList<>();
         
-        try (Scanner input = new Scanner(Paths.get(theFile))) { 
-            while (input.hasNextLine()) {
-                final String line = input.nextLine();
-                
-                if (!line.startsWith(R.Strings.IO_FILE_COMMENT)) {
-                    results.add(line);
-                }
-                
-            }
+        try (Stream<String> lines = streamConfigurationFromFile(theFile)) { 
+            lines.forEachOrdered(results::add);
         } catch (final IOException e) {
             e.printStackTrace();
         } 
     
         return results;
-    }    
+    }
+
+    /**
+     * Returns a lazy stream of the lines of a configuration file that are not
+     * comments, read as the stream is consumed. The file stays open until
+     * the stream is closed.
+     * @param theFile the name of the file to read
+     * @return the stream of lines
+     * @throws IOException if the file cannot be opened
+     */
+    public static Stream<String> streamConfigurationFromFile(final String theFile)
+        throws IOException {
+        final Scanner input = new Scanner(Paths.get(theFile));
+        final Spliterator<String> lines =
+                        new AbstractSpliterator<>(Long.MAX_VALUE, STREAM_CHARACTERISTICS) {
+                @Override
+                public boolean tryAdvance(final Consumer<? super String> theAction) {
+                    final boolean more = input.hasNextLine();
+                    if (more) {
+                        theAction.accept(input.nextLine());
+                    }
+                    return more;
+                }
+            };
+        return StreamSupport.stream(lines, false).onClose(input::close)
+                        .filter(theLine -> !theLine.startsWith(R.Strings.IO_FILE_COMMENT));
+    }
+
+    /**
+     * Closes a parser for a stream's close handler.
+     * @param theParser the parser
+     * @throws UncheckedIOException if the parser cannot be closed
+     */
+    private static void close(final InventoryParser theParser) {
+        try {
+            theParser.close();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,380 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import model.Item;
+import model.ItemRegistry;
+import res.R;
+
+/**
+ * Reads items from an inventory file by scanning its bytes, without a
+ * Scanner, regular expressions, or a String per line. The file is read in
+ * large blocks into one buffer; lines and fields are found by looking for
+ * line terminators and ';' bytes. Prices are parsed straight into an
+ * unscaled long and a scale, and only the item name becomes a String.
+ *
+ * The result is the same as the Scanner and String.split loader it
+ * replaces: the same line terminators end a line, trailing empty fields are
+ * dropped, a line with more than two fields is a bulk item, and prices keep
+ * the scale they were written with. Fields that the fast path does not
+ * handle, such as exponents or very long numbers, are handed to BigDecimal
+ * and Integer.valueOf as before, so they parse or fail the same way. A line
+ * with too few fields fails with an IllegalArgumentException naming the
+ * line.
+ *
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+final class InventoryParser implements Closeable {
+
+    /** Size of a block read from the channel. */
+    private static final int BLOCK_BYTES = 1 << 20;
+
+    /** The field delimiter, which is ASCII. */
+    private static final byte DELIMITER = (byte) R.Strings.IO_FILE_DELIMITER.charAt(0);
+
+    /** Fields of a bulk item line. */
+    private static final int BULK_FIELDS = 4;
+
+    /** Most decimal digits that always fit in a long. */
+    private static final int MAX_LONG_DIGITS = 18;
+
+    /** Most decimal digits that always fit in an int. */
+    private static final int MAX_INT_DIGITS = 9;
+
+    /** Decimal radix. */
+    private static final int RADIX = 10;
+
+    /** First byte of the UTF-8 form of U+0085, NEXT LINE. */
+    private static final byte NEL_FIRST = (byte) 0xC2;
+
+    /** Second byte of the UTF-8 form of U+0085. */
+    private static final byte NEL_SECOND = (byte) 0x85;
+
+    /** First byte of the UTF-8 forms of U+2028 and U+2029. */
+    private static final byte SEPARATOR_FIRST = (byte) 0xE2;
+
+    /** Second byte of the UTF-8 forms of U+2028 and U+2029. */
+    private static final byte SEPARATOR_SECOND = (byte) 0x80;
+
+    /** Third byte of the UTF-8 form of U+2028, LINE SEPARATOR. */
+    private static final byte LINE_SEPARATOR_THIRD = (byte) 0xA8;
+
+    /** Third byte of the UTF-8 form of U+2029, PARAGRAPH SEPARATOR. */
+    private static final byte PARAGRAPH_SEPARATOR_THIRD = (byte) 0xA9;
+
+    /** Bytes of lookahead needed to recognize any line terminator. */
+    private static final int LOOKAHEAD = 3;
+
+    /** The channel being read. */
+    private final ReadableByteChannel myChannel;
+
+    /** The registry that hands out the items, or null to make new items. */
+    private final ItemRegistry myRegistry;
+
+    /** Start of each field of the current line, as indexes into myBytes. */
+    private final int[] myFieldStarts;
+
+    /** End of each field of the current line. */
+    private final int[] myFieldEnds;
+
+    /** The bytes read and not yet parsed, from myPosition to myLimit. */
+    private byte[] myBytes;
+
+    /** Index of the next unparsed byte. */
+    private int myPosition;
+
+    /** Index after the last byte read. */
+    private int myLimit;
+
+    /** Whether the channel has no more bytes. */
+    private boolean myEndOfInput;
+
+    /** Number of the line last parsed, counting from 1. */
+    private int myLineNumber;
+
+    /**
+     * Constructs a parser.
+     * @param theChannel the channel to read; closed by close
+     * @param theRegistry the registry that hands out the items, or null to
+     * make a new item for each line, keeping nothing once it is used
+     */
+    InventoryParser(final ReadableByteChannel theChannel, final ItemRegistry theRegistry) {
+        myChannel = theChannel;
+        myRegistry = theRegistry;
+        myFieldStarts = new int[BULK_FIELDS];
+        myFieldEnds = new int[BULK_FIELDS];
+        myBytes = new byte[BLOCK_BYTES];
+    }
+
+    /**
+     * Parses the next line.
+     * @return the line's item, or null at the end of the file
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the line has too few fields
+     * @throws NumberFormatException if a number is malformed
+     */
+    Item next() throws IOException {
+        int end = findLineEnd();
+        while (end < 0 && !myEndOfInput) {
+            fill();
+            end = findLineEnd();
+        }
+        Item item = null;
+        if (end < 0 && myPosition < myLimit) {
+            end = myLimit;
+        }
+        if (end >= 0) {
+            myLineNumber++;
+            item = parseLine(myPosition, end);
+            myPosition = end + terminatorLength(end);
+        }
+        return item;
+    }
+
+    @Override
+    public void close() throws IOException {
+        myChannel.close();
+    }
+
+    /**
+     * Finds the end of the line starting at myPosition.
+     * @return the index of the line's terminator, or -1 if the buffered
+     * bytes do not yet hold a whole terminator
+     */
+    private int findLineEnd() {
+        final byte[] bytes = myBytes;
+        int result = -1;
+        int i = myPosition;
+        while (result < 0 && i < myLimit) {
+            final byte b = bytes[i];
+            if (b == '\n' || b == '\r' || b == NEL_FIRST || b == SEPARATOR_FIRST) {
+                if (!myEndOfInput && i + LOOKAHEAD > myLimit) {
+                    break;
+                }
+                if (terminatorLength(i) > 0) {
+                    result = i;
+                }
+            }
+            i++;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the length of the line terminator at an index: one of \n,
+     * \r\n, \r, U+0085, U+2028 and U+2029, as Scanner.nextLine recognizes.
+     * @param theIndex the index
+     * @return the terminator's length in bytes, or 0 if there is none there
+     */
+    private int terminatorLength(final int theIndex) {
+        final byte[] bytes = myBytes;
+        final int remaining = myLimit - theIndex;
+        int length = 0;
+        if (remaining > 0) {
+            final byte b = bytes[theIndex];
+            if (b == '\n') {
+                length = 1;
+            } else if (b == '\r') {
+                length = 1;
+                if (remaining > 1 && bytes[theIndex + 1] == '\n') {
+                    length = 2;
+                }
+            } else if (b == NEL_FIRST && remaining > 1 && bytes[theIndex + 1] == NEL_SECOND) {
+                length = 2;
+            } else if (b == SEPARATOR_FIRST && remaining > 2
+                       && bytes[theIndex + 1] == SEPARATOR_SECOND
+                       && (bytes[theIndex + 2] == LINE_SEPARATOR_THIRD
+                           || bytes[theIndex + 2] == PARAGRAPH_SEPARATOR_THIRD)) {
+                length = LOOKAHEAD;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Moves the unparsed bytes to the front of the buffer, growing it if a
+     * line fills it, and reads the next block.
+     * @throws IOException if the file cannot be read
+     */
+    private void fill() throws IOException {
+        final int unparsed = myLimit - myPosition;
+        if (unparsed > myBytes.length / 2) {
+            myBytes = Arrays.copyOfRange(myBytes, myPosition, myBytes.length * 2);
+        } else {
+            System.arraycopy(myBytes, myPosition, myBytes, 0, unparsed);
+        }
+        myPosition = 0;
+        myLimit = unparsed;
+        final ByteBuffer buffer = ByteBuffer.wrap(myBytes, myLimit, myBytes.length - myLimit);
+        int read = 0;
+        while (read == 0) {
+            read = myChannel.read(buffer);
+        }
+        if (read < 0) {
+            myEndOfInput = true;
+        } else {
+            myLimit += read;
+        }
+    }
+
+    /**
+     * Parses one line into an item.
+     * @param theStart index of the line's first byte
+     * @param theEnd index after the line's last byte
+     * @return the item
+     */
+    private Item parseLine(final int theStart, final int theEnd) {
+        final byte[] bytes = myBytes;
+        int fields = 0;
+        int fieldStart = theStart;
+        for (int i = theStart; i <= theEnd && fields < BULK_FIELDS; i++) {
+            if (i == theEnd || bytes[i] == DELIMITER) {
+                myFieldStarts[fields] = fieldStart;
+                myFieldEnds[fields] = i;
+                fields++;
+                fieldStart = i + 1;
+            }
+        }
+        while (fields > 0 && myFieldStarts[fields - 1] == myFieldEnds[fields - 1]
+               && (fields < BULK_FIELDS || onlyDelimiters(myFieldEnds[fields - 1], theEnd))) {
+            fields--;
+        }
+        if (fields < 2 || fields == BULK_FIELDS - 1) {
+            throw new IllegalArgumentException("Inventory line " + myLineNumber
+                                               + " has " + fields + " fields.");
+        }
+        final String name = fieldString(R.Indicies.IF_ITEM_NAME);
+        final BigDecimal price = parseDecimal(R.Indicies.IF_ITEM_PRICE);
+        final Item item;
+        if (fields > 2) {
+            final int bulkQuantity = parseInt(R.Indicies.IF_ITEM_BULK_QUANITIY);
+            final BigDecimal bulkPrice = parseDecimal(R.Indicies.IF_ITEM_BULK_PRICE);
+            if (myRegistry == null) {
+                item = new Item(name, price, bulkQuantity, bulkPrice);
+            } else {
+                item = myRegistry.intern(name, price, bulkQuantity, bulkPrice);
+            }
+        } else if (myRegistry == null) {
+            item = new Item(name, price);
+        } else {
+            item = myRegistry.intern(name, price);
+        }
+        return item;
+    }
+
+    /**
+     * Returns whether the rest of a line holds only delimiters, so that the
+     * fields there are trailing empty fields that String.split drops.
+     * @param theFrom the index to check from
+     * @param theEnd index after the line's last byte
+     * @return true if every byte from theFrom is a delimiter
+     */
+    private boolean onlyDelimiters(final int theFrom, final int theEnd) {
+        boolean result = true;
+        for (int i = theFrom; i < theEnd && result; i++) {
+            result = myBytes[i] == DELIMITER;
+        }
+        return result;
+    }
+
+    /**
+     * Parses a field as a BigDecimal with the scale it was written with.
+     * @param theField the field number
+     * @return the value
+     * @throws NumberFormatException if the field is not a number
+     */
+    private BigDecimal parseDecimal(final int theField) {
+        final byte[] bytes = myBytes;
+        final int end = myFieldEnds[theField];
+        int i = myFieldStarts[theField];
+        boolean negative = false;
+        if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+        boolean plain = true;
+        for (; i < end && plain; i++) {
+            final byte b = bytes[i];
+            if (b >= '0' && b <= '9') {
+                unscaled = unscaled * RADIX + (b - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (b == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                plain = false;
+            }
+        }
+        final BigDecimal result;
+        if (plain && digits > 0 && digits <= MAX_LONG_DIGITS) {
+            if (negative) {
+                unscaled = -unscaled;
+            }
+            result = BigDecimal.valueOf(unscaled, Math.max(scale, 0));
+        } else {
+            result = new BigDecimal(fieldString(theField));
+        }
+        return result;
+    }
+
+    /**
+     * Parses a field as an int, as Integer.valueOf does.
+     * @param theField the field number
+     * @return the value
+     * @throws NumberFormatException if the field is not an int
+     */
+    private int parseInt(final int theField) {
+        final byte[] bytes = myBytes;
+        final int end = myFieldEnds[theField];
+        int i = myFieldStarts[theField];
+        boolean negative = false;
+        if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+        final int digits = end - i;
+        int value = 0;
+        boolean plain = digits > 0 && digits <= MAX_INT_DIGITS;
+        for (; i < end && plain; i++) {
+            final byte b = bytes[i];
+            plain = b >= '0' && b <= '9';
+            value = value * RADIX + (b - '0');
+        }
+        int result;
+        if (plain) {
+            result = value;
+            if (negative) {
+                result = -value;
+            }
+        } else {
+            result = Integer.valueOf(fieldString(theField));
+        }
+        return result;
+    }
+
+    /**
+     * Returns a field as a String, decoded as UTF-8.
+     * @param theField the field number
+     * @return the field's text
+     */
+    private String fieldString(final int theField) {
+        return new String(myBytes, myFieldStarts[theField],
+                          myFieldEnds[theField] - myFieldStarts[theField],
+                          StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,397 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package io;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+import model.Item;
+import model.ItemRegistry;
+import res.R;
+
+/**
+ * A binary copy of a parsed inventory file, kept next to it so that later
+ * starts can skip parsing. A snapshot holds the items in fixed-width columns
+ * (name offsets, prices as an unscaled long and a scale, bulk quantities, and
+ * bulk prices) followed by a table of the names in UTF-8. It is read by
+ * memory-mapping the file and building items straight from the columns.
+ *
+ * The header records the size, modification time, and CRC-32C of the text
+ * file the snapshot was made from, and a CRC-32C of the snapshot's own body.
+ * A snapshot is used only if all of them still match; otherwise the text
+ * file is parsed again. Snapshots are written to a temporary file and moved
+ * into place, so a reader never sees a partly written one.
+ *
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+final class InventorySnapshot {
+
+    /** The first four bytes of a snapshot, "UWIS". */
+    private static final int MAGIC = 0x55574953;
+
+    /** The snapshot format version. */
+    private static final int VERSION = 1;
+
+    /** Bytes in the header. */
+    private static final int HEADER_BYTES = 40;
+
+    /** Bytes of columns for each item, besides its share of the name offsets. */
+    private static final int ITEM_BYTES = Long.BYTES + 1 + Integer.BYTES + Long.BYTES + 1;
+
+    /** The bulk quantity column value for items without a bulk option. */
+    private static final int NOT_BULK = -1;
+
+    /** Bits in an unscaled price that fits in a long, including the sign. */
+    private static final int LONG_BITS = 63;
+
+    /**
+     * A private constructor, to prevent external instantiation.
+     */
+    private InventorySnapshot() {
+    }
+
+    /**
+     * Returns the snapshot file for an inventory file: the same name with the
+     * snapshot extension in place of the text extension.
+     * @param theText the inventory file
+     * @return the snapshot file beside it
+     */
+    static Path snapshotFile(final Path theText) {
+        String name = theText.getFileName().toString();
+        if (name.endsWith(R.Strings.IO_FILE_EXTENSION)) {
+            name = name.substring(0, name.length() - R.Strings.IO_FILE_EXTENSION.length());
+        }
+        return theText.resolveSibling(name + R.Strings.IO_SNAPSHOT_EXTENSION);
+    }
+
+    /**
+     * Reads an inventory file's snapshot, if it is current.
+     * @param theText the inventory file
+     * @param theStamp the inventory file's stamp
+     * @param theRegistry the registry that hands out the items
+     * @return the items, or null if there is no current, intact snapshot
+     */
+    static List<Item> read(final Path theText, final Stamp theStamp,
+                           final ItemRegistry theRegistry) {
+        List<Item> items = null;
+        try (FileChannel channel = FileChannel.open(snapshotFile(theText))) {
+            final long size = channel.size();
+            if (size >= HEADER_BYTES && size <= Integer.MAX_VALUE) {
+                items = read(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), theStamp,
+                             theRegistry);
+            }
+        } catch (final NoSuchFileException e) {
+            items = null;
+        } catch (final IOException e) {
+            e.printStackTrace();
+        }
+        return items;
+    }
+
+    /**
+     * Writes the snapshot of an inventory file. Nothing is written if an item
+     * has a price that does not fit the columns, or if the snapshot cannot be
+     * written; the inventory will then be parsed again next time.
+     * @param theText the inventory file
+     * @param theStamp the inventory file's stamp when the items were read
+     * @param theItems the items read from it
+     * @return whether the snapshot was written
+     */
+    static boolean write(final Path theText, final Stamp theStamp, final List<Item> theItems) {
+        final ByteBuffer buffer = encode(theStamp, theItems);
+        boolean written = false;
+        if (buffer != null) {
+            final Path file = snapshotFile(theText);
+            Path temporary = null;
+            try {
+                temporary = Files.createTempFile(file.toAbsolutePath().getParent(),
+                                                 file.getFileName().toString(), ".tmp");
+                try (FileChannel channel = FileChannel.open(temporary,
+                                                            StandardOpenOption.WRITE)) {
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                }
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+                           StandardCopyOption.ATOMIC_MOVE);
+                written = true;
+            } catch (final IOException e) {
+                deleteQuietly(temporary);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Reads the items from a mapped snapshot.
+     * @param theSnapshot the snapshot
+     * @param theStamp the inventory file's stamp
+     * @param theRegistry the registry that hands out the items
+     * @return the items, or null if the snapshot is stale or damaged
+     */
+    private static List<Item> read(final ByteBuffer theSnapshot, final Stamp theStamp,
+                                   final ItemRegistry theRegistry) {
+        final ByteBuffer header = theSnapshot.duplicate();
+        final int magic = header.getInt();
+        final int version = header.getInt();
+        final long size = header.getLong();
+        final long modified = header.getLong();
+        final int hash = header.getInt();
+        final boolean current = magic == MAGIC && version == VERSION
+                                && size == theStamp.mySize && modified == theStamp.myModified
+                                && hash == theStamp.myHash;
+        final int count = header.getInt();
+        final int namesLength = header.getInt();
+        final int bodyHash = header.getInt();
+        List<Item> items = null;
+        if (current && count >= 0 && namesLength >= 0
+            && theSnapshot.capacity() == bodyLength(count, namesLength) + HEADER_BYTES) {
+            final CRC32C crc = new CRC32C();
+            crc.update(theSnapshot.duplicate().position(HEADER_BYTES));
+            if ((int) crc.getValue() == bodyHash) {
+                items = decode(theSnapshot, count, namesLength, theRegistry);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Builds the items from the columns of an intact snapshot.
+     * @param theSnapshot the snapshot
+     * @param theCount the number of items
+     * @param theNamesLength the length of the name table
+     * @param theRegistry the registry that hands out the items
+     * @return the items
+     */
+    private static List<Item> decode(final ByteBuffer theSnapshot, final int theCount,
+                                     final int theNamesLength,
+                                     final ItemRegistry theRegistry) {
+        final int offsets = HEADER_BYTES;
+        final int prices = offsets + Integer.BYTES * (theCount + 1);
+        final int priceScales = prices + Long.BYTES * theCount;
+        final int bulkQuantities = priceScales + theCount;
+        final int bulkPrices = bulkQuantities + Integer.BYTES * theCount;
+        final int bulkScales = bulkPrices + Long.BYTES * theCount;
+        final byte[] names = new byte[theNamesLength];
+        theSnapshot.get(bulkScales + theCount, names);
+
+        final List<Item> items = new ArrayList<>(theCount);
+        for (int i = 0; i < theCount; i++) {
+            final int start = theSnapshot.getInt(offsets + Integer.BYTES * i);
+            final int end = theSnapshot.getInt(offsets + Integer.BYTES * (i + 1));
+            final String name = new String(names, start, end - start, StandardCharsets.UTF_8);
+            final BigDecimal price = BigDecimal.valueOf(theSnapshot.getLong(prices
+                                                                            + Long.BYTES * i),
+                                                        theSnapshot.get(priceScales + i));
+            final int bulkQuantity = theSnapshot.getInt(bulkQuantities + Integer.BYTES * i);
+            if (bulkQuantity == NOT_BULK) {
+                items.add(theRegistry.intern(name, price));
+            } else {
+                items.add(theRegistry.intern(name, price, bulkQuantity,
+                    BigDecimal.valueOf(theSnapshot.getLong(bulkPrices + Long.BYTES * i),
+                                       theSnapshot.get(bulkScales + i))));
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Encodes items as a snapshot.
+     * @param theStamp the inventory file's stamp
+     * @param theItems the items
+     * @return the snapshot, ready to write, or null if a price does not fit
+     * or the snapshot would be too large to map
+     */
+    private static ByteBuffer encode(final Stamp theStamp, final List<Item> theItems) {
+        final int count = theItems.size();
+        final byte[][] names = new byte[count][];
+        long namesLength = 0;
+        boolean fits = true;
+        int i = 0;
+        for (final Item item : theItems) {
+            names[i] = item.getName().getBytes(StandardCharsets.UTF_8);
+            namesLength += names[i].length;
+            fits &= fits(item.getPrice()) && (!item.isBulk() || fits(item.getBulkPrice()));
+            i++;
+        }
+        final long length = HEADER_BYTES + bodyLength(count, namesLength);
+        ByteBuffer buffer = null;
+        if (fits && length <= Integer.MAX_VALUE) {
+            buffer = ByteBuffer.allocate((int) length);
+            buffer.position(HEADER_BYTES);
+            int offset = 0;
+            for (i = 0; i <= count; i++) {
+                buffer.putInt(offset);
+                if (i < count) {
+                    offset += names[i].length;
+                }
+            }
+            for (final Item item : theItems) {
+                buffer.putLong(item.getPrice().unscaledValue().longValue());
+            }
+            for (final Item item : theItems) {
+                buffer.put((byte) item.getPrice().scale());
+            }
+            for (final Item item : theItems) {
+                buffer.putInt(bulkQuantity(item));
+            }
+            for (final Item item : theItems) {
+                buffer.putLong(bulkPrice(item).unscaledValue().longValue());
+            }
+            for (final Item item : theItems) {
+                buffer.put((byte) bulkPrice(item).scale());
+            }
+            for (final byte[] name : names) {
+                buffer.put(name);
+            }
+            final CRC32C crc = new CRC32C();
+            crc.update(buffer.flip().position(HEADER_BYTES));
+            buffer.position(0);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(theStamp.mySize)
+                  .putLong(theStamp.myModified).putInt(theStamp.myHash).putInt(count)
+                  .putInt((int) namesLength).putInt((int) crc.getValue());
+            buffer.position(0);
+        }
+        return buffer;
+    }
+
+    /**
+     * Returns the length of a snapshot's body.
+     * @param theCount the number of items
+     * @param theNamesLength the length of the name table
+     * @return the length of everything after the header
+     */
+    private static long bodyLength(final int theCount, final long theNamesLength) {
+        return (long) Integer.BYTES * (theCount + 1) + (long) ITEM_BYTES * theCount
+               + theNamesLength;
+    }
+
+    /**
+     * Returns whether a price fits the columns: an unscaled value that fits
+     * in a long and a scale that fits in a byte.
+     * @param thePrice the price
+     * @return whether the price fits
+     */
+    private static boolean fits(final BigDecimal thePrice) {
+        return thePrice.unscaledValue().bitLength() <= LONG_BITS
+               && thePrice.scale() == (byte) thePrice.scale();
+    }
+
+    /**
+     * Returns an item's bulk quantity column value.
+     * @param theItem the item
+     * @return the bulk quantity, or NOT_BULK
+     */
+    private static int bulkQuantity(final Item theItem) {
+        int result = NOT_BULK;
+        if (theItem.isBulk()) {
+            result = theItem.getBulkQuantity();
+        }
+        return result;
+    }
+
+    /**
+     * Returns an item's bulk price column value.
+     * @param theItem the item
+     * @return the bulk price, or zero without a bulk option
+     */
+    private static BigDecimal bulkPrice(final Item theItem) {
+        BigDecimal result = BigDecimal.ZERO;
+        if (theItem.isBulk()) {
+            result = theItem.getBulkPrice();
+        }
+        return result;
+    }
+
+    /**
+     * Deletes a leftover temporary file, ignoring failure.
+     * @param theFile the file, or null
+     */
+    private static void deleteQuietly(final Path theFile) {
+        if (theFile != null) {
+            try {
+                Files.deleteIfExists(theFile);
+            } catch (final IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * What identifies the contents of an inventory file: its size,
+     * modification time, and CRC-32C.
+     */
+    static final class Stamp {
+
+        /** The file size in bytes. */
+        private final long mySize;
+
+        /** The modification time in milliseconds. */
+        private final long myModified;
+
+        /** The CRC-32C of the contents. */
+        private final int myHash;
+
+        /**
+         * Constructs a stamp.
+         * @param theSize the file size
+         * @param theModified the modification time
+         * @param theHash the CRC-32C of the contents
+         */
+        private Stamp(final long theSize, final long theModified, final int theHash) {
+            mySize = theSize;
+            myModified = theModified;
+            myHash = theHash;
+        }
+
+        /**
+         * Stamps an inventory file, reading it through a mapping to hash it.
+         * @param theText the inventory file
+         * @return the stamp
+         * @throws IOException if the file cannot be read
+         */
+        static Stamp of(final Path theText) throws IOException {
+            final long modified = Files.getLastModifiedTime(theText).toMillis();
+            final CRC32C crc = new CRC32C();
+            final long size;
+            try (FileChannel channel = FileChannel.open(theText)) {
+                size = channel.size();
+                long position = 0;
+                while (position < size) {
+                    final long length = Math.min(size - position, Integer.MAX_VALUE);
+                    final MappedByteBuffer mapped =
+                        channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                    crc.update(mapped);
+                    position += length;
+                }
+            }
+            return new Stamp(size, modified, (int) crc.getValue());
+        }
+
+        /**
+         * Returns whether a file still has this stamp's size and modification
+         * time, so that what was read from it matches this stamp.
+         * @param theText the inventory file
+         * @return whether the file looks unchanged
+         * @throws IOException if the file cannot be read
+         */
+        boolean isCurrent(final Path theText) throws IOException {
+            return Files.size(theText) == mySize
+                   && Files.getLastModifiedTime(theText).toMillis() == myModified;
+        }
+    }
+}
@@ -0,0 +1,579 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import model.Catalog;
+import model.InventoryDiff;
+import model.Item;
+import model.ItemRegistry;
+import res.R;
+
+/**
+ * Watches the campus inventory files and reloads a campus when its file
+ * changes, so price and catalog edits take effect without a restart.
+ *
+ * A watcher also loads campuses lazily. It knows every configured campus,
+ * but its catalog holds only the campuses loaded so far; load adds one now,
+ * and loadLater adds one on a background thread. prefetch loads all the
+ * rest in the background, several at a time on a pool of at most one
+ * thread per processor; loadLater has a thread of its own, so a campus the
+ * user asks for does not wait behind them. Adding a campus publishes a
+ * catalog version like a reload does, with every item added.
+ *
+ * A daemon thread waits on a WatchService for the directory. When a campus
+ * file is created or modified, the thread waits for the writes to settle,
+ * parses only that file, and compares it with the campus's current items.
+ * If anything was added, removed, or repriced, it publishes a new Catalog
+ * version and tells each listener, on the watcher thread, which campus
+ * changed and how. Files that are not campus inventories, such as snapshots,
+ * are ignored, and so are campuses not loaded yet, since loading reads the
+ * file as it is then. A file that cannot be read or parsed leaves the
+ * campus as it was, and the listeners are sent an update carrying the error.
+ *
+ * Files are parsed without holding the watcher's lock. The lock is held
+ * only to build and set the new catalog version; listeners are called after
+ * it is released, one update at a time and in version order. After a
+ * reload, items that are no longer in the catalog are dropped from the
+ * registry, so the watcher should have a registry of its own.
+ *
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class InventoryWatcher implements Closeable {
+
+    /** Milliseconds without further events before changed files are reloaded. */
+    private static final long SETTLE_MILLIS = 100;
+
+    /** The directory holding the campus files, ending in a separator. */
+    private final String myLocation;
+
+    /** The registry that hands out reloaded items. */
+    private final ItemRegistry myRegistry;
+
+    /** Every campus, loaded or not, in order. */
+    private final List<String> myCampuses;
+
+    /** The thread that loads campuses asked for with loadLater. */
+    private final ExecutorService myLoader;
+
+    /** The threads that prefetch campuses. */
+    private final ExecutorService myPrefetcher;
+
+    /** Background loads started and not failed, by campus. */
+    private final Map<String, CompletableFuture<Update>> myLoads;
+
+    /** The current catalog. */
+    private final AtomicReference<Catalog> myCatalog;
+
+    /** The listeners told of each published version. */
+    private final List<Consumer<Update>> myListeners;
+
+    /** Updates made and not yet sent to the listeners, in order. */
+    private final Queue<Update> myUnpublished;
+
+    /** Held while sending updates to the listeners, so they go out in order. */
+    private final Object myPublishLock;
+
+    /** Loads and reloads reading a file, guarded by this watcher's lock. */
+    private int myReads;
+
+    /** The watch service, or null before start. */
+    private WatchService myWatchService;
+
+    /**
+     * Constructs a watcher for the campuses of a catalog. Nothing is watched
+     * until start is called.
+     * @param theLocation the directory path, ending in a separator, that
+     * holds the campus files
+     * @param theCatalog the catalog as loaded
+     * @param theRegistry the registry that hands out reloaded items
+     */
+    public InventoryWatcher(final String theLocation, final Catalog theCatalog,
+                            final ItemRegistry theRegistry) {
+        this(theLocation, theCatalog.getCampuses(), theCatalog, theRegistry);
+    }
+
+    /**
+     * Constructs a watcher for a list of campuses, of which the catalog
+     * holds those loaded so far. Nothing is watched until start is called.
+     * @param theLocation the directory path, ending in a separator, that
+     * holds the campus files
+     * @param theCampuses every campus, in order
+     * @param theCatalog the catalog of the campuses loaded so far
+     * @param theRegistry the registry that hands out loaded items
+     */
+    public InventoryWatcher(final String theLocation, final Collection<String> theCampuses,
+                            final Catalog theCatalog, final ItemRegistry theRegistry) {
+        myLocation = theLocation;
+        myRegistry = theRegistry;
+        final Set<String> campuses = new LinkedHashSet<>(theCampuses);
+        campuses.addAll(theCatalog.getCampuses());
+        myCampuses = Collections.unmodifiableList(new ArrayList<>(campuses));
+        myLoader = Executors.newSingleThreadExecutor(InventoryLoader.LOADER_THREADS);
+        myPrefetcher = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(myCampuses.size(),
+                                 Runtime.getRuntime().availableProcessors())),
+            InventoryLoader.LOADER_THREADS);
+        myLoads = new ConcurrentHashMap<>();
+        myCatalog = new AtomicReference<>(theCatalog);
+        myListeners = new CopyOnWriteArrayList<>();
+        myUnpublished = new ConcurrentLinkedQueue<>();
+        myPublishLock = new Object();
+    }
+
+    /**
+     * Returns every campus, loaded or not.
+     * @return an unmodifiable list of the campus names, in order
+     */
+    public List<String> getCampuses() {
+        return myCampuses;
+    }
+
+    /**
+     * Returns the current catalog.
+     * @return the latest published catalog
+     */
+    public Catalog getCatalog() {
+        return myCatalog.get();
+    }
+
+    /**
+     * Adds a listener to be told of each new catalog version and each failed
+     * reload. Listeners are called on the watcher or loader threads, so user
+     * interface code must hand the update to its own thread.
+     * @param theListener the listener
+     */
+    public void addListener(final Consumer<Update> theListener) {
+        myListeners.add(theListener);
+    }
+
+    /**
+     * Starts watching the directory on a daemon thread.
+     * @throws IOException if the directory cannot be watched
+     * @throws IllegalStateException if the watcher was already started
+     */
+    public synchronized void start() throws IOException {
+        if (myWatchService != null) {
+            throw new IllegalStateException("Watcher already started.");
+        }
+        final Path directory = Paths.get(myLocation);
+        myWatchService = FileSystems.getDefault().newWatchService();
+        directory.register(myWatchService, StandardWatchEventKinds.ENTRY_CREATE,
+                           StandardWatchEventKinds.ENTRY_MODIFY);
+        final WatchService service = myWatchService;
+        final Thread thread = new Thread(() -> watch(service), "inventory-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching and loading. Updates already being applied finish.
+     * @throws IOException if the watch service cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        myLoader.shutdownNow();
+        myPrefetcher.shutdownNow();
+        if (myWatchService != null) {
+            myWatchService.close();
+        }
+    }
+
+    /**
+     * Reloads a campus from its file now, publishing a new catalog version
+     * if its items changed. If the file cannot be read or parsed, the campus
+     * is left as it was and an update carrying the error is sent to the
+     * listeners and returned.
+     * @param theCampus the campus name
+     * @return the update published, or null if nothing changed or the
+     * campus is not loaded
+     */
+    public Update reload(final String theCampus) {
+        Update update = null;
+        if (myCatalog.get().getInventory(theCampus) != null) {
+            beginRead();
+            try {
+                final List<Item> items = InventoryLoader.loadCampusItems(file(theCampus),
+                                                                         myRegistry);
+                recordSkus();
+                update = replace(theCampus, items);
+            } catch (final IOException | IllegalArgumentException e) {
+                update = new Update(theCampus, myCatalog.get(), e);
+                myUnpublished.add(update);
+            } finally {
+                endRead();
+            }
+            publishPending();
+        }
+        return update;
+    }
+
+    /**
+     * Loads a campus that is not in the catalog yet, publishing the catalog
+     * version that adds it.
+     * @param theCampus the campus name
+     * @return the update published, or null if the campus was already loaded
+     * @throws IOException if the campus file cannot be read
+     * @throws IllegalArgumentException if the campus file is malformed
+     */
+    public Update load(final String theCampus) throws IOException {
+        Update update = null;
+        if (myCatalog.get().getInventory(theCampus) == null) {
+            beginRead();
+            try {
+                final List<Item> items = InventoryLoader.loadCampusItems(file(theCampus),
+                                                                         myRegistry);
+                recordSkus();
+                update = add(theCampus, items);
+            } finally {
+                endRead();
+            }
+            publishPending();
+        }
+        return update;
+    }
+
+    /**
+     * Counts a load or reload that is about to read a file.
+     */
+    private synchronized void beginRead() {
+        myReads++;
+    }
+
+    /**
+     * Counts a load or reload that has finished with its file.
+     */
+    private synchronized void endRead() {
+        myReads--;
+    }
+
+    /**
+     * Replaces a loaded campus's items with those a reload read, if they
+     * differ, and drops the items no longer in the catalog from the
+     * registry. Items are dropped only when no other load is reading, since
+     * a load may hold items it has interned but not added yet.
+     * @param theCampus the campus name
+     * @param theItems its items
+     * @return the update made, or null if nothing changed
+     */
+    private synchronized Update replace(final String theCampus, final List<Item> theItems) {
+        final Catalog catalog = myCatalog.get();
+        final InventoryDiff diff = InventoryDiff.of(catalog.getInventory(theCampus),
+                                                    theItems);
+        Update update = null;
+        if (!diff.isEmpty()) {
+            update = new Update(theCampus, diff, catalog.withInventory(theCampus, theItems));
+            commit(update);
+            if (myReads == 1) {
+                myRegistry.retainAll(update.getCatalog().getInventories().values());
+            }
+        }
+        return update;
+    }
+
+    /**
+     * Adds a campus read by load, unless another load added it first. The
+     * file is read before taking the lock, so loads run in parallel.
+     * @param theCampus the campus name
+     * @param theItems its items
+     * @return the update made, or null if the campus was already loaded
+     */
+    private synchronized Update add(final String theCampus, final List<Item> theItems) {
+        final Catalog catalog = myCatalog.get();
+        Update update = null;
+        if (catalog.getInventory(theCampus) == null) {
+            update = new Update(theCampus, InventoryDiff.of(List.of(), theItems),
+                                catalog.withInventory(theCampus, theItems));
+            commit(update);
+        }
+        return update;
+    }
+
+    /**
+     * Loads a campus on the background thread unless it is loaded or being
+     * loaded already. Loads run one at a time, in the order asked for, ahead
+     * of any prefetch not yet started. A load that fails is forgotten, so
+     * asking again tries again.
+     * @param theCampus the campus name
+     * @return the load, completing with the update published, or null if
+     * the campus was already loaded, or exceptionally if it failed
+     */
+    public CompletableFuture<Update> loadLater(final String theCampus) {
+        final CompletableFuture<Update> load = myLoads.computeIfAbsent(theCampus,
+            theName -> CompletableFuture.supplyAsync(() -> loadUnchecked(theName), myLoader));
+        load.whenComplete((theUpdate, theError) -> {
+            if (theError != null) {
+                myLoads.remove(theCampus, load);
+            }
+        });
+        return load;
+    }
+
+    /**
+     * Loads every campus not loaded or being loaded yet, in order, several
+     * at a time. A campus asked for with loadLater before its turn comes is
+     * loaded there instead and skipped here. A prefetch that fails is
+     * forgotten like a failed loadLater, so asking for the campus retries.
+     * @return completes when every prefetch has finished, whether or not it
+     * loaded its campus
+     */
+    public CompletableFuture<Void> prefetch() {
+        final List<CompletableFuture<Void>> prefetches = new ArrayList<>();
+        for (final String campus : myCampuses) {
+            prefetches.add(CompletableFuture.runAsync(() -> prefetch(campus), myPrefetcher));
+        }
+        return CompletableFuture.allOf(prefetches.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Loads a campus on the calling prefetch thread, unless it is loaded or
+     * being loaded already.
+     * @param theCampus the campus name
+     */
+    private void prefetch(final String theCampus) {
+        final CompletableFuture<Update> load = new CompletableFuture<>();
+        if (myCatalog.get().getInventory(theCampus) == null
+            && myLoads.putIfAbsent(theCampus, load) == null) {
+            try {
+                load.complete(load(theCampus));
+            } catch (final IOException | RuntimeException e) {
+                myLoads.remove(theCampus, load);
+                load.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Loads a campus, wrapping a read failure for a background load.
+     * @param theCampus the campus name
+     * @return the update published, or null if the campus was already loaded
+     */
+    private Update loadUnchecked(final String theCampus) {
+        try {
+            return load(theCampus);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Records the SKUs of items the registry has made since the last load,
+     * so the next run gives them the same ones. A failure only means they
+     * may be given different SKUs next run, so it does not fail the load.
+     */
+    private void recordSkus() {
+        try {
+            myRegistry.flush();
+        } catch (final IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Makes an update's catalog current and queues it for the listeners.
+     * Called with this watcher's lock held, so updates queue in version
+     * order.
+     * @param theUpdate the update
+     */
+    private void commit(final Update theUpdate) {
+        myCatalog.set(theUpdate.getCatalog());
+        myUnpublished.add(theUpdate);
+    }
+
+    /**
+     * Sends the queued updates to the listeners. Called without this
+     * watcher's lock, so a slow listener holds up only other publishers,
+     * not loads and reloads.
+     */
+    private void publishPending() {
+        synchronized (myPublishLock) {
+            Update update = myUnpublished.poll();
+            while (update != null) {
+                for (final Consumer<Update> listener : myListeners) {
+                    listener.accept(update);
+                }
+                update = myUnpublished.poll();
+            }
+        }
+    }
+
+    /**
+     * Runs the watch loop until the service is closed.
+     * @param theService the watch service
+     */
+    private void watch(final WatchService theService) {
+        try {
+            while (true) {
+                final Set<String> changed = new TreeSet<>();
+                WatchKey key = theService.take();
+                while (key != null) {
+                    collect(key, changed);
+                    key = theService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                for (final String campus : changed) {
+                    reload(campus);
+                }
+            }
+        } catch (final ClosedWatchServiceException | InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Adds the campuses whose files a watch key reports changed, and resets
+     * the key. If events were lost, every campus is taken as changed.
+     * Campuses not loaded yet are included; reloading skips them.
+     * @param theKey the watch key
+     * @param theChanged receives the campus names
+     */
+    private void collect(final WatchKey theKey, final Set<String> theChanged) {
+        for (final WatchEvent<?> event : theKey.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                theChanged.addAll(myCampuses);
+            } else {
+                final String name = event.context().toString();
+                for (final String campus : myCampuses) {
+                    if (name.equals(fileName(campus))) {
+                        theChanged.add(campus);
+                    }
+                }
+            }
+        }
+        theKey.reset();
+    }
+
+    /**
+     * Returns the path of a campus file.
+     * @param theCampus the campus name
+     * @return the path
+     */
+    private String file(final String theCampus) {
+        return myLocation + fileName(theCampus);
+    }
+
+    /**
+     * Returns the name of a campus file.
+     * @param theCampus the campus name
+     * @return the file name
+     */
+    private static String fileName(final String theCampus) {
+        return theCampus.toLowerCase(Locale.ENGLISH) + R.Strings.IO_FILE_EXTENSION;
+    }
+
+    /**
+     * A published catalog version and the change that made it, or a reload
+     * that failed and the catalog still current.
+     */
+    public static final class Update {
+
+        /** The campus that changed. */
+        private final String myCampus;
+
+        /** How its items changed. */
+        private final InventoryDiff myDiff;
+
+        /** The new catalog. */
+        private final Catalog myCatalog;
+
+        /** Why the reload failed, or null. */
+        private final Exception myError;
+
+        /**
+         * Constructs an update.
+         * @param theCampus the campus that changed
+         * @param theDiff how its items changed
+         * @param theCatalog the new catalog
+         */
+        private Update(final String theCampus, final InventoryDiff theDiff,
+                       final Catalog theCatalog) {
+            myCampus = theCampus;
+            myDiff = theDiff;
+            myCatalog = theCatalog;
+            myError = null;
+        }
+
+        /**
+         * Constructs the update for a failed reload, with no changes.
+         * @param theCampus the campus that failed to reload
+         * @param theCatalog the catalog still current
+         * @param theError why it failed
+         */
+        private Update(final String theCampus, final Catalog theCatalog,
+                       final Exception theError) {
+            myCampus = theCampus;
+            myDiff = InventoryDiff.of(List.of(), List.of());
+            myCatalog = theCatalog;
+            myError = theError;
+        }
+
+        /**
+         * Returns the campus that changed.
+         * @return the campus name
+         */
+        public String getCampus() {
+            return myCampus;
+        }
+
+        /**
+         * Returns how the campus's items changed.
+         * @return the diff
+         */
+        public InventoryDiff getDiff() {
+            return myDiff;
+        }
+
+        /**
+         * Returns the new catalog.
+         * @return the catalog
+         */
+        public Catalog getCatalog() {
+            return myCatalog;
+        }
+
+        /**
+         * Returns why the reload failed.
+         * @return the exception, or null if the update changed the catalog
+         */
+        public Exception getError() {
+            return myError;
+        }
+
+        @Override
+        public String toString() {
+            return "Update[" + myCampus + ", " + myDiff + ", " + myCatalog + ", " + myError
+                   + "]";
+        }
+    }
+}
@@ -0,0 +1,628 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import model.Cart;
+import model.CartSnapshot;
+
+/**
+ * Holds one cart per shopper session, keyed by user name, in bounded memory.
+ *
+ * When more than the capacity of carts are resident, carts are evicted in
+ * approximately least recently used order, using the CLOCK algorithm: each
+ * access marks a cart as referenced, and the eviction hand gives a
+ * referenced cart a second chance before evicting it. Carts idle for longer
+ * than the idle timeout are evicted first, and expireIdle sweeps them out
+ * without waiting for the store to fill.
+ *
+ * With a spill directory, evicted carts are written there with a CartCodec
+ * and loaded again the next time their user asks for them; without one they
+ * are discarded. Changes to the map for one user are serialized by the
+ * map's per-key locking, so there is no global lock. A spilled cart is
+ * written to a temporary file outside that locking and only renamed into
+ * place under it, in the same step that removes the session, so a session
+ * removed or used while its copy was written is never spilled and a later
+ * get cannot load a stale copy. A cart used or unpinned since its copy
+ * was taken is kept resident and its copy deleted.
+ *
+ * A caller that edits a cart should pin its session for as long as it
+ * uses the cart: a pinned session is never evicted, so its edits cannot be
+ * lost, and the store may go over capacity while every candidate is
+ * pinned. get does not pin; it never returns a cart that has already been
+ * evicted, but changes made to that cart after a later eviction are not
+ * saved. Cart is not thread safe, so a cart's own monitor is its lock:
+ * threads that share a session synchronize on the cart while they use it,
+ * as the store does while it copies the cart to spill it.
+ *
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class SessionCartStore {
+
+    /** Suffix of spilled cart files. */
+    public static final String SPILL_SUFFIX = ".cart";
+
+    /** Digits used to turn user names into file names. */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /** Bits per hex digit. */
+    private static final int HEX_SHIFT = 4;
+
+    /** Mask for one hex digit. */
+    private static final int HEX_MASK = 0xF;
+
+    /** The resident sessions, keyed by user name. */
+    private final Map<String, Session> mySessions;
+
+    /** The eviction hand: resident sessions, roughly oldest first. */
+    private final Queue<Session> myClock;
+
+    /** The most carts kept resident. */
+    private final int myCapacity;
+
+    /** Idle time after which a cart is evicted, in nanoseconds. */
+    private final long myIdleNanos;
+
+    /** Codec for spilled carts, or null when not spilling. */
+    private final CartCodec myCodec;
+
+    /** Directory for spilled carts, or null when not spilling. */
+    private final Path mySpillDirectory;
+
+    /** The time source, in nanoseconds. */
+    private final LongSupplier myClockSource;
+
+    /** Number of resident carts. */
+    private final AtomicInteger myResident;
+
+    /** Number of carts created for new sessions. */
+    private final AtomicLong myCreated;
+
+    /** Number of carts evicted, for capacity or idleness. */
+    private final AtomicLong myEvicted;
+
+    /** Number of evictions caused by idleness. */
+    private final AtomicLong myExpired;
+
+    /** Number of carts loaded back from the spill directory. */
+    private final AtomicLong myReloaded;
+
+    /**
+     * Creates a store that discards evicted carts.
+     * @param theCapacity the most carts to keep resident
+     * @param theIdleTimeout idle time after which a cart is evicted
+     */
+    public SessionCartStore(final int theCapacity, final Duration theIdleTimeout) {
+        this(theCapacity, theIdleTimeout, null, null, System::nanoTime);
+    }
+
+    /**
+     * Creates a store that spills evicted carts to a directory.
+     * @param theCapacity the most carts to keep resident
+     * @param theIdleTimeout idle time after which a cart is evicted
+     * @param theCodec the codec for spilled carts
+     * @param theSpillDirectory an existing directory for spilled carts
+     */
+    public SessionCartStore(final int theCapacity, final Duration theIdleTimeout,
+                            final CartCodec theCodec, final Path theSpillDirectory) {
+        this(theCapacity, theIdleTimeout, theCodec, theSpillDirectory, System::nanoTime);
+    }
+
+    /**
+     * Creates a store with its own time source, such as a fake clock in tests.
+     * @param theCapacity the most carts to keep resident
+     * @param theIdleTimeout idle time after which a cart is evicted
+     * @param theCodec the codec for spilled carts, or null to discard them
+     * @param theSpillDirectory an existing directory for spilled carts, or null
+     * @param theClock the time source, in nanoseconds
+     */
+    public SessionCartStore(final int theCapacity, final Duration theIdleTimeout,
+                            final CartCodec theCodec, final Path theSpillDirectory,
+                            final LongSupplier theClock) {
+        if (theCapacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + theCapacity);
+        }
+        if ((theCodec == null) != (theSpillDirectory == null)) {
+            throw new IllegalArgumentException("Spilling needs both a codec and a directory.");
+        }
+        myCapacity = theCapacity;
+        myIdleNanos = theIdleTimeout.toNanos();
+        myCodec = theCodec;
+        mySpillDirectory = theSpillDirectory;
+        myClockSource = theClock;
+        mySessions = new ConcurrentHashMap<>();
+        myClock = new ConcurrentLinkedQueue<>();
+        myResident = new AtomicInteger();
+        myCreated = new AtomicLong();
+        myEvicted = new AtomicLong();
+        myExpired = new AtomicLong();
+        myReloaded = new AtomicLong();
+    }
+
+    /**
+     * Returns a user's cart, loading it from the spill directory or creating
+     * an empty one if it is not resident, and evicting other carts if the
+     * store is then over capacity.
+     * @param theUser the user name
+     * @return the user's cart
+     * @throws IOException if a spilled cart cannot be read or written
+     */
+    public Cart get(final String theUser) throws IOException {
+        return session(theUser, false).myCart;
+    }
+
+    /**
+     * Pins a user's session, loading or creating its cart as get does. The
+     * session is not evicted until the pin is closed, so changes made to
+     * the cart through the pin are kept.
+     * @param theUser the user name
+     * @return the pin; close it when done with the cart
+     * @throws IOException if a spilled cart cannot be read or written
+     */
+    public Pin pin(final String theUser) throws IOException {
+        return new Pin(session(theUser, true));
+    }
+
+    /**
+     * Returns a user's cart if it is resident, without loading or creating it.
+     * @param theUser the user name
+     * @return the user's cart, or null if it is not resident
+     */
+    public Cart getIfResident(final String theUser) {
+        final Session session = mySessions.get(theUser);
+        Cart result = null;
+        if (session != null) {
+            session.touch(myClockSource.getAsLong());
+            result = session.myCart;
+        }
+        return result;
+    }
+
+    /**
+     * Ends a user's session, discarding the cart and any spilled copy. The
+     * copy is deleted under the map's lock for the user, so a get cannot
+     * load it in between.
+     * @param theUser the user name
+     * @throws IOException if the spilled copy cannot be deleted
+     */
+    public void remove(final String theUser) throws IOException {
+        try {
+            mySessions.compute(theUser, (theKey, theCurrent) -> {
+                if (theCurrent != null) {
+                    theCurrent.myRemoved = true;
+                    myResident.decrementAndGet();
+                }
+                if (mySpillDirectory != null) {
+                    try {
+                        Files.deleteIfExists(spillFile(theUser));
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return null;
+            });
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Evicts every cart that has been idle for longer than the idle timeout.
+     * Meant to be called periodically, for example from a scheduled executor.
+     * @return the number of carts evicted
+     * @throws IOException if an evicted cart cannot be spilled
+     */
+    public int expireIdle() throws IOException {
+        final long now = myClockSource.getAsLong();
+        int expired = 0;
+        final int sessions = myClock.size();
+        for (int i = 0; i < sessions; i++) {
+            final Session session = myClock.poll();
+            if (session != null && !session.myRemoved) {
+                if (now - session.myLastAccess <= myIdleNanos
+                    || session.myPins.get() > 0) {
+                    myClock.offer(session);
+                } else if (evict(session, true)) {
+                    expired++;
+                }
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Returns the number of resident carts.
+     * @return the number of resident carts
+     */
+    public int getResidentCount() {
+        return myResident.get();
+    }
+
+    /**
+     * Returns the number of carts created for new sessions.
+     * @return the number of carts created
+     */
+    public long getCreatedCount() {
+        return myCreated.get();
+    }
+
+    /**
+     * Returns the number of carts evicted, for capacity or idleness.
+     * @return the number of carts evicted
+     */
+    public long getEvictedCount() {
+        return myEvicted.get();
+    }
+
+    /**
+     * Returns the number of evictions caused by idleness.
+     * @return the number of idle carts evicted
+     */
+    public long getExpiredCount() {
+        return myExpired.get();
+    }
+
+    /**
+     * Returns the number of carts loaded back from the spill directory.
+     * @return the number of carts reloaded
+     */
+    public long getReloadedCount() {
+        return myReloaded.get();
+    }
+
+    @Override
+    public String toString() {
+        return "SessionCartStore[resident=" + getResidentCount() + ", created="
+               + getCreatedCount() + ", evicted=" + getEvictedCount() + ", expired="
+               + getExpiredCount() + ", reloaded=" + getReloadedCount() + "]";
+    }
+
+    /**
+     * Finds or makes a user's resident session, evicting other carts if one
+     * was made and the store is then over capacity. A session found just as
+     * it is evicted is not used; the cart is looked up again, which loads the
+     * copy the eviction spilled.
+     * @param theUser the user name
+     * @param thePin whether to pin the session
+     * @return the session
+     * @throws IOException if a spilled cart cannot be read or written
+     */
+    private Session session(final String theUser, final boolean thePin)
+        throws IOException {
+        Session session = null;
+        while (session == null) {
+            session = mySessions.get(theUser);
+            final boolean found = session != null;
+            if (found) {
+                session.touch(myClockSource.getAsLong());
+            } else {
+                try {
+                    session = mySessions.computeIfAbsent(theUser, this::load);
+                } catch (final UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+            if (thePin) {
+                session.myPins.incrementAndGet();
+            }
+            if (session.myRemoved) {
+                if (thePin) {
+                    session.myPins.decrementAndGet();
+                }
+                session = null;
+            } else if (!found) {
+                boolean more = true;
+                while (more && myResident.get() > myCapacity) {
+                    more = evictOne(session);
+                }
+            }
+        }
+        return session;
+    }
+
+    /**
+     * Creates the session for a user who is not resident. Runs under the
+     * map's lock for the user.
+     * @param theUser the user name
+     * @return the new session
+     */
+    private Session load(final String theUser) {
+        Cart cart = null;
+        if (mySpillDirectory != null) {
+            final Path file = spillFile(theUser);
+            try {
+                if (Files.exists(file)) {
+                    cart = myCodec.read(ByteBuffer.wrap(Files.readAllBytes(file)));
+                    Files.delete(file);
+                    myReloaded.incrementAndGet();
+                }
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        if (cart == null) {
+            cart = new Cart();
+            myCreated.incrementAndGet();
+        }
+        final Session session = new Session(theUser, cart, myClockSource.getAsLong());
+        myClock.offer(session);
+        myResident.incrementAndGet();
+        return session;
+    }
+
+    /**
+     * Advances the eviction hand until one cart is evicted. Idle carts are
+     * evicted at once; carts used since the hand last passed get a second
+     * chance. A new session counts as unused, so it is evicted before older
+     * sessions that have been used again, but the one just created for the
+     * caller is skipped, and so are pinned sessions. The hand goes round at
+     * most twice, so it stops if every session is pinned.
+     * @param theKeep the session the caller is making room for
+     * @return false if there was nothing left to evict
+     * @throws IOException if the evicted cart cannot be spilled
+     */
+    private boolean evictOne(final Session theKeep) throws IOException {
+        final long now = myClockSource.getAsLong();
+        boolean evicted = false;
+        boolean passedKeep = false;
+        int budget = 2 * myClock.size();
+        Session session = myClock.poll();
+        while (session != null) {
+            if (session == theKeep) {
+                myClock.offer(session);
+                if (passedKeep) {
+                    budget = 0;
+                }
+                passedKeep = true;
+            } else if (session.myPins.get() > 0) {
+                myClock.offer(session);
+            } else if (!session.myRemoved) {
+                final boolean idle = now - session.myLastAccess > myIdleNanos;
+                if (idle || !session.myReferenced) {
+                    evicted = evict(session, idle);
+                } else {
+                    session.myReferenced = false;
+                    myClock.offer(session);
+                }
+            }
+            session = null;
+            if (!evicted && budget > 0) {
+                budget--;
+                session = myClock.poll();
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Removes a session from the map, spilling its cart first if spilling.
+     * The session has already been taken off the eviction hand. The cart is
+     * copied under its lock and written to a temporary file with no lock
+     * held. Then, under the map's lock for the user, the session is removed
+     * and the file renamed into place, but only if the session is still in
+     * the map, is not pinned, and has been neither used nor unpinned since
+     * it was copied. Otherwise it stays resident, goes back on the eviction
+     * hand, and the written copy is deleted.
+     * @param theSession the session
+     * @param theIdle whether it is being evicted for idleness
+     * @return false if the session was not evicted
+     * @throws IOException if the cart cannot be spilled
+     */
+    private boolean evict(final Session theSession, final boolean theIdle)
+        throws IOException {
+        final long uses = theSession.myUses.get();
+        final Path temporary;
+        try {
+            temporary = spill(theSession);
+        } catch (final IOException e) {
+            myClock.offer(theSession);
+            throw e;
+        }
+        final boolean[] evicted = new boolean[1];
+        try {
+            mySessions.computeIfPresent(theSession.myUser, (theUser, theCurrent) -> {
+                Session result = theCurrent;
+                if (theCurrent == theSession && theSession.myUses.get() == uses) {
+                    theSession.myRemoved = true;
+                    if (theSession.myPins.get() == 0) {
+                        place(temporary, theSession);
+                        evicted[0] = true;
+                        result = null;
+                    } else {
+                        theSession.myRemoved = false;
+                    }
+                }
+                return result;
+            });
+        } catch (final UncheckedIOException e) {
+            theSession.myRemoved = false;
+            Files.deleteIfExists(temporary);
+            myClock.offer(theSession);
+            throw e.getCause();
+        }
+        if (evicted[0]) {
+            myResident.decrementAndGet();
+            myEvicted.incrementAndGet();
+            if (theIdle) {
+                myExpired.incrementAndGet();
+            }
+        } else {
+            if (temporary != null) {
+                Files.deleteIfExists(temporary);
+            }
+            if (!theSession.myRemoved) {
+                myClock.offer(theSession);
+            }
+        }
+        return evicted[0];
+    }
+
+    /**
+     * Writes a session's cart to a temporary file in the spill directory,
+     * if spilling. The cart is copied under its lock and written after the
+     * lock is released. Empty non-member carts and sessions already removed
+     * are not written.
+     * @param theSession the session
+     * @return the temporary file, or null if nothing was written
+     * @throws IOException if the file cannot be written
+     */
+    private Path spill(final Session theSession) throws IOException {
+        Path temporary = null;
+        if (mySpillDirectory != null && !theSession.myRemoved) {
+            final CartSnapshot snapshot;
+            synchronized (theSession.myCart) {
+                snapshot = theSession.myCart.snapshot();
+            }
+            if (snapshot.getCartSize() > 0 || snapshot.isMember()) {
+                final ByteBuffer buffer =
+                    ByteBuffer.allocate(CartCodec.maxEncodedSize(snapshot));
+                myCodec.write(snapshot, buffer);
+                final Path file = spillFile(theSession.myUser);
+                temporary = Files.createTempFile(mySpillDirectory,
+                                                 file.getFileName().toString(), ".tmp");
+                Files.write(temporary, Arrays.copyOf(buffer.array(), buffer.position()));
+            }
+        }
+        return temporary;
+    }
+
+    /**
+     * Renames a spilled copy into place. Runs under the map's lock for the
+     * session's user, as the session leaves the map.
+     * @param theTemporary the temporary file, or null if nothing was written
+     * @param theSession the session being evicted
+     */
+    private void place(final Path theTemporary, final Session theSession) {
+        if (theTemporary != null) {
+            try {
+                Files.move(theTemporary, spillFile(theSession.myUser),
+                           StandardCopyOption.REPLACE_EXISTING,
+                           StandardCopyOption.ATOMIC_MOVE);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Returns the spill file for a user. The name is the hex form of the
+     * user name's UTF-8 bytes, so any user name gives a safe file name.
+     * @param theUser the user name
+     * @return the spill file
+     */
+    private Path spillFile(final String theUser) {
+        final byte[] bytes = theUser.getBytes(StandardCharsets.UTF_8);
+        final StringBuilder name = new StringBuilder(bytes.length * 2 + SPILL_SUFFIX.length());
+        for (final byte b : bytes) {
+            name.append(HEX[(b >> HEX_SHIFT) & HEX_MASK]).append(HEX[b & HEX_MASK]);
+        }
+        return mySpillDirectory.resolve(name.append(SPILL_SUFFIX).toString());
+    }
+
+    /** A resident cart and its access state. */
+    private static final class Session {
+
+        /** The user name. */
+        private final String myUser;
+
+        /** The cart. */
+        private final Cart myCart;
+
+        /** Time of the last access, in nanoseconds. */
+        private volatile long myLastAccess;
+
+        /** Whether the cart was accessed since the eviction hand last passed. */
+        private volatile boolean myReferenced;
+
+        /** Whether the session has left the map. */
+        private volatile boolean myRemoved;
+
+        /** Number of open pins; a pinned session is not evicted. */
+        private final AtomicInteger myPins;
+
+        /** Number of accesses and closed pins, to tell if a copy is stale. */
+        private final AtomicLong myUses;
+
+        /**
+         * Creates a session.
+         * @param theUser the user name
+         * @param theCart the cart
+         * @param theNow the current time, in nanoseconds
+         */
+        Session(final String theUser, final Cart theCart, final long theNow) {
+            myUser = theUser;
+            myCart = theCart;
+            myLastAccess = theNow;
+            myPins = new AtomicInteger();
+            myUses = new AtomicLong();
+        }
+
+        /**
+         * Records an access.
+         * @param theNow the current time, in nanoseconds
+         */
+        void touch(final long theNow) {
+            myLastAccess = theNow;
+            myReferenced = true;
+            myUses.incrementAndGet();
+        }
+    }
+
+    /**
+     * Keeps a session resident while its cart is in use. Closing the pin
+     * lets the session be evicted again; closing it twice has no effect.
+     */
+    public static final class Pin implements Closeable {
+
+        /** The pinned session. */
+        private final Session mySession;
+
+        /** Whether the pin has been closed. */
+        private final AtomicBoolean myClosed;
+
+        /**
+         * Creates a pin on a session already counted as pinned.
+         * @param theSession the session
+         */
+        private Pin(final Session theSession) {
+            mySession = theSession;
+            myClosed = new AtomicBoolean();
+        }
+
+        /**
+         * Returns the pinned session's cart.
+         * @return the cart
+         */
+        public Cart getCart() {
+            return mySession.myCart;
+        }
+
+        @Override
+        public void close() {
+            if (myClosed.compareAndSet(false, true)) {
+                mySession.myUses.incrementAndGet();
+                mySession.myPins.decrementAndGet();
+            }
+        }
+    }
+}
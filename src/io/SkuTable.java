@@ -0,0 +1,207 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import model.ItemRegistry;
+
+/**
+ * A file that records the SKU given to each item value, so that an item keeps
+ * its SKU from run to run whatever order the campuses load in. Items are
+ * known by the fingerprint ItemRegistry takes of their value. The file holds
+ * a header (magic, version, entry count, next SKU) followed by entries of a
+ * fingerprint and a SKU, sorted by fingerprint; it is memory-mapped and
+ * searched in place. SKUs given since the last flush are kept in memory
+ * until flush merges them into a new file, written to a temporary file and
+ * moved into place like an inventory snapshot.
+ *
+ * A value first seen in this run gets the next unused SKU, so which of two
+ * new values gets the lower SKU still depends on the order they are seen;
+ * once flushed, every later run gives them the same SKUs.
+ *
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class SkuTable implements ItemRegistry.SkuAssigner {
+
+    /** The first four bytes of a table, "UWSK". */
+    private static final int MAGIC = 0x5557534b;
+
+    /** The table format version. */
+    private static final int VERSION = 1;
+
+    /** Bytes in the header. */
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+
+    /** Bytes in each entry. */
+    private static final int ENTRY_BYTES = Long.BYTES + Integer.BYTES;
+
+    /** The file the table is kept in. */
+    private final Path myFile;
+
+    /** The entries on file, sorted by fingerprint. */
+    private ByteBuffer myEntries;
+
+    /** The number of entries on file. */
+    private int myCount;
+
+    /** The SKUs given since the last flush, by fingerprint. */
+    private final Map<Long, Integer> myPending;
+
+    /** The next SKU to give. */
+    private int myNextSku;
+
+    /**
+     * Constructs a table over entries already read.
+     * @param theFile the file the table is kept in
+     * @param theEntries the entries, sorted by fingerprint
+     * @param theCount the number of entries
+     * @param theNextSku the next SKU to give
+     */
+    private SkuTable(final Path theFile, final ByteBuffer theEntries, final int theCount,
+                     final int theNextSku) {
+        myFile = theFile;
+        myEntries = theEntries;
+        myCount = theCount;
+        myNextSku = theNextSku;
+        myPending = new HashMap<>();
+    }
+
+    /**
+     * Opens a table, which is empty if its file does not exist yet.
+     * @param theFile the file the table is kept in
+     * @return the table
+     * @throws IOException if the file exists but cannot be read or is not a
+     * table
+     */
+    public static SkuTable open(final Path theFile) throws IOException {
+        SkuTable table;
+        try (FileChannel channel = FileChannel.open(theFile)) {
+            final long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException(theFile + " is not a SKU table.");
+            }
+            final ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            final int magic = mapped.getInt();
+            final int version = mapped.getInt();
+            final int count = mapped.getInt();
+            final int nextSku = mapped.getInt();
+            if (magic != MAGIC || version != VERSION || count < 0 || nextSku < 0
+                || size != HEADER_BYTES + (long) ENTRY_BYTES * count) {
+                throw new IOException(theFile + " is not a SKU table.");
+            }
+            table = new SkuTable(theFile, mapped.slice(), count, nextSku);
+        } catch (final NoSuchFileException e) {
+            table = new SkuTable(theFile, ByteBuffer.allocate(0), 0, 0);
+        }
+        return table;
+    }
+
+    @Override
+    public synchronized int assign(final long theFingerprint) {
+        int sku = find(theFingerprint);
+        if (sku < 0) {
+            sku = myPending.computeIfAbsent(theFingerprint, theKey -> myNextSku++);
+        }
+        return sku;
+    }
+
+    /**
+     * Returns the number of values the table has given SKUs to.
+     * @return the number of values
+     */
+    public synchronized int size() {
+        return myCount + myPending.size();
+    }
+
+    /**
+     * Writes the SKUs given since the last flush to the file. Does nothing if
+     * none have been given.
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        if (!myPending.isEmpty()) {
+            final int count = myCount + myPending.size();
+            final long[] fingerprints = new long[count];
+            int i = 0;
+            for (; i < myCount; i++) {
+                fingerprints[i] = myEntries.getLong(ENTRY_BYTES * i);
+            }
+            for (final long fingerprint : myPending.keySet()) {
+                fingerprints[i++] = fingerprint;
+            }
+            Arrays.sort(fingerprints);
+            final ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + ENTRY_BYTES * count);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(myNextSku);
+            for (final long fingerprint : fingerprints) {
+                buffer.putLong(fingerprint).putInt(assign(fingerprint));
+            }
+            buffer.flip();
+            write(buffer);
+            myEntries = buffer.position(HEADER_BYTES).slice();
+            myCount = count;
+            myPending.clear();
+        }
+    }
+
+    /**
+     * Finds a fingerprint among the entries on file.
+     * @param theFingerprint the fingerprint
+     * @return its SKU, or -1 if it is not on file
+     */
+    private int find(final long theFingerprint) {
+        int low = 0;
+        int high = myCount - 1;
+        int sku = -1;
+        while (sku < 0 && low <= high) {
+            final int middle = (low + high) >>> 1;
+            final long fingerprint = myEntries.getLong(ENTRY_BYTES * middle);
+            if (fingerprint < theFingerprint) {
+                low = middle + 1;
+            } else if (fingerprint > theFingerprint) {
+                high = middle - 1;
+            } else {
+                sku = myEntries.getInt(ENTRY_BYTES * middle + Long.BYTES);
+            }
+        }
+        return sku;
+    }
+
+    /**
+     * Writes a table to a temporary file and moves it into place.
+     * @param theBuffer the whole table
+     * @throws IOException if it cannot be written
+     */
+    private void write(final ByteBuffer theBuffer) throws IOException {
+        final Path directory = myFile.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        final Path temporary = Files.createTempFile(directory,
+                                                    myFile.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary,
+                                                        StandardOpenOption.WRITE)) {
+                final ByteBuffer contents = theBuffer.duplicate();
+                while (contents.hasRemaining()) {
+                    channel.write(contents);
+                }
+            }
+            Files.move(temporary, myFile, StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package model;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Prices many raw carts, given as arrays of orders, at once on a
+ * ForkJoinPool. Work is split by line count rather than cart count, so a
+ * few very large carts do not end up on one thread. Totals are returned in
+ * input order and are exactly what Cart.calculateTotal would return for the
+ * same lines. A built Cart already keeps a running total, so there is no
+ * work in it to spread over threads.
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class BatchPricer {
+
+    /** Roughly how many lines one fork/join task prices before it stops splitting. */
+    private static final int LEAF_LINES = 8_192;
+
+    /**
+     * A private constructor, to prevent external instantiation.
+     */
+    private BatchPricer() {
+        
+    }
+
+    /**
+     * Prices raw carts on the common ForkJoinPool.
+     * @param theCarts the orders of each cart.
+     * @param theMembership whether the customers are store members.
+     * @return the total of each cart, in input order.
+     */
+    public static BigDecimal[] priceOrders(final List<ItemOrder[]> theCarts,
+                                           final boolean theMembership) {
+        return priceOrders(theCarts, theMembership, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Prices raw carts on the given ForkJoinPool. If a cart lists the same
+     * item more than once, the last order for that item is the one priced,
+     * as it would be after adding the orders to a Cart.
+     * @param theCarts the orders of each cart.
+     * @param theMembership whether the customers are store members.
+     * @param thePool the pool to run on.
+     * @return the total of each cart, in input order.
+     */
+    public static BigDecimal[] priceOrders(final List<ItemOrder[]> theCarts,
+                                           final boolean theMembership,
+                                           final ForkJoinPool thePool) {
+        final ItemOrder[][] carts = theCarts.toArray(new ItemOrder[0][]);
+        final long[] lineOffsets = new long[carts.length + 1];
+        for (int i = 0; i < carts.length; i++) {
+            lineOffsets[i + 1] = lineOffsets[i] + carts[i].length;
+        }
+        final BigDecimal[] totals = new BigDecimal[carts.length];
+        thePool.invoke(new PriceTask(carts, lineOffsets, theMembership, totals,
+                                     0, carts.length));
+        return totals;
+    }
+
+    /**
+     * Prices one raw cart.
+     * @param theOrders the orders in the cart.
+     * @param theMembership whether the customer is a store member.
+     * @return the cart total.
+     */
+    static BigDecimal price(final ItemOrder[] theOrders, final boolean theMembership) {
+        final BigDecimal total;
+        if (hasRepeatedItem(theOrders)) {
+            final Cart cart = new Cart();
+            cart.setMembership(theMembership);
+            for (final ItemOrder order : theOrders) {
+                cart.add(order);
+            }
+            total = cart.calculateTotal();
+        } else {
+            final RunningTotal running = new RunningTotal();
+            for (final ItemOrder order : theOrders) {
+                running.add(PricingPipeline.standard().resolve(order.getItem(), theMembership),
+                            order.getItem(), order.getQuantity());
+            }
+            total = running.toBigDecimal();
+        }
+        return total;
+    }
+
+    /**
+     * Checks whether two orders in a raw cart are for the same item.
+     * @param theOrders the orders in the cart.
+     * @return true if some item appears more than once.
+     */
+    private static boolean hasRepeatedItem(final ItemOrder[] theOrders) {
+        final Set<Item> seen = Collections.newSetFromMap(
+            new IdentityHashMap<Item, Boolean>(theOrders.length));
+        boolean repeated = false;
+        for (int i = 0; i < theOrders.length && !repeated; i++) {
+            repeated = !seen.add(theOrders[i].getItem());
+        }
+        return repeated;
+    }
+
+    /**
+     * Prices a range of carts, splitting it in two by line count while it
+     * holds more than LEAF_LINES lines.
+     */
+    private static final class PriceTask extends RecursiveAction {
+
+        /** The Serialization ID. */
+        private static final long serialVersionUID = 1L;
+
+        /** All the carts being priced. */
+        private final ItemOrder[][] myCarts;
+
+        /** Number of lines before each cart; one longer than myCarts. */
+        private final long[] myLineOffsets;
+
+        /** Whether the customers are store members. */
+        private final boolean myMembership;
+
+        /** Where the totals are written. */
+        private final BigDecimal[] myTotals;
+
+        /** First cart in this task's range. */
+        private final int myLow;
+
+        /** One past the last cart in this task's range. */
+        private final int myHigh;
+
+        /**
+         * Constructs a task for the carts in [theLow, theHigh).
+         * @param theCarts all the carts being priced.
+         * @param theLineOffsets the number of lines before each cart.
+         * @param theMembership whether the customers are store members.
+         * @param theTotals where the totals are written.
+         * @param theLow first cart in the range.
+         * @param theHigh one past the last cart in the range.
+         */
+        PriceTask(final ItemOrder[][] theCarts, final long[] theLineOffsets,
+                  final boolean theMembership, final BigDecimal[] theTotals,
+                  final int theLow, final int theHigh) {
+            super();
+            myCarts = theCarts;
+            myLineOffsets = theLineOffsets;
+            myMembership = theMembership;
+            myTotals = theTotals;
+            myLow = theLow;
+            myHigh = theHigh;
+        }
+
+        @Override
+        protected void compute() {
+            final long lines = myLineOffsets[myHigh] - myLineOffsets[myLow];
+            if (myHigh - myLow > 1 && lines > LEAF_LINES) {
+                final int middle = splitPoint();
+                invokeAll(new PriceTask(myCarts, myLineOffsets, myMembership, myTotals,
+                                        myLow, middle),
+                          new PriceTask(myCarts, myLineOffsets, myMembership, myTotals,
+                                        middle, myHigh));
+            } else {
+                for (int i = myLow; i < myHigh; i++) {
+                    myTotals[i] = price(myCarts[i], myMembership);
+                }
+            }
+        }
+
+        /**
+         * Finds the cart that splits this range into two halves with about the
+         * same number of lines.
+         * @return the first cart of the upper half, strictly inside the range.
+         */
+        private int splitPoint() {
+            final long half = (myLineOffsets[myLow] + myLineOffsets[myHigh]) / 2;
+            int found = Arrays.binarySearch(myLineOffsets, myLow, myHigh + 1, half);
+            if (found < 0) {
+                found = -found - 1;
+            }
+            return Math.max(myLow + 1, Math.min(myHigh - 1, found));
+        }
+    }
+}
@@ -3,8 +3,10 @@
 package model;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.List;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -14,17 +16,53 @@ import java.util.Objects;
  */
 
 public class Cart {
+
+    /** Initial room for lines with pending quantity changes. */
+    private static final int DIRTY_CAPACITY = 8;
     
-    /** Array list that stores items ordered. */
-    private final List<ItemOrder> myItemOrders;
+    /** Persistent list that stores items ordered; shared with snapshots. */
+    private PersistentVector<ItemOrder> myItemOrders;
+    /** Edit token for myItemOrders; replaced whenever a snapshot is taken. */
+    private Object myEdit;
+    /** Lines of items that have a SKU, keyed by SKU. */
+    private final IntObjectMap<Line> mySkuIndex;
+    /** Lines of other items, and of items whose SKU is already taken, by identity. */
+    private final Map<Item, Line> myLineIndex;
+    /** The pricing rules used to pick each line's pricers. */
+    private final PricingPipeline myPricing;
     /** Check if customer is a store member. */
     private boolean myMembership;
+    /** Sum of the line prices as priced for members. */
+    private final RunningTotal myMemberTotal;
+    /** Sum of the line prices as priced for non-members. */
+    private final RunningTotal myNonMemberTotal;
+    /** Whether calculateTotal checks the running total against a full recomputation. */
+    private boolean mySelfCheck;
+    /** Lines whose quantity changed since their order in myItemOrders was written. */
+    private Line[] myDirtyLines;
+    /** Number of entries in myDirtyLines. */
+    private int myDirtyCount;
     
     /**
-     * Constructs an empty cart.
+     * Constructs an empty cart with the standard bookstore pricing.
      */
     public Cart() {
-        myItemOrders = new ArrayList<ItemOrder>();
+        this(PricingPipeline.standard());
+    }
+
+    /**
+     * Constructs an empty cart priced by the given rules.
+     * @param thePricing the pricing rules for this cart.
+     */
+    public Cart(final PricingPipeline thePricing) {
+        myPricing = Objects.requireNonNull(thePricing);
+        myItemOrders = PersistentVector.empty();
+        myEdit = new Object();
+        mySkuIndex = new IntObjectMap<>(0);
+        myLineIndex = new IdentityHashMap<Item, Line>();
+        myMemberTotal = new RunningTotal();
+        myNonMemberTotal = new RunningTotal();
+        myDirtyLines = new Line[DIRTY_CAPACITY];
     }
     
     /**
@@ -33,52 +71,273 @@ public class Cart {
      * @param theOrder ItemOrder added to cart.
      */
     public void add(final ItemOrder theOrder) {
-        for (int i = 0; i < myItemOrders.size(); i++) {
-            if (theOrder.getItem() == myItemOrders.get(i).getItem()) {
-                myItemOrders.set(i, theOrder);
-                return;
+        final Item item = theOrder.getItem();
+        Line line = findLine(item);
+        if (line == null) {
+            line = new Line(item, myItemOrders.size(), theOrder.getQuantity(),
+                            myPricing.resolve(item, true), myPricing.resolve(item, false));
+            myMemberTotal.add(line.myMemberPricer, item, theOrder.getQuantity());
+            myNonMemberTotal.add(line.myNonMemberPricer, item, theOrder.getQuantity());
+            index(line);
+            myItemOrders = myItemOrders.append(theOrder, myEdit);
+        } else {
+            reprice(line, theOrder.getQuantity());
+            line.myDirty = false;
+            myItemOrders = myItemOrders.set(line.myPosition, theOrder, myEdit);
+        }
+    }
+
+    /**
+     * Sets the quantity of an item in the cart, as add does with a new
+     * ItemOrder, but updating the item's line in place. Setting the quantity
+     * a line already has does nothing, and changing the quantity of an item
+     * already in the cart allocates nothing: the line's ItemOrder is only
+     * rebuilt when the cart's orders are next read.
+     * @param theItem the item.
+     * @param theQuantity the new quantity.
+     * @return true if the cart changed.
+     * @throws IllegalArgumentException if theQuantity is negative.
+     */
+    public boolean setQuantity(final Item theItem, final int theQuantity) {
+        if (theQuantity < 0) {
+            throw new IllegalArgumentException("Item quantity cannot be less than 0.");
+        }
+        final Line line = findLine(theItem);
+        boolean changed = true;
+        if (line == null) {
+            add(new ItemOrder(theItem, theQuantity));
+        } else if (line.myQuantity == theQuantity) {
+            changed = false;
+        } else {
+            reprice(line, theQuantity);
+            if (!line.myDirty) {
+                line.myDirty = true;
+                if (myDirtyCount == myDirtyLines.length) {
+                    myDirtyLines = Arrays.copyOf(myDirtyLines, myDirtyCount * 2);
+                }
+                myDirtyLines[myDirtyCount++] = line;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Brings the cart up to date with a reloaded inventory, touching only
+     * the lines the reload affects. The line of a repriced item moves to
+     * the new item with the same quantity and is re-priced; the line of a
+     * removed item is set to a quantity of 0. Other lines are left alone.
+     * @param theDiff the changes made by the reload.
+     * @return true if the cart changed.
+     */
+    public boolean applyDiff(final InventoryDiff theDiff) {
+        boolean changed = false;
+        for (final Map.Entry<Item, Item> entry : theDiff.getRepriced().entrySet()) {
+            changed |= replaceItem(entry.getKey(), entry.getValue());
+        }
+        for (final Item item : theDiff.getRemoved()) {
+            changed |= findLine(item) != null && setQuantity(item, 0);
+        }
+        return changed;
+    }
+
+    /**
+     * Moves an item's line to another item, keeping its quantity and place,
+     * and re-prices just that line. If the new item already has a line of
+     * its own, the old line is set to a quantity of 0 instead.
+     * @param theOld the item whose line moves.
+     * @param theNew the item it moves to.
+     * @return true if the cart changed.
+     */
+    public boolean replaceItem(final Item theOld, final Item theNew) {
+        final Line old = findLine(theOld);
+        boolean changed = false;
+        if (old != null && theOld != theNew) {
+            if (findLine(theNew) == null) {
+                myMemberTotal.subtract(old.myMemberPricer, theOld, old.myQuantity);
+                myNonMemberTotal.subtract(old.myNonMemberPricer, theOld, old.myQuantity);
+                unindex(old);
+                old.myDirty = false;
+                final Line line = new Line(theNew, old.myPosition, old.myQuantity,
+                                           myPricing.resolve(theNew, true),
+                                           myPricing.resolve(theNew, false));
+                myMemberTotal.add(line.myMemberPricer, theNew, line.myQuantity);
+                myNonMemberTotal.add(line.myNonMemberPricer, theNew, line.myQuantity);
+                index(line);
+                myItemOrders = myItemOrders.set(line.myPosition,
+                                                new ItemOrder(theNew, line.myQuantity),
+                                                myEdit);
+                changed = true;
+            } else {
+                changed = setQuantity(theOld, 0);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Moves both totals from a line's current quantity to a new one and
+     * records the new quantity on the line.
+     * @param theLine the line.
+     * @param theQuantity the new quantity.
+     */
+    private void reprice(final Line theLine, final int theQuantity) {
+        final Item item = theLine.myItem;
+        myMemberTotal.add(theLine.myMemberPricer, item, theQuantity);
+        myNonMemberTotal.add(theLine.myNonMemberPricer, item, theQuantity);
+        myMemberTotal.subtract(theLine.myMemberPricer, item, theLine.myQuantity);
+        myNonMemberTotal.subtract(theLine.myNonMemberPricer, item, theLine.myQuantity);
+        theLine.myQuantity = theQuantity;
+    }
+
+    /**
+     * Writes an ItemOrder for every line whose quantity was set in place, so
+     * that myItemOrders is current. Called before the orders are read.
+     */
+    private void flushQuantities() {
+        for (int i = 0; i < myDirtyCount; i++) {
+            final Line line = myDirtyLines[i];
+            if (line.myDirty) {
+                line.myDirty = false;
+                myItemOrders = myItemOrders.set(line.myPosition,
+                                                new ItemOrder(line.myItem, line.myQuantity),
+                                                myEdit);
             }
+            myDirtyLines[i] = null;
         }
-        myItemOrders.add(Objects.requireNonNull(theOrder));
+        myDirtyCount = 0;
     }
 
-    /** Sets whether or not the customer is a store member.
+    /** Sets whether or not the customer is a store member. Both totals are
+     * kept up to date as lines change, so this does no re-pricing.
      * @param theMembership boolean value that determines membership.
      *  */
     public void setMembership(final boolean theMembership) {
         myMembership = theMembership;
     }
 
+    /**
+     * Finds an item's line: by SKU when the item has one, and by identity
+     * otherwise or when the SKU belongs to another item, such as an item of
+     * the same SKU from a different registry.
+     * @param theItem the item.
+     * @return the item's line, or null if it has none.
+     */
+    private Line findLine(final Item theItem) {
+        Line line = null;
+        if (theItem.getSku() != Item.NO_SKU) {
+            line = mySkuIndex.get(theItem.getSku());
+        }
+        if (line == null || line.myItem != theItem) {
+            line = myLineIndex.get(theItem);
+        }
+        return line;
+    }
+
+    /**
+     * Indexes a new line: by SKU if its item has one that no other line
+     * holds, and by identity otherwise.
+     * @param theLine the line.
+     */
+    private void index(final Line theLine) {
+        final Item item = theLine.myItem;
+        if (item.getSku() != Item.NO_SKU && !mySkuIndex.containsKey(item.getSku())) {
+            mySkuIndex.put(item.getSku(), theLine);
+        } else {
+            myLineIndex.put(item, theLine);
+        }
+    }
+
+    /**
+     * Removes a line from the indexes.
+     * @param theLine the line.
+     */
+    private void unindex(final Line theLine) {
+        final Item item = theLine.myItem;
+        if (item.getSku() != Item.NO_SKU && mySkuIndex.get(item.getSku()) == theLine) {
+            mySkuIndex.remove(item.getSku());
+        } else {
+            myLineIndex.remove(item);
+        }
+    }
+
+    /**
+     * Turns the total self check on or off. While it is on, every call to
+     * calculateTotal also re-prices the whole cart and fails if the two disagree.
+     * @param theSelfCheck whether calculateTotal should verify the running total.
+     */
+    public void setSelfCheck(final boolean theSelfCheck) {
+        mySelfCheck = theSelfCheck;
+    }
+
     /** 
      * Calculates and returns total cost of cart as a BigDecimal.
-     * Returned value has scale of 2 and uses ROUND_HALF_EVEN rounding.
+     * Returned value has scale of 2 and uses HALF_EVEN rounding.
      * @return current total of cart.
+     * @throws IllegalStateException if the self check is on and the running
+     * total differs from a full recomputation.
      */
     public BigDecimal calculateTotal() {
-        BigDecimal total = BigDecimal.ZERO;
-        BigDecimal result = BigDecimal.ZERO;
-        for (int i = 0; i < myItemOrders.size(); i++) {
-            final BigDecimal quantity = new BigDecimal(myItemOrders.get(i).getQuantity());
-            final BigDecimal bulkQuantity = new BigDecimal(myItemOrders.get(i).getItem().
-                                                           getBulkQuantity());
-            final BigDecimal price = myItemOrders.get(i).getItem().getPrice();
-            final BigDecimal bulkPrice = myItemOrders.get(i).getItem().getBulkPrice(); 
-            if (myMembership && (myItemOrders.get(i).getItem().isBulk())) {
-                result = quantity.divideToIntegralValue(bulkQuantity);
-                result = result.multiply(bulkPrice);
-                result = result.add((quantity.remainder(bulkQuantity)).multiply(price));
-                total = total.add(result);
-            } else {
-                result = price.multiply(quantity);
-                total = total.add(result);
+        final BigDecimal total;
+        if (myMembership) {
+            total = myMemberTotal.toBigDecimal();
+        } else {
+            total = myNonMemberTotal.toBigDecimal();
+        }
+        if (mySelfCheck) {
+            final BigDecimal expected = recomputeTotal().setScale(2, RoundingMode.HALF_EVEN);
+            if (total.compareTo(expected) != 0) {
+                throw new IllegalStateException("Running total " + total
+                                                + " differs from recomputed total "
+                                                + expected + ".");
             }
         }
-        return total.setScale(2, BigDecimal.ROUND_HALF_EVEN);
+        return total;
     }
-    
+
+    /**
+     * Prices every order in the cart from scratch with BigDecimal arithmetic.
+     * Each order's pricer is picked afresh from the pricing rules, so the
+     * lines' pricers take no part in the check; the standard rules price
+     * with PricingEngine.linePrice.
+     * @return unrounded sum of the line prices under the current membership.
+     */
+    private BigDecimal recomputeTotal() {
+        flushQuantities();
+        BigDecimal total = BigDecimal.ZERO;
+        for (final ItemOrder order : myItemOrders) {
+            final Item item = order.getItem();
+            total = total.add(myPricing.resolve(item, myMembership)
+                                       .price(item, order.getQuantity()));
+        }
+        return total;
+    }
+
+    /**
+     * Returns an immutable snapshot of the cart. Taking a snapshot costs the
+     * same whatever the size of the cart: the snapshot shares the cart's
+     * storage, and the cart copies a block only when it next changes it.
+     * @return the cart's current lines, membership and totals.
+     */
+    public CartSnapshot snapshot() {
+        flushQuantities();
+        final CartSnapshot snapshot = new CartSnapshot(myItemOrders, myMembership,
+                                                       new RunningTotal(myMemberTotal),
+                                                       new RunningTotal(myNonMemberTotal));
+        myEdit = new Object();
+        return snapshot;
+    }
+
     /** Clears cart. */
     public void clear() {
-        myItemOrders.clear();
+        myItemOrders = PersistentVector.empty();
+        for (int i = 0; i < myDirtyCount; i++) {
+            myDirtyLines[i] = null;
+        }
+        myDirtyCount = 0;
+        mySkuIndex.clear();
+        myLineIndex.clear();
+        myMemberTotal.clear();
+        myNonMemberTotal.clear();
     }
     
     /** Returns number of items in cart. 
@@ -91,9 +350,48 @@ public class Cart {
 
     @Override
     public String toString() {
+        flushQuantities();
         final StringBuilder sb = new StringBuilder();
         sb.append(myItemOrders);
         return sb.toString();
     }
 
+    /** Where an item's line is, its quantity, and the pricers resolved for it. */
+    private static final class Line {
+
+        /** The item on the line. */
+        private final Item myItem;
+
+        /** Position of the line in myItemOrders. */
+        private final int myPosition;
+
+        /** The quantity ordered. */
+        private int myQuantity;
+
+        /** Whether myQuantity is newer than the line's order in myItemOrders. */
+        private boolean myDirty;
+
+        /** Pricer used for the member total. */
+        private final LinePricer myMemberPricer;
+
+        /** Pricer used for the non-member total. */
+        private final LinePricer myNonMemberPricer;
+
+        /**
+         * Constructs a line.
+         * @param theItem the item on the line.
+         * @param thePosition position of the line in myItemOrders.
+         * @param theQuantity the quantity ordered.
+         * @param theMemberPricer pricer used for the member total.
+         * @param theNonMemberPricer pricer used for the non-member total.
+         */
+        Line(final Item theItem, final int thePosition, final int theQuantity,
+             final LinePricer theMemberPricer, final LinePricer theNonMemberPricer) {
+            myItem = theItem;
+            myPosition = thePosition;
+            myQuantity = theQuantity;
+            myMemberPricer = theMemberPricer;
+            myNonMemberPricer = theNonMemberPricer;
+        }
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package model;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * An immutable view of a Cart at the moment Cart.snapshot was called. It
+ * never changes and needs no locking, so it can be read from any thread
+ * while the cart keeps being edited.
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class CartSnapshot implements Iterable<ItemOrder> {
+
+    /** The orders, in the order their items were first added. */
+    private final PersistentVector<ItemOrder> myItemOrders;
+
+    /** Whether the customer was a store member. */
+    private final boolean myMembership;
+
+    /** Sum of the line prices with bulk pricing applied. Never modified. */
+    private final RunningTotal myMemberTotal;
+
+    /** Sum of the line prices without bulk pricing. Never modified. */
+    private final RunningTotal myNonMemberTotal;
+
+    /**
+     * Constructs a snapshot.
+     * @param theItemOrders the orders.
+     * @param theMembership whether the customer is a store member.
+     * @param theMemberTotal a private copy of the member total.
+     * @param theNonMemberTotal a private copy of the non-member total.
+     */
+    CartSnapshot(final PersistentVector<ItemOrder> theItemOrders, final boolean theMembership,
+                 final RunningTotal theMemberTotal, final RunningTotal theNonMemberTotal) {
+        myItemOrders = theItemOrders;
+        myMembership = theMembership;
+        myMemberTotal = theMemberTotal;
+        myNonMemberTotal = theNonMemberTotal;
+    }
+
+    /** 
+     * Returns the total cost of the cart as a BigDecimal.
+     * Returned value has scale of 2 and uses ROUND_HALF_EVEN rounding.
+     * @return total of the cart when the snapshot was taken.
+     */
+    public BigDecimal calculateTotal() {
+        final BigDecimal total;
+        if (myMembership) {
+            total = myMemberTotal.toBigDecimal();
+        } else {
+            total = myNonMemberTotal.toBigDecimal();
+        }
+        return total;
+    }
+
+    /** Returns whether the customer was a store member.
+     * @return the membership flag.
+     */
+    public boolean isMember() {
+        return myMembership;
+    }
+
+    /** Returns number of items in the cart. 
+     * @return number of items in the cart.
+     * */
+    public int getCartSize() {
+        return myItemOrders.size();
+    }
+
+    /**
+     * Returns the orders in the cart.
+     * @return an unmodifiable list of the orders.
+     */
+    public List<ItemOrder> getItemOrders() {
+        return myItemOrders;
+    }
+
+    @Override
+    public Iterator<ItemOrder> iterator() {
+        return myItemOrders.iterator();
+    }
+
+    @Override
+    public String toString() {
+        return myItemOrders.toString();
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * One version of the inventories of every campus. A catalog never changes:
+ * a reload makes a new catalog with a higher version number, so a reader
+ * holding a catalog always sees every campus from the same version, and a
+ * new version can be published to other threads by swapping one reference.
+ *
+ * Each campus's items come with a SearchIndex over their names, built when
+ * the campus is loaded or reloaded, so building it stays off the thread
+ * that shows the catalog. A new version reuses the indexes of the campuses
+ * it did not change.
+ *
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class Catalog {
+
+    /** The version number, counting reloads. */
+    private final long myVersion;
+
+    /** The items of each campus, in the campus order given at first. */
+    private final Map<String, List<Item>> myInventories;
+
+    /** The search index of each campus's items. */
+    private final Map<String, SearchIndex> myIndexes;
+
+    /**
+     * Constructs the first version of a catalog.
+     * @param theInventories the items of each campus.
+     */
+    public Catalog(final Map<String, List<Item>> theInventories) {
+        this(0, copy(theInventories));
+    }
+
+    /**
+     * Constructs a catalog from inventories it may keep, indexing them.
+     * @param theVersion the version number.
+     * @param theInventories the unmodifiable inventories.
+     */
+    private Catalog(final long theVersion, final Map<String, List<Item>> theInventories) {
+        this(theVersion, theInventories, index(theInventories));
+    }
+
+    /**
+     * Constructs a catalog from inventories and indexes it may keep.
+     * @param theVersion the version number.
+     * @param theInventories the unmodifiable inventories.
+     * @param theIndexes the unmodifiable indexes.
+     */
+    private Catalog(final long theVersion, final Map<String, List<Item>> theInventories,
+                    final Map<String, SearchIndex> theIndexes) {
+        myVersion = theVersion;
+        myInventories = theInventories;
+        myIndexes = theIndexes;
+    }
+
+    /**
+     * Returns the version number, 0 for the first version.
+     * @return the version number.
+     */
+    public long getVersion() {
+        return myVersion;
+    }
+
+    /**
+     * Returns the campus names.
+     * @return an unmodifiable set of the campus names.
+     */
+    public Set<String> getCampuses() {
+        return myInventories.keySet();
+    }
+
+    /**
+     * Returns the items of a campus.
+     * @param theCampus the campus name.
+     * @return an unmodifiable list of the items, or null for an unknown campus.
+     */
+    public List<Item> getInventory(final String theCampus) {
+        return myInventories.get(theCampus);
+    }
+
+    /**
+     * Returns the search index over the items of a campus.
+     * @param theCampus the campus name.
+     * @return the index, or null for an unknown campus.
+     */
+    public SearchIndex getIndex(final String theCampus) {
+        return myIndexes.get(theCampus);
+    }
+
+    /**
+     * Returns the inventories of every campus.
+     * @return an unmodifiable map from campus name to items.
+     */
+    public Map<String, List<Item>> getInventories() {
+        return myInventories;
+    }
+
+    /**
+     * Returns the next version of this catalog, with one campus's items
+     * replaced or added.
+     * @param theCampus the campus name.
+     * @param theItems the campus's new items.
+     * @return the new catalog.
+     */
+    public Catalog withInventory(final String theCampus, final List<Item> theItems) {
+        final List<Item> items = List.copyOf(theItems);
+        final Map<String, List<Item>> inventories = new LinkedHashMap<>(myInventories);
+        inventories.put(Objects.requireNonNull(theCampus), items);
+        final Map<String, SearchIndex> indexes = new LinkedHashMap<>(myIndexes);
+        indexes.put(theCampus, new SearchIndex(items));
+        return new Catalog(myVersion + 1, Collections.unmodifiableMap(inventories),
+                           Collections.unmodifiableMap(indexes));
+    }
+
+    @Override
+    public String toString() {
+        return "Catalog[version=" + myVersion + ", campuses=" + getCampuses() + "]";
+    }
+
+    /**
+     * Copies inventories into an unmodifiable map of unmodifiable lists.
+     * @param theInventories the inventories.
+     * @return the copy.
+     */
+    private static Map<String, List<Item>> copy(final Map<String, List<Item>> theInventories) {
+        final Map<String, List<Item>> inventories = new LinkedHashMap<>();
+        for (final Map.Entry<String, List<Item>> entry : theInventories.entrySet()) {
+            inventories.put(entry.getKey(), List.copyOf(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(inventories);
+    }
+
+    /**
+     * Builds the search index of each campus.
+     * @param theInventories the inventories.
+     * @return an unmodifiable map from campus name to index.
+     */
+    private static Map<String, SearchIndex> index(
+        final Map<String, List<Item>> theInventories) {
+        final Map<String, SearchIndex> indexes = new LinkedHashMap<>();
+        for (final Map.Entry<String, List<Item>> entry : theInventories.entrySet()) {
+            indexes.put(entry.getKey(), new SearchIndex(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(indexes);
+    }
+}
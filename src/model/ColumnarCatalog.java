@@ -0,0 +1,364 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package model;
+
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A catalog that stores its products in columns of primitives rather than as
+ * Item objects: names packed end to end in one char array, prices and bulk
+ * prices as long cents, and bulk quantities as ints. A product is known by
+ * its index, in the order it was added.
+ *
+ * For large inventories this replaces a list node, an Item, and two
+ * BigDecimals per product with a few array slots, and lets carts be priced
+ * by scanning the columns. Items are made on demand through an ItemRegistry,
+ * so asking for the same product twice gives the same Item, as Cart expects.
+ *
+ * Prices must be whole numbers of cents. Pricing follows the standard
+ * bookstore rules: members get bulk pricing on bulk items.
+ *
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class ColumnarCatalog {
+
+    /** The bulk quantity column value for products without a bulk option. */
+    private static final int NOT_BULK = -1;
+
+    /** Capacity of an empty catalog. */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /** Average name length assumed when sizing the name arena. */
+    private static final int NAME_LENGTH_GUESS = 16;
+
+    /** The registry that makes Item views. */
+    private final ItemRegistry myRegistry;
+
+    /** The names, end to end. */
+    private char[] myNames;
+
+    /** Where each name starts in myNames; entry i + 1 is where name i ends. */
+    private int[] myNameStarts;
+
+    /** The prices in cents. */
+    private long[] myPriceCents;
+
+    /** The bulk quantities, or NOT_BULK. */
+    private int[] myBulkQuantities;
+
+    /** The bulk prices in cents, or PricingEngine.NOT_EXACT. */
+    private long[] myBulkPriceCents;
+
+    /** The number of products. */
+    private int mySize;
+
+    /**
+     * Constructs an empty catalog whose Item views come from the default
+     * registry.
+     */
+    public ColumnarCatalog() {
+        this(DEFAULT_CAPACITY, ItemRegistry.getDefault());
+    }
+
+    /**
+     * Constructs an empty catalog.
+     * @param theCapacity the number of products to make room for.
+     * @param theRegistry the registry that makes Item views.
+     */
+    public ColumnarCatalog(final int theCapacity, final ItemRegistry theRegistry) {
+        if (theCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be less than 0.");
+        }
+        myRegistry = Objects.requireNonNull(theRegistry);
+        myNames = new char[theCapacity * NAME_LENGTH_GUESS];
+        myNameStarts = new int[theCapacity + 1];
+        myPriceCents = new long[theCapacity];
+        myBulkQuantities = new int[theCapacity];
+        myBulkPriceCents = new long[theCapacity];
+    }
+
+    /**
+     * Returns a catalog holding the given items, in order.
+     * @param theItems the items.
+     * @return the catalog.
+     * @throws IllegalArgumentException if a price is not a whole number of cents.
+     */
+    public static ColumnarCatalog of(final List<Item> theItems) {
+        final ColumnarCatalog catalog = new ColumnarCatalog(theItems.size(),
+                                                            ItemRegistry.getDefault());
+        for (final Item item : theItems) {
+            catalog.add(item);
+        }
+        catalog.trimToSize();
+        return catalog;
+    }
+
+    /**
+     * Adds a product without a bulk option.
+     * @param theName the name of the product.
+     * @param thePrice the price of the product.
+     * @return the index of the product.
+     * @throws IllegalArgumentException if the name is empty or the price is
+     * negative or not a whole number of cents.
+     */
+    public int add(final String theName, final BigDecimal thePrice) {
+        return add(theName, cents(thePrice), NOT_BULK, PricingEngine.NOT_EXACT);
+    }
+
+    /**
+     * Adds a product with a bulk option.
+     * @param theName the name of the product.
+     * @param thePrice the price of the product.
+     * @param theBulkQuantity the amount required for bulk option.
+     * @param theBulkPrice price for the product in bulk.
+     * @return the index of the product.
+     * @throws IllegalArgumentException if the name is empty, a price or the
+     * bulk quantity is negative, or a price is not a whole number of cents.
+     */
+    public int add(final String theName, final BigDecimal thePrice, final int theBulkQuantity,
+                   final BigDecimal theBulkPrice) {
+        if (theBulkQuantity < 0) {
+            throw new IllegalArgumentException("Bulk quantity cannot be less than 0.");
+        }
+        return add(theName, cents(thePrice), theBulkQuantity, cents(theBulkPrice));
+    }
+
+    /**
+     * Adds a product copied from an item.
+     * @param theItem the item.
+     * @return the index of the product.
+     * @throws IllegalArgumentException if a price is not a whole number of cents.
+     */
+    public int add(final Item theItem) {
+        final int index;
+        if (theItem.isBulk()) {
+            index = add(theItem.getName(), theItem.getPrice(), theItem.getBulkQuantity(),
+                        theItem.getBulkPrice());
+        } else {
+            index = add(theItem.getName(), theItem.getPrice());
+        }
+        return index;
+    }
+
+    /**
+     * Shrinks the columns to the products they hold, releasing the room kept
+     * for further adds.
+     */
+    public void trimToSize() {
+        myNames = Arrays.copyOf(myNames, myNameStarts[mySize]);
+        myNameStarts = Arrays.copyOf(myNameStarts, mySize + 1);
+        myPriceCents = Arrays.copyOf(myPriceCents, mySize);
+        myBulkQuantities = Arrays.copyOf(myBulkQuantities, mySize);
+        myBulkPriceCents = Arrays.copyOf(myBulkPriceCents, mySize);
+    }
+
+    /**
+     * Returns the number of products.
+     * @return the number of products.
+     */
+    public int size() {
+        return mySize;
+    }
+
+    /**
+     * Returns the name of a product.
+     * @param theIndex the index of the product.
+     * @return the name.
+     */
+    public String getName(final int theIndex) {
+        Objects.checkIndex(theIndex, mySize);
+        final int start = myNameStarts[theIndex];
+        return new String(myNames, start, myNameStarts[theIndex + 1] - start);
+    }
+
+    /**
+     * Returns the price of a product in cents.
+     * @param theIndex the index of the product.
+     * @return the price in cents.
+     */
+    public long getPriceCents(final int theIndex) {
+        Objects.checkIndex(theIndex, mySize);
+        return myPriceCents[theIndex];
+    }
+
+    /**
+     * Returns whether a product has a bulk option.
+     * @param theIndex the index of the product.
+     * @return whether the product has bulk pricing.
+     */
+    public boolean isBulk(final int theIndex) {
+        Objects.checkIndex(theIndex, mySize);
+        return myBulkQuantities[theIndex] != NOT_BULK;
+    }
+
+    /**
+     * Returns the bulk quantity of a product.
+     * @param theIndex the index of the product.
+     * @return the bulk quantity, or 0 without a bulk option.
+     */
+    public int getBulkQuantity(final int theIndex) {
+        return Math.max(0, myBulkQuantities[Objects.checkIndex(theIndex, mySize)]);
+    }
+
+    /**
+     * Returns the bulk price of a product in cents.
+     * @param theIndex the index of the product.
+     * @return the bulk price in cents, or PricingEngine.NOT_EXACT without a
+     * bulk option.
+     */
+    public long getBulkPriceCents(final int theIndex) {
+        Objects.checkIndex(theIndex, mySize);
+        return myBulkPriceCents[theIndex];
+    }
+
+    /**
+     * Returns the Item for a product, from this catalog's registry.
+     * @param theIndex the index of the product.
+     * @return the item.
+     */
+    public Item getItem(final int theIndex) {
+        final String name = getName(theIndex);
+        final BigDecimal price = BigDecimal.valueOf(myPriceCents[theIndex],
+                                                    PricingEngine.CENTS_SCALE);
+        final Item item;
+        if (isBulk(theIndex)) {
+            item = myRegistry.intern(name, price, myBulkQuantities[theIndex],
+                                     BigDecimal.valueOf(myBulkPriceCents[theIndex],
+                                                        PricingEngine.CENTS_SCALE));
+        } else {
+            item = myRegistry.intern(name, price);
+        }
+        return item;
+    }
+
+    /**
+     * Returns a read-only list view of the catalog whose elements are made
+     * by getItem when they are read.
+     * @return the list view.
+     */
+    public List<Item> asList() {
+        return new ItemView();
+    }
+
+    /**
+     * Prices a line in cents.
+     * @param theIndex the index of the product.
+     * @param theQuantity the quantity ordered.
+     * @param theMembership whether the customer is a store member.
+     * @return the line price in cents, or PricingEngine.NOT_EXACT on overflow.
+     */
+    public long lineCents(final int theIndex, final int theQuantity,
+                          final boolean theMembership) {
+        Objects.checkIndex(theIndex, mySize);
+        final int bulkQuantity = myBulkQuantities[theIndex];
+        return PricingEngine.lineCents(myPriceCents[theIndex], bulkQuantity,
+                                       myBulkPriceCents[theIndex], theQuantity,
+                                       theMembership && bulkQuantity != NOT_BULK);
+    }
+
+    /**
+     * Calculates the total of a cart given as parallel arrays of product
+     * indexes and quantities, straight from the columns. Each index should
+     * appear at most once, as each item has one line in a Cart.
+     * @param theIndexes the index of each line's product.
+     * @param theQuantities the quantity of each line.
+     * @param theMembership whether the customer is a store member.
+     * @return the total, with a scale of 2.
+     */
+    public BigDecimal calculateTotal(final int[] theIndexes, final int[] theQuantities,
+                                     final boolean theMembership) {
+        if (theIndexes.length != theQuantities.length) {
+            throw new IllegalArgumentException("Indexes and quantities differ in length.");
+        }
+        final RunningTotal total = new RunningTotal();
+        for (int i = 0; i < theIndexes.length; i++) {
+            final long cents = lineCents(theIndexes[i], theQuantities[i], theMembership);
+            if (cents == PricingEngine.NOT_EXACT) {
+                total.addPrice(PricingEngine.linePrice(getItem(theIndexes[i]),
+                                                       theQuantities[i], theMembership));
+            } else {
+                total.addCents(cents);
+            }
+        }
+        return total.toBigDecimal();
+    }
+
+    @Override
+    public String toString() {
+        return asList().toString();
+    }
+
+    /**
+     * Appends a product to the columns.
+     * @param theName the name of the product.
+     * @param thePriceCents the price in cents.
+     * @param theBulkQuantity the bulk quantity, or NOT_BULK.
+     * @param theBulkPriceCents the bulk price in cents.
+     * @return the index of the product.
+     */
+    private int add(final String theName, final long thePriceCents,
+                    final int theBulkQuantity, final long theBulkPriceCents) {
+        if (theName.isEmpty()) {
+            throw new IllegalArgumentException("Item name cannot be empty.");
+        }
+        if (mySize == myPriceCents.length) {
+            final int capacity = Math.max(DEFAULT_CAPACITY, mySize * 2);
+            myNameStarts = Arrays.copyOf(myNameStarts, capacity + 1);
+            myPriceCents = Arrays.copyOf(myPriceCents, capacity);
+            myBulkQuantities = Arrays.copyOf(myBulkQuantities, capacity);
+            myBulkPriceCents = Arrays.copyOf(myBulkPriceCents, capacity);
+        }
+        final int start = myNameStarts[mySize];
+        final int end = start + theName.length();
+        if (end > myNames.length) {
+            myNames = Arrays.copyOf(myNames, Math.max(end, myNames.length * 2));
+        }
+        theName.getChars(0, theName.length(), myNames, start);
+        myNameStarts[mySize + 1] = end;
+        myPriceCents[mySize] = thePriceCents;
+        myBulkQuantities[mySize] = theBulkQuantity;
+        myBulkPriceCents[mySize] = theBulkPriceCents;
+        return mySize++;
+    }
+
+    /**
+     * Converts a price for a column.
+     * @param thePrice the price.
+     * @return the price in cents.
+     * @throws IllegalArgumentException if the price is negative or not a
+     * whole number of cents.
+     */
+    private static long cents(final BigDecimal thePrice) {
+        if (thePrice.signum() < 0) {
+            throw new IllegalArgumentException("Item price cannot be less than 0.");
+        }
+        final long cents = PricingEngine.toCents(thePrice);
+        if (cents == PricingEngine.NOT_EXACT) {
+            throw new IllegalArgumentException("Price is not a whole number of cents: "
+                                               + thePrice);
+        }
+        return cents;
+    }
+
+    /** A list view of the catalog's items. */
+    private final class ItemView extends AbstractList<Item> implements RandomAccess {
+
+        @Override
+        public Item get(final int theIndex) {
+            return getItem(theIndex);
+        }
+
+        @Override
+        public int size() {
+            return mySize;
+        }
+    }
+}
@@ -0,0 +1,354 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package model;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A cart that can be shared between threads. It has the same operations and
+ * pricing as Cart, but every change publishes a new immutable state with a
+ * compare and set, so writers never lock and readers always see one
+ * complete state, total included.
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public class ConcurrentCart {
+
+    /** The current state of the cart. */
+    private final AtomicReference<State> myState;
+
+    /**
+     * Constructs an empty cart.
+     */
+    public ConcurrentCart() {
+        myState = new AtomicReference<State>(State.EMPTY);
+    }
+
+    /**
+     * Adds orders to shopping cart and updates previous orders for  
+     * equivalent items with new order.
+     * @param theOrder ItemOrder added to cart.
+     */
+    public void add(final ItemOrder theOrder) {
+        Objects.requireNonNull(theOrder);
+        State current;
+        State next;
+        do {
+            current = myState.get();
+            next = current.add(theOrder);
+        } while (!myState.compareAndSet(current, next));
+    }
+
+    /** Sets whether or not the customer is a store member.
+     * @param theMembership boolean value that determines membership.
+     *  */
+    public void setMembership(final boolean theMembership) {
+        State current;
+        State next;
+        do {
+            current = myState.get();
+            next = current.withMembership(theMembership);
+        } while (current != next && !myState.compareAndSet(current, next));
+    }
+
+    /** 
+     * Calculates and returns total cost of cart as a BigDecimal.
+     * Returned value has scale of 2 and uses HALF_EVEN rounding.
+     * @return current total of cart.
+     */
+    public BigDecimal calculateTotal() {
+        return myState.get().total().toBigDecimal();
+    }
+
+    /** Clears cart. */
+    public void clear() {
+        State current;
+        do {
+            current = myState.get();
+        } while (!myState.compareAndSet(current, current.cleared()));
+    }
+
+    /** Returns number of items in cart. 
+     * @return number of items in cart.
+     * */
+    public int getCartSize() {
+        return myState.get().myLines.size();
+    }
+
+    /**
+     * Returns the orders in the cart at one instant, in the order they were
+     * first added.
+     * @return an unmodifiable list of the orders.
+     */
+    public List<ItemOrder> getItemOrders() {
+        return Collections.unmodifiableList(myState.get().myLines);
+    }
+
+    @Override
+    public String toString() {
+        return myState.get().myLines.toString();
+    }
+
+    /**
+     * An immutable cart state. Nothing reachable from a State is modified
+     * once it has been published. The orders are a persistent vector and the
+     * index a persistent hash table, so a new state shares all but a few
+     * nodes with the old one and an add costs a logarithmic number of small
+     * copies, not a copy of the cart. Both totals are kept, so a change of
+     * membership only changes which one is read.
+     */
+    private static final class State {
+
+        /** The state of an empty cart for a non-member. */
+        static final State EMPTY = new State(PersistentVector.<ItemOrder>empty(),
+                                             LineIndex.EMPTY, false, new RunningTotal(),
+                                             new RunningTotal());
+
+        /** The orders, in the order their items were first added. */
+        private final PersistentVector<ItemOrder> myLines;
+
+        /** Position of each item's order in myLines, keyed by item identity. */
+        private final LineIndex myLineIndex;
+
+        /** Whether the customer is a store member. */
+        private final boolean myMembership;
+
+        /** Sum of the line prices as priced for members. */
+        private final RunningTotal myMemberTotal;
+
+        /** Sum of the line prices as priced for non-members. */
+        private final RunningTotal myNonMemberTotal;
+
+        /**
+         * Constructs a state.
+         * @param theLines the orders.
+         * @param theLineIndex the position of each item's order.
+         * @param theMembership whether the customer is a store member.
+         * @param theMemberTotal the sum of the line prices for members.
+         * @param theNonMemberTotal the sum of the line prices for non-members.
+         */
+        State(final PersistentVector<ItemOrder> theLines, final LineIndex theLineIndex,
+              final boolean theMembership, final RunningTotal theMemberTotal,
+              final RunningTotal theNonMemberTotal) {
+            myLines = theLines;
+            myLineIndex = theLineIndex;
+            myMembership = theMembership;
+            myMemberTotal = theMemberTotal;
+            myNonMemberTotal = theNonMemberTotal;
+        }
+
+        /**
+         * Returns the total under this state's membership.
+         * @return the total.
+         */
+        RunningTotal total() {
+            RunningTotal total = myNonMemberTotal;
+            if (myMembership) {
+                total = myMemberTotal;
+            }
+            return total;
+        }
+
+        /**
+         * Returns the state after adding an order. The new vector and index
+         * nodes are built under an edit token of their own, which is dropped
+         * when the state is returned.
+         * @param theOrder the order to add.
+         * @return the new state.
+         */
+        State add(final ItemOrder theOrder) {
+            final Item item = theOrder.getItem();
+            final int line = myLineIndex.find(item, myLines);
+            final RunningTotal memberTotal = new RunningTotal(myMemberTotal);
+            final RunningTotal nonMemberTotal = new RunningTotal(myNonMemberTotal);
+            memberTotal.add(pricer(item, true), item, theOrder.getQuantity());
+            nonMemberTotal.add(pricer(item, false), item, theOrder.getQuantity());
+            final Object edit = new Object();
+            final PersistentVector<ItemOrder> lines;
+            LineIndex index = myLineIndex;
+            if (line == LineIndex.NONE) {
+                lines = myLines.append(theOrder, edit);
+                index = myLineIndex.with(item, myLines.size(), lines, edit);
+            } else {
+                final ItemOrder previous = myLines.get(line);
+                memberTotal.subtract(pricer(item, true), item, previous.getQuantity());
+                nonMemberTotal.subtract(pricer(item, false), item, previous.getQuantity());
+                lines = myLines.set(line, theOrder, edit);
+            }
+            return new State(lines, index, myMembership, memberTotal, nonMemberTotal);
+        }
+
+        /**
+         * Returns the state with the given membership.
+         * @param theMembership whether the customer is a store member.
+         * @return the new state, or this state if the membership is unchanged.
+         */
+        State withMembership(final boolean theMembership) {
+            State result = this;
+            if (theMembership != myMembership) {
+                result = new State(myLines, myLineIndex, theMembership, myMemberTotal,
+                                   myNonMemberTotal);
+            }
+            return result;
+        }
+
+        /**
+         * Returns the standard pricer for an item.
+         * @param theItem the item.
+         * @param theMembership whether the customer is a store member.
+         * @return the pricer.
+         */
+        private static LinePricer pricer(final Item theItem, final boolean theMembership) {
+            return PricingPipeline.standard().resolve(theItem, theMembership);
+        }
+
+        /**
+         * Returns an empty state with the same membership.
+         * @return the new state.
+         */
+        State cleared() {
+            return EMPTY.withMembership(myMembership);
+        }
+    }
+
+    /**
+     * A persistent open-addressing hash table from items, by identity, to
+     * their positions in a vector of orders. The slots are themselves a
+     * persistent vector, so adding an entry copies only the path to its slot.
+     * A slot holds a position, and the item at that position in the orders is
+     * the slot's key; the orders are passed in to every lookup for that
+     * reason. Entries are never removed. The table is rebuilt at twice the
+     * size once it is half full, which costs a constant amount per entry
+     * added on average.
+     */
+    private static final class LineIndex {
+
+        /** Returned by find for an item with no position. */
+        static final int NONE = -1;
+
+        /** Smallest table length. */
+        private static final int MIN_CAPACITY = 8;
+
+        /** 2^32 divided by the golden ratio, for Fibonacci hashing. */
+        private static final int PHI = 0x9E3779B9;
+
+        /** Bits in an int hash. */
+        private static final int HASH_BITS = 32;
+
+        /** The empty index. */
+        static final LineIndex EMPTY = new LineIndex(emptySlots(MIN_CAPACITY, null), 0);
+
+        /** The position stored in each slot, or null where a slot is empty. */
+        private final PersistentVector<Integer> mySlots;
+
+        /** Number of entries. */
+        private final int mySize;
+
+        /**
+         * Constructs an index.
+         * @param theSlots the slots.
+         * @param theSize the number of entries.
+         */
+        private LineIndex(final PersistentVector<Integer> theSlots, final int theSize) {
+            mySlots = theSlots;
+            mySize = theSize;
+        }
+
+        /**
+         * Finds an item's position.
+         * @param theItem the item.
+         * @param theLines the orders the positions refer to.
+         * @return the position of the item's order, or NONE.
+         */
+        int find(final Item theItem, final List<ItemOrder> theLines) {
+            final int mask = mySlots.size() - 1;
+            int slot = slot(theItem, mySlots.size());
+            Integer position = mySlots.get(slot);
+            while (position != null && theLines.get(position).getItem() != theItem) {
+                slot = (slot + 1) & mask;
+                position = mySlots.get(slot);
+            }
+            int result = NONE;
+            if (position != null) {
+                result = position;
+            }
+            return result;
+        }
+
+        /**
+         * Returns the index with an item that is not yet in it added.
+         * @param theItem the item.
+         * @param thePosition the position of the item's order.
+         * @param theLines the orders, the new one included.
+         * @param theEdit the edit token for new slot nodes.
+         * @return the larger index.
+         */
+        LineIndex with(final Item theItem, final int thePosition,
+                       final List<ItemOrder> theLines, final Object theEdit) {
+            final int size = mySize + 1;
+            PersistentVector<Integer> slots;
+            if (size > mySlots.size() >> 1) {
+                slots = emptySlots(mySlots.size() * 2, theEdit);
+                for (int position = 0; position < size; position++) {
+                    slots = insert(slots, theLines.get(position).getItem(), position,
+                                   theEdit);
+                }
+            } else {
+                slots = insert(mySlots, theItem, thePosition, theEdit);
+            }
+            return new LineIndex(slots, size);
+        }
+
+        /**
+         * Stores a position in the first free slot for an item.
+         * @param theSlots the slots, with at least one free.
+         * @param theItem the item.
+         * @param thePosition the position.
+         * @param theEdit the edit token.
+         * @return the updated slots.
+         */
+        private static PersistentVector<Integer> insert(
+            final PersistentVector<Integer> theSlots, final Item theItem,
+            final int thePosition, final Object theEdit) {
+            final int mask = theSlots.size() - 1;
+            int slot = slot(theItem, theSlots.size());
+            while (theSlots.get(slot) != null) {
+                slot = (slot + 1) & mask;
+            }
+            return theSlots.set(slot, thePosition, theEdit);
+        }
+
+        /**
+         * Returns the home slot of an item.
+         * @param theItem the item.
+         * @param theCapacity the table length, a power of two.
+         * @return the slot.
+         */
+        private static int slot(final Item theItem, final int theCapacity) {
+            final int shift = HASH_BITS - Integer.numberOfTrailingZeros(theCapacity);
+            return System.identityHashCode(theItem) * PHI >>> shift;
+        }
+
+        /**
+         * Returns a vector of empty slots.
+         * @param theCapacity the number of slots, a power of two.
+         * @param theEdit the edit token for the new nodes.
+         * @return the slots.
+         */
+        private static PersistentVector<Integer> emptySlots(final int theCapacity,
+                                                            final Object theEdit) {
+            PersistentVector<Integer> slots = PersistentVector.empty();
+            for (int i = 0; i < theCapacity; i++) {
+                slots = slots.append(null, theEdit);
+            }
+            return slots;
+        }
+    }
+}
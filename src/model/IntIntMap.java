@@ -0,0 +1,311 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package model;
+
+import java.util.Arrays;
+
+/**
+ * A map from int keys to int values with no boxing, for indexes keyed by
+ * item SKU. Entries live in two parallel arrays with open addressing and
+ * linear probing; removal shifts later entries back, so there are no
+ * tombstones and lookups stay short after many removals.
+ *
+ * The table is a power of two and is kept at most half full, which keeps
+ * probe runs to one or two slots. A cart-sized map fits in a few cache
+ * lines; a catalog-sized one costs 16 bytes per entry at worst, against
+ * about 50 for a HashMap of boxed Integers.
+ *
+ * Absent keys read as the missing value given at construction.
+ *
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class IntIntMap {
+
+    /** Smallest table length. */
+    private static final int MIN_CAPACITY = 8;
+
+    /** The key stored in free slots; the entry for key 0 is kept aside. */
+    private static final int FREE = 0;
+
+    /** 2^32 divided by the golden ratio, for Fibonacci hashing. */
+    private static final int PHI = 0x9E3779B9;
+
+    /** The value returned for absent keys. */
+    private final int myMissingValue;
+
+    /** The keys, FREE where a slot is empty. */
+    private int[] myKeys;
+
+    /** The values, parallel to myKeys. */
+    private int[] myValues;
+
+    /** Length of the table minus one. */
+    private int myMask;
+
+    /** Right shift that turns a mixed hash into a slot index. */
+    private int myShift;
+
+    /** Number of entries in the table, not counting key 0. */
+    private int mySize;
+
+    /** Whether key 0 is present. */
+    private boolean myHasZero;
+
+    /** The value for key 0. */
+    private int myZeroValue;
+
+    /**
+     * Constructs an empty map.
+     * @param theExpectedSize the number of entries to make room for.
+     * @param theMissingValue the value returned for absent keys.
+     */
+    public IntIntMap(final int theExpectedSize, final int theMissingValue) {
+        if (theExpectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be less than 0.");
+        }
+        myMissingValue = theMissingValue;
+        allocate(tableLength(theExpectedSize));
+    }
+
+    /**
+     * Returns the value for a key.
+     * @param theKey the key.
+     * @return the value, or the missing value if the key is absent.
+     */
+    public int get(final int theKey) {
+        int result = myMissingValue;
+        if (theKey == FREE) {
+            if (myHasZero) {
+                result = myZeroValue;
+            }
+        } else {
+            final int slot = find(theKey);
+            if (slot >= 0) {
+                result = myValues[slot];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether a key is present.
+     * @param theKey the key.
+     * @return true if the map holds theKey.
+     */
+    public boolean containsKey(final int theKey) {
+        final boolean result;
+        if (theKey == FREE) {
+            result = myHasZero;
+        } else {
+            result = find(theKey) >= 0;
+        }
+        return result;
+    }
+
+    /**
+     * Sets the value for a key.
+     * @param theKey the key.
+     * @param theValue the value.
+     * @return the previous value, or the missing value if the key was absent.
+     */
+    public int put(final int theKey, final int theValue) {
+        int previous = myMissingValue;
+        if (theKey == FREE) {
+            if (myHasZero) {
+                previous = myZeroValue;
+            }
+            myHasZero = true;
+            myZeroValue = theValue;
+        } else {
+            int slot = slot(theKey);
+            while (myKeys[slot] != FREE && myKeys[slot] != theKey) {
+                slot = (slot + 1) & myMask;
+            }
+            if (myKeys[slot] == FREE) {
+                myKeys[slot] = theKey;
+                myValues[slot] = theValue;
+                mySize++;
+                if (mySize > (myMask + 1) >> 1) {
+                    rehash(myKeys.length * 2);
+                }
+            } else {
+                previous = myValues[slot];
+                myValues[slot] = theValue;
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * Adds to the value for a key, treating an absent key as holding 0.
+     * @param theKey the key.
+     * @param theDelta the amount to add.
+     * @return the new value.
+     */
+    public int addTo(final int theKey, final int theDelta) {
+        int value = theDelta;
+        if (containsKey(theKey)) {
+            value += get(theKey);
+        }
+        put(theKey, value);
+        return value;
+    }
+
+    /**
+     * Removes a key.
+     * @param theKey the key.
+     * @return the value removed, or the missing value if the key was absent.
+     */
+    public int remove(final int theKey) {
+        int previous = myMissingValue;
+        if (theKey == FREE) {
+            if (myHasZero) {
+                previous = myZeroValue;
+                myHasZero = false;
+            }
+        } else {
+            final int slot = find(theKey);
+            if (slot >= 0) {
+                previous = myValues[slot];
+                shiftBack(slot);
+                mySize--;
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * Returns the number of entries.
+     * @return the number of entries.
+     */
+    public int size() {
+        int size = mySize;
+        if (myHasZero) {
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Returns whether the map is empty.
+     * @return true if the map has no entries.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /** Removes every entry, keeping the table. */
+    public void clear() {
+        Arrays.fill(myKeys, FREE);
+        mySize = 0;
+        myHasZero = false;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("{");
+        if (myHasZero) {
+            sb.append(FREE).append('=').append(myZeroValue);
+        }
+        for (int i = 0; i < myKeys.length; i++) {
+            if (myKeys[i] != FREE) {
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+                sb.append(myKeys[i]).append('=').append(myValues[i]);
+            }
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Returns the slot holding a non-zero key.
+     * @param theKey the key.
+     * @return the slot, or -1 if the key is absent.
+     */
+    private int find(final int theKey) {
+        int slot = slot(theKey);
+        while (myKeys[slot] != FREE && myKeys[slot] != theKey) {
+            slot = (slot + 1) & myMask;
+        }
+        int result = -1;
+        if (myKeys[slot] == theKey) {
+            result = slot;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the home slot of a key.
+     * @param theKey the key.
+     * @return the slot probing starts at.
+     */
+    private int slot(final int theKey) {
+        return (theKey * PHI) >>> myShift;
+    }
+
+    /**
+     * Empties a slot, moving later entries of the probe run back into it so
+     * that every entry stays reachable from its home slot.
+     * @param theSlot the slot to empty.
+     */
+    private void shiftBack(final int theSlot) {
+        int gap = theSlot;
+        int slot = (gap + 1) & myMask;
+        while (myKeys[slot] != FREE) {
+            final int home = slot(myKeys[slot]);
+            if (((slot - home) & myMask) >= ((slot - gap) & myMask)) {
+                myKeys[gap] = myKeys[slot];
+                myValues[gap] = myValues[slot];
+                gap = slot;
+            }
+            slot = (slot + 1) & myMask;
+        }
+        myKeys[gap] = FREE;
+    }
+
+    /**
+     * Moves every entry into a new table.
+     * @param theLength the new table length, a power of two.
+     */
+    private void rehash(final int theLength) {
+        final int[] keys = myKeys;
+        final int[] values = myValues;
+        allocate(theLength);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE) {
+                int slot = slot(keys[i]);
+                while (myKeys[slot] != FREE) {
+                    slot = (slot + 1) & myMask;
+                }
+                myKeys[slot] = keys[i];
+                myValues[slot] = values[i];
+            }
+        }
+    }
+
+    /**
+     * Allocates an empty table.
+     * @param theLength the table length, a power of two.
+     */
+    private void allocate(final int theLength) {
+        myKeys = new int[theLength];
+        myValues = new int[theLength];
+        myMask = theLength - 1;
+        myShift = Integer.numberOfLeadingZeros(myMask);
+    }
+
+    /**
+     * Returns the table length that holds a number of entries at most half
+     * full.
+     * @param theSize the number of entries.
+     * @return a power of two of at least MIN_CAPACITY.
+     */
+    static int tableLength(final int theSize) {
+        final int needed = Math.max(MIN_CAPACITY, theSize * 2);
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+}
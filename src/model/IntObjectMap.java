@@ -0,0 +1,302 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package model;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * A map from int keys to objects with no boxing of the keys, for indexes
+ * keyed by item SKU. It is laid out and probed the same way as IntIntMap:
+ * parallel key and value arrays, linear probing in a power-of-two table at
+ * most half full, and backward-shift removal.
+ *
+ * Null values are not allowed; absent keys read as null.
+ *
+ * @param <V> the type of the values
+ *
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class IntObjectMap<V> {
+
+    /** Smallest table length. */
+    private static final int MIN_CAPACITY = 8;
+
+    /** The key stored in free slots; the entry for key 0 is kept aside. */
+    private static final int FREE = 0;
+
+    /** 2^32 divided by the golden ratio, for Fibonacci hashing. */
+    private static final int PHI = 0x9E3779B9;
+
+    /** The keys, FREE where a slot is empty. */
+    private int[] myKeys;
+
+    /** The values, parallel to myKeys. */
+    private Object[] myValues;
+
+    /** Length of the table minus one. */
+    private int myMask;
+
+    /** Right shift that turns a mixed hash into a slot index. */
+    private int myShift;
+
+    /** Number of entries in the table, not counting key 0. */
+    private int mySize;
+
+    /** Whether key 0 is present. */
+    private boolean myHasZero;
+
+    /** The value for key 0. */
+    private V myZeroValue;
+
+    /**
+     * Constructs an empty map.
+     * @param theExpectedSize the number of entries to make room for.
+     */
+    public IntObjectMap(final int theExpectedSize) {
+        if (theExpectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be less than 0.");
+        }
+        allocate(IntIntMap.tableLength(theExpectedSize));
+    }
+
+    /**
+     * Returns the value for a key.
+     * @param theKey the key.
+     * @return the value, or null if the key is absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(final int theKey) {
+        V result = null;
+        if (theKey == FREE) {
+            if (myHasZero) {
+                result = myZeroValue;
+            }
+        } else {
+            final int slot = find(theKey);
+            if (slot >= 0) {
+                result = (V) myValues[slot];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether a key is present.
+     * @param theKey the key.
+     * @return true if the map holds theKey.
+     */
+    public boolean containsKey(final int theKey) {
+        final boolean result;
+        if (theKey == FREE) {
+            result = myHasZero;
+        } else {
+            result = find(theKey) >= 0;
+        }
+        return result;
+    }
+
+    /**
+     * Sets the value for a key.
+     * @param theKey the key.
+     * @param theValue the value.
+     * @return the previous value, or null if the key was absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(final int theKey, final V theValue) {
+        Objects.requireNonNull(theValue);
+        V previous = null;
+        if (theKey == FREE) {
+            if (myHasZero) {
+                previous = myZeroValue;
+            }
+            myHasZero = true;
+            myZeroValue = theValue;
+        } else {
+            int slot = slot(theKey);
+            while (myKeys[slot] != FREE && myKeys[slot] != theKey) {
+                slot = (slot + 1) & myMask;
+            }
+            if (myKeys[slot] == FREE) {
+                myKeys[slot] = theKey;
+                myValues[slot] = theValue;
+                mySize++;
+                if (mySize > (myMask + 1) >> 1) {
+                    rehash(myKeys.length * 2);
+                }
+            } else {
+                previous = (V) myValues[slot];
+                myValues[slot] = theValue;
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * Returns the value for a key, computing and storing it if absent.
+     * @param theKey the key.
+     * @param theFunction computes a non-null value for the key.
+     * @return the present or computed value.
+     */
+    public V computeIfAbsent(final int theKey, final IntFunction<? extends V> theFunction) {
+        V value = get(theKey);
+        if (value == null) {
+            value = theFunction.apply(theKey);
+            put(theKey, value);
+        }
+        return value;
+    }
+
+    /**
+     * Removes a key.
+     * @param theKey the key.
+     * @return the value removed, or null if the key was absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(final int theKey) {
+        V previous = null;
+        if (theKey == FREE) {
+            if (myHasZero) {
+                previous = myZeroValue;
+                myHasZero = false;
+                myZeroValue = null;
+            }
+        } else {
+            final int slot = find(theKey);
+            if (slot >= 0) {
+                previous = (V) myValues[slot];
+                shiftBack(slot);
+                mySize--;
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * Returns the number of entries.
+     * @return the number of entries.
+     */
+    public int size() {
+        int size = mySize;
+        if (myHasZero) {
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Returns whether the map is empty.
+     * @return true if the map has no entries.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /** Removes every entry, keeping the table. */
+    public void clear() {
+        Arrays.fill(myKeys, FREE);
+        Arrays.fill(myValues, null);
+        mySize = 0;
+        myHasZero = false;
+        myZeroValue = null;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("{");
+        if (myHasZero) {
+            sb.append(FREE).append('=').append(myZeroValue);
+        }
+        for (int i = 0; i < myKeys.length; i++) {
+            if (myKeys[i] != FREE) {
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+                sb.append(myKeys[i]).append('=').append(myValues[i]);
+            }
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Returns the slot holding a non-zero key.
+     * @param theKey the key.
+     * @return the slot, or -1 if the key is absent.
+     */
+    private int find(final int theKey) {
+        int slot = slot(theKey);
+        while (myKeys[slot] != FREE && myKeys[slot] != theKey) {
+            slot = (slot + 1) & myMask;
+        }
+        int result = -1;
+        if (myKeys[slot] == theKey) {
+            result = slot;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the home slot of a key.
+     * @param theKey the key.
+     * @return the slot probing starts at.
+     */
+    private int slot(final int theKey) {
+        return (theKey * PHI) >>> myShift;
+    }
+
+    /**
+     * Empties a slot, moving later entries of the probe run back into it so
+     * that every entry stays reachable from its home slot.
+     * @param theSlot the slot to empty.
+     */
+    private void shiftBack(final int theSlot) {
+        int gap = theSlot;
+        int slot = (gap + 1) & myMask;
+        while (myKeys[slot] != FREE) {
+            final int home = slot(myKeys[slot]);
+            if (((slot - home) & myMask) >= ((slot - gap) & myMask)) {
+                myKeys[gap] = myKeys[slot];
+                myValues[gap] = myValues[slot];
+                gap = slot;
+            }
+            slot = (slot + 1) & myMask;
+        }
+        myKeys[gap] = FREE;
+        myValues[gap] = null;
+    }
+
+    /**
+     * Moves every entry into a new table.
+     * @param theLength the new table length, a power of two.
+     */
+    private void rehash(final int theLength) {
+        final int[] keys = myKeys;
+        final Object[] values = myValues;
+        allocate(theLength);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE) {
+                int slot = slot(keys[i]);
+                while (myKeys[slot] != FREE) {
+                    slot = (slot + 1) & myMask;
+                }
+                myKeys[slot] = keys[i];
+                myValues[slot] = values[i];
+            }
+        }
+    }
+
+    /**
+     * Allocates an empty table.
+     * @param theLength the table length, a power of two.
+     */
+    private void allocate(final int theLength) {
+        myKeys = new int[theLength];
+        myValues = new Object[theLength];
+        myMask = theLength - 1;
+        myShift = Integer.numberOfLeadingZeros(myMask);
+    }
+}
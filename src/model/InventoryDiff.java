@@ -0,0 +1,138 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * The item-level difference between two versions of a campus inventory.
+ * Items are matched by name: a name only in the new version is added, a
+ * name only in the old version is removed, and a name in both whose price
+ * or bulk terms changed is repriced. If a name is listed several times, its
+ * listings are matched in order.
+ *
+ * A diff is immutable.
+ *
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class InventoryDiff {
+
+    /** The items in the new version, in order. */
+    private final List<Item> myItems;
+
+    /** Items in the new version only. */
+    private final List<Item> myAdded;
+
+    /** Items in the old version only. */
+    private final List<Item> myRemoved;
+
+    /** Each repriced item of the old version, mapped to its new item. */
+    private final Map<Item, Item> myRepriced;
+
+    /**
+     * Constructs a diff.
+     * @param theItems the items in the new version.
+     * @param theAdded the added items.
+     * @param theRemoved the removed items.
+     * @param theRepriced the repriced items, old to new.
+     */
+    private InventoryDiff(final List<Item> theItems, final List<Item> theAdded,
+                          final List<Item> theRemoved, final Map<Item, Item> theRepriced) {
+        myItems = Collections.unmodifiableList(theItems);
+        myAdded = Collections.unmodifiableList(theAdded);
+        myRemoved = Collections.unmodifiableList(theRemoved);
+        myRepriced = Collections.unmodifiableMap(theRepriced);
+    }
+
+    /**
+     * Computes the difference between two versions of an inventory.
+     * @param theOld the old version.
+     * @param theNew the new version.
+     * @return the diff.
+     */
+    public static InventoryDiff of(final List<Item> theOld, final List<Item> theNew) {
+        final Map<String, Queue<Item>> unmatched = new HashMap<>();
+        for (final Item item : theOld) {
+            unmatched.computeIfAbsent(item.getName(), theName -> new ArrayDeque<>()).add(item);
+        }
+        final List<Item> added = new ArrayList<>();
+        final Map<Item, Item> repriced = new IdentityHashMap<>();
+        for (final Item item : theNew) {
+            final Queue<Item> olds = unmatched.get(item.getName());
+            Item old = null;
+            if (olds != null) {
+                old = olds.poll();
+            }
+            if (old == null) {
+                added.add(item);
+            } else if (!old.equals(item)) {
+                repriced.put(old, item);
+            }
+        }
+        final List<Item> removed = new ArrayList<>();
+        for (final Item item : theOld) {
+            final Queue<Item> olds = unmatched.get(item.getName());
+            if (olds.remove(item)) {
+                removed.add(item);
+            }
+        }
+        return new InventoryDiff(new ArrayList<>(theNew), added, removed, repriced);
+    }
+
+    /**
+     * Returns the items in the new version.
+     * @return an unmodifiable list of the items, in order.
+     */
+    public List<Item> getItems() {
+        return myItems;
+    }
+
+    /**
+     * Returns the items in the new version only.
+     * @return an unmodifiable list of the added items.
+     */
+    public List<Item> getAdded() {
+        return myAdded;
+    }
+
+    /**
+     * Returns the items in the old version only.
+     * @return an unmodifiable list of the removed items.
+     */
+    public List<Item> getRemoved() {
+        return myRemoved;
+    }
+
+    /**
+     * Returns the items whose price or bulk terms changed.
+     * @return an unmodifiable map from each old item, by identity, to its
+     * new item.
+     */
+    public Map<Item, Item> getRepriced() {
+        return myRepriced;
+    }
+
+    /**
+     * Returns whether the versions hold the same items.
+     * @return true if nothing was added, removed, or repriced.
+     */
+    public boolean isEmpty() {
+        return myAdded.isEmpty() && myRemoved.isEmpty() && myRepriced.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "InventoryDiff[added=" + myAdded.size() + ", removed=" + myRemoved.size()
+               + ", repriced=" + myRepriced.size() + "]";
+    }
+}
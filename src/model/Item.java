@@ -14,6 +14,9 @@ import java.util.Objects;
  */
 
 public final class Item {
+
+    /** The SKU of an item that was not assigned one by an ItemRegistry. */
+    public static final int NO_SKU = -1;
     
     /** The name of the item. */
     private final String myItemName;
@@ -22,13 +25,28 @@ public final class Item {
     private final BigDecimal myItemPrice;
     
     /** The bulk quantity for the item. */
-    private int myBulkQuantity;
+    private final int myBulkQuantity;
     
     /** The bulk price for the item. */
-    private BigDecimal myBulkPrice;
+    private final BigDecimal myBulkPrice;
+
+    /** The price of the item in cents, or PricingEngine.NOT_EXACT. */
+    private final long myPriceCents;
+
+    /** The bulk price of the item in cents, or PricingEngine.NOT_EXACT. */
+    private final long myBulkPriceCents;
 
     /** Whether or not item has bulk option. */
-    private boolean myBulkOption;
+    private final boolean myBulkOption;
+
+    /** The hash code, computed once from the same fields equals compares. */
+    private final int myHash;
+
+    /** The SKU assigned by an ItemRegistry, or NO_SKU. */
+    private final int mySku;
+
+    /** The most recently formatted label and its locale, or null. */
+    private volatile Label myLabel;
 
     /**
      * Constructor that takes a name and price as arguments.
@@ -36,15 +54,7 @@ public final class Item {
      * @param thePrice assigns the price to the item.
      */
     public Item(final String theName, final BigDecimal thePrice) {
-        if (theName.isEmpty()) {
-            throw new IllegalArgumentException("Item name cannot be empty.");
-        }
-        if (thePrice.compareTo(BigDecimal.ZERO) < 0) {
-            throw new IllegalArgumentException("Item price cannot be less than 0.");
-        }
-        myItemName = theName;
-        myItemPrice = thePrice;
-        myBulkOption = false;
+        this(theName, thePrice, false, 0, null, NO_SKU);
     }
 
     /**
@@ -57,16 +67,72 @@ public final class Item {
      */
     public Item(final String theName, final BigDecimal thePrice, final int theBulkQuantity,
                 final BigDecimal theBulkPrice) {
-        this(theName, thePrice);
-        if (theBulkQuantity < 0) {
+        this(theName, thePrice, true, theBulkQuantity, theBulkPrice, NO_SKU);
+    }
+
+    /**
+     * Constructor that sets every field. Used directly by ItemRegistry to
+     * make items carrying a SKU.
+     * @param theName assigns the name to the item.
+     * @param thePrice assigns the price to the item.
+     * @param theBulkOption whether the item has a bulk option.
+     * @param theBulkQuantity the amount required for bulk option.
+     * @param theBulkPrice price for items in bulk, or null without a bulk option.
+     * @param theSku the SKU, or NO_SKU.
+     */
+    Item(final String theName, final BigDecimal thePrice, final boolean theBulkOption,
+         final int theBulkQuantity, final BigDecimal theBulkPrice, final int theSku) {
+        if (theName.isEmpty()) {
+            throw new IllegalArgumentException("Item name cannot be empty.");
+        }
+        if (thePrice.compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("Item price cannot be less than 0.");
+        }
+        if (theBulkOption && theBulkQuantity < 0) {
             throw new IllegalArgumentException("Bulk quantity cannot be less than 0.");
         }
-        if (theBulkPrice.compareTo(BigDecimal.ZERO) < 0) {
+        if (theBulkOption && theBulkPrice.compareTo(BigDecimal.ZERO) < 0) {
             throw new IllegalArgumentException("Bulk price cannot be less than 0.");
         }
+        myItemName = theName;
+        myItemPrice = thePrice;
+        myPriceCents = PricingEngine.toCents(thePrice);
+        myBulkOption = theBulkOption;
         myBulkQuantity = theBulkQuantity;
         myBulkPrice = theBulkPrice;
-        myBulkOption = true;
+        mySku = theSku;
+        if (theBulkOption) {
+            myBulkPriceCents = PricingEngine.toCents(theBulkPrice);
+            myHash = Objects.hash(theName, thePrice.stripTrailingZeros(), theBulkQuantity,
+                                  theBulkPrice.stripTrailingZeros());
+        } else {
+            myBulkPriceCents = PricingEngine.NOT_EXACT;
+            myHash = Objects.hash(theName, thePrice.stripTrailingZeros());
+        }
+    }
+
+    /** Returns the name of the item.
+     * @return item name.
+     * */
+    public String getName() {
+        return myItemName;
+    }
+
+    /** Returns the SKU of the item: a small non-negative number, unique
+     * among the items of the ItemRegistry that assigned it.
+     * @return item SKU, or NO_SKU if no registry assigned one.
+     * */
+    public int getSku() {
+        return mySku;
+    }
+
+    /** Returns a copy of the item carrying a SKU.
+     * @param theSku the SKU.
+     * @return the copy.
+     * */
+    Item withSku(final int theSku) {
+        return new Item(myItemName, myItemPrice, myBulkOption, myBulkQuantity, myBulkPrice,
+                        theSku);
     }
 
     /** Returns the price of the item. 
@@ -90,6 +156,20 @@ public final class Item {
         return myBulkPrice;
     }
 
+    /** Returns the price of the item in cents.
+     * @return item price in cents, or PricingEngine.NOT_EXACT
+     * */
+    long getPriceCents() {
+        return myPriceCents;
+    }
+
+    /** Returns the bulk price of the item in cents.
+     * @return item bulk price in cents, or PricingEngine.NOT_EXACT
+     * */
+    long getBulkPriceCents() {
+        return myBulkPriceCents;
+    }
+
     /** Returns true if the item has bulk pricing. 
      * @return whether item has bulk pricing
      * */
@@ -97,17 +177,36 @@ public final class Item {
         return myBulkOption;
     }
 
+    /**
+     * Returns the item's label with prices formatted as currency for a
+     * locale. The label is cached, so repeated calls for the same locale do
+     * not format again.
+     * @param theLocale the locale for the currency format.
+     * @return the label.
+     */
+    public String getLabel(final Locale theLocale) {
+        final Label cached = myLabel;
+        String text;
+        if (cached != null && cached.myLocale.equals(theLocale)) {
+            text = cached.myText;
+        } else {
+            final NumberFormat nf = NumberFormat.getCurrencyInstance(theLocale);
+            final StringBuilder sb = new StringBuilder();
+            sb.append(myItemName);
+            sb.append(", ");
+            sb.append(nf.format(myItemPrice));
+            if (isBulk()) {
+                sb.append(" (" + myBulkQuantity + " for " + nf.format(myBulkPrice) + ")");
+            }
+            text = sb.toString();
+            myLabel = new Label(theLocale, text);
+        }
+        return text;
+    }
+
     @Override
     public String toString() {
-        final NumberFormat nf = NumberFormat.getCurrencyInstance(Locale.US);
-        final StringBuilder sb = new StringBuilder();
-        sb.append(myItemName);
-        sb.append(", ");
-        sb.append(nf.format(myItemPrice));
-        if (isBulk()) {
-            sb.append(" (" + myBulkQuantity + " for " + nf.format(myBulkPrice) + ")");
-        }
-        return sb.toString();
+        return getLabel(Locale.US);
     }
 
     @Override
@@ -115,15 +214,13 @@ public final class Item {
         boolean returnValue = false;
         if (theOther != null && this.getClass() == theOther.getClass()) {
             final Item otherItem = (Item) theOther;
-            returnValue = (Objects.deepEquals(myItemName, otherItem.myItemName))
-                            && (myItemPrice.compareTo(otherItem.myItemPrice) == 0);
-            
-            if (isBulk()) {
-                returnValue = (Objects.equals(myItemName, otherItem.myItemName))
-                                && (myItemPrice.compareTo(otherItem.myItemPrice) == 0)
-                                && (Integer.compare(myBulkQuantity, otherItem.
-                                                    myBulkQuantity) == 0)
-                                && (myBulkPrice.compareTo(otherItem.myBulkPrice) == 0);
+            returnValue = myHash == otherItem.myHash
+                            && myItemName.equals(otherItem.myItemName)
+                            && myItemPrice.compareTo(otherItem.myItemPrice) == 0
+                            && myBulkOption == otherItem.myBulkOption;
+            if (returnValue && isBulk()) {
+                returnValue = myBulkQuantity == otherItem.myBulkQuantity
+                                && myBulkPrice.compareTo(otherItem.myBulkPrice) == 0;
             }
         }
         return returnValue;
@@ -131,12 +228,26 @@ public final class Item {
 
     @Override
     public int hashCode() {
-        final int hash;
-        if (isBulk()) {
-            hash = Objects.hash(myItemName, myItemPrice);
-        } else {
-            hash = Objects.hash(myItemName, myItemPrice, myBulkQuantity, myBulkPrice);
+        return myHash;
+    }
+
+    /** A formatted label and the locale it was formatted for. */
+    private static final class Label {
+
+        /** The locale. */
+        private final Locale myLocale;
+
+        /** The label. */
+        private final String myText;
+
+        /**
+         * Constructs a label.
+         * @param theLocale the locale.
+         * @param theText the label.
+         */
+        Label(final Locale theLocale, final String theText) {
+            myLocale = theLocale;
+            myText = theText;
         }
-        return hash;
     }
 }
@@ -0,0 +1,377 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package model;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.IntFunction;
+
+/**
+ * Hands out one shared Item for each distinct product, so that campus
+ * catalogs listing the same product hold the same object. Items are matched
+ * by their full value: name, price, and bulk terms. Prices are compared by
+ * value, so 1.5 and 1.50 are the same price, and the first item interned
+ * keeps its own representation. Item names are deduplicated as well, so
+ * items that share a name but differ in price share the name string.
+ *
+ * Because Cart matches items by identity, loading every catalog through one
+ * registry makes that match reliable across campuses and reloads.
+ *
+ * Each item the registry makes is given a SKU, so carts, caches and codecs
+ * can key on a small int instead of the object; getBySku maps a SKU back to
+ * its item. By default SKUs are dense, 0, 1, 2, ... in the order items are
+ * first seen, which depends on the order campuses happen to load and so
+ * differs from run to run. A registry given a SkuAssigner asks it instead,
+ * passing a fingerprint of the item's value; an assigner that records the
+ * SKUs it hands out, such as io.SkuTable, gives an item the same SKU in
+ * every run whatever the load order.
+ *
+ * A registry is safe for use by several loading threads. It grows with
+ * every distinct product loaded until retainAll drops the items that are
+ * no longer in any inventory, such as those a reload repriced or removed.
+ * An item dropped and later loaded again is a new object; with a recording
+ * assigner it gets its old SKU back.
+ *
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class ItemRegistry {
+
+    /** The registry shared by the inventory loader. */
+    private static final ItemRegistry DEFAULT = new ItemRegistry();
+
+    /** Room for SKUs in a new registry. */
+    private static final int INITIAL_SKUS = 64;
+
+    /** The canonical items, keyed by value. */
+    private final ConcurrentMap<Key, Item> myItems;
+
+    /** The canonical name strings. */
+    private final ConcurrentMap<String, String> myNames;
+
+    /** Guards SKU assignment. */
+    private final Object mySkuLock;
+
+    /** Assigns the SKUs of new items, or null to count up from 0. */
+    private final SkuAssigner myAssigner;
+
+    /** The items indexed by SKU; slots at or past mySkuCount are unused. */
+    private volatile Item[] myBySku;
+
+    /** The number of SKUs assigned. */
+    private volatile int mySkuCount;
+
+    /**
+     * Constructs an empty registry that gives SKUs in first-seen order.
+     */
+    public ItemRegistry() {
+        this(null);
+    }
+
+    /**
+     * Constructs an empty registry that asks an assigner for SKUs.
+     * @param theAssigner assigns the SKUs of new items, or null to count up
+     * from 0 in first-seen order.
+     */
+    public ItemRegistry(final SkuAssigner theAssigner) {
+        myItems = new ConcurrentHashMap<>();
+        myNames = new ConcurrentHashMap<>();
+        mySkuLock = new Object();
+        myAssigner = theAssigner;
+        myBySku = new Item[INITIAL_SKUS];
+    }
+
+    /**
+     * Returns the registry shared by the inventory loader.
+     * @return the default registry.
+     */
+    public static ItemRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the shared item with a name and price and no bulk option.
+     * @param theName the name of the item.
+     * @param thePrice the price of the item.
+     * @return the shared item.
+     */
+    public Item intern(final String theName, final BigDecimal thePrice) {
+        return myItems.computeIfAbsent(new Key(theName, thePrice, false, 0, null),
+            theKey -> register(theKey, theSku -> new Item(internName(theName), thePrice,
+                                                          false, 0, null, theSku)));
+    }
+
+    /**
+     * Returns the shared item with a name, price, and bulk option.
+     * @param theName the name of the item.
+     * @param thePrice the price of the item.
+     * @param theBulkQuantity the amount required for bulk option.
+     * @param theBulkPrice price for items in bulk.
+     * @return the shared item.
+     */
+    public Item intern(final String theName, final BigDecimal thePrice,
+                       final int theBulkQuantity, final BigDecimal theBulkPrice) {
+        return myItems.computeIfAbsent(new Key(theName, thePrice, true, theBulkQuantity,
+                                               theBulkPrice),
+            theKey -> register(theKey, theSku -> new Item(internName(theName), thePrice,
+                                                          true, theBulkQuantity,
+                                                          theBulkPrice, theSku)));
+    }
+
+    /**
+     * Returns the shared item with the same value as an item. If it is the
+     * first of its value, a copy carrying a new SKU is registered.
+     * @param theItem the item.
+     * @return the shared item.
+     */
+    public Item intern(final Item theItem) {
+        return myItems.computeIfAbsent(new Key(theItem.getName(), theItem.getPrice(),
+                                               theItem.isBulk(), theItem.getBulkQuantity(),
+                                               theItem.getBulkPrice()),
+            theKey -> register(theKey, theItem::withSku));
+    }
+
+    /**
+     * Returns the item with a SKU.
+     * @param theSku the SKU.
+     * @return the item this registry assigned theSku to.
+     * @throws IndexOutOfBoundsException if no item has theSku.
+     */
+    public Item getBySku(final int theSku) {
+        final int count = mySkuCount;
+        final Item item = myBySku[Objects.checkIndex(theSku, count)];
+        if (item == null) {
+            throw new IndexOutOfBoundsException("No item has SKU " + theSku + ".");
+        }
+        return item;
+    }
+
+    /**
+     * Returns one more than the largest SKU assigned. Without an assigner
+     * this is the number of SKUs assigned.
+     * @return the number of SKUs.
+     */
+    public int skuCount() {
+        return mySkuCount;
+    }
+
+    /**
+     * Returns the shared copy of an item name.
+     * @param theName the name.
+     * @return the shared string equal to theName.
+     */
+    public String internName(final String theName) {
+        final String existing = myNames.putIfAbsent(theName, theName);
+        String result = theName;
+        if (existing != null) {
+            result = existing;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of distinct items registered.
+     * @return the number of items.
+     */
+    public int size() {
+        return myItems.size();
+    }
+
+    /**
+     * Returns the number of distinct names registered.
+     * @return the number of names.
+     */
+    public int nameCount() {
+        return myNames.size();
+    }
+
+    /**
+     * Drops every item that is not in one of the given inventories, and the
+     * names only they used, so that superseded items can be collected. Items
+     * being interned while this runs may be dropped too, so callers must not
+     * intern through the registry at the same time.
+     * @param theInventories the inventories whose items are still live.
+     * @return the number of items dropped.
+     */
+    public int retainAll(final Collection<? extends Collection<Item>> theInventories) {
+        final Set<Item> live = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Set<String> names = new HashSet<>();
+        for (final Collection<Item> inventory : theInventories) {
+            live.addAll(inventory);
+        }
+        int dropped = 0;
+        synchronized (mySkuLock) {
+            final Iterator<Item> items = myItems.values().iterator();
+            while (items.hasNext()) {
+                final Item item = items.next();
+                if (live.contains(item)) {
+                    names.add(item.getName());
+                } else {
+                    items.remove();
+                    myBySku[item.getSku()] = null;
+                    dropped++;
+                }
+            }
+        }
+        myNames.keySet().retainAll(names);
+        return dropped;
+    }
+
+    /**
+     * Records the SKUs assigned so far, if the assigner keeps them.
+     * @throws IOException if the assigner cannot record them.
+     */
+    public void flush() throws IOException {
+        if (myAssigner != null) {
+            myAssigner.flush();
+        }
+    }
+
+    /**
+     * Makes and records a new item under the SKU for its value: the next
+     * SKU, or the one the assigner gives. Runs inside the item map's
+     * computeIfAbsent, so each value is registered once.
+     * @param theKey the value of the item.
+     * @param theFactory makes the item given its SKU.
+     * @return the new item.
+     * @throws IllegalStateException if the assigner gives a SKU that another
+     * item in the registry holds.
+     */
+    private Item register(final Key theKey, final IntFunction<Item> theFactory) {
+        final Item item;
+        synchronized (mySkuLock) {
+            int sku = mySkuCount;
+            if (myAssigner != null) {
+                sku = myAssigner.assign(theKey.fingerprint());
+            }
+            Item[] bySku = myBySku;
+            if (sku < bySku.length && bySku[sku] != null) {
+                throw new IllegalStateException("SKU " + sku + " is already taken.");
+            }
+            item = theFactory.apply(sku);
+            if (sku >= bySku.length) {
+                bySku = Arrays.copyOf(bySku, Math.max(sku + 1, bySku.length * 2));
+            }
+            bySku[sku] = item;
+            myBySku = bySku;
+            mySkuCount = Math.max(mySkuCount, sku + 1);
+        }
+        return item;
+    }
+
+    @Override
+    public String toString() {
+        return "ItemRegistry[items=" + size() + ", names=" + nameCount() + "]";
+    }
+
+    /**
+     * Gives the SKU of each new item from a fingerprint of its value. The
+     * same fingerprint must always get the same SKU, and different ones
+     * different SKUs, all of them at least 0.
+     */
+    public interface SkuAssigner extends Flushable {
+
+        /**
+         * Returns the SKU for an item value.
+         * @param theFingerprint the fingerprint of the value.
+         * @return the SKU.
+         */
+        int assign(long theFingerprint);
+    }
+
+    /** The value of an item, with prices compared by value. */
+    private static final class Key {
+
+        /** FNV-1a 64-bit offset basis. */
+        private static final long FNV_BASIS = 0xcbf29ce484222325L;
+
+        /** FNV-1a 64-bit prime. */
+        private static final long FNV_PRIME = 0x100000001b3L;
+
+        /** The name of the item. */
+        private final String myName;
+
+        /** The price, without trailing zeros. */
+        private final BigDecimal myPrice;
+
+        /** Whether the item has a bulk option. */
+        private final boolean myBulk;
+
+        /** The bulk quantity, or 0. */
+        private final int myBulkQuantity;
+
+        /** The bulk price without trailing zeros, or null. */
+        private final BigDecimal myBulkPrice;
+
+        /**
+         * Constructs a key.
+         * @param theName the name of the item.
+         * @param thePrice the price of the item.
+         * @param theBulk whether the item has a bulk option.
+         * @param theBulkQuantity the bulk quantity.
+         * @param theBulkPrice the bulk price, or null.
+         */
+        Key(final String theName, final BigDecimal thePrice, final boolean theBulk,
+            final int theBulkQuantity, final BigDecimal theBulkPrice) {
+            myName = theName;
+            myPrice = thePrice.stripTrailingZeros();
+            myBulk = theBulk;
+            if (theBulk) {
+                myBulkQuantity = theBulkQuantity;
+                myBulkPrice = theBulkPrice.stripTrailingZeros();
+            } else {
+                myBulkQuantity = 0;
+                myBulkPrice = null;
+            }
+        }
+
+        @Override
+        public boolean equals(final Object theOther) {
+            boolean result = false;
+            if (theOther instanceof Key) {
+                final Key other = (Key) theOther;
+                result = myName.equals(other.myName) && myPrice.equals(other.myPrice)
+                         && myBulk == other.myBulk && myBulkQuantity == other.myBulkQuantity
+                         && Objects.equals(myBulkPrice, other.myBulkPrice);
+            }
+            return result;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(myName, myPrice, myBulk, myBulkQuantity, myBulkPrice);
+        }
+
+        /**
+         * Returns a 64-bit FNV-1a hash of the value written out as an
+         * inventory line, the same on every machine and in every run.
+         * @return the fingerprint.
+         */
+        long fingerprint() {
+            final StringBuilder text = new StringBuilder(myName).append(';')
+                            .append(myPrice.toPlainString());
+            if (myBulk) {
+                text.append(';').append(myBulkQuantity).append(';')
+                    .append(myBulkPrice.toPlainString());
+            }
+            long hash = FNV_BASIS;
+            for (int i = 0; i < text.length(); i++) {
+                hash = (hash ^ text.charAt(i)) * FNV_PRIME;
+            }
+            return hash;
+        }
+    }
+}
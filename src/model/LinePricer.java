@@ -0,0 +1,35 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package model;
+
+import java.math.BigDecimal;
+
+/**
+ * Prices a quantity of one item. A PricingPipeline picks a pricer for each
+ * item once; after that a cart calls only that pricer for the item's line.
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public interface LinePricer {
+
+    /**
+     * Prices a line in whole cents.
+     * @param theItem the item ordered.
+     * @param theQuantity the quantity ordered.
+     * @return the line price in cents, or PricingEngine.NOT_EXACT if the
+     * price must be computed with price instead.
+     */
+    long priceCents(Item theItem, int theQuantity);
+
+    /**
+     * Prices a line exactly with BigDecimal arithmetic. Must agree with
+     * priceCents whenever priceCents does not return NOT_EXACT.
+     * @param theItem the item ordered.
+     * @param theQuantity the quantity ordered.
+     * @return the unrounded line price.
+     */
+    BigDecimal price(Item theItem, int theQuantity);
+}
@@ -0,0 +1,272 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package model;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list stored as a 32-way trie with a separate tail block, in
+ * the style of Clojure's persistent vector. Appending or replacing an element
+ * copies only the path to it, so old and new versions share almost all of
+ * their storage.
+ * 
+ * The updating methods take an edit token. Nodes created under a token are
+ * owned by it, and later updates with the same token change those nodes in
+ * place instead of copying them. A caller that hands a version out must stop
+ * using the token it was built with; every version built under an abandoned
+ * token is then immutable. Passing null always copies.
+ * 
+ * @param <E> the element type
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+final class PersistentVector<E> extends AbstractList<E> implements RandomAccess {
+
+    /** Number of index bits consumed by each trie level. */
+    private static final int BITS = 5;
+
+    /** Number of children of each trie node. */
+    private static final int WIDTH = 1 << BITS;
+
+    /** Mask for the index bits of one level. */
+    private static final int MASK = WIDTH - 1;
+
+    /** The empty vector. */
+    private static final PersistentVector<Object> EMPTY =
+                    new PersistentVector<Object>(0, BITS, new Node(null), new Node(null));
+
+    /** Number of elements. */
+    private final int myCount;
+
+    /** Index bit shift of the root level. */
+    private final int myShift;
+
+    /** Root of the trie holding every element before the tail. */
+    private final Node myRoot;
+
+    /** The last, partially filled block of elements. */
+    private final Node myTail;
+
+    /**
+     * Constructs a vector.
+     * @param theCount the number of elements.
+     * @param theShift the index bit shift of the root level.
+     * @param theRoot the root of the trie.
+     * @param theTail the tail block.
+     */
+    private PersistentVector(final int theCount, final int theShift, final Node theRoot,
+                             final Node theTail) {
+        super();
+        myCount = theCount;
+        myShift = theShift;
+        myRoot = theRoot;
+        myTail = theTail;
+    }
+
+    /**
+     * Returns the empty vector.
+     * @param <E> the element type.
+     * @return the empty vector.
+     */
+    @SuppressWarnings("unchecked")
+    static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    @Override
+    public int size() {
+        return myCount;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(final int theIndex) {
+        if (theIndex < 0 || theIndex >= myCount) {
+            throw new IndexOutOfBoundsException("Index " + theIndex + ", size " + myCount);
+        }
+        return (E) blockFor(theIndex)[theIndex & MASK];
+    }
+
+    /**
+     * Returns the vector with one element replaced.
+     * @param theIndex the position to replace.
+     * @param theElement the new element.
+     * @param theEdit the edit token, or null to copy every changed node.
+     * @return the updated vector; this vector if it was changed in place.
+     */
+    PersistentVector<E> set(final int theIndex, final E theElement, final Object theEdit) {
+        if (theIndex < 0 || theIndex >= myCount) {
+            throw new IndexOutOfBoundsException("Index " + theIndex + ", size " + myCount);
+        }
+        Node root = myRoot;
+        Node tail = myTail;
+        if (theIndex >= tailOffset()) {
+            tail = editable(myTail, theEdit);
+            tail.myArray[theIndex & MASK] = theElement;
+        } else {
+            root = setIn(myShift, myRoot, theIndex, theElement, theEdit);
+        }
+        PersistentVector<E> result = this;
+        if (root != myRoot || tail != myTail) {
+            result = new PersistentVector<E>(myCount, myShift, root, tail);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the vector with an element added at the end.
+     * @param theElement the new element.
+     * @param theEdit the edit token, or null to copy every changed node.
+     * @return the longer vector.
+     */
+    PersistentVector<E> append(final E theElement, final Object theEdit) {
+        final PersistentVector<E> result;
+        if (myCount - tailOffset() < WIDTH) {
+            final Node tail = editable(myTail, theEdit);
+            tail.myArray[myCount - tailOffset()] = theElement;
+            result = new PersistentVector<E>(myCount + 1, myShift, myRoot, tail);
+        } else {
+            Node root;
+            int shift = myShift;
+            if ((myCount >>> BITS) > (1 << myShift)) {
+                root = new Node(theEdit);
+                root.myArray[0] = myRoot;
+                root.myArray[1] = newPath(myShift, myTail, theEdit);
+                shift += BITS;
+            } else {
+                root = pushTail(myShift, myRoot, theEdit);
+            }
+            final Node tail = new Node(theEdit);
+            tail.myArray[0] = theElement;
+            result = new PersistentVector<E>(myCount + 1, shift, root, tail);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the index of the first element stored in the tail.
+     * @return the tail offset.
+     */
+    private int tailOffset() {
+        int offset = 0;
+        if (myCount >= WIDTH) {
+            offset = ((myCount - 1) >>> BITS) << BITS;
+        }
+        return offset;
+    }
+
+    /**
+     * Returns the block of WIDTH elements that holds an index.
+     * @param theIndex the element index.
+     * @return the leaf array holding the element.
+     */
+    private Object[] blockFor(final int theIndex) {
+        Object[] block = myTail.myArray;
+        if (theIndex < tailOffset()) {
+            Node node = myRoot;
+            for (int level = myShift; level > 0; level -= BITS) {
+                node = (Node) node.myArray[(theIndex >>> level) & MASK];
+            }
+            block = node.myArray;
+        }
+        return block;
+    }
+
+    /**
+     * Replaces an element below a trie node.
+     * @param theLevel the index bit shift of theNode.
+     * @param theNode the node to descend from.
+     * @param theIndex the element index.
+     * @param theElement the new element.
+     * @param theEdit the edit token.
+     * @return the node to store in place of theNode.
+     */
+    private static Node setIn(final int theLevel, final Node theNode, final int theIndex,
+                              final Object theElement, final Object theEdit) {
+        final Node result = editable(theNode, theEdit);
+        if (theLevel == 0) {
+            result.myArray[theIndex & MASK] = theElement;
+        } else {
+            final int child = (theIndex >>> theLevel) & MASK;
+            result.myArray[child] = setIn(theLevel - BITS, (Node) theNode.myArray[child],
+                                          theIndex, theElement, theEdit);
+        }
+        return result;
+    }
+
+    /**
+     * Moves the full tail into the trie below a node.
+     * @param theLevel the index bit shift of theParent.
+     * @param theParent the node to insert below.
+     * @param theEdit the edit token.
+     * @return the node to store in place of theParent.
+     */
+    private Node pushTail(final int theLevel, final Node theParent, final Object theEdit) {
+        final int child = ((myCount - 1) >>> theLevel) & MASK;
+        final Node result = editable(theParent, theEdit);
+        final Node inserted;
+        if (theLevel == BITS) {
+            inserted = myTail;
+        } else if (theParent.myArray[child] == null) {
+            inserted = newPath(theLevel - BITS, myTail, theEdit);
+        } else {
+            inserted = pushTail(theLevel - BITS, (Node) theParent.myArray[child], theEdit);
+        }
+        result.myArray[child] = inserted;
+        return result;
+    }
+
+    /**
+     * Builds a chain of single-child nodes down to a leaf.
+     * @param theLevel the index bit shift of the top of the chain.
+     * @param theLeaf the leaf at the bottom.
+     * @param theEdit the edit token.
+     * @return the top of the chain.
+     */
+    private static Node newPath(final int theLevel, final Node theLeaf, final Object theEdit) {
+        Node result = theLeaf;
+        for (int level = theLevel; level > 0; level -= BITS) {
+            final Node parent = new Node(theEdit);
+            parent.myArray[0] = result;
+            result = parent;
+        }
+        return result;
+    }
+
+    /**
+     * Returns a node that may be changed under an edit token.
+     * @param theNode the node.
+     * @param theEdit the edit token, or null.
+     * @return theNode if theEdit owns it, otherwise a copy owned by theEdit.
+     */
+    private static Node editable(final Node theNode, final Object theEdit) {
+        Node result = theNode;
+        if (theEdit == null || theNode.myEdit != theEdit) {
+            result = new Node(theEdit);
+            System.arraycopy(theNode.myArray, 0, result.myArray, 0, WIDTH);
+        }
+        return result;
+    }
+
+    /** A trie node or leaf block and the edit token that owns it. */
+    private static final class Node {
+
+        /** The token allowed to change this node in place, or null. */
+        private final Object myEdit;
+
+        /** Children, or elements for a leaf. */
+        private final Object[] myArray;
+
+        /**
+         * Constructs an empty node.
+         * @param theEdit the owning edit token, or null.
+         */
+        Node(final Object theEdit) {
+            myEdit = theEdit;
+            myArray = new Object[WIDTH];
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package model;
+
+import java.math.BigDecimal;
+
+/**
+ * Line pricing for the bookstore. Prices that are a whole number of cents are
+ * priced with long arithmetic in cents; anything that cannot be represented
+ * exactly that way, or that would overflow a long, is priced with BigDecimal.
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class PricingEngine {
+
+    /** Returned by the cents methods when a value has no exact long cents form. */
+    public static final long NOT_EXACT = Long.MIN_VALUE;
+
+    /** Number of decimal places in a cents amount. */
+    public static final int CENTS_SCALE = 2;
+
+    /**
+     * A private constructor, to prevent external instantiation.
+     */
+    private PricingEngine() {
+        
+    }
+
+    /**
+     * Converts a price to a whole number of cents.
+     * @param thePrice the price to convert.
+     * @return the price in cents, or NOT_EXACT if it has fractions of a cent
+     * or does not fit in a long.
+     */
+    public static long toCents(final BigDecimal thePrice) {
+        long cents = NOT_EXACT;
+        if (thePrice != null && thePrice.stripTrailingZeros().scale() <= CENTS_SCALE) {
+            try {
+                cents = thePrice.movePointRight(CENTS_SCALE).longValueExact();
+            } catch (final ArithmeticException e) {
+                cents = NOT_EXACT;
+            }
+        }
+        return cents;
+    }
+
+    /**
+     * Prices a line in cents: quantity / bulkQuantity * bulkPrice plus
+     * quantity % bulkQuantity * price when bulk pricing applies, otherwise
+     * quantity * price. A bulk quantity below 1 has no lots to price, so such
+     * a line is priced by the unit.
+     * @param thePriceCents the unit price in cents.
+     * @param theBulkQuantity the bulk quantity, ignored unless theBulk is true.
+     * @param theBulkPriceCents the bulk price in cents, ignored unless theBulk is true.
+     * @param theQuantity the quantity ordered.
+     * @param theBulk whether bulk pricing applies to this line.
+     * @return the line price in cents, or NOT_EXACT if an input is NOT_EXACT
+     * or the arithmetic overflows.
+     */
+    public static long lineCents(final long thePriceCents, final int theBulkQuantity,
+                                 final long theBulkPriceCents, final int theQuantity,
+                                 final boolean theBulk) {
+        final boolean bulk = theBulk && theBulkQuantity > 0;
+        long cents = NOT_EXACT;
+        try {
+            if (bulk && thePriceCents != NOT_EXACT && theBulkPriceCents != NOT_EXACT) {
+                cents = Math.addExact(
+                    Math.multiplyExact(theQuantity / theBulkQuantity, theBulkPriceCents),
+                    Math.multiplyExact(theQuantity % theBulkQuantity, thePriceCents));
+            } else if (!bulk && thePriceCents != NOT_EXACT) {
+                cents = Math.multiplyExact(theQuantity, thePriceCents);
+            }
+        } catch (final ArithmeticException e) {
+            cents = NOT_EXACT;
+        }
+        return cents;
+    }
+
+    /**
+     * Prices a line in cents, applying bulk pricing to bulk items when the
+     * customer is a member.
+     * @param theItem the item ordered.
+     * @param theQuantity the quantity ordered.
+     * @param theMembership whether the customer is a store member.
+     * @return the line price in cents, or NOT_EXACT if it must be priced with
+     * BigDecimal.
+     */
+    public static long lineCents(final Item theItem, final int theQuantity,
+                                 final boolean theMembership) {
+        return lineCents(theItem.getPriceCents(), theItem.getBulkQuantity(),
+                         theItem.getBulkPriceCents(), theQuantity,
+                         theMembership && theItem.isBulk());
+    }
+
+    /**
+     * Prices a line with BigDecimal arithmetic, applying bulk pricing to bulk
+     * items when the customer is a member. An item whose bulk quantity is
+     * below 1 is priced by the unit.
+     * @param theItem the item ordered.
+     * @param theQuantity the quantity ordered.
+     * @param theMembership whether the customer is a store member.
+     * @return the unrounded line price.
+     */
+    public static BigDecimal linePrice(final Item theItem, final int theQuantity,
+                                       final boolean theMembership) {
+        final BigDecimal quantity = new BigDecimal(theQuantity);
+        final BigDecimal result;
+        if (theMembership && theItem.isBulk() && theItem.getBulkQuantity() > 0) {
+            final BigDecimal bulkQuantity = new BigDecimal(theItem.getBulkQuantity());
+            result = quantity.divideToIntegralValue(bulkQuantity).
+                            multiply(theItem.getBulkPrice()).
+                            add(quantity.remainder(bulkQuantity).
+                                multiply(theItem.getPrice()));
+        } else {
+            result = theItem.getPrice().multiply(quantity);
+        }
+        return result;
+    }
+}
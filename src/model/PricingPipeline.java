@@ -0,0 +1,120 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package model;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An ordered list of pricing rules. Resolving an item asks each rule in turn
+ * and keeps the first pricer offered, falling back to the unit price. Carts
+ * resolve an item when it first enters the cart, so the number of rules only
+ * affects that step and not the cost of re-pricing a line.
+ * 
+ * Pipelines are immutable; withRule returns a new one.
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class PricingPipeline {
+
+    /** Prices every unit at the item's price. */
+    public static final LinePricer UNIT_PRICE = new UnitPricer();
+
+    /** Prices full bulk lots at the bulk price and the rest at the unit price. */
+    public static final LinePricer BULK_PRICE = new BulkPricer();
+
+    /** Gives store members bulk pricing on bulk items. */
+    public static final PricingRule MEMBER_BULK = (theItem, theMembership) -> {
+        LinePricer pricer = null;
+        if (theMembership && theItem.isBulk()) {
+            pricer = BULK_PRICE;
+        }
+        return pricer;
+    };
+
+    /** The bookstore's standard pricing: member bulk pricing, else unit price. */
+    private static final PricingPipeline STANDARD =
+                    new PricingPipeline(Collections.singletonList(MEMBER_BULK));
+
+    /** The rules, in the order they are consulted. */
+    private final List<PricingRule> myRules;
+
+    /**
+     * Constructs a pipeline.
+     * @param theRules the rules, in the order they are consulted.
+     */
+    private PricingPipeline(final List<PricingRule> theRules) {
+        myRules = theRules;
+    }
+
+    /**
+     * Returns the standard bookstore pricing.
+     * @return a pipeline holding only MEMBER_BULK.
+     */
+    public static PricingPipeline standard() {
+        return STANDARD;
+    }
+
+    /**
+     * Returns a pipeline that consults theRule before this pipeline's rules.
+     * @param theRule the rule to add.
+     * @return the new pipeline.
+     */
+    public PricingPipeline withRule(final PricingRule theRule) {
+        final List<PricingRule> rules = new ArrayList<>(myRules.size() + 1);
+        rules.add(Objects.requireNonNull(theRule));
+        rules.addAll(myRules);
+        return new PricingPipeline(Collections.unmodifiableList(rules));
+    }
+
+    /**
+     * Returns the pricer for an item.
+     * @param theItem the item.
+     * @param theMembership whether the customer is a store member.
+     * @return the first pricer a rule offers, or UNIT_PRICE.
+     */
+    public LinePricer resolve(final Item theItem, final boolean theMembership) {
+        LinePricer pricer = null;
+        for (int i = 0; i < myRules.size() && pricer == null; i++) {
+            pricer = myRules.get(i).resolve(theItem, theMembership);
+        }
+        if (pricer == null) {
+            pricer = UNIT_PRICE;
+        }
+        return pricer;
+    }
+
+    /** Prices every unit at the item's price. */
+    private static final class UnitPricer implements LinePricer {
+
+        @Override
+        public long priceCents(final Item theItem, final int theQuantity) {
+            return PricingEngine.lineCents(theItem, theQuantity, false);
+        }
+
+        @Override
+        public BigDecimal price(final Item theItem, final int theQuantity) {
+            return PricingEngine.linePrice(theItem, theQuantity, false);
+        }
+    }
+
+    /** Prices full bulk lots at the bulk price and the rest at the unit price. */
+    private static final class BulkPricer implements LinePricer {
+
+        @Override
+        public long priceCents(final Item theItem, final int theQuantity) {
+            return PricingEngine.lineCents(theItem, theQuantity, theItem.isBulk());
+        }
+
+        @Override
+        public BigDecimal price(final Item theItem, final int theQuantity) {
+            return PricingEngine.linePrice(theItem, theQuantity, theItem.isBulk());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package model;
+
+/**
+ * One rule in a PricingPipeline, such as a campus discount or staff pricing.
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public interface PricingRule {
+
+    /**
+     * Picks the pricer this rule uses for an item, if the rule applies to it.
+     * Called once per item and membership, not once per price.
+     * @param theItem the item.
+     * @param theMembership whether the customer is a store member.
+     * @return the pricer for the item, or null if this rule does not apply.
+     */
+    LinePricer resolve(Item theItem, boolean theMembership);
+}
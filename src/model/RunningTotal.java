@@ -0,0 +1,111 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * A mutable sum of line prices. Lines with an exact cents price are summed
+ * in a long; lines that need BigDecimal, and any cents that would overflow
+ * the long, are kept in a BigDecimal remainder.
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+final class RunningTotal {
+
+    /** Sum of the exact cents lines. */
+    private long myCents;
+
+    /** Sum of the lines that could not be kept in myCents. */
+    private BigDecimal myRemainder;
+
+    /**
+     * Constructs a zero total.
+     */
+    RunningTotal() {
+        myRemainder = BigDecimal.ZERO;
+    }
+
+    /**
+     * Constructs a copy of another total.
+     * @param theOther the total to copy.
+     */
+    RunningTotal(final RunningTotal theOther) {
+        myCents = theOther.myCents;
+        myRemainder = theOther.myRemainder;
+    }
+
+    /**
+     * Adds the price of a line to the total.
+     * @param thePricer the pricer for the line.
+     * @param theItem the item ordered.
+     * @param theQuantity the quantity ordered.
+     */
+    void add(final LinePricer thePricer, final Item theItem, final int theQuantity) {
+        final long cents = thePricer.priceCents(theItem, theQuantity);
+        if (cents == PricingEngine.NOT_EXACT) {
+            myRemainder = myRemainder.add(thePricer.price(theItem, theQuantity));
+        } else {
+            addCents(cents);
+        }
+    }
+
+    /**
+     * Subtracts the price of a line from the total.
+     * @param thePricer the pricer for the line.
+     * @param theItem the item ordered.
+     * @param theQuantity the quantity ordered.
+     */
+    void subtract(final LinePricer thePricer, final Item theItem, final int theQuantity) {
+        final long cents = thePricer.priceCents(theItem, theQuantity);
+        if (cents == PricingEngine.NOT_EXACT) {
+            myRemainder = myRemainder.subtract(thePricer.price(theItem, theQuantity));
+        } else {
+            addCents(-cents);
+        }
+    }
+
+    /**
+     * Adds a number of cents to the total.
+     * @param theCents the cents to add.
+     */
+    void addCents(final long theCents) {
+        try {
+            myCents = Math.addExact(myCents, theCents);
+        } catch (final ArithmeticException e) {
+            myRemainder = myRemainder.add(BigDecimal.valueOf(theCents,
+                                                             PricingEngine.CENTS_SCALE));
+        }
+    }
+
+    /**
+     * Adds an amount that may not be a whole number of cents to the total.
+     * @param thePrice the amount to add.
+     */
+    void addPrice(final BigDecimal thePrice) {
+        myRemainder = myRemainder.add(thePrice);
+    }
+
+    /** Resets the total to zero. */
+    void clear() {
+        myCents = 0;
+        myRemainder = BigDecimal.ZERO;
+    }
+
+    /**
+     * Returns the total with a scale of 2, using HALF_EVEN rounding.
+     * @return the rounded total.
+     */
+    BigDecimal toBigDecimal() {
+        BigDecimal total = BigDecimal.valueOf(myCents, PricingEngine.CENTS_SCALE);
+        if (myRemainder.signum() != 0) {
+            total = total.add(myRemainder).setScale(PricingEngine.CENTS_SCALE,
+                                                    RoundingMode.HALF_EVEN);
+        }
+        return total;
+    }
+}
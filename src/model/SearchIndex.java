@@ -0,0 +1,515 @@
+/*
+ * TCSS 305 Assignment 2 - UW Bookstore
+ */
+
+package model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * An index over the item names of one campus inventory, answering prefix
+ * and substring queries without scanning the list. Matching ignores case,
+ * and each query returns the positions of the matching items in the
+ * inventory, in ascending order.
+ *
+ * Prefix queries binary search the names in sorted order and read off the
+ * run that starts with the prefix. Substring queries use a trigram index:
+ * each name is filed under every three-character sequence it contains,
+ * with the posting lists of all trigrams packed into one int array. A
+ * query intersects the posting lists of its own trigrams, shortest first,
+ * and checks the few candidates left against the name. Trigrams are keyed
+ * on the low bits of each character, so two trigrams can share a list;
+ * the final check keeps such collisions out of the results. When no name
+ * has a character beyond those bits, a three-character query matches its
+ * trigram's list exactly and skips the check.
+ *
+ * Queries of one or two characters have no trigram; each is answered from
+ * the list of names containing that one character or character pair, the
+ * same way. Those lists are often long, so each is kept in whichever form
+ * is smaller: a sorted array of positions, or a bitmap with one bit per
+ * item.
+ *
+ * An index never changes; a reloaded inventory gets a new one.
+ *
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public final class SearchIndex {
+
+    /** Characters in an indexed sequence. */
+    private static final int GRAM = 3;
+
+    /** Bits of each character kept in a trigram key. */
+    private static final int CHAR_BITS = 10;
+
+    /** Mask for the bits of a character kept in a trigram key. */
+    private static final int CHAR_MASK = (1 << CHAR_BITS) - 1;
+
+    /** Tag of the key of a one-character sequence. */
+    private static final int UNIGRAM = 1 << 2 * CHAR_BITS;
+
+    /** Tag of the key of a two-character sequence. */
+    private static final int BIGRAM = 2 << 2 * CHAR_BITS;
+
+    /** Bits in a bitmap word. */
+    private static final int WORD_BITS = Long.SIZE;
+
+    /** Shift that turns a position into the index of its bitmap word. */
+    private static final int WORD_SHIFT = Integer.numberOfTrailingZeros(WORD_BITS);
+
+    /** The id read for a trigram that no name contains. */
+    private static final int NO_GRAM = -1;
+
+    /** Positions matching nothing. */
+    private static final int[] NONE = new int[0];
+
+    /** The indexed items, in inventory order. */
+    private final List<Item> myItems;
+
+    /** The lower-case name of the item at each position. */
+    private final String[] myNames;
+
+    /** The lower-case names in ascending order. */
+    private final String[] mySortedNames;
+
+    /** The inventory position of each name in mySortedNames. */
+    private final int[] mySortedPositions;
+
+    /** The id of each trigram key. */
+    private final IntIntMap myGramIds;
+
+    /** Whether every name's characters fit whole in trigram keys. */
+    private final boolean myExactKeys;
+
+    /** Where each trigram's posting list starts in myPostings; one extra end. */
+    private final int[] myPostingStarts;
+
+    /** The ascending positions of the names containing each trigram, end to end. */
+    private final int[] myPostings;
+
+    /** The id of each one- and two-character sequence key. */
+    private final IntIntMap myShortIds;
+
+    /** The ascending positions of the names containing each short sequence, or null. */
+    private final int[][] myShortLists;
+
+    /** The names containing each short sequence as a bitmap, or null. */
+    private final long[][] myShortBitmaps;
+
+    /**
+     * Builds the index of an inventory.
+     * @param theItems the items, in inventory order.
+     */
+    public SearchIndex(final List<Item> theItems) {
+        myItems = Collections.unmodifiableList(theItems);
+        final int size = theItems.size();
+        myNames = new String[size];
+        for (int i = 0; i < size; i++) {
+            myNames[i] = fold(theItems.get(i).getName());
+        }
+
+        final Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(thePosition -> myNames[thePosition]));
+        mySortedNames = new String[size];
+        mySortedPositions = new int[size];
+        for (int i = 0; i < size; i++) {
+            mySortedPositions[i] = order[i];
+            mySortedNames[i] = myNames[order[i]];
+        }
+
+        boolean exact = true;
+        for (int i = 0; exact && i < size; i++) {
+            exact = isExactKey(myNames[i]);
+        }
+        myExactKeys = exact;
+
+        myGramIds = new IntIntMap(0, NO_GRAM);
+        int[] counts = new int[1];
+        for (final String name : myNames) {
+            counts = count(myGramIds, counts, grams(name));
+        }
+        myPostingStarts = new int[myGramIds.size() + 1];
+        for (int id = 0; id < myGramIds.size(); id++) {
+            myPostingStarts[id + 1] = myPostingStarts[id] + counts[id];
+        }
+        myPostings = new int[myPostingStarts[myGramIds.size()]];
+        final int[] next = Arrays.copyOf(myPostingStarts, myGramIds.size());
+        for (int i = 0; i < size; i++) {
+            for (final int gram : grams(myNames[i])) {
+                myPostings[next[myGramIds.get(gram)]++] = i;
+            }
+        }
+
+        myShortIds = new IntIntMap(0, NO_GRAM);
+        int[] shortCounts = new int[1];
+        int[] lastCounted = new int[1];
+        for (int i = 0; i < size; i++) {
+            for (final int gram : shortGrams(myNames[i])) {
+                int id = myShortIds.get(gram);
+                if (id == NO_GRAM) {
+                    id = myShortIds.size();
+                    myShortIds.put(gram, id);
+                    if (id == shortCounts.length) {
+                        shortCounts = Arrays.copyOf(shortCounts, id * 2);
+                        lastCounted = Arrays.copyOf(lastCounted, id * 2);
+                    }
+                }
+                if (lastCounted[id] != i + 1) {
+                    lastCounted[id] = i + 1;
+                    shortCounts[id]++;
+                }
+            }
+        }
+        myShortLists = new int[myShortIds.size()][];
+        myShortBitmaps = new long[myShortIds.size()][];
+        for (int id = 0; id < myShortIds.size(); id++) {
+            if ((long) shortCounts[id] * Integer.SIZE < size) {
+                myShortLists[id] = new int[shortCounts[id]];
+            } else {
+                myShortBitmaps[id] = new long[(size + WORD_BITS - 1) >>> WORD_SHIFT];
+            }
+        }
+        final int[] shortNext = new int[myShortIds.size()];
+        for (int i = 0; i < size; i++) {
+            for (final int gram : shortGrams(myNames[i])) {
+                final int id = myShortIds.get(gram);
+                if (myShortLists[id] == null) {
+                    myShortBitmaps[id][i >>> WORD_SHIFT] |= 1L << i;
+                } else if (shortNext[id] == 0 || myShortLists[id][shortNext[id] - 1] != i) {
+                    myShortLists[id][shortNext[id]++] = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the indexed items.
+     * @return an unmodifiable list of the items, in inventory order.
+     */
+    public List<Item> getItems() {
+        return myItems;
+    }
+
+    /**
+     * Returns the number of indexed items.
+     * @return the number of items.
+     */
+    public int size() {
+        return myNames.length;
+    }
+
+    /**
+     * Finds the items whose names start with a prefix, ignoring case.
+     * @param thePrefix the prefix.
+     * @return the ascending positions of the matching items.
+     */
+    public int[] findPrefix(final String thePrefix) {
+        final String prefix = fold(thePrefix);
+        int low = 0;
+        int high = mySortedNames.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (mySortedNames[middle].compareTo(prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        int end = low;
+        while (end < mySortedNames.length && mySortedNames[end].startsWith(prefix)) {
+            end++;
+        }
+        final int[] positions = Arrays.copyOfRange(mySortedPositions, low, end);
+        Arrays.sort(positions);
+        return positions;
+    }
+
+    /**
+     * Finds the items whose names contain a string, ignoring case.
+     * @param theQuery the string.
+     * @return the ascending positions of the matching items.
+     */
+    public int[] findSubstring(final String theQuery) {
+        final String query = fold(theQuery);
+        int[] positions;
+        if (query.isEmpty()) {
+            positions = scan(query);
+        } else if (query.length() < GRAM) {
+            positions = findShort(query);
+        } else {
+            positions = intersect(query);
+        }
+        return positions;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchIndex[items=" + myNames.length + ", trigrams=" + myGramIds.size()
+               + ", postings=" + myPostings.length + ", short sequences="
+               + myShortIds.size() + "]";
+    }
+
+    /**
+     * Finds the names containing a query by checking every name. Only the
+     * empty query, which every name contains, is answered this way.
+     * @param theQuery the lower-case query.
+     * @return the ascending positions of the matching names.
+     */
+    private int[] scan(final String theQuery) {
+        final int[] positions = new int[myNames.length];
+        int count = 0;
+        for (int i = 0; i < myNames.length; i++) {
+            if (myNames[i].contains(theQuery)) {
+                positions[count++] = i;
+            }
+        }
+        return Arrays.copyOf(positions, count);
+    }
+
+    /**
+     * Finds the names containing a query of one or two characters through
+     * the list of its sequence.
+     * @param theQuery the lower-case query.
+     * @return the ascending positions of the matching names.
+     */
+    private int[] findShort(final String theQuery) {
+        final int id = myShortIds.get(shortGram(theQuery, 0, theQuery.length()));
+        int[] positions = NONE;
+        if (id != NO_GRAM) {
+            if (myShortLists[id] == null) {
+                positions = positions(myShortBitmaps[id]);
+            } else {
+                positions = myShortLists[id].clone();
+            }
+            if (!myExactKeys || !isExactKey(theQuery)) {
+                int count = 0;
+                for (final int position : positions) {
+                    if (myNames[position].contains(theQuery)) {
+                        positions[count++] = position;
+                    }
+                }
+                positions = Arrays.copyOf(positions, count);
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Returns the positions whose bits are set in a bitmap.
+     * @param theBitmap the bitmap.
+     * @return the positions, ascending.
+     */
+    private static int[] positions(final long[] theBitmap) {
+        int count = 0;
+        for (final long word : theBitmap) {
+            count += Long.bitCount(word);
+        }
+        final int[] positions = new int[count];
+        int next = 0;
+        for (int w = 0; w < theBitmap.length; w++) {
+            long word = theBitmap[w];
+            while (word != 0) {
+                positions[next++] = w << WORD_SHIFT | Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Finds the names containing a query of at least three characters
+     * through the trigram index.
+     * @param theQuery the lower-case query.
+     * @return the ascending positions of the matching names.
+     */
+    private int[] intersect(final String theQuery) {
+        final int[] grams = grams(theQuery);
+        final int[] ids = new int[grams.length];
+        int shortest = 0;
+        for (int g = 0; shortest != NO_GRAM && g < grams.length; g++) {
+            ids[g] = myGramIds.get(grams[g]);
+            if (ids[g] == NO_GRAM) {
+                shortest = NO_GRAM;
+            } else if (postingLength(ids[g]) < postingLength(ids[shortest])) {
+                shortest = g;
+            }
+        }
+        int[] positions = NONE;
+        if (shortest != NO_GRAM) {
+            final int id = ids[shortest];
+            final boolean exact = myExactKeys && theQuery.length() == GRAM
+                                  && isExactKey(theQuery);
+            final int[] cursors = new int[ids.length];
+            for (int g = 0; g < ids.length; g++) {
+                cursors[g] = myPostingStarts[ids[g]];
+            }
+            positions = new int[postingLength(id)];
+            int count = 0;
+            for (int p = myPostingStarts[id]; p < myPostingStarts[id + 1]; p++) {
+                final int position = myPostings[p];
+                if (inAllPostings(ids, cursors, position)
+                    && (exact || myNames[position].contains(theQuery))) {
+                    positions[count++] = position;
+                }
+            }
+            positions = Arrays.copyOf(positions, count);
+        }
+        return positions;
+    }
+
+    /**
+     * Returns whether a position is in the posting list of every trigram.
+     * Positions must be asked about in ascending order: each list's cursor
+     * only moves forward, galloping to the first entry not below the
+     * position, so a whole intersection reads each list at most once.
+     * @param theIds the trigram ids.
+     * @param theCursors the cursor into each trigram's list.
+     * @param thePosition the position.
+     * @return true if every list holds the position.
+     */
+    private boolean inAllPostings(final int[] theIds, final int[] theCursors,
+                                  final int thePosition) {
+        boolean found = true;
+        for (int g = 0; found && g < theIds.length; g++) {
+            final int end = myPostingStarts[theIds[g] + 1];
+            int low = theCursors[g];
+            int high = low;
+            int step = 1;
+            while (high < end && myPostings[high] < thePosition) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            int next = Arrays.binarySearch(myPostings, low, Math.min(high + 1, end),
+                                           thePosition);
+            found = next >= 0;
+            if (!found) {
+                next = -next - 1;
+            }
+            theCursors[g] = next;
+        }
+        return found;
+    }
+
+    /**
+     * Returns whether every character of a query keeps all its bits in a
+     * trigram key.
+     * @param theQuery the query.
+     * @return true if no character is cut down to its low bits.
+     */
+    private static boolean isExactKey(final String theQuery) {
+        boolean exact = true;
+        for (int i = 0; exact && i < theQuery.length(); i++) {
+            exact = theQuery.charAt(i) <= CHAR_MASK;
+        }
+        return exact;
+    }
+
+    /**
+     * Returns the length of a trigram's posting list.
+     * @param theId the trigram id.
+     * @return the number of names filed under it.
+     */
+    private int postingLength(final int theId) {
+        return myPostingStarts[theId + 1] - myPostingStarts[theId];
+    }
+
+    /**
+     * Gives each new key an id and counts the names filed under each id.
+     * @param theIds the id of each key, added to.
+     * @param theCounts the count for each id.
+     * @param theGrams the distinct keys of one name.
+     * @return the counts, grown if new ids needed room.
+     */
+    private static int[] count(final IntIntMap theIds, final int[] theCounts,
+                               final int[] theGrams) {
+        int[] counts = theCounts;
+        for (final int gram : theGrams) {
+            int id = theIds.get(gram);
+            if (id == NO_GRAM) {
+                id = theIds.size();
+                theIds.put(gram, id);
+                if (id == counts.length) {
+                    counts = Arrays.copyOf(counts, counts.length * 2);
+                }
+            }
+            counts[id]++;
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the distinct trigram keys of a name.
+     * @param theName the lower-case name.
+     * @return the keys, ascending.
+     */
+    private static int[] grams(final String theName) {
+        final int count = Math.max(0, theName.length() - GRAM + 1);
+        final int[] grams = new int[count];
+        for (int i = 0; i < count; i++) {
+            int gram = 0;
+            for (int c = 0; c < GRAM; c++) {
+                gram = gram << CHAR_BITS | (theName.charAt(i + c) & CHAR_MASK);
+            }
+            grams[i] = gram;
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    /**
+     * Returns the keys of the one- and two-character sequences of a name,
+     * in the order they occur; a sequence that occurs twice is listed twice.
+     * @param theName the lower-case name.
+     * @return the keys.
+     */
+    private static int[] shortGrams(final String theName) {
+        final int length = theName.length();
+        final int[] grams = new int[Math.max(0, 2 * length - 1)];
+        for (int i = 0; i < length; i++) {
+            grams[2 * i] = shortGram(theName, i, 1);
+            if (i + 1 < length) {
+                grams[2 * i + 1] = shortGram(theName, i, 2);
+            }
+        }
+        return grams;
+    }
+
+    /**
+     * Returns the key of a one- or two-character sequence.
+     * @param theText the text holding the sequence.
+     * @param theStart where the sequence starts.
+     * @param theLength the length of the sequence, 1 or 2.
+     * @return the key, tagged with the length.
+     */
+    private static int shortGram(final String theText, final int theStart,
+                                 final int theLength) {
+        int gram = UNIGRAM;
+        if (theLength == 2) {
+            gram = BIGRAM | (theText.charAt(theStart) & CHAR_MASK) << CHAR_BITS;
+        }
+        return gram | (theText.charAt(theStart + theLength - 1) & CHAR_MASK);
+    }
+
+    /**
+     * Returns the form of a name or query that matching compares.
+     * @param theText the name or query.
+     * @return the text in lower case.
+     */
+    private static String fold(final String theText) {
+        return theText.toLowerCase(Locale.ROOT);
+    }
+}
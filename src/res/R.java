@@ -119,6 +119,9 @@ public class R {
         
         /** The width of the quantity text field in the BookStore GUI. */
         public static final int BF_TEXTFIELD_QUANITITY = 3;
+        
+        /** The width of the search text field in the BookStore GUI. */
+        public static final int BF_TEXTFIELD_SEARCH = 12;
     }
 
     /**
@@ -149,6 +152,12 @@ public class R {
         /** The file extension for text files. */
         public static final String IO_FILE_EXTENSION = ".txt";
         
+        /** The file extension for binary inventory snapshots. */
+        public static final String IO_SNAPSHOT_EXTENSION = ".snapshot";
+        
+        /** The file that records the SKU of every item seen, in IO_FILE_LOCATION. */
+        public static final String IO_SKU_FILE = "skus.bin";
+        
         /** The delimiter used in text files. */
         public static final String IO_FILE_DELIMITER = ";";
         
@@ -179,6 +188,10 @@ public class R {
         public static final String ERROR_MSG_TITLE = 
                         "Oh No!";
         
+        /** Error message listing the campuses whose inventory did not load. */
+        public static final String ERROR_MSG_INVENTORY = 
+                        "These campus inventories could not be loaded:";
+        
         /** Error message for incorrect login credentials. */
         public static final String ERROR_MSG_CREDENTIALS = 
                         "Login credentials incorrect. Plesae try again.";
@@ -192,12 +205,18 @@ public class R {
         /** Message on total Label. */
         public static final String BF_LABEL_TOTAL = "order total:";
         
+        /** Message on search Label. */
+        public static final String BF_LABEL_SEARCH = "find items:";
+        
         /** Message on clear Button. */
         public static final String BF_BUTTON_CLEAR = "Clear";
         
         /** Message on membership check box. */
         public static final String BF_CHECKBOX_MEMBER = "customer has store membership";
         
+        /** Message shown in place of the items while a campus loads. */
+        public static final String BF_LABEL_LOADING = "Loading inventory...";
+        
         /** Message on Login Button during login. */
         public static final String LF_BUTTON_LOGIN = "Login";
         
@@ -0,0 +1,89 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import model.BatchPricer;
+import model.Cart;
+import model.Item;
+import model.ItemOrder;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for the BatchPricer class.
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public class BatchPricerTest {
+
+    /** Test fixtures. */
+    private List<ItemOrder[]> myRawCarts;
+
+    /** Test fixtures. */
+    private List<Cart> myCarts;
+
+    /**
+     * This method runs before EVERY test case. Builds carts of very
+     * different sizes, including empty ones and one far larger than the rest.
+     */
+    @Before
+    public void setUp() {
+        final Random random = new Random(305);
+        final Item[] items = new Item[500];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = new Item("item" + i, BigDecimal.valueOf(random.nextInt(5_000), 2),
+                                1 + random.nextInt(6),
+                                BigDecimal.valueOf(random.nextInt(20_000), 3));
+        }
+        myRawCarts = new ArrayList<>();
+        myCarts = new ArrayList<>();
+        for (int c = 0; c < 2_000; c++) {
+            int size = random.nextInt(40);
+            if (c == 1_000) {
+                size = 50_000;
+            }
+            final ItemOrder[] orders = new ItemOrder[size];
+            final Cart cart = new Cart();
+            cart.setMembership(true);
+            for (int i = 0; i < size; i++) {
+                orders[i] = new ItemOrder(items[random.nextInt(items.length)],
+                                          random.nextInt(25));
+                cart.add(orders[i]);
+            }
+            myRawCarts.add(orders);
+            myCarts.add(cart);
+        }
+    }
+
+    /** Raw carts are priced exactly as Cart prices them, in input order. */
+    @Test
+    public void testPriceOrdersMatchesCart() {
+        final BigDecimal[] totals = BatchPricer.priceOrders(myRawCarts, true);
+        assertEquals("one total per cart", myCarts.size(), totals.length);
+        for (int i = 0; i < totals.length; i++) {
+            assertEquals("total of cart " + i, myCarts.get(i).calculateTotal(), totals[i]);
+        }
+    }
+
+    /** Pricing on a one thread pool gives the same totals as the common pool. */
+    @Test
+    public void testPriceOrdersSingleThread() {
+        final ForkJoinPool pool = new ForkJoinPool(1);
+        assertArrayEquals("same totals on one thread",
+                          BatchPricer.priceOrders(myRawCarts, false),
+                          BatchPricer.priceOrders(myRawCarts, false, pool));
+        pool.shutdown();
+    }
+
+    /** An empty batch has no totals. */
+    @Test
+    public void testEmptyBatch() {
+        assertEquals("no carts", 0, BatchPricer.priceOrders(new ArrayList<>(), true).length);
+    }
+}
@@ -0,0 +1,172 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import io.CartCodec;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import model.Cart;
+import model.CartSnapshot;
+import model.Item;
+import model.ItemOrder;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for the CartCodec class.
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public class CartCodecTest {
+
+    /** Seed for the fuzz tests, so failures can be reproduced. */
+    private static final long SEED = 305L;
+
+    /** Test fixtures. */
+    private List<Item> myCatalog;
+
+    /** Test fixtures. */
+    private CartCodec myCodec;
+
+    /**
+     * This method runs before EVERY test case. Used to re initialize test
+     * fixtures.
+     */
+    @Before
+    public void setUp() {
+        myCatalog = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            if (i % 3 == 0) {
+                myCatalog.add(new Item("item" + i, new BigDecimal("1.99"), 1 + i % 7,
+                                       new BigDecimal("0.995")));
+            } else {
+                myCatalog.add(new Item("item" + i, new BigDecimal("2.49")));
+            }
+        }
+        myCodec = new CartCodec(myCatalog);
+    }
+
+    /** A small cart encodes to a handful of bytes and starts with the version. */
+    @Test
+    public void testCompactEncoding() {
+        final Cart cart = new Cart();
+        cart.add(new ItemOrder(myCatalog.get(3), 2));
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+        myCodec.write(cart, buffer);
+        buffer.flip();
+        assertEquals("version, flags, hash, count, id, quantity", 9, buffer.remaining());
+        assertEquals("version header", CartCodec.VERSION, buffer.get(0));
+    }
+
+    /** Random carts survive a round trip, including bulk pricing and membership. */
+    @Test
+    public void testRoundTripFuzz() {
+        final Random random = new Random(SEED);
+        final List<CartSnapshot> written = new ArrayList<>();
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(4 << 20);
+        for (int c = 0; c < 2_000; c++) {
+            final Cart cart = new Cart();
+            cart.setMembership(random.nextBoolean());
+            final int lines = random.nextInt(60);
+            for (int i = 0; i < lines; i++) {
+                int quantity = random.nextInt(40);
+                if (random.nextInt(50) == 0) {
+                    quantity = random.nextInt(Integer.MAX_VALUE);
+                }
+                cart.add(new ItemOrder(myCatalog.get(random.nextInt(myCatalog.size())),
+                                       quantity));
+            }
+            final CartSnapshot snapshot = cart.snapshot();
+            assertTrue("size bound",
+                       CartCodec.maxEncodedSize(snapshot) >= 2 + snapshot.getCartSize());
+            myCodec.write(snapshot, buffer);
+            written.add(snapshot);
+        }
+        buffer.flip();
+        final List<Cart> read = myCodec.readAll(buffer);
+        assertEquals("cart count", written.size(), read.size());
+        for (int c = 0; c < read.size(); c++) {
+            final CartSnapshot copy = read.get(c).snapshot();
+            assertEquals("lines of cart " + c, written.get(c).toString(), copy.toString());
+            assertEquals("membership of cart " + c, written.get(c).isMember(),
+                         copy.isMember());
+            assertEquals("total of cart " + c, written.get(c).calculateTotal(),
+                         copy.calculateTotal());
+        }
+    }
+
+    /** Random and truncated input is rejected with the documented exceptions only. */
+    @Test
+    public void testGarbageFuzz() {
+        final Random random = new Random(SEED);
+        for (int i = 0; i < 20_000; i++) {
+            final byte[] bytes = new byte[random.nextInt(24)];
+            random.nextBytes(bytes);
+            if (bytes.length > 0 && random.nextBoolean()) {
+                bytes[0] = CartCodec.VERSION;
+                if (bytes.length > 2 + Integer.BYTES) {
+                    ByteBuffer.wrap(bytes).put(1, (byte) 0)
+                        .putInt(2, myCodec.getCatalogHash());
+                }
+            }
+            try {
+                myCodec.readAll(ByteBuffer.wrap(bytes));
+            } catch (final IllegalArgumentException | BufferUnderflowException e) {
+                assertNotNull("rejected input", e);
+            }
+        }
+    }
+
+    /** An item outside the catalog cannot be written. */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownItem() {
+        final Cart cart = new Cart();
+        cart.add(new ItemOrder(new Item("stranger", BigDecimal.ONE), 1));
+        myCodec.write(cart, ByteBuffer.allocate(64));
+    }
+
+    /** A record from another format version is rejected. */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownVersion() {
+        myCodec.read(ByteBuffer.wrap(new byte[] {(byte) (CartCodec.VERSION + 1), 0, 0}));
+    }
+
+    /** A record written with the catalog in another order is rejected. */
+    @Test
+    public void testReorderedCatalog() {
+        final Cart cart = new Cart();
+        cart.add(new ItemOrder(myCatalog.get(3), 2));
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+        myCodec.write(cart, buffer);
+        buffer.flip();
+
+        final List<Item> reordered = new ArrayList<>(myCatalog);
+        Collections.swap(reordered, 3, 4);
+        final CartCodec other = new CartCodec(reordered);
+        assertNotEquals("hash changes", myCodec.getCatalogHash(), other.getCatalogHash());
+        try {
+            other.read(buffer.duplicate());
+            fail("read with a reordered catalog");
+        } catch (final IllegalArgumentException e) {
+            assertNotNull("rejected", e);
+        }
+
+        final Cart restored = new CartCodec(new ArrayList<>(myCatalog)).read(buffer);
+        assertSame("same catalog reads", myCatalog.get(3),
+                   restored.snapshot().iterator().next().getItem());
+    }
+
+    /** A five-byte varint with bits past the 32nd is rejected, not wrapped. */
+    @Test(expected = IllegalArgumentException.class)
+    public void testOverlongVarint() {
+        final byte[] bytes = {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x10, 1};
+        myCodec.readOrder(ByteBuffer.wrap(bytes));
+    }
+
+}
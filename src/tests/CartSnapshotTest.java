@@ -0,0 +1,115 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import model.Cart;
+import model.CartSnapshot;
+import model.Item;
+import model.ItemOrder;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for Cart snapshots.
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public class CartSnapshotTest {
+
+    /** Test fixtures. */
+    private Cart myCart;
+
+    /** Test fixtures. */
+    private Item[] myItems;
+
+    /**
+     * This method runs before EVERY test case. Used to re initialize test
+     * fixtures.
+     */
+    @Before
+    public void setUp() {
+        myCart = new Cart();
+        myItems = new Item[40_000];
+        for (int i = 0; i < myItems.length; i++) {
+            myItems[i] = new Item("item" + i, new BigDecimal("1.10"), 4,
+                                  new BigDecimal("4.00"));
+        }
+    }
+
+    /** A snapshot reports what the cart held when it was taken. */
+    @Test
+    public void testSnapshotMatchesCart() {
+        myCart.setMembership(true);
+        myCart.add(new ItemOrder(myItems[0], 5));
+        myCart.add(new ItemOrder(myItems[1], 1));
+        final CartSnapshot snapshot = myCart.snapshot();
+        assertEquals("size", myCart.getCartSize(), snapshot.getCartSize());
+        assertEquals("total", myCart.calculateTotal(), snapshot.calculateTotal());
+        assertEquals("toString", myCart.toString(), snapshot.toString());
+        assertTrue("membership", snapshot.isMember());
+        int count = 0;
+        for (final ItemOrder order : snapshot) {
+            assertSame("iteration order", myItems[count], order.getItem());
+            count++;
+        }
+        assertEquals("iterated every line", 2, count);
+    }
+
+    /** Later edits, membership changes and clears do not show in earlier snapshots. */
+    @Test
+    public void testSnapshotIsImmutable() {
+        myCart.add(new ItemOrder(myItems[0], 5));
+        final CartSnapshot before = myCart.snapshot();
+        final String text = before.toString();
+        myCart.add(new ItemOrder(myItems[0], 6));
+        myCart.add(new ItemOrder(myItems[1], 1));
+        myCart.setMembership(true);
+        assertEquals("lines unchanged", text, before.toString());
+        assertEquals("total unchanged", new BigDecimal("5.50"), before.calculateTotal());
+        myCart.clear();
+        assertEquals("size unchanged by clear", 1, before.getCartSize());
+    }
+
+    /** Snapshots cannot be modified through their order list. */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSnapshotListIsUnmodifiable() {
+        myCart.add(new ItemOrder(myItems[0], 5));
+        myCart.snapshot().getItemOrders().set(0, new ItemOrder(myItems[1], 1));
+    }
+
+    /**
+     * Random edits on a cart deep enough to need several trie levels, with
+     * snapshots taken along the way, always match a copied ArrayList.
+     */
+    @Test
+    public void testManySnapshots() {
+        final Random random = new Random(305);
+        final List<ItemOrder> model = new ArrayList<>();
+        final List<CartSnapshot> snapshots = new ArrayList<>();
+        final List<List<ItemOrder>> expected = new ArrayList<>();
+        for (int i = 0; i < 120_000; i++) {
+            if (model.isEmpty() || random.nextBoolean() && model.size() < myItems.length) {
+                model.add(new ItemOrder(myItems[model.size()], random.nextInt(9)));
+                myCart.add(model.get(model.size() - 1));
+            } else {
+                final int line = random.nextInt(model.size());
+                model.set(line, new ItemOrder(myItems[line], random.nextInt(9)));
+                myCart.add(model.get(line));
+            }
+            if (random.nextInt(5_000) == 0) {
+                snapshots.add(myCart.snapshot());
+                expected.add(new ArrayList<>(model));
+            }
+        }
+        snapshots.add(myCart.snapshot());
+        expected.add(new ArrayList<>(model));
+        for (int s = 0; s < snapshots.size(); s++) {
+            assertEquals("snapshot " + s, expected.get(s), snapshots.get(s).getItemOrders());
+        }
+    }
+}
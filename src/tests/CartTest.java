@@ -3,10 +3,17 @@ package tests;
 
 import static org.junit.Assert.*;
 
+import java.lang.management.ManagementFactory;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 import model.Cart;
+import model.CartSnapshot;
+import model.InventoryDiff;
 import model.Item;
 import model.ItemOrder;
+import model.ItemRegistry;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -18,6 +25,12 @@ import org.junit.Test;
  */
 public class CartTest {
 
+    /** Number of lines used by the scaling tests. */
+    private static final int LARGE_CART_LINES = 100_000;
+
+    /** Number of lines in the cart the large cart is compared against. */
+    private static final int SMALL_CART_LINES = 1_000;
+
     /** Test fixtures. */
     private Cart myCart;
 
@@ -81,6 +94,20 @@ public class CartTest {
         assertEquals("calculate total for bulk items", expected, actual);
     }
 
+    /**
+     * Tests that a bulk item with a bulk quantity of zero is priced by the
+     * unit for members and non-members alike.
+     */
+    @Test
+    public void testZeroBulkQuantity() {
+        final Cart cart = new Cart();
+        cart.add(new ItemOrder(new Item("x", new BigDecimal("1.00"), 0,
+                                        new BigDecimal("2.00")), 3));
+        assertEquals("non-member total", new BigDecimal("3.00"), cart.calculateTotal());
+        cart.setMembership(true);
+        assertEquals("member total", new BigDecimal("3.00"), cart.calculateTotal());
+    }
+
     /** Test to remove all items in cart. */
     @Test
     public void testClear() {
@@ -104,4 +131,268 @@ public class CartTest {
         final String expected = "[" + myItemOrder.toString() + "]";
         assertEquals("Test for correct toString output for cart", expected, myCart.toString());
     }
+
+    /** Adding an order for an item already in the cart replaces it in place. */
+    @Test
+    public void testAddReplacesExistingLine() {
+        final Item other = new Item("other", new BigDecimal("2.00"));
+        myCart.add(new ItemOrder(other, 1));
+        final ItemOrder replacement = new ItemOrder(myItemOrder.getItem(), 3);
+        myCart.add(replacement);
+        assertEquals("replacing an order keeps the cart size", 2, myCart.getCartSize());
+        assertEquals("replacing an order keeps the line order",
+                     "[" + replacement + ", " + new ItemOrder(other, 1) + "]",
+                     myCart.toString());
+        assertEquals("replaced line is priced with the new quantity",
+                     new BigDecimal("5.00"), myCart.calculateTotal());
+    }
+
+    /** Items are matched by identity, so equal but distinct items get separate lines. */
+    @Test
+    public void testAddDistinctEqualItems() {
+        myCart.add(new ItemOrder(new Item("itemName", new BigDecimal("1.00")), 2));
+        assertEquals("equal but distinct items are separate lines", 2, myCart.getCartSize());
+        assertEquals("both lines are priced", new BigDecimal("3.00"), myCart.calculateTotal());
+    }
+
+    /**
+     * The running total must match a full recomputation to the cent through
+     * adds, replacements, membership changes and clears.
+     */
+    @Test
+    public void testRunningTotalMatchesRecomputation() {
+        myCart.setSelfCheck(true);
+        final Item bulk = new Item("bulk", new BigDecimal("0.333"), 3,
+                                   new BigDecimal("0.995"));
+        final Item plain = new Item("plain", new BigDecimal("1.005"));
+        for (int quantity = 0; quantity < 25; quantity++) {
+            myCart.add(new ItemOrder(bulk, quantity));
+            myCart.add(new ItemOrder(plain, quantity / 2));
+            myCart.setMembership(quantity % 3 == 0);
+            final Cart fresh = new Cart();
+            fresh.setMembership(quantity % 3 == 0);
+            fresh.add(myItemOrder);
+            fresh.add(new ItemOrder(bulk, quantity));
+            fresh.add(new ItemOrder(plain, quantity / 2));
+            assertEquals("running total after " + quantity, fresh.calculateTotal(),
+                         myCart.calculateTotal());
+        }
+        myCart.clear();
+        assertEquals("cleared cart total", new BigDecimal("0.00"), myCart.calculateTotal());
+    }
+
+    /** Toggling membership on a large cart does not re-price it. */
+    @Test(timeout = 5_000)
+    public void testMembershipToggleOnLargeCart() {
+        final Cart cart = new Cart();
+        final Item[] items = fill(cart, LARGE_CART_LINES);
+        for (int i = 0; i < SMALL_CART_LINES; i++) {
+            cart.add(new ItemOrder(items[i], 3));
+        }
+        final BigDecimal nonMember = new BigDecimal("127500.00");
+        final BigDecimal member = new BigDecimal("126750.00");
+        for (int i = 0; i < LARGE_CART_LINES; i++) {
+            cart.setMembership(true);
+            assertEquals("member total", member, cart.calculateTotal());
+            cart.setMembership(false);
+            assertEquals("non member total", nonMember, cart.calculateTotal());
+        }
+    }
+
+    /**
+     * Editing lines near the end of a 100k line cart keeps every line and
+     * prices the edited lines correctly. How the cost of an edit grows with
+     * the cart is measured by bench.CartScalingBenchmark.
+     */
+    @Test
+    public void testEditsOnLargeCart() {
+        final Cart cart = new Cart();
+        final Item[] items = fill(cart, LARGE_CART_LINES);
+        assertEquals("every distinct item gets a line", LARGE_CART_LINES,
+                     cart.getCartSize());
+        for (int i = 0; i < LARGE_CART_LINES; i++) {
+            cart.add(new ItemOrder(items[items.length - 1 - i % 100], i % 7));
+        }
+        assertEquals("edits keep the cart size", LARGE_CART_LINES, cart.getCartSize());
+        final List<ItemOrder> orders = new ArrayList<>();
+        cart.snapshot().forEach(orders::add);
+        for (int i = 0; i < 100; i++) {
+            final ItemOrder order = orders.get(LARGE_CART_LINES - 1 - i);
+            assertSame("line " + i + " in place", items[items.length - 1 - i],
+                       order.getItem());
+        }
+        cart.setMembership(true);
+        cart.setSelfCheck(true);
+        assertEquals("edited total", new BigDecimal("125197.25"), cart.calculateTotal());
+    }
+
+    /**
+     * Items with a SKU are matched by SKU, and items from different
+     * registries that share a SKU still get separate lines.
+     */
+    @Test
+    public void testSkuLines() {
+        final ItemRegistry first = new ItemRegistry();
+        final ItemRegistry second = new ItemRegistry();
+        final Item pen = first.intern("Pen", new BigDecimal("2.00"));
+        final Item mug = second.intern("Mug", new BigDecimal("5.00"));
+        assertEquals("same sku", pen.getSku(), mug.getSku());
+        myCart.add(new ItemOrder(pen, 2));
+        myCart.add(new ItemOrder(mug, 1));
+        myCart.add(new ItemOrder(pen, 3));
+        myCart.add(new ItemOrder(mug, 4));
+        assertEquals("three lines", 3, myCart.getCartSize());
+        assertEquals("total", new BigDecimal("27.00"), myCart.calculateTotal());
+        myCart.setSelfCheck(true);
+        assertEquals("self check", new BigDecimal("27.00"), myCart.calculateTotal());
+    }
+
+    /** setQuantity gives the same cart as adding a new order would. */
+    @Test
+    public void testSetQuantityMatchesAdd() {
+        final Item[] items = new Item[30];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = new Item("item" + i, BigDecimal.valueOf(i * 37L + 5, 2), 1 + i % 4,
+                                BigDecimal.valueOf(i * 90L + 1, 2));
+        }
+        final Cart added = new Cart();
+        added.add(myItemOrder);
+        final Random random = new Random(17);
+        for (int i = 0; i < 5_000; i++) {
+            final Item item = items[random.nextInt(items.length)];
+            final int quantity = random.nextInt(12);
+            added.add(new ItemOrder(item, quantity));
+            myCart.setQuantity(item, quantity);
+            if (i % 500 == 0) {
+                final boolean member = random.nextBoolean();
+                added.setMembership(member);
+                myCart.setMembership(member);
+                assertEquals("total " + i, added.calculateTotal(), myCart.calculateTotal());
+            }
+        }
+        myCart.setSelfCheck(true);
+        for (final boolean member : new boolean[] {false, true}) {
+            added.setMembership(member);
+            myCart.setMembership(member);
+            assertEquals("final total", added.calculateTotal(), myCart.calculateTotal());
+        }
+        assertEquals("orders", added.toString(), myCart.toString());
+    }
+
+    /** Setting the quantity a line already has changes nothing. */
+    @Test
+    public void testSetQuantityUnchanged() {
+        assertFalse("same quantity", myCart.setQuantity(myItemOrder.getItem(), 1));
+        assertTrue("new quantity", myCart.setQuantity(myItemOrder.getItem(), 2));
+        assertTrue("new item", myCart.setQuantity(new Item("other", BigDecimal.ONE), 0));
+        assertEquals("total", new BigDecimal("2.00"), myCart.calculateTotal());
+    }
+
+    /** A snapshot keeps the quantities it was taken with. */
+    @Test
+    public void testSetQuantitySnapshot() {
+        final Item item = myItemOrder.getItem();
+        myCart.setQuantity(item, 4);
+        final CartSnapshot before = myCart.snapshot();
+        myCart.setQuantity(item, 9);
+        assertEquals("snapshot quantity", 4, before.getItemOrders().get(0).getQuantity());
+        assertEquals("snapshot total", new BigDecimal("4.00"), before.calculateTotal());
+        assertEquals("cart quantity", 9,
+                     myCart.snapshot().getItemOrders().get(0).getQuantity());
+    }
+
+    /** Negative quantities are rejected. */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetQuantityNegative() {
+        myCart.setQuantity(myItemOrder.getItem(), -1);
+    }
+
+    /** Changing quantities of items already in the cart allocates nothing. */
+    @Test
+    public void testSetQuantityAllocationFree() {
+        final Item[] items = new Item[50];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = new Item("item" + i, BigDecimal.valueOf(i + 100, 2), 3,
+                                BigDecimal.valueOf(i + 250, 2));
+            myCart.add(new ItemOrder(items[i], 1));
+        }
+        myCart.setMembership(true);
+        for (int round = 0; round < 20_000; round++) {
+            myCart.setQuantity(items[round % items.length], round % 7);
+        }
+        final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long thread = Thread.currentThread().getId();
+        final long before = threads.getThreadAllocatedBytes(thread);
+        for (int round = 0; round < 100_000; round++) {
+            myCart.setQuantity(items[round % items.length], round % 11);
+        }
+        final long allocated = threads.getThreadAllocatedBytes(thread) - before;
+        assertTrue("allocated " + allocated + " bytes", allocated < 1_024);
+    }
+
+    /**
+     * A repriced item's line keeps its quantity and place, and a removed
+     * item's line drops to 0, leaving other lines alone.
+     */
+    @Test
+    public void testApplyDiff() {
+        final Item pen = new Item("Pen", new BigDecimal("2.00"), 3, new BigDecimal("5.00"));
+        final Item mug = new Item("Mug", new BigDecimal("4.00"));
+        myCart.add(new ItemOrder(pen, 4));
+        myCart.add(new ItemOrder(mug, 1));
+        final Item cheaperPen = new Item("Pen", new BigDecimal("1.50"));
+        final Item item = myItemOrder.getItem();
+        final InventoryDiff diff = InventoryDiff.of(List.of(item, pen, mug),
+                                                    List.of(item, cheaperPen));
+        myCart.setSelfCheck(true);
+        assertTrue("changed", myCart.applyDiff(diff));
+        assertEquals("total", new BigDecimal("7.00"), myCart.calculateTotal());
+        final List<ItemOrder> orders = myCart.snapshot().getItemOrders();
+        assertSame("repriced in place", cheaperPen, orders.get(1).getItem());
+        assertEquals("quantity kept", 4, orders.get(1).getQuantity());
+        assertEquals("removed", 0, orders.get(2).getQuantity());
+        assertFalse("applied twice", myCart.applyDiff(diff));
+        assertTrue("quantity of new item", myCart.setQuantity(cheaperPen, 2));
+        assertEquals("one pen line", 3, myCart.getCartSize());
+        assertEquals("total after edit", new BigDecimal("4.00"), myCart.calculateTotal());
+    }
+
+    /**
+     * Replacing an item with one that already has a line sets the old line
+     * to 0.
+     */
+    @Test
+    public void testReplaceItem() {
+        final Cart cart = new Cart();
+        final Item old = new Item("Pen", new BigDecimal("2.00"));
+        final Item priced = new Item("Pen", new BigDecimal("3.00"));
+        cart.add(new ItemOrder(old, 2));
+        assertEquals("old total", new BigDecimal("4.00"), cart.calculateTotal());
+        assertTrue("replaced", cart.replaceItem(old, priced));
+        assertEquals("new total", new BigDecimal("6.00"), cart.calculateTotal());
+        assertFalse("no line", cart.replaceItem(old, priced));
+
+        final Item other = new Item("Pen", new BigDecimal("1.00"));
+        cart.add(new ItemOrder(other, 1));
+        cart.setSelfCheck(true);
+        assertTrue("merged", cart.replaceItem(priced, other));
+        assertEquals("merged total", new BigDecimal("1.00"), cart.calculateTotal());
+    }
+
+    /**
+     * Adds one order for each of theLines new items.
+     * 
+     * @param theCart the cart to fill
+     * @param theLines the number of lines to add
+     * @return the items added, in cart order
+     */
+    private static Item[] fill(final Cart theCart, final int theLines) {
+        final Item[] items = new Item[theLines];
+        for (int i = 0; i < theLines; i++) {
+            items[i] = new Item("item" + i, new BigDecimal("1.25"), 3, new BigDecimal("3.00"));
+            theCart.add(new ItemOrder(items[i], 1));
+        }
+        return items;
+    }
 }
@@ -0,0 +1,129 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import model.Cart;
+import model.ColumnarCatalog;
+import model.Item;
+import model.ItemOrder;
+import model.ItemRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for the ColumnarCatalog class.
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public class ColumnarCatalogTest {
+
+    /** Test fixtures. */
+    private ColumnarCatalog myCatalog;
+
+    /**
+     * This method runs before EVERY test case. Used to re initialize test
+     * fixtures.
+     */
+    @Before
+    public void setUp() {
+        myCatalog = new ColumnarCatalog(0, new ItemRegistry());
+    }
+
+    /** Products read back from the columns as they were added. */
+    @Test
+    public void testColumns() {
+        assertEquals("first index", 0, myCatalog.add("Pen", new BigDecimal("2.50")));
+        assertEquals("second index", 1, myCatalog.add("Binder", new BigDecimal("9.99"), 3,
+                                                      new BigDecimal("25")));
+        assertEquals("size", 2, myCatalog.size());
+        assertEquals("name", "Binder", myCatalog.getName(1));
+        assertEquals("price", 250, myCatalog.getPriceCents(0));
+        assertFalse("not bulk", myCatalog.isBulk(0));
+        assertEquals("no bulk quantity", 0, myCatalog.getBulkQuantity(0));
+        assertTrue("bulk", myCatalog.isBulk(1));
+        assertEquals("bulk quantity", 3, myCatalog.getBulkQuantity(1));
+        assertEquals("bulk price", 2500, myCatalog.getBulkPriceCents(1));
+    }
+
+    /** Item views equal the items added and are the same object each time. */
+    @Test
+    public void testItemViews() {
+        final List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            if (i % 3 == 0) {
+                items.add(new Item("product \u00e9 " + i, BigDecimal.valueOf(i, 2), i % 5,
+                                   BigDecimal.valueOf(i * 3L, 2)));
+            } else {
+                items.add(new Item("p" + i, BigDecimal.valueOf(i * 7L, 2)));
+            }
+        }
+        final ColumnarCatalog catalog = ColumnarCatalog.of(items);
+        assertEquals("list view", items, catalog.asList());
+        assertEquals("labels", items.toString(), catalog.toString());
+        assertSame("same view", catalog.getItem(42), catalog.getItem(42));
+    }
+
+    /** Totals from the columns match a Cart holding the same lines. */
+    @Test
+    public void testCalculateTotalMatchesCart() {
+        final Random random = new Random(15);
+        for (int i = 0; i < 200; i++) {
+            final BigDecimal price = BigDecimal.valueOf(random.nextInt(5_000), 2);
+            if (random.nextBoolean()) {
+                myCatalog.add("item" + i, price, 1 + random.nextInt(6),
+                              BigDecimal.valueOf(random.nextInt(20_000), 2));
+            } else {
+                myCatalog.add("item" + i, price);
+            }
+        }
+        for (int trial = 0; trial < 50; trial++) {
+            final int lines = random.nextInt(40);
+            final int[] indexes = new int[lines];
+            final int[] quantities = new int[lines];
+            final boolean member = random.nextBoolean();
+            final Cart cart = new Cart();
+            cart.setMembership(member);
+            for (int i = 0; i < lines; i++) {
+                indexes[i] = trial * 3 + i;
+                quantities[i] = random.nextInt(30);
+                cart.add(new ItemOrder(myCatalog.getItem(indexes[i]), quantities[i]));
+            }
+            assertEquals("trial " + trial, cart.calculateTotal(),
+                         myCatalog.calculateTotal(indexes, quantities, member));
+        }
+    }
+
+    /** A line whose cents overflow a long is still priced exactly. */
+    @Test
+    public void testCalculateTotalOverflow() {
+        myCatalog.add("Yacht", new BigDecimal("92233720368547758.07"));
+        final Cart cart = new Cart();
+        cart.add(new ItemOrder(myCatalog.getItem(0), 3));
+        assertEquals("overflow", cart.calculateTotal(),
+                     myCatalog.calculateTotal(new int[] {0}, new int[] {3}, false));
+    }
+
+    /** Prices with fractions of a cent are rejected. */
+    @Test(expected = IllegalArgumentException.class)
+    public void testFractionalCents() {
+        myCatalog.add("Gas", new BigDecimal("3.999"));
+    }
+
+    /** Negative prices are rejected. */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativePrice() {
+        myCatalog.add("Refund", new BigDecimal("-1.00"));
+    }
+
+    /** Indexes outside the catalog are rejected. */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testBadIndex() {
+        myCatalog.add("Pen", BigDecimal.ONE);
+        myCatalog.getPriceCents(1);
+    }
+}
@@ -0,0 +1,267 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import model.Cart;
+import model.ConcurrentCart;
+import model.Item;
+import model.ItemOrder;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for the ConcurrentCart class, including multi-threaded stress tests.
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public class ConcurrentCartTest {
+
+    /** Number of threads used by the stress tests. */
+    private static final int THREADS = 8;
+
+    /** Number of operations each stress test thread performs. */
+    private static final int OPERATIONS = 20_000;
+
+    /** Test fixtures. */
+    private ConcurrentCart myCart;
+
+    /** Test fixtures. */
+    private Item[] myItems;
+
+    /**
+     * This method runs before EVERY test case. Used to re initialize test
+     * fixtures.
+     */
+    @Before
+    public void setUp() {
+        myCart = new ConcurrentCart();
+        myItems = new Item[64];
+        for (int i = 0; i < myItems.length; i++) {
+            myItems[i] = new Item("item" + i, new BigDecimal("0.95"), 1 + i % 5,
+                                  new BigDecimal("3.00"));
+        }
+    }
+
+    /** Single threaded use prices and orders lines exactly like Cart. */
+    @Test
+    public void testMatchesCart() {
+        final Cart cart = new Cart();
+        final Random random = new Random(1);
+        for (int i = 0; i < 1_000; i++) {
+            final ItemOrder order = new ItemOrder(myItems[random.nextInt(myItems.length)],
+                                                  random.nextInt(20));
+            cart.add(order);
+            myCart.add(order);
+            final boolean member = random.nextInt(10) == 0;
+            cart.setMembership(member);
+            myCart.setMembership(member);
+            if (random.nextInt(200) == 0) {
+                cart.clear();
+                myCart.clear();
+            }
+            assertEquals("total after " + i, cart.calculateTotal(), myCart.calculateTotal());
+        }
+        assertEquals("same lines", cart.toString(), myCart.toString());
+        assertEquals("same size", cart.getCartSize(), myCart.getCartSize());
+    }
+
+    /**
+     * A cart of thousands of distinct items, each added twice, keeps one
+     * line per item and matches Cart under either membership.
+     */
+    @Test
+    public void testManyItems() {
+        final Cart cart = new Cart();
+        final Item[] items = new Item[5_000];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = new Item("many" + i, BigDecimal.valueOf(i, 2), 1 + i % 7,
+                                BigDecimal.valueOf(i * 3, 2));
+        }
+        for (int pass = 1; pass <= 2; pass++) {
+            for (final Item item : items) {
+                final ItemOrder order = new ItemOrder(item, pass * 4);
+                cart.add(order);
+                myCart.add(order);
+            }
+        }
+        assertEquals("one line per item", items.length, myCart.getCartSize());
+        assertEquals("non-member total", cart.calculateTotal(), myCart.calculateTotal());
+        cart.setMembership(true);
+        myCart.setMembership(true);
+        assertEquals("member total", cart.calculateTotal(), myCart.calculateTotal());
+        assertEquals("same lines", cart.toString(), myCart.toString());
+    }
+
+    /**
+     * Writers that each own their items never lose an update: the final cart
+     * holds the last quantity every thread wrote.
+     * @throws Exception if a thread fails.
+     */
+    @Test
+    public void testNoLostUpdates() throws Exception {
+        final int perThread = myItems.length / THREADS;
+        runThreads(theThread -> {
+            final Random random = new Random(theThread);
+            for (int i = 0; i < OPERATIONS; i++) {
+                final Item item = myItems[theThread * perThread + i % perThread];
+                int quantity = theThread;
+                if (i < OPERATIONS - perThread) {
+                    quantity = random.nextInt(50);
+                }
+                myCart.add(new ItemOrder(item, quantity));
+            }
+        });
+        assertEquals("every item has a line", myItems.length, myCart.getCartSize());
+        for (final ItemOrder order : myCart.getItemOrders()) {
+            final int owner = indexOf(order.getItem()) / perThread;
+            assertEquals("last write wins for " + order.getItem(), owner, order.getQuantity());
+        }
+        assertEquals("total matches the final lines", recompute(myCart.getItemOrders(), false),
+                     myCart.calculateTotal());
+    }
+
+    /**
+     * Readers running beside a single writer only ever see totals the writer
+     * actually produced, and never see them go backwards.
+     * @throws Exception if a thread fails.
+     */
+    @Test
+    public void testReadersSeeConsistentTotals() throws Exception {
+        final Cart reference = new Cart();
+        final List<BigDecimal> history = new ArrayList<>();
+        history.add(reference.calculateTotal());
+        final List<ItemOrder> script = new ArrayList<>();
+        for (int i = 1; i <= OPERATIONS / 10; i++) {
+            final ItemOrder order = new ItemOrder(myItems[i % myItems.length],
+                                                  i / myItems.length + 1);
+            script.add(order);
+            reference.add(order);
+            history.add(reference.calculateTotal());
+        }
+        final CountDownLatch writerDone = new CountDownLatch(1);
+        runThreads(theThread -> {
+            if (theThread == 0) {
+                for (final ItemOrder order : script) {
+                    myCart.add(order);
+                }
+                writerDone.countDown();
+            } else {
+                int last = 0;
+                while (writerDone.getCount() > 0) {
+                    final int seen = history.indexOf(myCart.calculateTotal());
+                    assertTrue("total was produced by the writer", seen >= 0);
+                    assertTrue("totals never go backwards", seen >= last);
+                    last = seen;
+                }
+            }
+        });
+        assertEquals("final total", history.get(history.size() - 1), myCart.calculateTotal());
+    }
+
+    /**
+     * Many threads mixing add, clear, membership and total never throw, and
+     * once they stop the total agrees with the lines left in the cart.
+     * @throws Exception if a thread fails.
+     */
+    @Test
+    public void testMixedOperations() throws Exception {
+        runThreads(theThread -> {
+            final Random random = new Random(theThread);
+            for (int i = 0; i < OPERATIONS; i++) {
+                final int op = random.nextInt(100);
+                if (op < 70) {
+                    myCart.add(new ItemOrder(myItems[random.nextInt(myItems.length)],
+                                             random.nextInt(30)));
+                } else if (op < 72) {
+                    myCart.clear();
+                } else if (op < 75) {
+                    myCart.setMembership(random.nextBoolean());
+                } else {
+                    assertNotNull(myCart.calculateTotal());
+                    assertTrue(myCart.getItemOrders().size() <= myItems.length);
+                }
+            }
+        });
+        myCart.setMembership(true);
+        assertEquals("member total", recompute(myCart.getItemOrders(), true),
+                     myCart.calculateTotal());
+        myCart.setMembership(false);
+        assertEquals("non member total", recompute(myCart.getItemOrders(), false),
+                     myCart.calculateTotal());
+    }
+
+    /**
+     * Runs the task on THREADS threads at once and rethrows the first failure.
+     * @param theTask the task, given the thread number
+     * @throws Exception if a thread fails
+     */
+    private static void runThreads(final ThreadTask theTask) throws Exception {
+        final ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            results.add(pool.submit(() -> {
+                start.await();
+                theTask.run(thread);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (final Future<?> result : results) {
+            result.get(1, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+    }
+
+    /**
+     * Prices a list of orders with a fresh single-threaded Cart.
+     * @param theOrders the orders
+     * @param theMembership whether the customer is a member
+     * @return the total
+     */
+    private static BigDecimal recompute(final List<ItemOrder> theOrders,
+                                        final boolean theMembership) {
+        final Cart cart = new Cart();
+        cart.setMembership(theMembership);
+        for (final ItemOrder order : theOrders) {
+            cart.add(order);
+        }
+        return cart.calculateTotal();
+    }
+
+    /**
+     * Finds the fixture index of an item.
+     * @param theItem the item
+     * @return its index in myItems
+     */
+    private int indexOf(final Item theItem) {
+        int index = -1;
+        for (int i = 0; i < myItems.length; i++) {
+            if (myItems[i] == theItem) {
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    /** A unit of work run on each stress test thread. */
+    private interface ThreadTask {
+
+        /**
+         * Runs the work.
+         * @param theThread the thread number
+         */
+        void run(int theThread);
+    }
+}
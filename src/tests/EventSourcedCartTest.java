@@ -0,0 +1,179 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import io.EventSourcedCart;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import model.Cart;
+import model.Item;
+import model.ItemOrder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for the EventSourcedCart class.
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public class EventSourcedCartTest {
+
+    /** Test fixtures. */
+    private List<Item> myCatalog;
+
+    /** Test fixtures. */
+    private Path myDirectory;
+
+    /**
+     * This method runs before EVERY test case. Used to re initialize test
+     * fixtures.
+     * @throws IOException if the temporary directory cannot be created
+     */
+    @Before
+    public void setUp() throws IOException {
+        myCatalog = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            myCatalog.add(new Item("item" + i, new BigDecimal("1.15"), 1 + i % 4,
+                                   new BigDecimal("3.05")));
+        }
+        myDirectory = Files.createTempDirectory("cartlog");
+    }
+
+    /**
+     * Removes the temporary files.
+     * @throws IOException if a file cannot be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        try (java.util.stream.Stream<Path> files = Files.list(myDirectory)) {
+            for (final Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(myDirectory);
+    }
+
+    /**
+     * Every point still covered by the ring replays to exactly the state the
+     * cart had then, even after the ring has wrapped several times.
+     * @throws IOException never, the cart does not log to disk
+     */
+    @Test
+    public void testStateAtEveryPoint() throws IOException {
+        final EventSourcedCart cart = new EventSourcedCart(myCatalog, 256, 32);
+        final List<String> states = new ArrayList<>();
+        states.add(describe(cart.stateAt(0)));
+        final Random random = new Random(305);
+        for (int i = 0; i < 2_000; i++) {
+            apply(cart, random);
+            while (states.size() <= cart.getSequence()) {
+                states.add(describe(cart.snapshot()));
+            }
+        }
+        assertTrue("old events were dropped", cart.getOldestReplayable() > 0);
+        assertTrue("at least a ring of history kept",
+                   cart.getSequence() - cart.getOldestReplayable() >= 256 - 32);
+        for (long n = cart.getOldestReplayable(); n <= cart.getSequence(); n++) {
+            assertEquals("state after " + n + " events", states.get((int) n),
+                         describe(cart.stateAt(n)));
+        }
+    }
+
+    /** Points older than the ring cannot be replayed. */
+    @Test(expected = IllegalArgumentException.class)
+    public void testStateAtTooOld() throws IOException {
+        final EventSourcedCart cart = new EventSourcedCart(myCatalog, 16, 4);
+        for (int i = 0; i < 100; i++) {
+            cart.add(new ItemOrder(myCatalog.get(i % myCatalog.size()), i));
+        }
+        cart.stateAt(0);
+    }
+
+    /**
+     * A cart logged to disk is recovered from its snapshot file and log, and a
+     * torn event at the end of the log is ignored.
+     * @throws IOException if the log cannot be written or read
+     */
+    @Test
+    public void testRecover() throws IOException {
+        final Path log = myDirectory.resolve("cart.log");
+        final Random random = new Random(306);
+        final String expected;
+        try (EventSourcedCart cart = EventSourcedCart.create(myCatalog, 1_024, 100, log)) {
+            for (int i = 0; i < 5_555; i++) {
+                apply(cart, random);
+            }
+            expected = describe(cart.snapshot());
+        }
+        final Path snap = log.resolveSibling("cart.log" + EventSourcedCart.SNAPSHOT_SUFFIX);
+        assertTrue("snapshot file written", Files.exists(snap));
+        assertEquals("recovered state", expected,
+                     describe(EventSourcedCart.recover(myCatalog, log)));
+
+        try (FileChannel out = FileChannel.open(log, StandardOpenOption.APPEND)) {
+            out.write(ByteBuffer.wrap(new byte[] {1, 2, 3}));
+        }
+        assertEquals("torn tail ignored", expected,
+                     describe(EventSourcedCart.recover(myCatalog, log)));
+    }
+
+    /** Items outside the catalog are rejected before the cart changes. */
+    @Test
+    public void testUnknownItem() throws IOException {
+        final EventSourcedCart cart = new EventSourcedCart(myCatalog, 16, 4);
+        try {
+            cart.add(new ItemOrder(new Item("stranger", BigDecimal.ONE), 1));
+            fail("unknown item accepted");
+        } catch (final IllegalArgumentException e) {
+            assertEquals("nothing recorded", 0, cart.getSequence());
+        }
+    }
+
+    /**
+     * Applies one random operation.
+     * @param theCart the cart
+     * @param theRandom the random source
+     * @throws IOException if the event cannot be logged
+     */
+    private void apply(final EventSourcedCart theCart, final Random theRandom)
+        throws IOException {
+        final int op = theRandom.nextInt(100);
+        if (op < 90) {
+            theCart.add(new ItemOrder(myCatalog.get(theRandom.nextInt(myCatalog.size())),
+                                      theRandom.nextInt(12)));
+        } else if (op < 93) {
+            theCart.clear();
+        } else {
+            theCart.setMembership(theRandom.nextBoolean());
+        }
+    }
+
+    /**
+     * Describes a cart's lines, membership and total.
+     * @param theCart the cart
+     * @return the description
+     */
+    private static String describe(final Cart theCart) {
+        return describe(theCart.snapshot());
+    }
+
+    /**
+     * Describes a snapshot's lines, membership and total.
+     * @param theSnapshot the snapshot
+     * @return the description
+     */
+    private static String describe(final model.CartSnapshot theSnapshot) {
+        return theSnapshot + " member=" + theSnapshot.isMember() + " total="
+               + theSnapshot.calculateTotal();
+    }
+}
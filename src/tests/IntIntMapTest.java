@@ -0,0 +1,101 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import model.IntIntMap;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for the IntIntMap class.
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public class IntIntMapTest {
+
+    /** The value returned for absent keys. */
+    private static final int MISSING = -7;
+
+    /** Test fixtures. */
+    private IntIntMap myMap;
+
+    /**
+     * This method runs before EVERY test case. Used to re initialize test
+     * fixtures.
+     */
+    @Before
+    public void setUp() {
+        myMap = new IntIntMap(0, MISSING);
+    }
+
+    /** Absent keys read as the missing value. */
+    @Test
+    public void testEmpty() {
+        assertEquals("missing", MISSING, myMap.get(5));
+        assertEquals("missing zero", MISSING, myMap.get(0));
+        assertFalse("absent", myMap.containsKey(5));
+        assertTrue("empty", myMap.isEmpty());
+        assertEquals("remove absent", MISSING, myMap.remove(5));
+    }
+
+    /** Put, get, replace and remove, including key 0 and negative keys. */
+    @Test
+    public void testPutGetRemove() {
+        assertEquals("new key", MISSING, myMap.put(0, 10));
+        assertEquals("new key", MISSING, myMap.put(-3, 30));
+        assertEquals("new key", MISSING, myMap.put(Integer.MIN_VALUE, 40));
+        assertEquals("replace", 10, myMap.put(0, 11));
+        assertEquals("size", 3, myMap.size());
+        assertEquals("zero", 11, myMap.get(0));
+        assertEquals("negative", 30, myMap.get(-3));
+        assertEquals("min", 40, myMap.get(Integer.MIN_VALUE));
+        assertEquals("remove", 11, myMap.remove(0));
+        assertFalse("zero gone", myMap.containsKey(0));
+        assertEquals("size", 2, myMap.size());
+        assertEquals("toString", "{-3=30, -2147483648=40}".length(),
+                     myMap.toString().length());
+    }
+
+    /** addTo treats absent keys as 0. */
+    @Test
+    public void testAddTo() {
+        assertEquals("first", 4, myMap.addTo(9, 4));
+        assertEquals("second", 9, myMap.addTo(9, 5));
+        assertEquals("zero key", -2, myMap.addTo(0, -2));
+    }
+
+    /** Random operations agree with a HashMap through growth and removals. */
+    @Test
+    public void testAgainstHashMap() {
+        final Map<Integer, Integer> expected = new HashMap<>();
+        final Random random = new Random(16);
+        for (int i = 0; i < 200_000; i++) {
+            final int key = random.nextInt(5_000) - 100;
+            final int op = random.nextInt(10);
+            if (op < 5) {
+                final int value = random.nextInt();
+                assertEquals("put " + key, expected.getOrDefault(key, MISSING).intValue(),
+                             myMap.put(key, value));
+                expected.put(key, value);
+            } else if (op < 8) {
+                assertEquals("remove " + key, expected.getOrDefault(key, MISSING).intValue(),
+                             myMap.remove(key));
+                expected.remove(key);
+            } else {
+                assertEquals("get " + key, expected.getOrDefault(key, MISSING).intValue(),
+                             myMap.get(key));
+            }
+            assertEquals("size", expected.size(), myMap.size());
+        }
+        for (int key = -100; key < 4_900; key++) {
+            assertEquals("final " + key, expected.containsKey(key), myMap.containsKey(key));
+        }
+        myMap.clear();
+        assertTrue("cleared", myMap.isEmpty());
+        assertEquals("cleared get", MISSING, myMap.get(42));
+    }
+}
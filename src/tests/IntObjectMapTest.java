@@ -0,0 +1,86 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import model.IntObjectMap;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for the IntObjectMap class.
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public class IntObjectMapTest {
+
+    /** Test fixtures. */
+    private IntObjectMap<String> myMap;
+
+    /**
+     * This method runs before EVERY test case. Used to re initialize test
+     * fixtures.
+     */
+    @Before
+    public void setUp() {
+        myMap = new IntObjectMap<>(4);
+    }
+
+    /** Put, get, replace and remove, including key 0. */
+    @Test
+    public void testPutGetRemove() {
+        assertNull("absent", myMap.get(0));
+        assertNull("new key", myMap.put(0, "zero"));
+        assertNull("new key", myMap.put(17, "seventeen"));
+        assertEquals("replace", "zero", myMap.put(0, "nought"));
+        assertEquals("zero", "nought", myMap.get(0));
+        assertEquals("size", 2, myMap.size());
+        assertEquals("remove", "seventeen", myMap.remove(17));
+        assertNull("removed", myMap.get(17));
+        assertEquals("remove zero", "nought", myMap.remove(0));
+        assertTrue("empty", myMap.isEmpty());
+    }
+
+    /** computeIfAbsent computes once. */
+    @Test
+    public void testComputeIfAbsent() {
+        assertEquals("computed", "5", myMap.computeIfAbsent(5, String::valueOf));
+        assertEquals("kept", "5", myMap.computeIfAbsent(5, theKey -> "other"));
+        assertEquals("size", 1, myMap.size());
+    }
+
+    /** Null values are rejected. */
+    @Test(expected = NullPointerException.class)
+    public void testNullValue() {
+        myMap.put(1, null);
+    }
+
+    /** Random operations agree with a HashMap through growth and removals. */
+    @Test
+    public void testAgainstHashMap() {
+        final Map<Integer, String> expected = new HashMap<>();
+        final Random random = new Random(61);
+        for (int i = 0; i < 200_000; i++) {
+            final int key = random.nextInt(3_000) * 64;
+            final int op = random.nextInt(10);
+            if (op < 5) {
+                final String value = "v" + i;
+                assertEquals("put " + key, expected.put(key, value), myMap.put(key, value));
+            } else if (op < 8) {
+                assertEquals("remove " + key, expected.remove(key), myMap.remove(key));
+            } else {
+                assertEquals("get " + key, expected.get(key), myMap.get(key));
+            }
+            assertEquals("size", expected.size(), myMap.size());
+        }
+        for (final Map.Entry<Integer, String> entry : expected.entrySet()) {
+            assertEquals("final " + entry.getKey(), entry.getValue(),
+                         myMap.get(entry.getKey()));
+        }
+        myMap.clear();
+        assertTrue("cleared", myMap.isEmpty());
+    }
+}
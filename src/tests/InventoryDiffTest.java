@@ -0,0 +1,68 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import model.InventoryDiff;
+import model.Item;
+import org.junit.Test;
+
+/**
+ * Test cases for the inventory diff class.
+ *
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public class InventoryDiffTest {
+
+    /** An unchanged item. */
+    private static final Item PEN = new Item("Pen", new BigDecimal("1.50"));
+
+    /** An item that is repriced. */
+    private static final Item PAD = new Item("Pad", new BigDecimal("2.00"), 6,
+                                             new BigDecimal("10.00"));
+
+    /** An item that is removed. */
+    private static final Item MUG = new Item("Mug", new BigDecimal("5.00"));
+
+    /** Identical inventories give an empty diff. */
+    @Test
+    public void testUnchanged() {
+        final InventoryDiff diff = InventoryDiff.of(List.of(PEN, PAD),
+                                                    List.of(new Item("Pen",
+                                                                     new BigDecimal("1.50")),
+                                                            PAD));
+        assertTrue("empty", diff.isEmpty());
+        assertEquals("items", List.of(PEN, PAD), diff.getItems());
+    }
+
+    /** Added, removed, and repriced items are each found. */
+    @Test
+    public void testChanges() {
+        final Item bulkPad = new Item("Pad", new BigDecimal("2.00"), 6,
+                                      new BigDecimal("9.00"));
+        final Item cap = new Item("Cap", new BigDecimal("3.00"));
+        final InventoryDiff diff = InventoryDiff.of(List.of(PEN, PAD, MUG),
+                                                    List.of(cap, PEN, bulkPad));
+        assertFalse("not empty", diff.isEmpty());
+        assertEquals("added", List.of(cap), diff.getAdded());
+        assertEquals("removed", List.of(MUG), diff.getRemoved());
+        assertEquals("repriced", 1, diff.getRepriced().size());
+        assertSame("repriced to", bulkPad, diff.getRepriced().get(PAD));
+        assertEquals("items", List.of(cap, PEN, bulkPad), diff.getItems());
+    }
+
+    /** Listings of the same name are matched in order. */
+    @Test
+    public void testRepeatedNames() {
+        final Item cheap = new Item("Pen", new BigDecimal("1.00"));
+        final InventoryDiff diff = InventoryDiff.of(List.of(PEN, PEN), List.of(PEN, cheap));
+        assertTrue("nothing added", diff.getAdded().isEmpty());
+        assertTrue("nothing removed", diff.getRemoved().isEmpty());
+        assertEquals("one repriced", 1, diff.getRepriced().size());
+
+        final InventoryDiff shorter = InventoryDiff.of(List.of(PEN, PEN), List.of(PEN));
+        assertEquals("one removed", List.of(PEN), shorter.getRemoved());
+    }
+}
@@ -0,0 +1,139 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import io.InventoryGenerator;
+import io.InventoryLoader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import model.Item;
+import model.ItemRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for the synthetic inventory generator.
+ *
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public class InventoryGeneratorTest {
+
+    /** Items in the generated inventories. */
+    private static final int ITEMS = 20_000;
+
+    /** Test fixtures. */
+    private Path myDirectory;
+
+    /**
+     * This method runs before EVERY test case. Used to re initialize test
+     * fixtures.
+     * @throws IOException if the directory cannot be made
+     */
+    @Before
+    public void setUp() throws IOException {
+        myDirectory = Files.createTempDirectory("generated");
+    }
+
+    /**
+     * Removes the test files.
+     * @throws IOException if a file cannot be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(myDirectory)) {
+            for (final Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(myDirectory);
+    }
+
+    /**
+     * The same settings give the same bytes, and another seed or campus
+     * gives different ones.
+     * @throws IOException if a file cannot be written
+     */
+    @Test
+    public void testDeterministic() throws IOException {
+        final byte[] first = generate(new InventoryGenerator(1, 0.5), "Tacoma");
+        assertArrayEquals("same settings", first,
+                          generate(new InventoryGenerator(1, 0.5), "Tacoma"));
+        assertFalse("other seed", Arrays.equals(
+            first, generate(new InventoryGenerator(2, 0.5), "Tacoma")));
+        assertFalse("other campus", Arrays.equals(
+            first, generate(new InventoryGenerator(1, 0.5), "Bothell")));
+    }
+
+    /**
+     * Generated files load, with distinct names, the asked-for share of
+     * bulk items, and bulk prices below buying singly.
+     * @throws IOException if a file cannot be read
+     */
+    @Test
+    public void testLoadable() throws IOException {
+        final Path file = myDirectory.resolve("campus.txt");
+        new InventoryGenerator(305, 0.25).writeInventory(file, "Campus", ITEMS);
+        final List<Item> items = InventoryLoader.loadItemsFromFile(file.toString(),
+                                                                   new ItemRegistry());
+        assertEquals("items", ITEMS, items.size());
+        final Set<String> names = new HashSet<>();
+        int bulk = 0;
+        for (final Item item : items) {
+            assertTrue("distinct " + item, names.add(item.getName()));
+            assertEquals("cents " + item, 2, item.getPrice().scale());
+            if (item.isBulk()) {
+                bulk++;
+                final BigDecimal single = item.getPrice().multiply(
+                    BigDecimal.valueOf(item.getBulkQuantity()));
+                assertTrue("discount " + item, item.getBulkPrice().compareTo(single) < 0);
+            }
+        }
+        assertEquals("bulk share", 0.25, bulk / (double) ITEMS, 0.02);
+    }
+
+    /**
+     * A generated configuration names each generated campus.
+     * @throws IOException if a file cannot be written
+     */
+    @Test
+    public void testCampuses() throws IOException {
+        final List<String> campuses = new InventoryGenerator(7, 0).writeCampuses(myDirectory,
+                                                                                3, 10);
+        assertEquals("names", List.of("Campus1", "Campus2", "Campus3"), campuses);
+        assertEquals("configuration", campuses, InventoryLoader.readConfigurationFromFile(
+            myDirectory.resolve("config.txt").toString()));
+        for (final Item item : InventoryLoader.loadItemsFromFile(
+            myDirectory.resolve("campus2.txt").toString(), new ItemRegistry())) {
+            assertFalse("no bulk", item.isBulk());
+        }
+    }
+
+    /** Ratios outside 0 to 1 are rejected. */
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadRatio() {
+        new InventoryGenerator(1, 1.5);
+    }
+
+    /**
+     * Writes an inventory and returns its bytes.
+     * @param theGenerator the generator
+     * @param theCampus the campus
+     * @return the file's bytes
+     * @throws IOException if the file cannot be written
+     */
+    private byte[] generate(final InventoryGenerator theGenerator, final String theCampus)
+        throws IOException {
+        final Path file = myDirectory.resolve("campus.txt");
+        theGenerator.writeInventory(file, theCampus, ITEMS);
+        return Files.readAllBytes(file);
+    }
+}
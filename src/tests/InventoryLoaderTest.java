@@ -0,0 +1,271 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import com.sun.management.UnixOperatingSystemMXBean;
+import io.InventoryLoader;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import model.Item;
+import model.ItemRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for the InventoryLoader class. The byte-scanning item loader
+ * is checked against the Scanner and String.split loader it replaced.
+ *
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public class InventoryLoaderTest {
+
+    /** Lines in the random inventory, enough to span several read blocks. */
+    private static final int LINES = 100_000;
+
+    /** Length of a name longer than a read block. */
+    private static final int LONG_NAME = 3 << 20;
+
+    /** Line terminators Scanner.nextLine recognizes. */
+    private static final String[] TERMINATORS = {"\n", "\r\n", "\r", "\u0085", "\u2028"};
+
+    /** Streams opened and abandoned when checking that files are closed. */
+    private static final int STREAMS = 32;
+
+    /** Test fixtures. */
+    private Path myFile;
+
+    /**
+     * This method runs before EVERY test case. Used to re initialize test
+     * fixtures.
+     * @throws IOException if the file cannot be made
+     */
+    @Before
+    public void setUp() throws IOException {
+        myFile = Files.createTempFile("inventory", ".txt");
+    }
+
+    /**
+     * Removes the test file.
+     * @throws IOException if the file cannot be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(myFile);
+    }
+
+    /**
+     * The shipped campus inventories load as before.
+     * @throws IOException if a file cannot be read
+     */
+    @Test
+    public void testShippedInventories() throws IOException {
+        for (final String campus : new String[] {"bothell", "seattle", "tacoma"}) {
+            Files.copy(Path.of("files", campus + ".txt"), myFile,
+                       StandardCopyOption.REPLACE_EXISTING);
+            assertSameItems();
+        }
+    }
+
+    /**
+     * A random inventory with mixed terminators, scales, and field counts,
+     * and one line longer than a read block, loads as before.
+     * @throws IOException if the file cannot be written
+     */
+    @Test
+    public void testRandomInventory() throws IOException {
+        final Random random = new Random(305);
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < LINES; i++) {
+            sb.append("Item \u00e9 ").append(random.nextInt(LINES)).append(';');
+            sb.append(random.nextInt(1000)).append('.').append(random.nextInt(10));
+            if (random.nextBoolean()) {
+                sb.append(random.nextInt(10));
+            }
+            if (random.nextBoolean()) {
+                sb.append(';').append(random.nextInt(12) + 1).append(';');
+                sb.append(random.nextInt(100)).append(".00");
+            }
+            if (random.nextInt(10) == 0) {
+                sb.append(";;");
+            }
+            sb.append(TERMINATORS[random.nextInt(TERMINATORS.length)]);
+            if (i == LINES / 2) {
+                sb.append("x".repeat(LONG_NAME)).append(";1.00\n");
+            }
+        }
+        sb.append("Last;1.25");
+        write(sb.toString());
+        assertSameItems();
+    }
+
+    /**
+     * Unusual but valid numbers and fields load as before.
+     * @throws IOException if the file cannot be written
+     */
+    @Test
+    public void testUnusualFields() throws IOException {
+        write("Whole;3\nPoint;.5\nTrailing;2.\nExponent;1E+2\nSigned;+1.50;+6;-0\n"
+              + "Long;123456789012345678901.5\nExtra;1.00;2;1.50;ignored;more\n"
+              + "Padded;007.10;010;0.0\n Spaced ;1.00\r\n");
+        assertSameItems();
+    }
+
+    /**
+     * Malformed lines are rejected.
+     * @throws IOException if the file cannot be written
+     */
+    @Test
+    public void testMalformedLines() throws IOException {
+        final String[] malformed = {"\n", "NoPrice\n", "Name;;\n", "Bulk;1.00;6\n",
+            "Bad;1.0x\n", "Bad;1.00;six;2.00\n", "Bad;1.00;99999999999;2.00\n"};
+        for (final String text : malformed) {
+            write("Pen;1.00\n" + text);
+            try {
+                InventoryLoader.readItemsFromFile(myFile.toString(), new ItemRegistry());
+                fail("accepted " + text.trim());
+            } catch (final IllegalArgumentException e) {
+                assertNotNull(e);
+            }
+        }
+    }
+
+    /**
+     * A stream yields the items the list does, and without a registry makes
+     * items that nothing else keeps.
+     * @throws IOException if a file cannot be read
+     */
+    @Test
+    public void testStreamItems() throws IOException {
+        final List<Item> expected = InventoryLoader.readItemsFromFile("files/tacoma.txt",
+                                                                      new ItemRegistry());
+        try (Stream<Item> items = InventoryLoader.streamItemsFromFile("files/tacoma.txt")) {
+            final List<Item> actual = items.collect(Collectors.toList());
+            assertEquals("items", expected, actual);
+            for (final Item item : actual) {
+                assertEquals("not interned", Item.NO_SKU, item.getSku());
+            }
+        }
+        final ItemRegistry registry = new ItemRegistry();
+        try (Stream<Item> items = InventoryLoader.streamItemsFromFile("files/tacoma.txt",
+                                                                      registry)) {
+            final Item first = items.findFirst().orElseThrow();
+            assertSame("interned", registry.getBySku(0), first);
+        }
+    }
+
+    /**
+     * Closing a stream closes its file, even when it was not read to the end.
+     * @throws IOException if the file cannot be read
+     */
+    @Test
+    public void testStreamClosesFile() throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < LINES; i++) {
+            sb.append("Item ").append(i).append(";1.00\n");
+        }
+        write(sb.toString());
+        final UnixOperatingSystemMXBean os = (UnixOperatingSystemMXBean)
+                        ManagementFactory.getOperatingSystemMXBean();
+        final long open = os.getOpenFileDescriptorCount();
+        final List<Stream<Item>> closed = new ArrayList<>();
+        for (int i = 0; i < STREAMS; i++) {
+            try (Stream<Item> items = InventoryLoader.streamItemsFromFile(myFile.toString())) {
+                if (i % 2 == 0) {
+                    assertEquals("first", "Item 0", items.findFirst().orElseThrow().getName());
+                } else {
+                    assertEquals("limited", 3, items.limit(3).count());
+                }
+                closed.add(items);
+            }
+        }
+        assertTrue("files closed", os.getOpenFileDescriptorCount() < open + STREAMS / 2);
+        assertEquals("streams kept from collection", STREAMS, closed.size());
+        try (Stream<Item> items = InventoryLoader.streamItemsFromFile(myFile.toString())) {
+            assertEquals("filter and count", LINES / 10,
+                         items.filter(theItem -> theItem.getName().endsWith("7")).count());
+        }
+    }
+
+    /**
+     * A configuration stream yields the lines the list does.
+     * @throws IOException if the file cannot be read
+     */
+    @Test
+    public void testStreamConfiguration() throws IOException {
+        write("#comment\nBothell\n\n*Seattle\r\n#another\rTacoma");
+        try (Stream<String> lines =
+                        InventoryLoader.streamConfigurationFromFile(myFile.toString())) {
+            assertEquals("lines", List.of("Bothell", "", "*Seattle", "Tacoma"),
+                         lines.collect(Collectors.toList()));
+        }
+        assertEquals("list", List.of("Bothell", "", "*Seattle", "Tacoma"),
+                     InventoryLoader.readConfigurationFromFile(myFile.toString()));
+    }
+
+    /**
+     * Writes the test file.
+     * @param theText the file's text
+     * @throws IOException if the file cannot be written
+     */
+    private void write(final String theText) throws IOException {
+        Files.write(myFile, theText.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Checks that the loader and the Scanner loader read the same items,
+     * with prices of the same scale.
+     * @throws IOException if the file cannot be read
+     */
+    private void assertSameItems() throws IOException {
+        final List<Item> expected = readWithScanner();
+        final List<Item> actual = InventoryLoader.readItemsFromFile(myFile.toString(),
+                                                                    new ItemRegistry());
+        assertEquals("count", expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            final Item want = expected.get(i);
+            final Item got = actual.get(i);
+            assertEquals("item " + i, want, got);
+            assertEquals("name " + i, want.getName(), got.getName());
+            assertEquals("price " + i, want.getPrice(), got.getPrice());
+            assertEquals("bulk price " + i, want.getBulkPrice(), got.getBulkPrice());
+            assertEquals("text " + i, want.toString(), got.toString());
+        }
+    }
+
+    /**
+     * Reads the test file the way the loader did before, through a Scanner
+     * and String.split.
+     * @return the items
+     * @throws IOException if the file cannot be read
+     */
+    private List<Item> readWithScanner() throws IOException {
+        final ItemRegistry registry = new ItemRegistry();
+        final List<Item> items = new ArrayList<>();
+        try (Scanner input = new Scanner(myFile, StandardCharsets.UTF_8)) {
+            while (input.hasNextLine()) {
+                final String[] parts = input.nextLine().split(";");
+                final BigDecimal price = new BigDecimal(parts[1]);
+                if (parts.length > 2) {
+                    items.add(registry.intern(parts[0], price, Integer.valueOf(parts[2]),
+                                              new BigDecimal(parts[3])));
+                } else {
+                    items.add(registry.intern(parts[0], price));
+                }
+            }
+        }
+        return items;
+    }
+}
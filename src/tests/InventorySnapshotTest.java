@@ -0,0 +1,162 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import io.InventoryLoader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Stream;
+import model.Item;
+import model.ItemRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for the inventory snapshots read and written by
+ * InventoryLoader.loadCampusItems.
+ *
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public class InventorySnapshotTest {
+
+    /** Inventory text covering plain and bulk items and several scales. */
+    private static final String INVENTORY = "Pen;1.50\nPad \u00e9;2;6;10.0\nBox;0.005\n"
+                                            + "Big;123.456;100;99999.999\n";
+
+    /** Test fixtures. */
+    private Path myDirectory;
+
+    /** The inventory file. */
+    private Path myText;
+
+    /** The snapshot file beside it. */
+    private Path mySnapshot;
+
+    /**
+     * This method runs before EVERY test case. Used to re initialize test
+     * fixtures.
+     * @throws IOException if the files cannot be made
+     */
+    @Before
+    public void setUp() throws IOException {
+        myDirectory = Files.createTempDirectory("snapshots");
+        myText = myDirectory.resolve("campus.txt");
+        mySnapshot = myDirectory.resolve("campus.snapshot");
+        Files.writeString(myText, INVENTORY);
+    }
+
+    /**
+     * Removes the test files.
+     * @throws IOException if a file cannot be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(myDirectory)) {
+            for (final Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(myDirectory);
+    }
+
+    /**
+     * The first load writes a snapshot, and the next load reads the same
+     * items from it without writing it again.
+     * @throws IOException if a file cannot be read
+     */
+    @Test
+    public void testSnapshotRoundTrip() throws IOException {
+        final List<Item> parsed = load();
+        assertTrue("snapshot written", Files.exists(mySnapshot));
+        final FileTime written = Files.getLastModifiedTime(mySnapshot);
+        final byte[] bytes = Files.readAllBytes(mySnapshot);
+        assertSameItems(parsed, load());
+        assertEquals("not rewritten", written, Files.getLastModifiedTime(mySnapshot));
+        assertArrayEquals("same bytes", bytes, Files.readAllBytes(mySnapshot));
+        try (Stream<Path> files = Files.list(myDirectory)) {
+            assertEquals("no temporary files left", 2, files.count());
+        }
+    }
+
+    /**
+     * A changed file is parsed again, even when its size and modification
+     * time are unchanged.
+     * @throws IOException if a file cannot be read
+     */
+    @Test
+    public void testStaleSnapshot() throws IOException {
+        load();
+        final FileTime modified = Files.getLastModifiedTime(myText);
+        Files.writeString(myText, INVENTORY.replace("Pen;1.50", "Pen;1.60"));
+        Files.setLastModifiedTime(myText, modified);
+        assertEquals("same hash check", "1.60", load().get(0).getPrice().toPlainString());
+
+        Files.writeString(myText, INVENTORY + "Cap;3.00\n");
+        assertEquals("larger file", 5, load().size());
+        assertSameItems(InventoryLoader.loadItemsFromFile(myText.toString(),
+                                                          new ItemRegistry()), load());
+    }
+
+    /**
+     * A damaged snapshot is ignored and replaced.
+     * @throws IOException if a file cannot be read
+     */
+    @Test
+    public void testDamagedSnapshot() throws IOException {
+        final List<Item> parsed = load();
+        final byte[] bytes = Files.readAllBytes(mySnapshot);
+        final byte[] damaged = bytes.clone();
+        damaged[damaged.length - 1] ^= 1;
+        Files.write(mySnapshot, damaged);
+        assertSameItems(parsed, load());
+        assertArrayEquals("rewritten", bytes, Files.readAllBytes(mySnapshot));
+
+        Files.write(mySnapshot, new byte[] {1, 2, 3});
+        assertSameItems(parsed, load());
+        assertArrayEquals("rewritten after truncation", bytes, Files.readAllBytes(mySnapshot));
+    }
+
+    /**
+     * A price that does not fit the snapshot columns is loaded from the text
+     * file, and no snapshot is written.
+     * @throws IOException if a file cannot be read
+     */
+    @Test
+    public void testPriceOutsideColumns() throws IOException {
+        Files.writeString(myText, "Pen;1.00\nHuge;123456789012345678901234.5\n");
+        assertEquals("parsed", 2, load().size());
+        assertFalse("no snapshot", Files.exists(mySnapshot));
+    }
+
+    /**
+     * Loads the inventory through a fresh registry.
+     * @return the items
+     * @throws IOException if a file cannot be read
+     */
+    private List<Item> load() throws IOException {
+        return InventoryLoader.loadCampusItems(myText.toString(), new ItemRegistry());
+    }
+
+    /**
+     * Checks that two lists hold equal items with prices of the same scale.
+     * @param theExpected the expected items
+     * @param theActual the actual items
+     */
+    private static void assertSameItems(final List<Item> theExpected,
+                                        final List<Item> theActual) {
+        assertEquals("items", theExpected, theActual);
+        for (int i = 0; i < theExpected.size(); i++) {
+            assertEquals("text " + i, theExpected.get(i).toString(),
+                         theActual.get(i).toString());
+            assertEquals("price " + i, theExpected.get(i).getPrice(),
+                         theActual.get(i).getPrice());
+            assertEquals("bulk price " + i, theExpected.get(i).getBulkPrice(),
+                         theActual.get(i).getBulkPrice());
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import io.InventoryLoader;
+import io.InventoryWatcher;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import model.Catalog;
+import model.Item;
+import model.ItemRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for the inventory watcher and the catalog versions it
+ * publishes.
+ *
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public class InventoryWatcherTest {
+
+    /** The campus inventory as first loaded. */
+    private static final String INVENTORY = "Pen;1.50\nPad;2;6;10.0\nMug;5.00\n";
+
+    /** Seconds to wait for the watcher to notice a change. */
+    private static final long WAIT_SECONDS = 30;
+
+    /** Test fixtures. */
+    private Path myDirectory;
+
+    /** The campus file. */
+    private Path myFile;
+
+    /** The registry items are loaded through. */
+    private ItemRegistry myRegistry;
+
+    /** The watcher under test. */
+    private InventoryWatcher myWatcher;
+
+    /**
+     * This method runs before EVERY test case. Used to re initialize test
+     * fixtures.
+     * @throws IOException if the files cannot be made
+     */
+    @Before
+    public void setUp() throws IOException {
+        myDirectory = Files.createTempDirectory("watcher");
+        myFile = myDirectory.resolve("campus.txt");
+        Files.writeString(myFile, INVENTORY);
+        myRegistry = new ItemRegistry();
+        final List<Item> items = InventoryLoader.loadCampusItems(myFile.toString(),
+                                                                 myRegistry);
+        myWatcher = new InventoryWatcher(myDirectory.toString() + File.separator,
+                                         new Catalog(Map.of("Campus", items)), myRegistry);
+    }
+
+    /**
+     * Stops the watcher and removes the test files.
+     * @throws IOException if a file cannot be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        myWatcher.close();
+        try (Stream<Path> files = Files.list(myDirectory)) {
+            for (final Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(myDirectory);
+    }
+
+    /**
+     * Reloading publishes a new version only when items changed.
+     * @throws IOException if the file cannot be written
+     */
+    @Test
+    public void testReload() throws IOException {
+        final Catalog first = myWatcher.getCatalog();
+        assertNull("unchanged", myWatcher.reload("Campus"));
+        assertNull("unknown campus", myWatcher.reload("Elsewhere"));
+        assertSame("same catalog", first, myWatcher.getCatalog());
+
+        Files.writeString(myFile, "Pen;1.25\nPad;2;6;10.0\nCap;3.00\n");
+        final InventoryWatcher.Update update = myWatcher.reload("Campus");
+        assertNotNull("changed", update);
+        assertEquals("campus", "Campus", update.getCampus());
+        assertEquals("added", 1, update.getDiff().getAdded().size());
+        assertEquals("removed", 1, update.getDiff().getRemoved().size());
+        assertEquals("repriced", 1, update.getDiff().getRepriced().size());
+        assertSame("published", update.getCatalog(), myWatcher.getCatalog());
+        assertEquals("version", first.getVersion() + 1, update.getCatalog().getVersion());
+        assertEquals("new items", update.getDiff().getItems(),
+                     update.getCatalog().getInventory("Campus"));
+        assertEquals("old version kept", 3, first.getInventory("Campus").size());
+        assertEquals("old price kept", new BigDecimal("1.50"),
+                     first.getInventory("Campus").get(0).getPrice());
+    }
+
+    /**
+     * A file that cannot be parsed leaves the catalog as it was and is
+     * reported to the listeners.
+     * @throws IOException if the file cannot be written
+     */
+    @Test
+    public void testBadFile() throws IOException {
+        final List<InventoryWatcher.Update> updates = new ArrayList<>();
+        myWatcher.addListener(updates::add);
+        final Catalog first = myWatcher.getCatalog();
+        Files.writeString(myFile, "Pen\n");
+        final InventoryWatcher.Update failed = myWatcher.reload("Campus");
+        assertTrue("error", failed.getError() instanceof IllegalArgumentException);
+        assertTrue("no changes", failed.getDiff().isEmpty());
+        assertSame("same catalog", first, myWatcher.getCatalog());
+        assertEquals("reported", List.of(failed), updates);
+    }
+
+    /**
+     * Listeners are called after the watcher's lock is released, and a
+     * reload drops the items it superseded from the registry.
+     * @throws IOException if the file cannot be written
+     */
+    @Test
+    public void testPublishOutsideLock() throws IOException {
+        final List<Boolean> locked = new ArrayList<>();
+        myWatcher.addListener(theUpdate -> locked.add(Thread.holdsLock(myWatcher)));
+        Files.writeString(myFile, INVENTORY.replace("Mug;5.00", "Mug;4.00"));
+        assertNotNull("reloaded", myWatcher.reload("Campus"));
+        assertEquals("not locked", List.of(false), locked);
+        assertEquals("old mug dropped", 3, myRegistry.size());
+        assertSame("new mug kept", myWatcher.getCatalog().getInventory("Campus").get(2),
+                   myRegistry.intern("Mug", new BigDecimal("4.00")));
+    }
+
+    /**
+     * Editing a watched file reaches the listeners.
+     * @throws Exception if the watcher fails or the wait is interrupted
+     */
+    @Test(timeout = 60_000)
+    public void testWatch() throws Exception {
+        final BlockingQueue<InventoryWatcher.Update> updates = new LinkedBlockingQueue<>();
+        myWatcher.addListener(updates::add);
+        myWatcher.start();
+        Files.writeString(myDirectory.resolve("notes.txt"), "Pen;0.10\n");
+        Files.writeString(myFile, INVENTORY.replace("Mug;5.00", "Mug;4.00"));
+        final InventoryWatcher.Update update = updates.poll(WAIT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull("noticed", update);
+        assertEquals("repriced", 1, update.getDiff().getRepriced().size());
+        assertEquals("price", new BigDecimal("4.00"),
+                     update.getCatalog().getInventory("Campus").get(2).getPrice());
+    }
+
+    /**
+     * Campuses not in the catalog are loaded on demand, once, and each load
+     * publishes a new version.
+     * @throws Exception if a load fails
+     */
+    @Test
+    public void testLazyLoad() throws Exception {
+        Files.writeString(myDirectory.resolve("other.txt"), "Cap;3.00\n");
+        Files.writeString(myDirectory.resolve("third.txt"), "Hat;4.00\nScarf;9.00\n");
+        final InventoryWatcher lazy = lazyWatcher();
+        try {
+            assertEquals("campuses", List.of("Campus", "Other", "Third"), lazy.getCampuses());
+            assertTrue("nothing loaded", lazy.getCatalog().getCampuses().isEmpty());
+            assertNull("not loaded, not reloaded", lazy.reload("Other"));
+
+            final InventoryWatcher.Update update = lazy.load("Other");
+            assertEquals("added", 1, update.getDiff().getAdded().size());
+            assertEquals("version", 1, lazy.getCatalog().getVersion());
+            assertNull("loaded once", lazy.load("Other"));
+
+            final CompletableFuture<InventoryWatcher.Update> later = lazy.loadLater("Third");
+            assertSame("one load at a time", later, lazy.loadLater("Third"));
+            final InventoryWatcher.Update third = later.get(WAIT_SECONDS, TimeUnit.SECONDS);
+            assertEquals("loaded later", 2, third.getDiff().getItems().size());
+            assertEquals("both loaded", 2, lazy.getCatalog().getCampuses().size());
+            assertEquals("version after", 2, lazy.getCatalog().getVersion());
+
+            Files.writeString(myDirectory.resolve("other.txt"), "Cap;2.00\n");
+            assertNotNull("added campus reloads", lazy.reload("Other"));
+        } finally {
+            lazy.close();
+        }
+    }
+
+    /**
+     * A campus that fails to load is not added, and asking again retries.
+     * @throws Exception if the retry fails
+     */
+    @Test
+    public void testLazyLoadFailure() throws Exception {
+        final InventoryWatcher lazy = lazyWatcher();
+        try {
+            final CompletableFuture<InventoryWatcher.Update> missing = lazy.loadLater("Other");
+            try {
+                missing.get(WAIT_SECONDS, TimeUnit.SECONDS);
+                fail("missing file loaded");
+            } catch (final ExecutionException e) {
+                assertNull("not added", lazy.getCatalog().getInventory("Other"));
+            }
+            Files.writeString(myDirectory.resolve("other.txt"), "Cap;3.00\n");
+            assertNotNull("retried",
+                          lazy.loadLater("Other").get(WAIT_SECONDS, TimeUnit.SECONDS));
+        } finally {
+            lazy.close();
+        }
+    }
+
+    /**
+     * Prefetching loads every campus it can, and a campus that fails is
+     * left out without keeping the others from loading.
+     * @throws Exception if a load fails
+     */
+    @Test
+    public void testPrefetch() throws Exception {
+        Files.writeString(myDirectory.resolve("other.txt"), "Cap;3.00\n");
+        Files.writeString(myDirectory.resolve("third.txt"), "Bad;x\n");
+        final InventoryWatcher lazy = lazyWatcher();
+        try {
+            lazy.prefetch().get(WAIT_SECONDS, TimeUnit.SECONDS);
+            assertEquals("loaded", Set.of("Campus", "Other"),
+                         lazy.getCatalog().getCampuses());
+            assertEquals("campus items", 3, lazy.getCatalog().getInventory("Campus").size());
+
+            Files.writeString(myDirectory.resolve("third.txt"), "Hat;4.00\n");
+            assertNotNull("failed prefetch retried",
+                          lazy.loadLater("Third").get(WAIT_SECONDS, TimeUnit.SECONDS));
+            lazy.prefetch().get(WAIT_SECONDS, TimeUnit.SECONDS);
+            assertEquals("each loaded once", 3, lazy.getCatalog().getVersion());
+        } finally {
+            lazy.close();
+        }
+    }
+
+    /**
+     * Returns a watcher over three campuses, none loaded.
+     * @return the watcher
+     */
+    private InventoryWatcher lazyWatcher() {
+        return new InventoryWatcher(myDirectory.toString() + File.separator,
+                                    List.of("Campus", "Other", "Third"),
+                                    new Catalog(Map.of()), myRegistry);
+    }
+
+    /** Catalogs cannot be changed in place. */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testCatalogUnmodifiable() {
+        myWatcher.getCatalog().getInventory("Campus").clear();
+    }
+}
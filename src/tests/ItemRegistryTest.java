@@ -0,0 +1,240 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import io.InventoryLoader;
+import io.SkuTable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import model.Cart;
+import model.Item;
+import model.ItemOrder;
+import model.ItemRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for the ItemRegistry class.
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public class ItemRegistryTest {
+
+    /** Test fixtures. */
+    private ItemRegistry myRegistry;
+
+    /**
+     * This method runs before EVERY test case. Used to re initialize test
+     * fixtures.
+     */
+    @Before
+    public void setUp() {
+        myRegistry = new ItemRegistry();
+    }
+
+    /** Items with the same value are the same object. */
+    @Test
+    public void testSameValueSameItem() {
+        final Item first = myRegistry.intern("Pen", new BigDecimal("2.00"));
+        assertSame("same value", first, myRegistry.intern("Pen", new BigDecimal("2.00")));
+        assertSame("same price, other scale", first,
+                   myRegistry.intern(new String("Pen"), new BigDecimal("2")));
+        assertEquals("one item", 1, myRegistry.size());
+    }
+
+    /** Items that differ in any part of their value are different objects. */
+    @Test
+    public void testDifferentValueDifferentItem() {
+        final Item plain = myRegistry.intern("Pen", new BigDecimal("2.00"));
+        final Item bulk = myRegistry.intern("Pen", new BigDecimal("2.00"), 6,
+                                            new BigDecimal("10.00"));
+        assertNotSame("bulk option", plain, bulk);
+        assertNotSame("bulk quantity", bulk,
+                      myRegistry.intern("Pen", new BigDecimal("2.00"), 5,
+                                        new BigDecimal("10.00")));
+        assertNotSame("bulk price", bulk,
+                      myRegistry.intern("Pen", new BigDecimal("2.00"), 6,
+                                        new BigDecimal("9.00")));
+        assertNotSame("price", plain, myRegistry.intern("Pen", new BigDecimal("2.10")));
+        assertEquals("five items", 5, myRegistry.size());
+        assertEquals("one name", 1, myRegistry.nameCount());
+    }
+
+    /** Items that share a name share the name string. */
+    @Test
+    public void testNamesShared() {
+        final Item cheap = myRegistry.intern(new String("Mug"), BigDecimal.ONE);
+        final Item dear = myRegistry.intern(new String("Mug"), BigDecimal.TEN);
+        assertSame("shared name", cheap.getName(), dear.getName());
+    }
+
+    /** Interning an item registers a copy, and later equal items map to it. */
+    @Test
+    public void testInternItem() {
+        final Item original = new Item("Cap", new BigDecimal("7.50"), 3,
+                                       new BigDecimal("20"));
+        final Item item = myRegistry.intern(original);
+        assertEquals("equal copy registered", original, item);
+        assertEquals("copy has a SKU", 0, item.getSku());
+        assertEquals("original has none", Item.NO_SKU, original.getSku());
+        assertSame("equal item", item,
+                   myRegistry.intern(new Item("Cap", new BigDecimal("7.5"), 3,
+                                              new BigDecimal("20.00"))));
+        assertSame("by parts", item,
+                   myRegistry.intern("Cap", new BigDecimal("7.50"), 3, new BigDecimal("20")));
+    }
+
+    /** Threads interning the same products all get the same objects. */
+    @Test
+    public void testConcurrentIntern() throws InterruptedException {
+        final Item[][] seen = new Item[4][1_000];
+        final Thread[] threads = new Thread[seen.length];
+        for (int t = 0; t < threads.length; t++) {
+            final Item[] mine = seen[t];
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < mine.length; i++) {
+                    mine[i] = myRegistry.intern("item" + i, BigDecimal.valueOf(i));
+                }
+            });
+            threads[t].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        for (int t = 1; t < seen.length; t++) {
+            for (int i = 0; i < seen[t].length; i++) {
+                assertSame("item " + i, seen[0][i], seen[t][i]);
+            }
+        }
+        assertEquals("items", 1_000, myRegistry.size());
+        assertEquals("skus", 1_000, myRegistry.skuCount());
+        for (int i = 0; i < seen[0].length; i++) {
+            assertSame("sku " + i, seen[0][i], myRegistry.getBySku(seen[0][i].getSku()));
+        }
+    }
+
+    /**
+     * Campus files loaded through one registry share their common products,
+     * so a cart matches them by identity.
+     * @throws IOException if the temporary files cannot be written
+     */
+    @Test
+    public void testLoaderSharesAcrossCampuses() throws IOException {
+        final Path first = Files.createTempFile("campus", ".txt");
+        final Path second = Files.createTempFile("campus", ".txt");
+        try {
+            Files.write(first, Arrays.asList("Pen;2.00", "Mug;5.00;4;18.00"));
+            Files.write(second, Arrays.asList("Mug;5.0;4;18", "Pen;2.25"));
+            final List<Item> one = InventoryLoader.readItemsFromFile(first.toString(),
+                                                                     myRegistry);
+            final List<Item> two = InventoryLoader.readItemsFromFile(second.toString(),
+                                                                     myRegistry);
+            assertSame("mug shared", one.get(1), two.get(0));
+            assertNotSame("pen repriced", one.get(0), two.get(1));
+            assertEquals("three items", 3, myRegistry.size());
+
+            final Cart cart = new Cart();
+            cart.add(new ItemOrder(one.get(1), 2));
+            cart.add(new ItemOrder(two.get(0), 3));
+            assertEquals("one line", 1, cart.getCartSize());
+        } finally {
+            Files.delete(first);
+            Files.delete(second);
+        }
+    }
+
+    /** SKUs are dense, in first-seen order, and map back to their items. */
+    @Test
+    public void testSkus() {
+        for (int i = 0; i < 200; i++) {
+            final Item item = myRegistry.intern("item" + i % 100, BigDecimal.valueOf(i % 100));
+            assertEquals("sku of item " + i, i % 100, item.getSku());
+            assertSame("by sku " + i, item, myRegistry.getBySku(i % 100));
+        }
+        assertEquals("sku count", 100, myRegistry.skuCount());
+        assertEquals("unregistered", Item.NO_SKU, new Item("x", BigDecimal.ONE).getSku());
+    }
+
+    /** Unassigned SKUs are rejected. */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetBySkuUnassigned() {
+        myRegistry.intern("only", BigDecimal.ONE);
+        myRegistry.getBySku(1);
+    }
+
+    /**
+     * Loading the same campus files in the opposite order gives every item
+     * the same SKU when the SKUs are kept in a SKU table.
+     * @throws IOException if a temporary file cannot be used
+     */
+    @Test
+    public void testSkusStableAcrossLoadOrder() throws IOException {
+        final Path first = Files.createTempFile("campus", ".txt");
+        final Path second = Files.createTempFile("campus", ".txt");
+        final Path table = Files.createTempFile("skus", ".bin");
+        try {
+            Files.write(first, Arrays.asList("Pen;2.00", "Mug;5.00;4;18.00", "Cap;9.99"));
+            Files.write(second, Arrays.asList("Hat;12.00", "Mug;5.0;4;18", "Pen;2.25"));
+            Files.delete(table);
+
+            final ItemRegistry before = new ItemRegistry(SkuTable.open(table));
+            final Map<String, Integer> skus = new HashMap<>();
+            skus(InventoryLoader.readItemsFromFile(first.toString(), before), skus);
+            skus(InventoryLoader.readItemsFromFile(second.toString(), before), skus);
+            before.flush();
+
+            final ItemRegistry after = new ItemRegistry(SkuTable.open(table));
+            final Map<String, Integer> reordered = new HashMap<>();
+            skus(InventoryLoader.readItemsFromFile(second.toString(), after), reordered);
+            skus(InventoryLoader.readItemsFromFile(first.toString(), after), reordered);
+            assertEquals("same skus", skus, reordered);
+
+            final Item added = after.intern("Scarf", BigDecimal.TEN);
+            assertFalse("new sku unused", skus.containsValue(added.getSku()));
+            assertSame("by sku", added, after.getBySku(added.getSku()));
+        } finally {
+            Files.delete(first);
+            Files.delete(second);
+            Files.deleteIfExists(table);
+        }
+    }
+
+    /** Items in no inventory are dropped, and loading them again makes new ones. */
+    @Test
+    public void testRetainAll() {
+        final Item pen = myRegistry.intern("Pen", BigDecimal.ONE);
+        final Item mug = myRegistry.intern("Mug", BigDecimal.TEN);
+        final Item cap = myRegistry.intern("Cap", BigDecimal.TEN);
+        assertEquals("dropped", 1, myRegistry.retainAll(List.of(List.of(pen), List.of(cap))));
+        assertEquals("items", 2, myRegistry.size());
+        assertEquals("names", 2, myRegistry.nameCount());
+        assertSame("kept", pen, myRegistry.getBySku(pen.getSku()));
+        try {
+            myRegistry.getBySku(mug.getSku());
+            fail("dropped item found by sku");
+        } catch (final IndexOutOfBoundsException e) {
+            assertNotNull("no item", e);
+        }
+        assertNotSame("new mug", mug, myRegistry.intern("Mug", BigDecimal.TEN));
+    }
+
+    /**
+     * Records the SKU of each item under its name and price.
+     * @param theItems the items
+     * @param theSkus the SKUs so far
+     */
+    private static void skus(final List<Item> theItems, final Map<String, Integer> theSkus) {
+        for (final Item item : theItems) {
+            theSkus.put(item.getName() + " " + item.getPrice().stripTrailingZeros(),
+                        item.getSku());
+        }
+    }
+
+}
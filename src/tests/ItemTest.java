@@ -193,4 +193,37 @@ public class ItemTest {
         assertEquals("test for correct hash code for two equal bulk items", myItem.hashCode(),
                      differentButTheSame.hashCode());
     }
+
+    /** Equal items hash equally even when their prices differ in scale. */
+    @Test
+    public void testHashCodeScale() {
+        final Item rescaled = new Item(DEFAULT_NAME, new BigDecimal("10"), 5,
+                                       new BigDecimal("0.500"));
+        assertEquals("equal despite scale", myItem, rescaled);
+        assertEquals("hash despite scale", myItem.hashCode(), rescaled.hashCode());
+        final Item plain = new Item(DEFAULT_NAME, new BigDecimal("1.0"));
+        assertEquals("non bulk hash despite scale", plain.hashCode(),
+                     new Item(DEFAULT_NAME, new BigDecimal("1.00")).hashCode());
+    }
+
+    /** A bulk and a non bulk item are not equal, whichever way they are compared. */
+    @Test
+    public void testEqualsBulkAndNonBulk() {
+        final Item plain = new Item(DEFAULT_NAME, DEFAULT_PRICE);
+        assertNotEquals("bulk vs non bulk", myItem, plain);
+        assertNotEquals("non bulk vs bulk", plain, myItem);
+    }
+
+    /** Labels are cached per locale and match toString for the US locale. */
+    @Test
+    public void testGetLabel() {
+        final String label = myItem.getLabel(Locale.US);
+        assertEquals("label is toString", myItem.toString(), label);
+        assertSame("cached", label, myItem.getLabel(Locale.US));
+        final NumberFormat uk = NumberFormat.getCurrencyInstance(Locale.UK);
+        final String expected = DEFAULT_NAME + ", " + uk.format(DEFAULT_PRICE) + " (5 for "
+                                + uk.format(BULK_PRICE) + ")";
+        assertEquals("other locale", expected, myItem.getLabel(Locale.UK));
+        assertEquals("back to US", label, myItem.getLabel(Locale.US));
+    }
 }
@@ -0,0 +1,87 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import model.Item;
+import model.PricingEngine;
+import org.junit.Test;
+
+/**
+ * Test cases for the PricingEngine class.
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public class PricingEngineTest {
+
+    /** Seed for the randomized comparison, so failures can be reproduced. */
+    private static final long SEED = 305L;
+
+    /** Whole cent prices convert exactly, whatever their scale. */
+    @Test
+    public void testToCentsExact() {
+        assertEquals("two decimal places", 125L,
+                     PricingEngine.toCents(new BigDecimal("1.25")));
+        assertEquals("one decimal place", 50L, PricingEngine.toCents(new BigDecimal(".5")));
+        assertEquals("trailing zeros", 300L, PricingEngine.toCents(new BigDecimal("3.0000")));
+        assertEquals("zero", 0L, PricingEngine.toCents(BigDecimal.ZERO));
+    }
+
+    /** Fractions of a cent, too large values and missing prices are not exact. */
+    @Test
+    public void testToCentsNotExact() {
+        assertEquals("fraction of a cent", PricingEngine.NOT_EXACT,
+                     PricingEngine.toCents(new BigDecimal("0.333")));
+        assertEquals("overflows a long", PricingEngine.NOT_EXACT,
+                     PricingEngine.toCents(new BigDecimal("1E+30")));
+        assertEquals("no price", PricingEngine.NOT_EXACT, PricingEngine.toCents(null));
+    }
+
+    /** Overflowing line arithmetic reports NOT_EXACT instead of wrapping. */
+    @Test
+    public void testLineCentsOverflow() {
+        assertEquals("overflowing line", PricingEngine.NOT_EXACT,
+                     PricingEngine.lineCents(Long.MAX_VALUE / 2, 0, 0, 3, false));
+        assertEquals("overflowing bulk line", PricingEngine.NOT_EXACT,
+                     PricingEngine.lineCents(1, 2, Long.MAX_VALUE / 2, 9, true));
+    }
+
+    /** A bulk quantity of zero prices the line by the unit on both paths. */
+    @Test
+    public void testLineCentsZeroBulkQuantity() {
+        assertEquals("zero bulk quantity", 300, PricingEngine.lineCents(100, 0, 50, 3, true));
+        final Item item = new Item("item", new BigDecimal("1.00"), 0, new BigDecimal("0.50"));
+        assertEquals("zero bulk quantity, BigDecimal", new BigDecimal("3.00"),
+                     PricingEngine.linePrice(item, 3, true));
+    }
+
+    /**
+     * A negative bulk quantity prices the line by the unit as well; the
+     * baseline threw ArithmeticException for any bulk quantity below 1.
+     */
+    @Test
+    public void testLineCentsNegativeBulkQuantity() {
+        assertEquals("negative bulk quantity", 300,
+                     PricingEngine.lineCents(100, -2, 50, 3, true));
+        assertEquals("non-member", 300, PricingEngine.lineCents(100, -2, 50, 3, false));
+    }
+
+    /** The cents path agrees with the BigDecimal path on random items. */
+    @Test
+    public void testLineCentsMatchesLinePrice() {
+        final Random random = new Random(SEED);
+        for (int i = 0; i < 10_000; i++) {
+            final BigDecimal price = BigDecimal.valueOf(random.nextInt(100_000), 2);
+            final BigDecimal bulkPrice = BigDecimal.valueOf(random.nextInt(100_000), 2);
+            final Item item = new Item("item", price, 1 + random.nextInt(12), bulkPrice);
+            final int quantity = random.nextInt(1_000);
+            final boolean member = random.nextBoolean();
+            final long cents = PricingEngine.lineCents(item, quantity, member);
+            assertEquals("line " + item + " x " + quantity,
+                         PricingEngine.linePrice(item, quantity, member).setScale(2),
+                         BigDecimal.valueOf(cents, 2));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+import model.Cart;
+import model.Item;
+import model.ItemOrder;
+import model.LinePricer;
+import model.PricingEngine;
+import model.PricingPipeline;
+import model.PricingRule;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for the PricingPipeline class.
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public class PricingPipelineTest {
+
+    /** Test fixtures. */
+    private Item myBulkItem;
+
+    /** Test fixtures. */
+    private Item myPlainItem;
+
+    /** A rule that prices every item at half price. */
+    private PricingRule myHalfPrice;
+
+    /**
+     * This method runs before EVERY test case. Used to re initialize test
+     * fixtures.
+     */
+    @Before
+    public void setUp() {
+        myBulkItem = new Item("bulk", new BigDecimal("1.00"), 4, new BigDecimal("3.00"));
+        myPlainItem = new Item("plain", new BigDecimal("2.50"));
+        final LinePricer half = new LinePricer() {
+            @Override
+            public long priceCents(final Item theItem, final int theQuantity) {
+                return PricingEngine.NOT_EXACT;
+            }
+
+            @Override
+            public BigDecimal price(final Item theItem, final int theQuantity) {
+                return theItem.getPrice().multiply(new BigDecimal(theQuantity)).
+                                divide(new BigDecimal(2));
+            }
+        };
+        myHalfPrice = (theItem, theMembership) -> half;
+    }
+
+    /** The standard pipeline gives members bulk pricing and everyone else unit prices. */
+    @Test
+    public void testStandard() {
+        final PricingPipeline standard = PricingPipeline.standard();
+        assertSame("member bulk", PricingPipeline.BULK_PRICE,
+                   standard.resolve(myBulkItem, true));
+        assertSame("non member bulk", PricingPipeline.UNIT_PRICE,
+                   standard.resolve(myBulkItem, false));
+        assertSame("member plain", PricingPipeline.UNIT_PRICE,
+                   standard.resolve(myPlainItem, true));
+    }
+
+    /** Added rules are consulted before existing ones, and the cart uses them. */
+    @Test
+    public void testCustomRule() {
+        final Cart cart = new Cart(PricingPipeline.standard().withRule(myHalfPrice));
+        cart.setSelfCheck(true);
+        cart.add(new ItemOrder(myBulkItem, 4));
+        cart.add(new ItemOrder(myPlainItem, 3));
+        assertEquals("half price for non members", new BigDecimal("5.75"),
+                     cart.calculateTotal());
+        cart.setMembership(true);
+        assertEquals("half price beats member bulk", new BigDecimal("5.75"),
+                     cart.calculateTotal());
+    }
+
+    /** A rule that does not apply falls through to the later rules. */
+    @Test
+    public void testRuleFallsThrough() {
+        final PricingRule staffOnlyPlain = (theItem, theMembership) -> null;
+        final Cart cart = new Cart(PricingPipeline.standard().withRule(staffOnlyPlain));
+        cart.setMembership(true);
+        cart.add(new ItemOrder(myBulkItem, 5));
+        assertEquals("member bulk still applies", new BigDecimal("4.00"),
+                     cart.calculateTotal());
+    }
+
+    /** A cart resolves each item's pricers once, however often the line changes. */
+    @Test
+    public void testResolvedOncePerItem() {
+        final AtomicInteger resolutions = new AtomicInteger();
+        final PricingRule counting = (theItem, theMembership) -> {
+            resolutions.incrementAndGet();
+            return null;
+        };
+        final Cart cart = new Cart(PricingPipeline.standard().withRule(counting));
+        for (int i = 0; i < 100; i++) {
+            cart.add(new ItemOrder(myBulkItem, i));
+            cart.setMembership(i % 2 == 0);
+        }
+        assertEquals("one resolution per membership", 2, resolutions.get());
+    }
+}
@@ -0,0 +1,183 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import model.Catalog;
+import model.Item;
+import model.SearchIndex;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for the search index class, checked against linear scans.
+ *
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public class SearchIndexTest {
+
+    /** Letters used in random names, including ones whose trigram keys collide. */
+    private static final String LETTERS = "abcdeABCDE \u0461\u0462\u00e9";
+
+    /** Number of random items. */
+    private static final int ITEMS = 5_000;
+
+    /** Number of random queries of each kind. */
+    private static final int QUERIES = 2_000;
+
+    /** Test fixtures. */
+    private List<Item> myItems;
+
+    /** Test fixtures. */
+    private SearchIndex myIndex;
+
+    /** Test fixtures. */
+    private Random myRandom;
+
+    /**
+     * This method runs before EVERY test case. Used to re initialize test
+     * fixtures.
+     */
+    @Before
+    public void setUp() {
+        myRandom = new Random(24);
+        myItems = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            myItems.add(new Item(randomText(1 + myRandom.nextInt(12)), BigDecimal.ONE));
+        }
+        myIndex = new SearchIndex(myItems);
+    }
+
+    /** Substring queries find exactly the names a scan finds. */
+    @Test
+    public void testSubstring() {
+        for (int i = 0; i < QUERIES; i++) {
+            final String query = randomText(1 + myRandom.nextInt(5));
+            assertArrayEquals(query, scan(query, false), myIndex.findSubstring(query));
+        }
+        assertArrayEquals("empty", scan("", false), myIndex.findSubstring(""));
+        assertEquals("absent", 0, myIndex.findSubstring("zzz").length);
+    }
+
+    /** Short queries over names that fit sequence keys whole. */
+    @Test
+    public void testExactKeys() {
+        myItems.clear();
+        for (int i = 0; i < ITEMS; i++) {
+            final String name = randomText(1 + myRandom.nextInt(12));
+            myItems.add(new Item(name.replaceAll("[^ -~]", "e"), BigDecimal.ONE));
+        }
+        myIndex = new SearchIndex(myItems);
+        for (int i = 0; i < QUERIES; i++) {
+            final String query = randomText(3).replaceAll("[^ -~]", "e");
+            for (int length = 1; length <= query.length(); length++) {
+                final String prefix = query.substring(0, length);
+                assertArrayEquals(prefix, scan(prefix, false),
+                                  myIndex.findSubstring(prefix));
+            }
+        }
+    }
+
+    /**
+     * One- and two-character queries over a wide alphabet, so that some
+     * sequences are filed in position lists and others in bitmaps.
+     */
+    @Test
+    public void testShortQueries() {
+        myItems.clear();
+        for (int i = 0; i < ITEMS; i++) {
+            final StringBuilder name = new StringBuilder();
+            for (int c = myRandom.nextInt(10); c >= 0; c--) {
+                name.append((char) ('a' + myRandom.nextInt(26)));
+            }
+            if (i % 50 == 0) {
+                name.append(LETTERS.charAt(myRandom.nextInt(LETTERS.length())));
+            }
+            myItems.add(new Item(name.toString(), BigDecimal.ONE));
+        }
+        myIndex = new SearchIndex(myItems);
+        for (int i = 0; i < QUERIES; i++) {
+            final String query = Character.toString((char) ('a' + myRandom.nextInt(26)))
+                                 + LETTERS.charAt(myRandom.nextInt(LETTERS.length()));
+            final String single = query.substring(1);
+            assertArrayEquals(query, scan(query, false), myIndex.findSubstring(query));
+            assertArrayEquals(single, scan(single, false), myIndex.findSubstring(single));
+        }
+        assertArrayEquals("common", scan("e", false), myIndex.findSubstring("e"));
+        assertArrayEquals("pair", scan("qu", false), myIndex.findSubstring("qu"));
+    }
+
+    /** Prefix queries find exactly the names a scan finds. */
+    @Test
+    public void testPrefix() {
+        for (int i = 0; i < QUERIES; i++) {
+            final String query = randomText(myRandom.nextInt(4));
+            assertArrayEquals(query, scan(query, true), myIndex.findPrefix(query));
+        }
+        assertEquals("past the end", 0, myIndex.findPrefix("\uffff").length);
+    }
+
+    /** Matching ignores case and keeps inventory order. */
+    @Test
+    public void testShippedStyleNames() {
+        final SearchIndex index = new SearchIndex(List.of(
+            new Item("Silly Putty", new BigDecimal("4.41")),
+            new Item("Computer Science Pen", new BigDecimal("2.00")),
+            new Item("Husky Hoodie", new BigDecimal("30.00")),
+            new Item("Science Notebook", new BigDecimal("3.00"))));
+        assertArrayEquals("substring", new int[] {1, 3}, index.findSubstring("SCIENCE"));
+        assertArrayEquals("prefix", new int[] {0, 3}, index.findPrefix("s"));
+        assertArrayEquals("inner word", new int[] {2}, index.findSubstring("y ho"));
+        assertEquals("size", 4, index.size());
+    }
+
+    /** A catalog indexes each campus and re-indexes only a reloaded one. */
+    @Test
+    public void testCatalogIndexes() {
+        final Catalog catalog = new Catalog(Map.of("Tacoma", myItems));
+        final SearchIndex index = catalog.getIndex("Tacoma");
+        assertEquals("indexed", ITEMS, index.size());
+        assertNull("unknown campus", catalog.getIndex("Bothell"));
+
+        final Catalog next = catalog.withInventory("Bothell", myItems.subList(0, 10));
+        assertSame("reused", index, next.getIndex("Tacoma"));
+        assertEquals("new campus", 10, next.getIndex("Bothell").size());
+    }
+
+    /**
+     * Finds the matching positions by checking every name.
+     * @param theQuery the query
+     * @param thePrefix whether to match prefixes rather than substrings
+     * @return the ascending positions of the matching items
+     */
+    private int[] scan(final String theQuery, final boolean thePrefix) {
+        final String query = theQuery.toLowerCase(Locale.ROOT);
+        final List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < myItems.size(); i++) {
+            final String name = myItems.get(i).getName().toLowerCase(Locale.ROOT);
+            if (thePrefix && name.startsWith(query) || !thePrefix && name.contains(query)) {
+                positions.add(i);
+            }
+        }
+        return positions.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Returns random text over a small alphabet, so queries often match.
+     * @param theLength the length
+     * @return the text
+     */
+    private String randomText(final int theLength) {
+        final StringBuilder sb = new StringBuilder(theLength);
+        for (int i = 0; i < theLength; i++) {
+            sb.append(LETTERS.charAt(myRandom.nextInt(LETTERS.length())));
+        }
+        return sb.toString();
+    }
+}
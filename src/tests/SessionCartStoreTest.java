@@ -0,0 +1,308 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import io.CartCodec;
+import io.SessionCartStore;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import model.Cart;
+import model.Item;
+import model.ItemOrder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for the SessionCartStore class.
+ * 
+ * @author Nathan Stickler
+ * @version 10/18/26
+ */
+public class SessionCartStoreTest {
+
+    /** Test fixtures. */
+    private List<Item> myCatalog;
+
+    /** Test fixtures. */
+    private AtomicLong myNow;
+
+    /** Test fixtures. */
+    private Path myDirectory;
+
+    /**
+     * This method runs before EVERY test case. Used to re initialize test
+     * fixtures.
+     * @throws IOException if the temporary directory cannot be created
+     */
+    @Before
+    public void setUp() throws IOException {
+        myCatalog = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            myCatalog.add(new Item("item" + i, new BigDecimal("4.10"), 3,
+                                   new BigDecimal("10.00")));
+        }
+        myNow = new AtomicLong();
+        myDirectory = Files.createTempDirectory("sessions");
+    }
+
+    /**
+     * Removes the temporary files.
+     * @throws IOException if a file cannot be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(myDirectory)) {
+            for (final Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(myDirectory);
+    }
+
+    /** The same user gets the same cart while it is resident. */
+    @Test
+    public void testGetSameCart() throws IOException {
+        final SessionCartStore store = new SessionCartStore(10, Duration.ofMinutes(30));
+        final Cart cart = store.get("alice");
+        assertSame("same cart", cart, store.get("alice"));
+        assertSame("resident", cart, store.getIfResident("alice"));
+        assertNull("not resident", store.getIfResident("bob"));
+        assertEquals("created", 1, store.getCreatedCount());
+    }
+
+    /** Recently used carts survive eviction; the unused one goes first. */
+    @Test
+    public void testLeastRecentlyUsedEvicted() throws IOException {
+        final SessionCartStore store = new SessionCartStore(3, Duration.ofMinutes(30));
+        store.get("a");
+        store.get("b");
+        store.get("c");
+        store.get("a");
+        store.get("c");
+        store.get("d");
+        assertEquals("resident", 3, store.getResidentCount());
+        assertNull("b evicted", store.getIfResident("b"));
+        assertNotNull("a kept", store.getIfResident("a"));
+        assertNotNull("c kept", store.getIfResident("c"));
+        assertEquals("evicted", 1, store.getEvictedCount());
+    }
+
+    /** Idle carts are swept out by expireIdle and evicted first when full. */
+    @Test
+    public void testIdleTimeout() throws IOException {
+        final SessionCartStore store =
+            new SessionCartStore(100, Duration.ofSeconds(10), null, null, myNow::get);
+        store.get("early");
+        store.get("late");
+        myNow.set(Duration.ofSeconds(6).toNanos());
+        store.get("late");
+        myNow.set(Duration.ofSeconds(12).toNanos());
+        assertEquals("one expired", 1, store.expireIdle());
+        assertNull("early gone", store.getIfResident("early"));
+        assertNotNull("late kept", store.getIfResident("late"));
+        assertEquals("expired", 1, store.getExpiredCount());
+        assertEquals("evicted", 1, store.getEvictedCount());
+    }
+
+    /** Evicted carts are spilled and reloaded with their lines and membership. */
+    @Test
+    public void testSpillAndReload() throws IOException {
+        final SessionCartStore store = new SessionCartStore(2, Duration.ofMinutes(30),
+                                                            new CartCodec(myCatalog),
+                                                            myDirectory);
+        final List<String> expected = new ArrayList<>();
+        for (int user = 0; user < 10; user++) {
+            final Cart cart = store.get("user" + user);
+            cart.setMembership(user % 2 == 0);
+            cart.add(new ItemOrder(myCatalog.get(user), user + 1));
+            cart.add(new ItemOrder(myCatalog.get(user + 1), 3));
+            expected.add(cart.toString() + cart.calculateTotal());
+        }
+        assertEquals("resident", 2, store.getResidentCount());
+        assertEquals("evicted", 8, store.getEvictedCount());
+        for (int user = 0; user < 10; user++) {
+            final Cart cart = store.get("user" + user);
+            assertEquals("user" + user, expected.get(user),
+                         cart.toString() + cart.calculateTotal());
+        }
+        assertEquals("reloaded", 10, store.getReloadedCount());
+        assertEquals("created", 10, store.getCreatedCount());
+    }
+
+    /** Removing a session discards its spilled cart too. */
+    @Test
+    public void testRemoveDeletesSpill() throws IOException {
+        final SessionCartStore store = new SessionCartStore(1, Duration.ofMinutes(30),
+                                                            new CartCodec(myCatalog),
+                                                            myDirectory);
+        store.get("gone").add(new ItemOrder(myCatalog.get(0), 1));
+        store.get("other");
+        try (Stream<Path> files = Files.list(myDirectory)) {
+            assertEquals("spilled", 1, files.count());
+        }
+        store.remove("gone");
+        assertTrue("empty cart", store.get("gone").getCartSize() == 0);
+        assertEquals("not reloaded", 0, store.getReloadedCount());
+    }
+
+    /** A pinned session is not evicted until its pin is closed. */
+    @Test
+    public void testPinnedSessionNotEvicted() throws IOException {
+        final SessionCartStore store = new SessionCartStore(1, Duration.ofMinutes(30),
+                                                            new CartCodec(myCatalog),
+                                                            myDirectory);
+        final SessionCartStore.Pin pin = store.pin("alice");
+        store.get("bob");
+        assertSame("alice kept", pin.getCart(), store.getIfResident("alice"));
+        assertEquals("over capacity", 2, store.getResidentCount());
+        pin.getCart().add(new ItemOrder(myCatalog.get(0), 2));
+        pin.close();
+        pin.close();
+        store.get("carol");
+        assertNull("alice evicted", store.getIfResident("alice"));
+        assertEquals("alice's edit kept", 1, store.get("alice").getCartSize());
+    }
+
+    /**
+     * Edits made through a pin survive evictions from other threads, and a
+     * removed cart is never loaded again.
+     */
+    @Test
+    public void testPinnedEditsKept() throws Exception {
+        final SessionCartStore store = new SessionCartStore(10, Duration.ofMinutes(30),
+                                                            new CartCodec(myCatalog),
+                                                            myDirectory);
+        final Thread[] threads = new Thread[4];
+        final String[] failure = new String[1];
+        for (int t = 0; t < threads.length; t++) {
+            final int thread = t;
+            threads[t] = new Thread(() -> {
+                final Map<String, Integer> sizes = new HashMap<>();
+                try {
+                    for (int i = 0; i < 5_000; i++) {
+                        final String user = thread + ":" + i % 30;
+                        if (i % 97 == 0) {
+                            store.remove(user);
+                            sizes.remove(user);
+                        }
+                        try (SessionCartStore.Pin pin = store.pin(user)) {
+                            final Cart cart = pin.getCart();
+                            final int size = sizes.getOrDefault(user, 0);
+                            if (cart.getCartSize() != size) {
+                                failure[0] = user + " has " + cart.getCartSize()
+                                             + " lines, expected " + size;
+                            }
+                            cart.add(new ItemOrder(myCatalog.get(size % myCatalog.size()),
+                                                   1));
+                            sizes.put(user, cart.getCartSize());
+                        }
+                    }
+                } catch (final IOException e) {
+                    failure[0] = e.toString();
+                }
+            });
+            threads[t].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(failure[0], failure[0]);
+        assertTrue("within capacity", store.getResidentCount() <= 10);
+    }
+
+    /** A million sessions stay within capacity and the counts add up. */
+    @Test
+    public void testSoakMillionSessions() throws IOException {
+        final int capacity = 10_000;
+        final SessionCartStore store = new SessionCartStore(capacity, Duration.ofMinutes(30));
+        final Item item = myCatalog.get(0);
+        for (int user = 0; user < 1_000_000; user++) {
+            store.get("user" + user).add(new ItemOrder(item, 1));
+            if (user % 7 == 0) {
+                store.get("user" + (user / 2));
+            }
+            assertTrue("over capacity", store.getResidentCount() <= capacity);
+        }
+        assertEquals("resident", capacity, store.getResidentCount());
+        assertEquals("counts", store.getCreatedCount(),
+                     store.getResidentCount() + store.getEvictedCount());
+    }
+
+    /** Sessions from several threads stay within capacity and the counts add up. */
+    @Test
+    public void testSoakConcurrent() throws Exception {
+        final int capacity = 5_000;
+        final SessionCartStore store = new SessionCartStore(capacity, Duration.ofMinutes(30));
+        final Thread[] threads = new Thread[4];
+        final Exception[] failure = new Exception[1];
+        for (int t = 0; t < threads.length; t++) {
+            final int thread = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    for (int user = 0; user < 250_000; user++) {
+                        store.get(thread + ":" + user % 20_000).getCartSize();
+                    }
+                } catch (final IOException e) {
+                    failure[0] = e;
+                }
+            });
+            threads[t].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertNull("no failure", failure[0]);
+        assertTrue("within capacity", store.getResidentCount() <= capacity);
+        assertEquals("counts", store.getCreatedCount(),
+                     store.getResidentCount() + store.getEvictedCount());
+    }
+
+    /**
+     * Threads sharing sessions while carts are spilled and reloaded lock
+     * each cart while they use it, and the counts add up.
+     */
+    @Test
+    public void testSpillConcurrent() throws Exception {
+        final int capacity = 50;
+        final SessionCartStore store = new SessionCartStore(capacity, Duration.ofMinutes(30),
+                                                            new CartCodec(myCatalog),
+                                                            myDirectory);
+        final Thread[] threads = new Thread[4];
+        final Exception[] failure = new Exception[1];
+        for (int t = 0; t < threads.length; t++) {
+            final int thread = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 5_000; i++) {
+                        final Cart cart = store.get("user" + (i * 7 + thread) % 200);
+                        synchronized (cart) {
+                            cart.add(new ItemOrder(myCatalog.get(i % myCatalog.size()),
+                                                   1 + i % 4));
+                            cart.calculateTotal();
+                        }
+                    }
+                } catch (final IOException e) {
+                    failure[0] = e;
+                }
+            });
+            threads[t].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertNull("no failure", failure[0]);
+        assertTrue("within capacity", store.getResidentCount() <= capacity);
+        assertEquals("counts", store.getCreatedCount() + store.getReloadedCount(),
+                     store.getResidentCount() + store.getEvictedCount());
+    }
+}
@@ -4,17 +4,24 @@
 
 package view;
 
+import io.InventoryWatcher;
 import java.awt.BorderLayout;
 import java.awt.Dimension;
+import java.awt.EventQueue;
 import java.awt.FlowLayout;
 import java.awt.GridLayout;
 import java.awt.Toolkit;
 import java.awt.event.FocusAdapter;
 import java.awt.event.FocusEvent;
+import java.io.IOException;
 import java.text.NumberFormat;
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletionException;
 import javax.swing.BorderFactory;
 import javax.swing.ButtonGroup;
 import javax.swing.ImageIcon;
@@ -22,13 +29,19 @@ import javax.swing.JButton;
 import javax.swing.JCheckBox;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JRadioButton;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import model.Cart;
+import model.Catalog;
+import model.InventoryDiff;
 import model.Item;
-import model.ItemOrder;
+import model.SearchIndex;
 import res.R;
 
 /**
@@ -52,15 +65,28 @@ public final class BookstoreFrame extends JFrame {
     /** The Dimension of the screen. */
     private static final Dimension SCREEN_SIZE = KIT.getScreenSize();
 
+    /** Milliseconds the search waits after the last keystroke before it runs. */
+    private static final int SEARCH_DELAY = 150;
+
+    /** The most item rows placed in the items panel at once. */
+    private static final int MAX_SHOWN_ROWS = 200;
+
     /**
      * The shopping cart used by this GUI.
      */
     private final Cart myItems;
     
     /**
-     * The map that stores each campus name and the campus's bookstore inventory.
+     * The campus inventories, which load campuses on demand and reload them
+     * when their files change.
      */
-    private final Map<String, List<Item>> myCampusInventories; 
+    private final InventoryWatcher myInventories;
+
+    /**
+     * The catalog that stores each loaded campus name and the campus's
+     * bookstore inventory; replaced when a campus is loaded or reloaded.
+     */
+    private Catalog myCatalog; 
 
     /**
      * The map that stores each campus name and the campus's bookstore inventory.
@@ -79,18 +105,30 @@ public final class BookstoreFrame extends JFrame {
     private JPanel myItemsPanel;
 
     /**
-     * A List of the item text fields.
+     * The rows of the items panel, in order, including rows hidden by the
+     * search.
+     */
+    private final List<ItemRow> myRows;
+
+    /**
+     * The text field used to find items; only matching items are shown.
      */
-    private final List<JTextField> myQuantities;
+    private final JTextField mySearch;
+
+    /**
+     * Runs the search once typing in the search field pauses.
+     */
+    private final Timer mySearchTimer;
     
     /**
-     * Initializes the bookstore GUI.
+     * Initializes the bookstore GUI. Campuses other than the one selected
+     * need not be loaded yet; they load in the background, or when chosen.
      * 
-     * @param theCampusInventories The list of items.
+     * @param theInventories The campus inventories.
      * @param theCurrentCampus The campus that is originally selected when 
      * the application starts. 
      */
-    public BookstoreFrame(final Map<String, List<Item>> theCampusInventories, 
+    public BookstoreFrame(final InventoryWatcher theInventories, 
                          final String theCurrentCampus) {
         // create frame and order list
         super(); // No title on the JFrame. We can set this later.
@@ -101,12 +139,18 @@ public final class BookstoreFrame extends JFrame {
         myTotal = new JTextField(R.Strings.BF_TEXTFIELD_TOTAL, 
                                  R.Dimensions.BF_TEXTFIELD_TOTAL);
         
-        myQuantities = new LinkedList<>();
+        myRows = new ArrayList<>();
+        mySearch = new JTextField(R.Dimensions.BF_TEXTFIELD_SEARCH);
+        mySearchTimer = new Timer(SEARCH_DELAY, theEvent -> showSearchResults());
+        mySearchTimer.setRepeats(false);
         
-        myCampusInventories = theCampusInventories;
+        myInventories = theInventories;
+        myCatalog = theInventories.getCatalog();
         myCurrentCampus = theCurrentCampus;
         
         setupGUI();
+        watchInventories();
+        myInventories.prefetch();
     }    
 
     /**
@@ -129,7 +173,11 @@ public final class BookstoreFrame extends JFrame {
         
         add(makeTotalPanel(), BorderLayout.NORTH);
         
-        myItemsPanel = makeItemsPanel(myCampusInventories.get(myCurrentCampus)); 
+        List<Item> items = myCatalog.getInventory(myCurrentCampus);
+        if (items == null) {
+            items = List.of();
+        }
+        myItemsPanel = makeItemsPanel(items); 
         add(myItemsPanel, BorderLayout.CENTER);
         
         add(makeCheckBoxPanel(), BorderLayout.SOUTH);
@@ -156,7 +204,7 @@ public final class BookstoreFrame extends JFrame {
         p.setBackground(R.Colors.HEADER_FOOTER_BG);
         
         final ButtonGroup g = new ButtonGroup();
-        for (final Object campus : myCampusInventories.keySet()) {
+        for (final Object campus : myInventories.getCampuses()) {
             final JRadioButton rb = new JRadioButton(campus.toString());
             rb.setForeground(R.Colors.HEADER_FOOTER_TEXT);
             rb.setBackground(R.Colors.HEADER_FOOTER_BG);
@@ -167,19 +215,19 @@ public final class BookstoreFrame extends JFrame {
             rb.addActionListener(ae -> {
                     myCurrentCampus = rb.getText();
                     
-                    //remove the old panel and add the new one
-                    remove(myItemsPanel);
-                    myItemsPanel = makeItemsPanel(myCampusInventories.get(myCurrentCampus));
-                    add(myItemsPanel, BorderLayout.CENTER);
+                    //show the campus's items, or load them first
+                    final List<Item> items = myCatalog.getInventory(myCurrentCampus);
+                    if (items == null) {
+                        showItemsPanel(makeLoadingPanel());
+                        loadCampus(myCurrentCampus);
+                    } else {
+                        showItemsPanel(makeItemsPanel(items));
+                    }
                     
                     //clear previous data from the ShppingCart and
                     //update the total in the GUI
                     myItems.clear();
                     updateTotal();
-                    
-                    //redraw the UI with the new panel
-                    pack();
-                    revalidate();
                 } 
             );
         } 
@@ -211,6 +259,7 @@ public final class BookstoreFrame extends JFrame {
         final JPanel p = new JPanel(new BorderLayout());
         p.add(makeCampusPanel(), BorderLayout.NORTH);
         p.add(totalPanel, BorderLayout.CENTER);
+        p.add(makeSearchPanel(), BorderLayout.SOUTH);
         
         return p;
     }
@@ -222,19 +271,180 @@ public final class BookstoreFrame extends JFrame {
      * @return The created panel
      */
     private JPanel makeItemsPanel(final List<Item> theItems) {
-        final JPanel p = new JPanel(new GridLayout(theItems.size(),
+        final JPanel p = new JPanel(new GridLayout(Math.min(theItems.size(), MAX_SHOWN_ROWS),
                                                    R.Dimensions.BF_ITEMS_COLS));
         p.setBorder(BorderFactory.
                     createEmptyBorder(R.Dimensions.V_PADDING, R.Dimensions.H_PADDING,
                                       R.Dimensions.V_PADDING, R.Dimensions.H_PADDING));
         p.setBackground(R.Colors.CONTENT_BG);
+        myRows.clear();
         for (final Item item : theItems) {
-            addItem(item, p);
+            myRows.add(new ItemRow(item));
         }
+        placeRows(p);
+
+        return p;
+    }
+
+    /**
+     * Creates a panel to hold the search field, which filters the items
+     * when the user pauses typing.
+     * 
+     * @return The created panel
+     */
+    private JPanel makeSearchPanel() {
+        final JPanel p = new JPanel();
+        p.setBackground(R.Colors.HEADER_FOOTER_BG);
+        final JLabel l = new JLabel(R.Strings.BF_LABEL_SEARCH);
+        l.setForeground(R.Colors.HEADER_FOOTER_TEXT);
+        p.add(l);
+        mySearch.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(final DocumentEvent theEvent) {
+                mySearchTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(final DocumentEvent theEvent) {
+                mySearchTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(final DocumentEvent theEvent) {
+                mySearchTimer.restart();
+            }
+        });
+        p.add(mySearch);
 
         return p;
     }
 
+    /**
+     * Shows the rows matching the search and redraws the items panel. The
+     * window keeps its size.
+     */
+    private void showSearchResults() {
+        placeRows(myItemsPanel);
+        myItemsPanel.revalidate();
+        myItemsPanel.repaint();
+    }
+
+    /**
+     * Makes a panel show the rows matching the search, in order, up to
+     * MAX_SHOWN_ROWS of them, so a broad search on a large inventory costs
+     * no more to redraw than a narrow one. Rows that are already in place
+     * are left alone. The panel keeps a grid row for every item it can
+     * show, so hidden rows leave space at the bottom instead of stretching
+     * the rows shown.
+     * 
+     * @param thePanel The items panel
+     */
+    private void placeRows(final JPanel thePanel) {
+        final List<ItemRow> shown = searchRows();
+        for (int i = 0; i < shown.size(); i++) {
+            final JPanel row = shown.get(i).myPanel;
+            if (i >= thePanel.getComponentCount() || thePanel.getComponent(i) != row) {
+                thePanel.add(row, i);
+            }
+        }
+        while (thePanel.getComponentCount() > shown.size()) {
+            thePanel.remove(shown.size());
+        }
+        ((GridLayout) thePanel.getLayout()).setRows(Math.min(myRows.size(),
+                                                             MAX_SHOWN_ROWS));
+    }
+
+    /**
+     * Returns the first MAX_SHOWN_ROWS rows whose items match the search,
+     * looked up in the current campus's search index.
+     * 
+     * @return The matching rows, in order
+     */
+    private List<ItemRow> searchRows() {
+        final String query = mySearch.getText().trim();
+        final SearchIndex index = myCatalog.getIndex(myCurrentCampus);
+        List<ItemRow> shown = myRows;
+        if (!query.isEmpty() && index != null && index.size() == myRows.size()) {
+            final int[] positions = index.findSubstring(query);
+            shown = new ArrayList<>();
+            for (int i = 0; i < positions.length && i < MAX_SHOWN_ROWS; i++) {
+                shown.add(myRows.get(positions[i]));
+            }
+        }
+        if (shown.size() > MAX_SHOWN_ROWS) {
+            shown = shown.subList(0, MAX_SHOWN_ROWS);
+        }
+        return shown;
+    }
+
+    /**
+     * Creates a panel to show while a campus loads.
+     * 
+     * @return The created panel
+     */
+    private JPanel makeLoadingPanel() {
+        final JPanel p = new JPanel(new GridLayout(1, R.Dimensions.BF_ITEMS_COLS));
+        p.setBorder(BorderFactory.
+                    createEmptyBorder(R.Dimensions.V_PADDING, R.Dimensions.H_PADDING,
+                                      R.Dimensions.V_PADDING, R.Dimensions.H_PADDING));
+        p.setBackground(R.Colors.CONTENT_BG);
+        myRows.clear();
+        final JLabel label = new JLabel(R.Strings.BF_LABEL_LOADING, SwingConstants.CENTER);
+        label.setForeground(R.Colors.HEADER_FOOTER_BG);
+        p.add(label);
+
+        return p;
+    }
+
+    /**
+     * Replaces the items panel and redraws the window.
+     * 
+     * @param thePanel The new items panel
+     */
+    private void showItemsPanel(final JPanel thePanel) {
+        remove(myItemsPanel);
+        myItemsPanel = thePanel;
+        add(myItemsPanel, BorderLayout.CENTER);
+        pack();
+        revalidate();
+    }
+
+    /**
+     * Loads a campus in the background. Its items are shown when the
+     * catalog that adds it arrives; a failure is reported here.
+     * 
+     * @param theCampus The campus
+     */
+    private void loadCampus(final String theCampus) {
+        myInventories.loadLater(theCampus).whenComplete((theUpdate, theError) -> {
+            if (theError != null) {
+                EventQueue.invokeLater(() -> reportLoadFailure(theCampus, theError));
+            }
+        });
+    }
+
+    /**
+     * Tells the user a campus could not be loaded, and shows it as empty if
+     * it is still selected. Choosing it again tries again.
+     * 
+     * @param theCampus The campus
+     * @param theError Why it could not be loaded
+     */
+    private void reportLoadFailure(final String theCampus, final Throwable theError) {
+        Throwable cause = theError;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        cause.printStackTrace();
+        if (theCampus.equals(myCurrentCampus)
+            && myCatalog.getInventory(theCampus) == null) {
+            showItemsPanel(makeItemsPanel(List.of()));
+        }
+        JOptionPane.showMessageDialog(this, R.Strings.ERROR_MSG_INVENTORY + '\n'
+                                            + theCampus + ": " + cause,
+                                      R.Strings.ERROR_MSG_TITLE, JOptionPane.ERROR_MESSAGE);
+    }
+
     /**
      * Creates and returns the checkbox panel.
      * 
@@ -247,8 +457,8 @@ public final class BookstoreFrame extends JFrame {
         final JButton clearButton = new JButton(R.Strings.BF_BUTTON_CLEAR);
         clearButton.addActionListener(theEvent -> {
             myItems.clear();
-            for (final JTextField field : myQuantities) {
-                field.setText("");
+            for (final ItemRow row : myRows) {
+                row.myQuantity.setText("");
             }
             updateTotal();
         });
@@ -267,29 +477,109 @@ public final class BookstoreFrame extends JFrame {
     }
 
     /**
-     * Adds the specified product to the specified panel.
+     * Starts reloading campus inventories when their files change. Loads
+     * and reloads are parsed on the inventories' threads and applied here
+     * on the event dispatch thread.
+     */
+    private void watchInventories() {
+        myInventories.addListener(
+            theUpdate -> EventQueue.invokeLater(() -> applyUpdate(theUpdate)));
+        try {
+            myInventories.start();
+        } catch (final IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Applies a loaded or reloaded campus inventory. A campus loaded while
+     * it is on display replaces the loading panel. For a reload of the
+     * campus on display, only the rows the reload affects are changed, and
+     * the cart re-prices only the lines of repriced or removed items. A
+     * reload that failed is reported and changes nothing.
      * 
-     * @param theItem The product to add.
-     * @param thePanel The panel to add the product to.
+     * @param theUpdate The load or reload.
      */
-    private void addItem(final Item theItem, final JPanel thePanel) {
-        final JPanel sub = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        sub.setBackground(R.Colors.CONTENT_BG);
-        final JTextField quantity = new JTextField(R.Dimensions.BF_TEXTFIELD_QUANITITY);
-        myQuantities.add(quantity);
-        quantity.setHorizontalAlignment(SwingConstants.CENTER);
-        quantity.addActionListener(theEvent -> quantity.transferFocus());
-        quantity.addFocusListener(new FocusAdapter() {
-            @Override
-            public void focusLost(final FocusEvent theEvent) {
-                updateItem(theItem, quantity);
+    private void applyUpdate(final InventoryWatcher.Update theUpdate) {
+        final String campus = theUpdate.getCampus();
+        final boolean loaded = myCatalog.getInventory(campus) != null;
+        if (theUpdate.getError() != null) {
+            reportLoadFailure(campus, theUpdate.getError());
+        } else {
+            applyCatalog(theUpdate, loaded);
+        }
+    }
+
+    /**
+     * Makes a successful update's catalog current and shows its changes.
+     * 
+     * @param theUpdate The load or reload.
+     * @param theLoaded Whether its campus was loaded before it.
+     */
+    private void applyCatalog(final InventoryWatcher.Update theUpdate,
+                              final boolean theLoaded) {
+        final String campus = theUpdate.getCampus();
+        myCatalog = theUpdate.getCatalog();
+        if (campus.equals(myCurrentCampus)) {
+            if (theLoaded) {
+                updateRows(theUpdate.getDiff());
+                if (myItems.applyDiff(theUpdate.getDiff())) {
+                    updateTotal();
+                }
+            } else {
+                showItemsPanel(makeItemsPanel(myCatalog.getInventory(campus)));
             }
-        });
-        sub.add(quantity);
-        final JLabel l = new JLabel(theItem.toString());
-        l.setForeground(R.Colors.HEADER_FOOTER_BG);
-        sub.add(l);
-        thePanel.add(sub);
+        }
+    }
+
+    /**
+     * Brings the items panel up to date with a reloaded inventory: rows of
+     * removed items are taken out, rows of repriced items are relabeled in
+     * place, rows are made for added items, and the rest are left alone.
+     * 
+     * @param theDiff The changes made by the reload.
+     */
+    private void updateRows(final InventoryDiff theDiff) {
+        final Map<Item, Queue<ItemRow>> rows = new IdentityHashMap<>();
+        for (final ItemRow row : myRows) {
+            rows.computeIfAbsent(row.myItem, theItem -> new ArrayDeque<>()).add(row);
+        }
+        for (final Map.Entry<Item, Item> entry : theDiff.getRepriced().entrySet()) {
+            final ItemRow row = takeRow(rows, entry.getKey());
+            if (row != null) {
+                row.setItem(entry.getValue());
+                rows.computeIfAbsent(row.myItem, theItem -> new ArrayDeque<>()).add(row);
+            }
+        }
+        myRows.clear();
+        for (final Item item : theDiff.getItems()) {
+            ItemRow row = takeRow(rows, item);
+            if (row == null) {
+                row = new ItemRow(item);
+            }
+            myRows.add(row);
+        }
+        placeRows(myItemsPanel);
+        pack();
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Takes the next row showing an item.
+     * 
+     * @param theRows The rows, by item.
+     * @param theItem The item.
+     * @return The row, or null if no row shows the item.
+     */
+    private static ItemRow takeRow(final Map<Item, Queue<ItemRow>> theRows,
+                                   final Item theItem) {
+        final Queue<ItemRow> rows = theRows.get(theItem);
+        ItemRow row = null;
+        if (rows != null) {
+            row = rows.poll();
+        }
+        return row;
     }
 
     /**
@@ -312,8 +602,9 @@ public final class BookstoreFrame extends JFrame {
             number = 0;
             theQuantity.setText("");
         }
-        myItems.add(new ItemOrder(theItem, number));
-        updateTotal();
+        if (myItems.setQuantity(theItem, number)) {
+            updateTotal();
+        }
     }
 
     /**
@@ -323,6 +614,59 @@ public final class BookstoreFrame extends JFrame {
         final double total = myItems.calculateTotal().doubleValue();
         myTotal.setText(NumberFormat.getCurrencyInstance().format(total));
     }
+
+    /**
+     * A row of the items panel: a quantity field and the label of the item
+     * it orders. A reload can move the row to a repriced item.
+     */
+    private final class ItemRow {
+
+        /** The row's panel. */
+        private final JPanel myPanel;
+
+        /** The quantity text field. */
+        private final JTextField myQuantity;
+
+        /** The item's label. */
+        private final JLabel myLabel;
+
+        /** The item the row orders. */
+        private Item myItem;
+
+        /**
+         * Creates the row for a product.
+         * 
+         * @param theItem The product.
+         */
+        ItemRow(final Item theItem) {
+            myItem = theItem;
+            myPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+            myPanel.setBackground(R.Colors.CONTENT_BG);
+            myQuantity = new JTextField(R.Dimensions.BF_TEXTFIELD_QUANITITY);
+            myQuantity.setHorizontalAlignment(SwingConstants.CENTER);
+            myQuantity.addActionListener(theEvent -> myQuantity.transferFocus());
+            myQuantity.addFocusListener(new FocusAdapter() {
+                @Override
+                public void focusLost(final FocusEvent theEvent) {
+                    updateItem(myItem, myQuantity);
+                }
+            });
+            myPanel.add(myQuantity);
+            myLabel = new JLabel(theItem.toString());
+            myLabel.setForeground(R.Colors.HEADER_FOOTER_BG);
+            myPanel.add(myLabel);
+        }
+
+        /**
+         * Moves the row to another item and relabels it.
+         * 
+         * @param theItem The item.
+         */
+        void setItem(final Item theItem) {
+            myItem = theItem;
+            myLabel.setText(theItem.toString());
+        }
+    }
 }
 
 // end of class BookstoreFrame
@@ -3,6 +3,8 @@ package view;
 
 import io.CredentialingLoader;
 import io.InventoryLoader;
+import io.InventoryWatcher;
+import io.SkuTable;
 import java.awt.BorderLayout;
 import java.awt.Cursor;
 import java.awt.Dimension;
@@ -11,10 +13,11 @@ import java.awt.FlowLayout;
 import java.awt.GridLayout;
 import java.awt.Toolkit;
 import java.awt.event.ActionEvent;
-import java.util.HashMap;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ExecutionException;
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
@@ -26,7 +29,8 @@ import javax.swing.JPanel;
 import javax.swing.JPasswordField;
 import javax.swing.JTextField;
 import javax.swing.SwingWorker;
-import model.Item;
+import model.Catalog;
+import model.ItemRegistry;
 import res.R;
 
 
@@ -402,10 +406,13 @@ public class LoginFrame extends JFrame {
      * 
      * @author Charles Bryan
      */
-    private class LoadInventoryWorker extends SwingWorker<Map<String, List<Item>>, Integer> {
+    private class LoadInventoryWorker extends SwingWorker<InventoryWatcher, Integer> {
 
         /** The campus of the user logging in. */
         private final String myCampus;
+
+        /** The exception of each campus whose inventory could not be loaded. */
+        private final Map<String, Exception> myFailures;
         
         /**
          * Creates a worked to load the inventory file. 
@@ -414,23 +421,48 @@ public class LoginFrame extends JFrame {
         LoadInventoryWorker(final String theCampus) {
             super();
             myCampus = theCampus;
+            myFailures = new TreeMap<>();
         }
         
+        /**
+         * Loads only the user's campus; the storefront loads the others
+         * later, so logging in waits on one file.
+         */
         @Override
-        public Map<String, List<Item>> doInBackground() {
-            final Map<String, List<Item>> inventories = new HashMap<>();
+        public InventoryWatcher doInBackground() {
             final List<String> campusNames =
                 InventoryLoader.readConfigurationFromFile(R.Strings.IO_FILE_LOCATION
                                                                  + R.Strings.IO_CONFIG_FILE);
-            for (final String campusName : campusNames) {
-                inventories.put(campusName, InventoryLoader.
-                                readItemsFromFile(R.Strings.IO_FILE_LOCATION
-                                                   + campusName.toLowerCase(Locale.ENGLISH)
-                                                   + R.Strings.IO_FILE_EXTENSION));
+            final InventoryWatcher inventories =
+                new InventoryWatcher(R.Strings.IO_FILE_LOCATION, campusNames,
+                                     new Catalog(Map.of()), openRegistry());
+            try {
+                inventories.load(myCampus);
+            } catch (final IOException | IllegalArgumentException e) {
+                myFailures.put(myCampus, e);
             }
             return inventories;
         }
 
+        /**
+         * Makes the registry for the storefront's items, giving each item the
+         * SKU recorded for it in the SKU table. If the table cannot be read,
+         * SKUs are given in the order items are seen, as before there was one.
+         * The registry is the watcher's own, since it drops superseded items.
+         * @return the registry
+         */
+        private ItemRegistry openRegistry() {
+            ItemRegistry registry;
+            try {
+                registry = new ItemRegistry(SkuTable.open(
+                    Paths.get(R.Strings.IO_FILE_LOCATION + R.Strings.IO_SKU_FILE)));
+            } catch (final IOException e) {
+                e.printStackTrace();
+                registry = new ItemRegistry();
+            }
+            return registry;
+        }
+
         @Override
         public void done() {
             LoginFrame.this.setCursor(Cursor.getDefaultCursor());
@@ -442,6 +474,7 @@ public class LoginFrame extends JFrame {
                     try {
                         new BookstoreFrame(get(), myCampus);
                         LoginFrame.this.dispose();
+                        reportFailures();
                     } catch (final InterruptedException ex1) {
                         ex1.printStackTrace();
                     } catch (final ExecutionException ex2) {
@@ -451,5 +484,23 @@ public class LoginFrame extends JFrame {
                 }
             });
         }
+
+        /**
+         * Tells the user which campus inventories could not be loaded.
+         */
+        private void reportFailures() {
+            if (!myFailures.isEmpty()) {
+                final StringBuilder message =
+                                new StringBuilder(R.Strings.ERROR_MSG_INVENTORY);
+                for (final Map.Entry<String, Exception> failure : myFailures.entrySet()) {
+                    failure.getValue().printStackTrace();
+                    message.append('\n').append(failure.getKey()).append(": ")
+                           .append(failure.getValue());
+                }
+                JOptionPane.showMessageDialog(null, message.toString(),
+                                              R.Strings.ERROR_MSG_TITLE,
+                                              JOptionPane.ERROR_MESSAGE);
+            }
+        }
     }
 }